@@ -0,0 +1,47 @@
+// 对比 session 与 token 两种认证模式的吞吐量
+//
+// 分别以 user-center.auth.mode=session 和 user-center.auth.mode=token 启动应用后运行：
+//   k6 run -e MODE=session -e ACCOUNT=benchuser -e PASSWORD=password123 bench/k6/auth_modes.js
+//   k6 run -e MODE=token   -e ACCOUNT=benchuser -e PASSWORD=password123 bench/k6/auth_modes.js
+// 可选：-e BASE_URL=http://localhost:8080/user-center -e VUS=50 -e DURATION=60s
+//
+// 每个虚拟用户登录一次，随后循环请求 /api/users/current；
+// 比较两次运行的 http_reqs（吞吐量）与 http_req_duration（延迟分位数）。
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080/user-center';
+const MODE = __ENV.MODE || 'session';
+const ACCOUNT = __ENV.ACCOUNT || 'benchuser';
+const PASSWORD = __ENV.PASSWORD || 'password123';
+
+export const options = {
+    vus: Number(__ENV.VUS || 50),
+    duration: __ENV.DURATION || '60s',
+    tags: { mode: MODE },
+    thresholds: {
+        checks: ['rate>0.99'],
+    },
+};
+
+let authHeaders = null;
+
+function login() {
+    const res = http.post(`${BASE_URL}/api/users/login`, { account: ACCOUNT, password: PASSWORD },
+        { tags: { name: 'login' } });
+    check(res, { 'login ok': (r) => r.status === 200 });
+    if (MODE === 'token') {
+        const accessToken = res.json('data.accessToken');
+        return { Authorization: `Bearer ${accessToken}` };
+    }
+    // session 模式依赖 k6 每个虚拟用户自带的 cookie jar 携带 SESSION cookie
+    return {};
+}
+
+export default function () {
+    if (authHeaders === null) {
+        authHeaders = login();
+    }
+    const res = http.get(`${BASE_URL}/api/users/current`, { headers: authHeaders, tags: { name: 'current' } });
+    check(res, { 'current ok': (r) => r.status === 200 });
+}
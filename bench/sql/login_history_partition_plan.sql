@@ -0,0 +1,109 @@
+-- login_history 分区前后执行计划对比（对应 V7__partition_login_history_by_month.sql）
+--
+-- 在独立的测试库中执行，不会修改 login_history 表：
+--   mysql -u root -p user_bench < bench/sql/login_history_partition_plan.sql
+--
+-- bench_login_history_before 与 V3 迁移后的 login_history 表结构一致（不分区），
+-- bench_login_history_after 按 V7 改为 (id, login_time) 主键并按月分区，为了结果可复现使用固定月份
+-- 2024-10 ~ 2026-09 共 24 个分区。两张表灌入相同的 500 万行数据，
+-- 对按时间范围的管理员查询执行 EXPLAIN ANALYZE（关注 partitions 列），并对比逐行 DELETE 与 DROP PARTITION 清理过期数据。
+
+DROP TABLE IF EXISTS bench_login_history_before;
+DROP TABLE IF EXISTS bench_login_history_after;
+
+CREATE TABLE bench_login_history_before
+(
+    id           BIGINT       NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    user_id      BIGINT       NOT NULL,
+    account      VARCHAR(256) NOT NULL,
+    login_time   DATETIME     DEFAULT CURRENT_TIMESTAMP,
+    ip_address   VARCHAR(50)  NULL,
+    user_agent   VARCHAR(500) NULL,
+    login_status TINYINT      DEFAULT 0,
+    fail_reason  VARCHAR(256) NULL,
+    INDEX idx_user_id (user_id),
+    INDEX idx_login_time (login_time)
+);
+
+-- 灌入 500 万行：10 万个用户，约 5% 登录失败，登录时间均匀分布在 2024-10-01 ~ 2026-09-30
+INSERT INTO bench_login_history_before (user_id, account, login_time, ip_address, user_agent, login_status, fail_reason)
+WITH RECURSIVE digits(n) AS (SELECT 0 UNION ALL SELECT n + 1 FROM digits WHERE n < 999)
+SELECT seq % 100000,
+       CONCAT('account', seq % 100000),
+       TIMESTAMP('2024-10-01') + INTERVAL (seq % 730) DAY + INTERVAL (seq % 86400) SECOND,
+       CONCAT('10.0.', seq % 256, '.', seq % 250),
+       'Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36',
+       IF(seq % 20 = 0, 1, 0),
+       IF(seq % 20 = 0, '密码错误', NULL)
+FROM (SELECT a.n * 1000000 + b.n * 1000 + c.n AS seq
+      FROM digits a, digits b, digits c
+      WHERE a.n < 5) s;
+
+CREATE TABLE bench_login_history_after LIKE bench_login_history_before;
+ALTER TABLE bench_login_history_after
+    MODIFY login_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, login_time);
+ALTER TABLE bench_login_history_after
+    PARTITION BY RANGE COLUMNS (login_time) (
+        PARTITION p202410 VALUES LESS THAN ('2024-11-01'),
+        PARTITION p202411 VALUES LESS THAN ('2024-12-01'),
+        PARTITION p202412 VALUES LESS THAN ('2025-01-01'),
+        PARTITION p202501 VALUES LESS THAN ('2025-02-01'),
+        PARTITION p202502 VALUES LESS THAN ('2025-03-01'),
+        PARTITION p202503 VALUES LESS THAN ('2025-04-01'),
+        PARTITION p202504 VALUES LESS THAN ('2025-05-01'),
+        PARTITION p202505 VALUES LESS THAN ('2025-06-01'),
+        PARTITION p202506 VALUES LESS THAN ('2025-07-01'),
+        PARTITION p202507 VALUES LESS THAN ('2025-08-01'),
+        PARTITION p202508 VALUES LESS THAN ('2025-09-01'),
+        PARTITION p202509 VALUES LESS THAN ('2025-10-01'),
+        PARTITION p202510 VALUES LESS THAN ('2025-11-01'),
+        PARTITION p202511 VALUES LESS THAN ('2025-12-01'),
+        PARTITION p202512 VALUES LESS THAN ('2026-01-01'),
+        PARTITION p202601 VALUES LESS THAN ('2026-02-01'),
+        PARTITION p202602 VALUES LESS THAN ('2026-03-01'),
+        PARTITION p202603 VALUES LESS THAN ('2026-04-01'),
+        PARTITION p202604 VALUES LESS THAN ('2026-05-01'),
+        PARTITION p202605 VALUES LESS THAN ('2026-06-01'),
+        PARTITION p202606 VALUES LESS THAN ('2026-07-01'),
+        PARTITION p202607 VALUES LESS THAN ('2026-08-01'),
+        PARTITION p202608 VALUES LESS THAN ('2026-09-01'),
+        PARTITION p202609 VALUES LESS THAN ('2026-10-01'),
+        PARTITION p_future VALUES LESS THAN (MAXVALUE)
+    );
+INSERT INTO bench_login_history_after SELECT * FROM bench_login_history_before;
+
+ANALYZE TABLE bench_login_history_before, bench_login_history_after;
+
+-- 1. 管理员按时间范围条件查询（LoginHistoryService.queryLoginHistory），after 只访问 p202609
+EXPLAIN SELECT * FROM bench_login_history_after
+WHERE login_time >= '2026-09-01' AND login_time <= '2026-09-30 23:59:59' AND login_status = 1
+ORDER BY login_time DESC LIMIT 0, 20;
+EXPLAIN ANALYZE SELECT * FROM bench_login_history_before
+WHERE login_time >= '2026-09-01' AND login_time <= '2026-09-30 23:59:59' AND login_status = 1
+ORDER BY login_time DESC LIMIT 0, 20;
+EXPLAIN ANALYZE SELECT * FROM bench_login_history_after
+WHERE login_time >= '2026-09-01' AND login_time <= '2026-09-30 23:59:59' AND login_status = 1
+ORDER BY login_time DESC LIMIT 0, 20;
+
+-- 2. 按用户 + 时间范围查询，after 只访问 p202607 ~ p202609
+EXPLAIN ANALYZE SELECT COUNT(*) FROM bench_login_history_before
+WHERE user_id = 4242 AND login_time >= '2026-07-01';
+EXPLAIN ANALYZE SELECT COUNT(*) FROM bench_login_history_after
+WHERE user_id = 4242 AND login_time >= '2026-07-01';
+
+-- 3. 按时间范围导出（LoginHistoryService.exportLoginHistory）
+EXPLAIN ANALYZE SELECT COUNT(*) FROM bench_login_history_before
+WHERE login_time >= '2026-08-01' AND login_time < '2026-10-01';
+EXPLAIN ANALYZE SELECT COUNT(*) FROM bench_login_history_after
+WHERE login_time >= '2026-08-01' AND login_time < '2026-10-01';
+
+-- 4. 清理 2024-10 一个月的数据：逐行 DELETE（RetentionPurgeJob 的做法，此处一次删完）与 DROP PARTITION
+SET profiling = 1;
+DELETE FROM bench_login_history_before WHERE login_time < '2024-11-01';
+ALTER TABLE bench_login_history_after DROP PARTITION p202410;
+SHOW PROFILES;
+SET profiling = 0;
+SELECT COUNT(*) FROM bench_login_history_before WHERE login_time < '2024-11-01';
+SELECT COUNT(*) FROM bench_login_history_after WHERE login_time < '2024-11-01';
@@ -0,0 +1,89 @@
+-- user 表索引前后执行计划对比（对应 V5__add_user_lookup_indexes.sql）
+--
+-- 在独立的测试库中执行，不会修改 user 表：
+--   mysql -u root -p user_bench < bench/sql/user_index_plan.sql
+--
+-- bench_user_before 与 V1 + V2 迁移后的 user 表结构一致（无索引），
+-- bench_user_after 在此基础上加上 V5 的索引，两张表灌入相同的 300 万行数据，
+-- 对注册查重、登录查询和管理员分页查询分别执行 EXPLAIN ANALYZE。
+
+DROP TABLE IF EXISTS bench_user_before;
+DROP TABLE IF EXISTS bench_user_after;
+
+CREATE TABLE bench_user_before
+(
+    id          BIGINT       NOT NULL auto_increment primary key,
+    username    VARCHAR(256) NULL,
+    account     VARCHAR(256) NULL,
+    avatar_url  VARCHAR(256) NULL,
+    gender      TINYINT      NULL,
+    password    varchar(256) NOT NULL,
+    phone       VARCHAR(50)  NULL,
+    email       VARCHAR(50)  NULL,
+    status      int      default 0,
+    create_time datetime DEFAULT CURRENT_TIMESTAMP,
+    update_time datetime DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    deleted     tinyint  DEFAULT 0,
+    role        int      default 0 not null
+);
+
+-- 灌入 300 万行：约 1% 逻辑删除、2% 禁用、1% 管理员，创建时间分布在最近三年
+INSERT INTO bench_user_before (username, account, gender, password, phone, email, status, create_time, deleted, role)
+WITH RECURSIVE digits(n) AS (SELECT 0 UNION ALL SELECT n + 1 FROM digits WHERE n < 999)
+SELECT CONCAT('user', seq),
+       CONCAT('account', seq),
+       seq % 3,
+       '$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3/EzdRlJrRU1Un0H/ux.A1.',
+       CONCAT('13', LPAD(seq, 9, '0')),
+       CONCAT('user', seq, '@example.com'),
+       IF(seq % 50 = 0, 1, 0),
+       NOW() - INTERVAL (seq % 1095) DAY - INTERVAL (seq % 86400) SECOND,
+       IF(seq % 100 = 0, 1, 0),
+       IF(seq % 100 = 1, 1, 0)
+FROM (SELECT a.n * 1000000 + b.n * 1000 + c.n AS seq
+      FROM digits a, digits b, digits c
+      WHERE a.n < 3) s;
+
+CREATE TABLE bench_user_after LIKE bench_user_before;
+ALTER TABLE bench_user_after
+    ADD UNIQUE INDEX uk_user_account ((IF(deleted = 0, account, NULL))),
+    ADD UNIQUE INDEX uk_user_phone ((IF(deleted = 0, phone, NULL))),
+    ADD UNIQUE INDEX uk_user_email ((IF(deleted = 0, email, NULL))),
+    ADD INDEX idx_account_deleted (account, deleted),
+    ADD INDEX idx_phone_deleted (phone, deleted),
+    ADD INDEX idx_email_deleted (email, deleted),
+    ADD INDEX idx_deleted_create_time (deleted, create_time),
+    ADD INDEX idx_role_create_time (role, deleted, create_time),
+    ADD INDEX idx_status_create_time (status, deleted, create_time),
+    ADD INDEX idx_gender_create_time (gender, deleted, create_time);
+INSERT INTO bench_user_after SELECT * FROM bench_user_before;
+
+ANALYZE TABLE bench_user_before, bench_user_after;
+
+-- 1. 注册查重（UserAuthService.register）
+EXPLAIN ANALYZE SELECT COUNT(*) FROM bench_user_before WHERE account = 'account2500000' AND deleted = 0;
+EXPLAIN ANALYZE SELECT COUNT(*) FROM bench_user_after WHERE account = 'account2500000' AND deleted = 0;
+EXPLAIN ANALYZE SELECT COUNT(*) FROM bench_user_before WHERE phone = '13002500000' AND deleted = 0;
+EXPLAIN ANALYZE SELECT COUNT(*) FROM bench_user_after WHERE phone = '13002500000' AND deleted = 0;
+EXPLAIN ANALYZE SELECT COUNT(*) FROM bench_user_before WHERE email = 'user2500000@example.com' AND deleted = 0;
+EXPLAIN ANALYZE SELECT COUNT(*) FROM bench_user_after WHERE email = 'user2500000@example.com' AND deleted = 0;
+
+-- 2. 登录 / 个人资料按账号查询（CustomUserDetailService、UserProfileService.getUserByAccount）
+EXPLAIN ANALYZE SELECT * FROM bench_user_before WHERE account = 'account2500000' AND deleted = 0;
+EXPLAIN ANALYZE SELECT * FROM bench_user_after WHERE account = 'account2500000' AND deleted = 0;
+
+-- 3. 管理员分页查询（UserManageService.queryUserPage）
+EXPLAIN ANALYZE SELECT * FROM bench_user_before WHERE deleted = 0 ORDER BY create_time DESC LIMIT 0, 10;
+EXPLAIN ANALYZE SELECT * FROM bench_user_after WHERE deleted = 0 ORDER BY create_time DESC LIMIT 0, 10;
+EXPLAIN ANALYZE SELECT * FROM bench_user_before WHERE deleted = 0 AND role = 1 ORDER BY create_time DESC LIMIT 0, 10;
+EXPLAIN ANALYZE SELECT * FROM bench_user_after WHERE deleted = 0 AND role = 1 ORDER BY create_time DESC LIMIT 0, 10;
+EXPLAIN ANALYZE SELECT * FROM bench_user_before WHERE deleted = 0 AND status = 1 ORDER BY create_time DESC LIMIT 0, 10;
+EXPLAIN ANALYZE SELECT * FROM bench_user_after WHERE deleted = 0 AND status = 1 ORDER BY create_time DESC LIMIT 0, 10;
+EXPLAIN ANALYZE SELECT * FROM bench_user_before WHERE deleted = 0 AND gender = 2 ORDER BY create_time DESC LIMIT 0, 10;
+EXPLAIN ANALYZE SELECT * FROM bench_user_after WHERE deleted = 0 AND gender = 2 ORDER BY create_time DESC LIMIT 0, 10;
+
+-- 4. 唯一约束：未删除的重复账号被拒绝，已删除账号可重新注册
+UPDATE bench_user_after SET deleted = 1 WHERE account = 'account1';
+INSERT INTO bench_user_after (account, password) VALUES ('account1', 'x');
+-- 预期失败：Duplicate entry 'account2' for key 'bench_user_after.uk_user_account'
+INSERT INTO bench_user_after (account, password) VALUES ('account2', 'x');
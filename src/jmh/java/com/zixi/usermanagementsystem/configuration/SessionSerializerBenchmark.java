@@ -0,0 +1,63 @@
+package com.zixi.usermanagementsystem.configuration;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import com.zixi.usermanagementsystem.security.CompactSessionSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Session 序列化基准：springSessionDefaultRedisSerializer 对登录后 SecurityContext 的序列化与反序列化
+ * mode 对比原有 JSON 格式与紧凑二进制格式，两种格式的字节数由 CompactSessionSerializerTest 校验
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SessionSerializerBenchmark {
+
+    @Param({"json", "compact"})
+    private String mode;
+
+    private RedisSerializer<Object> serializer;
+
+    private SecurityContextImpl securityContext;
+
+    private byte[] serializedContext;
+
+    @Setup
+    public void setUp() {
+        serializer = new CompactSessionSerializer(RedisSessionConfig.jsonSessionSerializer(), "compact".equals(mode));
+
+        List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_USER"));
+        User principal = new User("benchmark_user", "", authorities);
+        UsernamePasswordAuthenticationToken authentication =
+                UsernamePasswordAuthenticationToken.authenticated(principal, null, authorities);
+        authentication.setDetails(new WebAuthenticationDetails("192.168.1.100", "5f0c3a51-6c1e-4f47-9a3e-2b8f0a7e9d11"));
+        securityContext = new SecurityContextImpl(authentication);
+
+        serializedContext = serializer.serialize(securityContext);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(securityContext);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return serializer.deserialize(serializedContext);
+    }
+}
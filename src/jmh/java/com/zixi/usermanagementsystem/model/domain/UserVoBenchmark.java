@@ -0,0 +1,47 @@
+package com.zixi.usermanagementsystem.model.domain;
+
+import com.zixi.usermanagementsystem.constant.UserRoleEnum;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * User.buildUserVO 映射基准
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UserVoBenchmark {
+
+    private User user;
+
+    @Setup
+    public void setUp() {
+        user = new User();
+        user.setId(10001L);
+        user.setUsername("测试用户");
+        user.setAccount("benchmark_user");
+        user.setAvatarUrl("https://example.com/avatar.png");
+        user.setGender(1);
+        user.setPassword("$2a$10$abcdefghijklmnopqrstuuN5p1VQw1hU0pdPq8i0V6b2c5QyO4Bq");
+        user.setPhone("13800138000");
+        user.setEmail("benchmark@example.com");
+        user.setStatus(0);
+        user.setCreateTime(LocalDateTime.now());
+        user.setUpdateTime(LocalDateTime.now());
+        user.setDeleted(0);
+        user.setRole(UserRoleEnum.USER);
+    }
+
+    @Benchmark
+    public User buildUserVO() {
+        return user.buildUserVO();
+    }
+}
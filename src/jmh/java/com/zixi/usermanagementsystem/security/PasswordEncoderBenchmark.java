@@ -0,0 +1,46 @@
+package com.zixi.usermanagementsystem.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 密码哈希基准：不同 BCrypt cost 下的加密与校验耗时
+ * 10 为 user-center.password-hashing.strength 的默认 cost
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PasswordEncoderBenchmark {
+
+    @Param({"4", "8", "10", "12"})
+    private int strength;
+
+    private BCryptPasswordEncoder passwordEncoder;
+
+    private String encodedPassword;
+
+    @Setup
+    public void setUp() {
+        passwordEncoder = new BCryptPasswordEncoder(strength);
+        encodedPassword = passwordEncoder.encode("P@ssw0rd123");
+    }
+
+    @Benchmark
+    public String encode() {
+        return passwordEncoder.encode("P@ssw0rd123");
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return passwordEncoder.matches("P@ssw0rd123", encodedPassword);
+    }
+}
@@ -0,0 +1,51 @@
+package com.zixi.usermanagementsystem.service;
+
+import com.zixi.usermanagementsystem.exception.BusinessException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 验证码生成与手机号/邮箱格式校验基准
+ * target 覆盖手机号、邮箱和非法输入（非法输入会抛出 BusinessException）
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class VerificationCodeBenchmark {
+
+    @Param({"13800138000", "benchmark.user@example.com", "not-a-target"})
+    private String target;
+
+    private final VerificationCodeService verificationCodeService = new VerificationCodeService();
+
+    @Benchmark
+    public String generateCode() {
+        return verificationCodeService.generateCode();
+    }
+
+    @Benchmark
+    public String validateTarget() {
+        try {
+            return verificationCodeService.validateTarget(target);
+        } catch (BusinessException e) {
+            return null;
+        }
+    }
+
+    @Benchmark
+    public boolean registerPhonePattern() {
+        return UserAuthService.PHONE_PATTERN.matcher(target).matches();
+    }
+
+    @Benchmark
+    public boolean registerEmailPattern() {
+        return UserAuthService.EMAIL_PATTERN.matcher(target).matches();
+    }
+}
@@ -0,0 +1,77 @@
+package com.zixi.usermanagementsystem.service;
+
+import com.zixi.usermanagementsystem.UserManagementSystemApplication;
+import com.zixi.usermanagementsystem.mapper.VerificationCodeMapper;
+import com.zixi.usermanagementsystem.model.domain.VerificationCode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 验证码存储基准：Redis 与 MySQL（verification_code 表）实现对比
+ * 每次操作执行一次完整的 发送频率检查 -> 保存 -> 校验消费 流程
+ * 依赖 application.yml 中配置的 MySQL 与 Redis，请使用独立的测试库运行：
+ * ./gradlew jmh -PjmhIncludes=VerificationCodeStoreBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+public class VerificationCodeStoreBenchmark {
+
+    private static final Duration SEND_INTERVAL = Duration.ofSeconds(60);
+
+    private static final Duration CODE_EXPIRE = Duration.ofMinutes(5);
+
+    @Param({"redis", "mysql"})
+    private String store;
+
+    private ConfigurableApplicationContext context;
+
+    private VerificationCodeStore verificationCodeStore;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(UserManagementSystemApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("user-center.verification-code.store=" + store)
+                .run();
+        // 两种实现均通过构造器创建，避免依赖条件装配的具体 Bean
+        verificationCodeStore = "redis".equals(store)
+                ? new RedisVerificationCodeStore(context.getBean(StringRedisTemplate.class))
+                : new MysqlVerificationCodeStore(context.getBean(VerificationCodeMapper.class));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean sendAndConsume() {
+        String target = "bench-" + System.nanoTime() + "-" + sequence.incrementAndGet() + "@example.com";
+        String purpose = VerificationCode.PURPOSE_REGISTER;
+        if (!verificationCodeStore.tryAcquireSendPermit(target, purpose, SEND_INTERVAL)) {
+            return false;
+        }
+        verificationCodeStore.save(target, VerificationCode.TARGET_TYPE_EMAIL, purpose, "123456", CODE_EXPIRE);
+        return verificationCodeStore.consume(target, purpose, "123456");
+    }
+}
@@ -3,9 +3,11 @@ package com.zixi.usermanagementsystem;
 import org.mybatis.spring.annotation.MapperScan;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @MapperScan("com.zixi.usermanagementsystem.mapper")
+@EnableScheduling
 public class UserManagementSystemApplication {
 
     public static void main(String[] args) {
@@ -12,7 +12,9 @@ public enum ErrorCode {
     NULL_ERROR(40001, "request param is null"),
     NO_LOGIN(40100, "no login"),
     NO_PERMISSION(40101, "no permission"),
+    TOO_MANY_REQUESTS(42900, "too many requests"),
     OPERATION_ERROR(50001, "operation error"),
+    SERVICE_BUSY(50300, "service busy"),
     SYSTEM_ERROR(50000, "");
 
     private final int code;
@@ -0,0 +1,104 @@
+package com.zixi.usermanagementsystem.common;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.zixi.usermanagementsystem.exception.BusinessException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 游标分页的游标
+ * 由排序时间和主键 ID 组成，对客户端是不透明的字符串。
+ * 查询按 (时间 DESC, id DESC) 排序，下一页从游标位置之后通过索引范围定位，无需 OFFSET。
+ * 排序时间可以为空（如历史数据的 create_time）：MySQL 降序时空值排在最后，空值记录之间按 id 翻页。
+ */
+@Getter
+@AllArgsConstructor
+public class PageCursor {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * 上一页最后一条记录的排序时间，可以为空
+     */
+    private final LocalDateTime time;
+
+    /**
+     * 上一页最后一条记录的ID
+     */
+    private final Long id;
+
+    /**
+     * 编码为客户端使用的游标字符串
+     * @return 游标字符串
+     */
+    public String encode() {
+        String raw = (time == null ? "" : time.toString()) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析客户端传入的游标字符串
+     * @param cursor 游标字符串
+     * @return 游标
+     */
+    public static PageCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int index = raw.lastIndexOf(SEPARATOR);
+            String time = raw.substring(0, index);
+            return new PageCursor(time.isEmpty() ? null : LocalDateTime.parse(time), Long.parseLong(raw.substring(index + 1)));
+        } catch (RuntimeException e) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "分页游标格式不正确");
+        }
+    }
+
+    /**
+     * 为查询追加游标定位条件、排序和 LIMIT（多取一条用于判断是否还有下一页）
+     * 游标时间非空时：时间更早、时间相同且 id 更小、或时间为空的记录；游标时间为空时：时间为空且 id 更小的记录
+     * @param queryWrapper 查询条件
+     * @param timeColumn 排序时间列
+     * @param cursor 游标字符串，为空时查询第一页
+     * @param pageSize 每页数量
+     */
+    public static <T> void seek(QueryWrapper<T> queryWrapper, String timeColumn, String cursor, long pageSize) {
+        if (cursor != null && !cursor.isEmpty()) {
+            PageCursor pageCursor = decode(cursor);
+            if (pageCursor.getTime() == null) {
+                queryWrapper.and(w -> w.isNull(timeColumn).lt("id", pageCursor.getId()));
+            } else {
+                queryWrapper.and(w -> w.lt(timeColumn, pageCursor.getTime())
+                        .or(o -> o.eq(timeColumn, pageCursor.getTime()).lt("id", pageCursor.getId()))
+                        .or().isNull(timeColumn));
+            }
+        }
+        queryWrapper.orderByDesc(timeColumn).orderByDesc("id");
+        queryWrapper.last("LIMIT " + (pageSize + 1));
+    }
+
+    /**
+     * 根据多取一条的查询结果构建游标分页结果
+     * @param rows 查询结果（最多 pageSize + 1 条）
+     * @param pageSize 每页数量
+     * @param total 总数，跳过统计时为 null
+     * @param timeGetter 排序时间
+     * @param idGetter 主键ID
+     * @return 分页结果
+     */
+    public static <T> PageResult<T> toPageResult(List<T> rows, long pageSize, Long total,
+                                                 Function<T, LocalDateTime> timeGetter, Function<T, Long> idGetter) {
+        String nextCursor = null;
+        List<T> records = rows;
+        if (rows.size() > pageSize) {
+            records = rows.subList(0, (int) pageSize);
+            T last = records.get(records.size() - 1);
+            nextCursor = new PageCursor(timeGetter.apply(last), idGetter.apply(last)).encode();
+        }
+        return new PageResult<>(records, total, null, pageSize, null, nextCursor);
+    }
+}
@@ -20,12 +20,12 @@ public class PageResult<T> {
     private List<T> records;
 
     /**
-     * 总数
+     * 总数（游标模式下跳过统计时为 null）
      */
     private Long total;
 
     /**
-     * 当前页码
+     * 当前页码（游标模式下为 null）
      */
     private Long pageNum;
 
@@ -35,7 +35,16 @@ public class PageResult<T> {
     private Long pageSize;
 
     /**
-     * 总页数
+     * 总页数（游标模式下为 null）
      */
     private Long totalPages;
+
+    /**
+     * 下一页游标（仅游标模式），为 null 表示没有更多数据
+     */
+    private String nextCursor;
+
+    public PageResult(List<T> records, Long total, Long pageNum, Long pageSize, Long totalPages) {
+        this(records, total, pageNum, pageSize, totalPages, null);
+    }
 }
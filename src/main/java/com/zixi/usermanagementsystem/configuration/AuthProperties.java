@@ -0,0 +1,67 @@
+package com.zixi.usermanagementsystem.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 认证方式配置属性
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "user-center.auth")
+public class AuthProperties {
+
+    /**
+     * 认证方式
+     */
+    private Mode mode = Mode.SESSION;
+
+    /**
+     * 令牌配置（token 模式使用）
+     */
+    private Token token = new Token();
+
+    /**
+     * 认证方式
+     */
+    public enum Mode {
+        /**
+         * Spring Session + Redis
+         */
+        SESSION,
+        /**
+         * 无状态签名令牌，进程内校验
+         */
+        TOKEN
+    }
+
+    /**
+     * 令牌配置
+     */
+    @Data
+    public static class Token {
+
+        /**
+         * HMAC-SHA256 签名密钥文件（Base64，至少 32 字节），不存在时自动生成；多节点部署需使用同一文件
+         */
+        private String keyFile = "config/token.key";
+
+        /**
+         * 签发者
+         */
+        private String issuer = "user-center";
+
+        /**
+         * 访问令牌有效期
+         */
+        private Duration accessTokenTtl = Duration.ofMinutes(15);
+
+        /**
+         * 刷新令牌有效期
+         */
+        private Duration refreshTokenTtl = Duration.ofDays(7);
+    }
+}
@@ -0,0 +1,58 @@
+package com.zixi.usermanagementsystem.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 验证码异步发送配置属性
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "user-center.code-delivery")
+public class CodeDeliveryProperties {
+
+    /**
+     * 发送线程数
+     */
+    private Integer threads = 4;
+
+    /**
+     * 待发送队列容量，队列满时发送接口直接返回繁忙
+     */
+    private Integer queueCapacity = 1000;
+
+    /**
+     * 各渠道最大并发数，key 为目标类型（PHONE、EMAIL）
+     */
+    private Map<String, Integer> channelConcurrency = new HashMap<>(Map.of("PHONE", 4, "EMAIL", 2));
+
+    /**
+     * 等待渠道并发许可的最长时间
+     */
+    private Duration acquireTimeout = Duration.ofSeconds(5);
+
+    /**
+     * 任务从入队到发送的最长时间，超过后不再发送
+     */
+    private Duration maxQueueTime = Duration.ofMinutes(2);
+
+    /**
+     * 最大尝试次数（含首次）
+     */
+    private Integer maxAttempts = 3;
+
+    /**
+     * 首次重试的退避时间
+     */
+    private Duration initialBackoff = Duration.ofSeconds(1);
+
+    /**
+     * 最大退避时间
+     */
+    private Duration maxBackoff = Duration.ofSeconds(10);
+}
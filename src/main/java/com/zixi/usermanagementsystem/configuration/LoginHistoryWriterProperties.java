@@ -0,0 +1,64 @@
+package com.zixi.usermanagementsystem.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 登录历史异步写入配置属性
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "user-center.login-history.writer")
+public class LoginHistoryWriterProperties {
+
+    /**
+     * 是否启用异步批量写入，关闭时在请求线程同步写入
+     */
+    private Boolean enabled = true;
+
+    /**
+     * 内存队列容量
+     */
+    private Integer queueCapacity = 10000;
+
+    /**
+     * 单次批量插入的最大行数
+     */
+    private Integer batchSize = 200;
+
+    /**
+     * 批次等待时间，到时未攒满也会写入
+     */
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    /**
+     * 队列满时的处理策略
+     */
+    private OverflowStrategy overflowStrategy = OverflowStrategy.SYNC;
+
+    /**
+     * 关闭时等待写入线程退出的最长时间
+     */
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+
+    /**
+     * 队列满时的处理策略
+     */
+    public enum OverflowStrategy {
+        /**
+         * 阻塞请求线程直到队列有空位
+         */
+        BLOCK,
+        /**
+         * 丢弃队列中最早的记录
+         */
+        DROP_OLDEST,
+        /**
+         * 退化为在请求线程同步写入
+         */
+        SYNC
+    }
+}
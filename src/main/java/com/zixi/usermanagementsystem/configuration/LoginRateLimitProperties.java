@@ -0,0 +1,51 @@
+package com.zixi.usermanagementsystem.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 登录限流与账号锁定配置属性
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "user-center.login-rate-limit")
+public class LoginRateLimitProperties {
+
+    /**
+     * 是否启用
+     */
+    private Boolean enabled = true;
+
+    /**
+     * 计数存储：local（单机内存）或 redis（集群共享）
+     */
+    private String store = "local";
+
+    /**
+     * 单个 IP 在窗口内允许的登录请求数（含成功）
+     */
+    private Integer ipLimit = 30;
+
+    /**
+     * IP 计数窗口
+     */
+    private Duration ipWindow = Duration.ofMinutes(1);
+
+    /**
+     * 单个账号在窗口内允许的密码错误次数，达到后锁定到窗口滑过为止
+     */
+    private Integer accountFailureLimit = 5;
+
+    /**
+     * 账号失败计数窗口
+     */
+    private Duration accountWindow = Duration.ofMinutes(15);
+
+    /**
+     * local 模式最多跟踪的 IP/账号数
+     */
+    private Long localMaximumSize = 100000L;
+}
@@ -0,0 +1,36 @@
+package com.zixi.usermanagementsystem.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 登录统计汇总配置属性
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "user-center.login-stats")
+public class LoginStatsProperties {
+
+    /**
+     * 是否在记录登录历史时同步更新统计
+     */
+    private Boolean enabled = true;
+
+    /**
+     * 内存中的增量合并到汇总表的间隔，统计接口的数据最多延迟一个间隔
+     */
+    private Duration flushInterval = Duration.ofSeconds(10);
+
+    /**
+     * 每个时间桶保留的失败次数最高的候选 IP 个数，也是 Top IP 接口可返回的最大个数
+     */
+    private Integer topIpCapacity = 20;
+
+    /**
+     * 单次查询最多包含的时间桶个数
+     */
+    private Integer maxBuckets = 1440;
+}
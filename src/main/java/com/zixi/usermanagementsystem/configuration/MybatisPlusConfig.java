@@ -0,0 +1,54 @@
+package com.zixi.usermanagementsystem.configuration;
+
+import com.baomidou.mybatisplus.annotation.DbType;
+import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
+import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
+import com.zixi.usermanagementsystem.monitor.SlowQueryLog;
+import com.zixi.usermanagementsystem.monitor.SqlTimingInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * MyBatis-Plus 配置
+ */
+@Configuration
+public class MybatisPlusConfig {
+
+    private final PaginationProperties paginationProperties;
+
+    public MybatisPlusConfig(PaginationProperties paginationProperties) {
+        this.paginationProperties = paginationProperties;
+    }
+
+    @Bean
+    public MybatisPlusInterceptor mybatisPlusInterceptor() {
+        MybatisPlusInterceptor interceptor = new MybatisPlusInterceptor();
+        interceptor.addInnerInterceptor(paginationInnerInterceptor());
+        return interceptor;
+    }
+
+    /**
+     * 分页插件：分页查询改写为 LIMIT，统一限制单页最大数量；
+     * COUNT 查询去掉 ORDER BY，并在不影响结果时去掉 LEFT JOIN
+     * @return 分页插件
+     */
+    PaginationInnerInterceptor paginationInnerInterceptor() {
+        PaginationInnerInterceptor pagination = new PaginationInnerInterceptor(DbType.MYSQL);
+        pagination.setMaxLimit(paginationProperties.getMaxPageSize());
+        pagination.setOptimizeJoin(true);
+        return pagination;
+    }
+
+    /**
+     * SQL 执行计时与慢查询记录，MyBatis-Plus 自动配置会注册容器中所有 Interceptor
+     * @return SQL 计时拦截器
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "user-center.slow-sql", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public SqlTimingInterceptor sqlTimingInterceptor(SlowSqlProperties slowSqlProperties, SlowQueryLog slowQueryLog,
+                                                     MeterRegistry meterRegistry) {
+        return new SqlTimingInterceptor(slowSqlProperties, slowQueryLog, meterRegistry);
+    }
+}
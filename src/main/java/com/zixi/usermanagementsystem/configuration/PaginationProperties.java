@@ -0,0 +1,49 @@
+package com.zixi.usermanagementsystem.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 分页配置属性
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "user-center.pagination")
+public class PaginationProperties {
+
+    /**
+     * 未指定每页数量时的默认值
+     */
+    public static final long DEFAULT_PAGE_SIZE = 10L;
+
+    /**
+     * 单页最大数量，超过时截断
+     */
+    private Long maxPageSize = 100L;
+
+    /**
+     * 分页总数缓存时间，相同查询条件翻页时复用总数，为 0 时不缓存
+     */
+    private Duration totalCacheTtl = Duration.ofSeconds(30);
+
+    /**
+     * 无过滤条件查询大表时是否使用 information_schema 中的估算行数代替 COUNT(*)
+     */
+    private Boolean approximateTotal = true;
+
+    /**
+     * 解析每页数量：为空或小于 1 时取默认值，超过单页最大数量时截断
+     * 偏移分页与游标分页都以截断后的值计算总页数和 LIMIT
+     * @param pageSize 请求的每页数量
+     * @return 实际使用的每页数量
+     */
+    public long resolvePageSize(Long pageSize) {
+        if (pageSize == null || pageSize < 1) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(pageSize, maxPageSize);
+    }
+}
@@ -0,0 +1,36 @@
+package com.zixi.usermanagementsystem.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 密码哈希配置属性
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "user-center.password-hashing")
+public class PasswordHashingProperties {
+
+    /**
+     * BCrypt 目标 cost，低于该值的已有哈希在登录成功时自动升级
+     */
+    private Integer strength = 10;
+
+    /**
+     * 哈希线程数，限制密码计算占用的 CPU
+     */
+    private Integer threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+    /**
+     * 等待队列容量，队列满时立即拒绝（503）
+     */
+    private Integer queueCapacity = 100;
+
+    /**
+     * 请求线程等待哈希结果的最长时间，超时按繁忙处理
+     */
+    private Duration maxWait = Duration.ofSeconds(3);
+}
@@ -0,0 +1,36 @@
+package com.zixi.usermanagementsystem.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 接口限流配置属性（@RateLimited）
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "user-center.rate-limit")
+public class RateLimitProperties {
+
+    /**
+     * 是否启用
+     */
+    private Boolean enabled = true;
+
+    /**
+     * 令牌桶存储：local（单机内存）或 redis（集群共享）；并发限制始终按节点计算
+     */
+    private String store = "local";
+
+    /**
+     * local 模式最多跟踪的令牌桶数
+     */
+    private Long localMaximumSize = 100000L;
+
+    /**
+     * local 模式令牌桶空闲回收时间，应不小于最长的 windowSeconds
+     */
+    private Duration localIdleTimeout = Duration.ofMinutes(10);
+}
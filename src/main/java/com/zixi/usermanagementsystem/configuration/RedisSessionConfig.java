@@ -6,6 +6,9 @@ import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.zixi.usermanagementsystem.security.CompactSessionSerializer;
+import com.zixi.usermanagementsystem.security.LoginUser;
+import com.zixi.usermanagementsystem.security.LoginUserMixin;
 import com.zixi.usermanagementsystem.security.WebAuthenticationDetailsMixin;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -13,14 +16,36 @@ import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSeriali
 import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.security.jackson2.CoreJackson2Module;
 import org.springframework.security.web.authentication.WebAuthenticationDetails;
-import org.springframework.session.data.redis.config.annotation.web.http.EnableRedisHttpSession;
+import org.springframework.session.data.redis.config.annotation.web.http.EnableRedisIndexedHttpSession;
 
+/**
+ * Spring Session（Redis）配置
+ * 使用 RedisIndexedSessionRepository：按主体名维护 Session 索引（FindByIndexNameSessionRepository），
+ * 禁用或删除用户时据此下线其全部 Session；Redis 需开启键空间通知（启动时自动执行 CONFIG SET notify-keyspace-events）。
+ */
 @Configuration
-@EnableRedisHttpSession
+@EnableRedisIndexedHttpSession(redisNamespace = RedisSessionConfig.REDIS_NAMESPACE)
 public class RedisSessionConfig {
 
+    /**
+     * Session key 前缀，下线用户时按此拼接主体名索引的 key
+     */
+    public static final String REDIS_NAMESPACE = "spring:session";
+
+    /**
+     * Session 属性序列化器，写入格式由 user-center.session.serializer 决定，读取时兼容 JSON 与紧凑格式
+     */
     @Bean
-    public RedisSerializer<Object> springSessionDefaultRedisSerializer() {
+    public RedisSerializer<Object> springSessionDefaultRedisSerializer(UserSessionProperties userSessionProperties) {
+        boolean compact = userSessionProperties.getSerializer() == UserSessionProperties.SerializerMode.COMPACT;
+        return new CompactSessionSerializer(jsonSessionSerializer(), compact);
+    }
+
+    /**
+     * 带 @class 类型信息的 JSON 序列化器（原有格式）
+     * @return JSON 序列化器
+     */
+    public static GenericJackson2JsonRedisSerializer jsonSessionSerializer() {
         ObjectMapper mapper = new ObjectMapper();
 
         // 关键：启用 Default Typing，写入 @class 字段
@@ -35,10 +60,11 @@ public class RedisSessionConfig {
         mapper.registerModule(new CoreJackson2Module());
         // 手动注册 WebAuthenticationDetails 的 Mixin，用于反序列化WebAuthenticationDetails
         mapper.addMixIn(WebAuthenticationDetails.class, WebAuthenticationDetailsMixin.class);
+        // 登录主体 LoginUser 按自身字段反序列化，不使用 User 的反序列化器
+        mapper.addMixIn(LoginUser.class, LoginUserMixin.class);
         mapper.registerModule(new Jdk8Module());
         mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS); // 日期格式为 ISO8601 字符串
 
-        System.out.println("Registered modules: " + mapper.getRegisteredModuleIds());
         return new GenericJackson2JsonRedisSerializer(mapper);
     }
 }
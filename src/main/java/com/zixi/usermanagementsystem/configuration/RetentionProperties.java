@@ -0,0 +1,93 @@
+package com.zixi.usermanagementsystem.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 过期数据清理配置属性
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "user-center.retention")
+public class RetentionProperties {
+
+    /**
+     * 是否启用定时清理
+     */
+    private Boolean enabled = true;
+
+    /**
+     * 执行时间（cron 表达式），默认每天 03:30
+     */
+    private String cron = "0 30 3 * * *";
+
+    /**
+     * 每批删除的ID范围大小，即单条 DELETE 最多删除的行数
+     */
+    private Integer batchSize = 1000;
+
+    /**
+     * 两批之间的停顿时间，给从库回放留出时间，避免复制延迟
+     */
+    private Duration batchPause = Duration.ofMillis(200);
+
+    /**
+     * 单次执行的最长时间，超时后停止，剩余数据下次执行时继续清理
+     */
+    private Duration maxRunTime = Duration.ofMinutes(30);
+
+    /**
+     * 节点间互斥锁的有效期，应大于单次执行的最长时间
+     */
+    private Duration lockTtl = Duration.ofHours(1);
+
+    /**
+     * 验证码过期后的保留时间
+     */
+    private Duration verificationCode = Duration.ofDays(7);
+
+    /**
+     * 登录历史的保留时间
+     */
+    private Duration loginHistory = Duration.ofDays(180);
+
+    /**
+     * 按分钟汇总的登录统计的保留时间
+     */
+    private Duration loginStatsMinute = Duration.ofDays(2);
+
+    /**
+     * 按小时汇总的登录统计的保留时间
+     */
+    private Duration loginStatsHour = Duration.ofDays(400);
+
+    /**
+     * 登录历史按月分区维护
+     */
+    private Partition partition = new Partition();
+
+    /**
+     * 登录历史分区配置
+     */
+    @Data
+    public static class Partition {
+
+        /**
+         * 是否启用分区维护；启用后登录历史按整个分区过期删除，不再逐行清理
+         */
+        private Boolean enabled = true;
+
+        /**
+         * 执行时间（cron 表达式），默认每天 03:00，应用启动时也会执行一次
+         */
+        private String cron = "0 0 3 * * *";
+
+        /**
+         * 提前创建的未来月份分区数
+         */
+        private Integer futureMonths = 3;
+    }
+}
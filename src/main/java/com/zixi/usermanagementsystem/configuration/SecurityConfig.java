@@ -1,37 +1,66 @@
 package com.zixi.usermanagementsystem.configuration;
 
+import com.zixi.usermanagementsystem.security.BoundedPasswordEncoder;
 import com.zixi.usermanagementsystem.security.CustomAuthenticationFailureHandler;
 import com.zixi.usermanagementsystem.security.CustomAuthenticationSuccessHandler;
+import com.zixi.usermanagementsystem.security.LoginAttemptLimiter;
+import com.zixi.usermanagementsystem.security.LoginRateLimitFilter;
 import com.zixi.usermanagementsystem.security.SerializableRequestCache;
-import jakarta.annotation.Resource;
+import com.zixi.usermanagementsystem.security.TokenAuthenticationFilter;
+import com.zixi.usermanagementsystem.security.TokenClaims;
+import com.zixi.usermanagementsystem.security.TokenService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.autoconfigure.web.server.ManagementServerProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.security.web.savedrequest.NullRequestCache;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import java.util.Map;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
-    @Resource
-    private SerializableRequestCache requestCache;
+    private final SerializableRequestCache requestCache;
+
+    private final CustomAuthenticationSuccessHandler successHandler;
+
+    private final CustomAuthenticationFailureHandler failureHandler;
+
+    private final AuthProperties authProperties;
 
-    @Resource
-    private CustomAuthenticationSuccessHandler successHandler;
+    private final ObjectProvider<TokenService> tokenServiceProvider;
 
-    @Resource
-    private CustomAuthenticationFailureHandler failureHandler;
+    private final LoginAttemptLimiter loginAttemptLimiter;
+
+    private final ManagementServerProperties managementServerProperties;
 
     public SecurityConfig(SerializableRequestCache requestCache,
                           CustomAuthenticationSuccessHandler successHandler,
-                          CustomAuthenticationFailureHandler failureHandler) {
+                          CustomAuthenticationFailureHandler failureHandler,
+                          AuthProperties authProperties,
+                          ObjectProvider<TokenService> tokenServiceProvider,
+                          LoginAttemptLimiter loginAttemptLimiter,
+                          ManagementServerProperties managementServerProperties) {
         this.requestCache = requestCache;
         this.successHandler = successHandler;
         this.failureHandler = failureHandler;
+        this.authProperties = authProperties;
+        this.tokenServiceProvider = tokenServiceProvider;
+        this.loginAttemptLimiter = loginAttemptLimiter;
+        this.managementServerProperties = managementServerProperties;
     }
 
     @Bean
@@ -68,16 +97,77 @@ public class SecurityConfig {
                 // 授权规则
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/api/users/register", "/api/users/login").permitAll() // 允许注册和登录
+                        .requestMatchers("/api/users/token/refresh").permitAll() // 刷新令牌（token 模式）
                         .requestMatchers("/api/users/current").authenticated()
+                        .requestMatchers(prometheusOnManagementPort()).permitAll() // 指标抓取只在仅本机可访问的管理端口开放
                         .anyRequest().authenticated()       // 其他请求需登录
                 );
 
+        // 登录限流：在密码校验之前拒绝超限请求
+        if (loginAttemptLimiter.isEnabled()) {
+            http.addFilterBefore(new LoginRateLimitFilter(loginAttemptLimiter, failureHandler, "/api/users/login"),
+                    UsernamePasswordAuthenticationFilter.class);
+        }
+
+        if (authProperties.getMode() == AuthProperties.Mode.TOKEN) {
+            configureTokenMode(http, tokenServiceProvider.getObject());
+        }
+
         return http.build();
     }
 
-    // 密码编码器（生产环境必须用 BCrypt）
+    /**
+     * 管理端口（management.server.port，只监听 management.server.address）上的 Prometheus 抓取请求；
+     * 应用端口不暴露 Actuator，未配置独立管理端口时不放行
+     */
+    private RequestMatcher prometheusOnManagementPort() {
+        Integer managementPort = managementServerProperties.getPort();
+        return request -> managementPort != null && managementPort > 0
+                && request.getLocalPort() == managementPort
+                && "/actuator/prometheus".equals(request.getRequestURI());
+    }
+
+    /**
+     * token 认证模式：不创建 Session，SecurityContext 只保存在当前请求，由令牌过滤器在进程内认证
+     */
+    private void configureTokenMode(HttpSecurity http, TokenService tokenService) throws Exception {
+        http
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .securityContext(context -> context.securityContextRepository(new RequestAttributeSecurityContextRepository()))
+                .requestCache(cache -> cache.requestCache(new NullRequestCache()))
+                .addFilterBefore(new TokenAuthenticationFilter(tokenService), UsernamePasswordAuthenticationFilter.class)
+                // 登出时吊销当前令牌所属的登录会话
+                .logout(logout -> logout.addLogoutHandler((request, response, authentication) -> {
+                    String token = TokenAuthenticationFilter.resolveToken(request);
+                    if (token == null) {
+                        return;
+                    }
+                    try {
+                        tokenService.revokeSession(tokenService.parse(token, TokenClaims.TYPE_ACCESS));
+                    } catch (AuthenticationException e) {
+                        // 令牌已失效，无需吊销
+                    }
+                }));
+    }
+
+    // 密码编码器（生产环境必须用 BCrypt），哈希计算在独立有界线程池中执行
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(PasswordHashingProperties properties, MeterRegistry meterRegistry) {
+        return new BoundedPasswordEncoder(delegatingPasswordEncoder(properties.getStrength()),
+                properties.getThreads(), properties.getQueueCapacity(), properties.getMaxWait(), meterRegistry);
+    }
+
+    /**
+     * 带 {id} 前缀的密码编码器，新哈希统一为 {bcrypt} + 目标 cost
+     * 无前缀的历史哈希仍按 BCrypt 校验；upgradeEncoding 对无前缀或 cost 低于目标的哈希返回 true，
+     * 登录成功后由 DaoAuthenticationProvider 调用 UserDetailsPasswordService 重新哈希
+     * @param strength BCrypt 目标 cost
+     * @return 密码编码器
+     */
+    public static PasswordEncoder delegatingPasswordEncoder(int strength) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
     }
 }
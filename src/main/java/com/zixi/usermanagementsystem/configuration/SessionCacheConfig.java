@@ -0,0 +1,54 @@
+package com.zixi.usermanagementsystem.configuration;
+
+import com.zixi.usermanagementsystem.security.CachingSessionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.session.data.redis.RedisIndexedSessionRepository;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 本地 Session 缓存配置（user-center.session.cache.enabled=true 时启用）
+ * 以 @Primary 的 CachingSessionRepository 代理 Spring Session 的 RedisIndexedSessionRepository
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "user-center.session.cache", name = "enabled", havingValue = "true")
+public class SessionCacheConfig {
+
+    @Bean
+    @Primary
+    public CachingSessionRepository<RedisIndexedSessionRepository.RedisSession> cachingSessionRepository(
+            RedisIndexedSessionRepository sessionRepository,
+            @Qualifier("springSessionDefaultRedisSerializer") RedisSerializer<Object> serializer,
+            StringRedisTemplate stringRedisTemplate,
+            UserSessionProperties userSessionProperties,
+            MeterRegistry meterRegistry) {
+        return new CachingSessionRepository<>(sessionRepository, serializer, stringRedisTemplate,
+                userSessionProperties.getCache(), meterRegistry);
+    }
+
+    /**
+     * 订阅其他节点的 Session 失效通知
+     */
+    @Bean
+    public RedisMessageListenerContainer sessionCacheInvalidationListenerContainer(
+            RedisConnectionFactory redisConnectionFactory,
+            CachingSessionRepository<?> cachingSessionRepository) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        container.addMessageListener(
+                (message, pattern) -> cachingSessionRepository.onInvalidation(
+                        new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(CachingSessionRepository.INVALIDATION_CHANNEL));
+        return container;
+    }
+}
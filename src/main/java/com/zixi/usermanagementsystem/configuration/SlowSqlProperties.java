@@ -0,0 +1,36 @@
+package com.zixi.usermanagementsystem.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * SQL 执行计时与慢查询记录配置属性
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "user-center.slow-sql")
+public class SlowSqlProperties {
+
+    /**
+     * 是否启用 SQL 计时拦截器
+     */
+    private Boolean enabled = true;
+
+    /**
+     * 慢查询阈值，执行时间达到该值的语句写入日志和最近慢查询列表
+     */
+    private Duration threshold = Duration.ofMillis(200);
+
+    /**
+     * 内存中保留的最近慢查询条数
+     */
+    private Integer ringSize = 100;
+
+    /**
+     * 记录的 SQL 最大长度，超出部分截断
+     */
+    private Integer maxSqlLength = 2000;
+}
@@ -46,4 +46,24 @@ public class TencentSmsProperties {
      * 地域，默认 ap-guangzhou
      */
     private String region = "ap-guangzhou";
+
+    /**
+     * 接口域名
+     */
+    private String endpoint = "sms.tencentcloudapi.com";
+
+    /**
+     * 连接超时（秒）
+     */
+    private Integer connectTimeout = 5;
+
+    /**
+     * 读超时（秒）
+     */
+    private Integer readTimeout = 10;
+
+    /**
+     * 写超时（秒）
+     */
+    private Integer writeTimeout = 10;
 }
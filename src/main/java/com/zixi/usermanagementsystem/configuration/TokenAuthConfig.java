@@ -0,0 +1,33 @@
+package com.zixi.usermanagementsystem.configuration;
+
+import com.zixi.usermanagementsystem.security.TokenDenylist;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 令牌认证配置（user-center.auth.mode=token 时启用）
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "user-center.auth", name = "mode", havingValue = "token")
+public class TokenAuthConfig {
+
+    /**
+     * 订阅其他节点的令牌吊销通知
+     */
+    @Bean
+    public RedisMessageListenerContainer tokenRevocationListenerContainer(RedisConnectionFactory redisConnectionFactory,
+                                                                          TokenDenylist tokenDenylist) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        container.addMessageListener(
+                (message, pattern) -> tokenDenylist.onRevocation(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(TokenDenylist.REVOCATION_CHANNEL));
+        return container;
+    }
+}
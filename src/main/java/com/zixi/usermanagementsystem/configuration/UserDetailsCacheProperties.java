@@ -0,0 +1,31 @@
+package com.zixi.usermanagementsystem.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 登录用户信息缓存配置属性
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "user-center.user-details-cache")
+public class UserDetailsCacheProperties {
+
+    /**
+     * 是否启用缓存
+     */
+    private Boolean enabled = true;
+
+    /**
+     * 最大缓存条目数
+     */
+    private Long maximumSize = 10000L;
+
+    /**
+     * 写入后过期时间
+     */
+    private Duration ttl = Duration.ofSeconds(60);
+}
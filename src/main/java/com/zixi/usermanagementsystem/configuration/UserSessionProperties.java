@@ -0,0 +1,72 @@
+package com.zixi.usermanagementsystem.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Session 配置属性
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "user-center.session")
+public class UserSessionProperties {
+
+    /**
+     * Session 属性写入格式，读取时两种格式都支持
+     */
+    private SerializerMode serializer = SerializerMode.JSON;
+
+    /**
+     * 本地 Session 缓存
+     */
+    private Cache cache = new Cache();
+
+    /**
+     * 禁用或删除用户时每批读取并删除的 Session 数（该用户的 Session 全部删除，不设上限）
+     */
+    private Integer revokeBatchSize = 100;
+
+    /**
+     * Session 属性序列化格式
+     */
+    public enum SerializerMode {
+        /**
+         * 带 @class 类型信息的 Jackson JSON
+         */
+        JSON,
+        /**
+         * 紧凑二进制格式，不支持的类型仍写 JSON
+         */
+        COMPACT
+    }
+
+    /**
+     * 本地 Session 缓存配置
+     */
+    @Data
+    public static class Cache {
+
+        /**
+         * 是否启用（默认关闭）
+         */
+        private Boolean enabled = false;
+
+        /**
+         * 最大缓存 Session 数
+         */
+        private Long maximumSize = 10000L;
+
+        /**
+         * 本地缓存有效期，从首次载入起计算，仅访问时间变化不会延长；失效通知丢失时的兜底
+         */
+        private Duration ttl = Duration.ofSeconds(10);
+
+        /**
+         * 仅访问时间变化时，距上次写入 Redis 超过该时间才写回，应远小于 Session 超时时间
+         */
+        private Duration lastAccessedWriteThreshold = Duration.ofSeconds(10);
+    }
+}
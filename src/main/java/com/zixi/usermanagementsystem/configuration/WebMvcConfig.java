@@ -0,0 +1,40 @@
+package com.zixi.usermanagementsystem.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zixi.usermanagementsystem.ratelimit.RateLimitInterceptor;
+import com.zixi.usermanagementsystem.ratelimit.RateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Spring MVC 配置：注册 @RateLimited 接口限流拦截器
+ */
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final RateLimitProperties rateLimitProperties;
+
+    private final RateLimiter rateLimiter;
+
+    private final ObjectMapper objectMapper;
+
+    private final MeterRegistry meterRegistry;
+
+    public WebMvcConfig(RateLimitProperties rateLimitProperties, RateLimiter rateLimiter,
+                        ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.rateLimitProperties = rateLimitProperties;
+        this.rateLimiter = rateLimiter;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (Boolean.TRUE.equals(rateLimitProperties.getEnabled())) {
+            registry.addInterceptor(new RateLimitInterceptor(rateLimiter, objectMapper, meterRegistry))
+                    .addPathPatterns("/api/users/**", "/api/admin/**");
+        }
+    }
+}
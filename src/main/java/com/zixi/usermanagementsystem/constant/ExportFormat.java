@@ -0,0 +1,51 @@
+package com.zixi.usermanagementsystem.constant;
+
+import com.zixi.usermanagementsystem.common.ErrorCode;
+import com.zixi.usermanagementsystem.exception.BusinessException;
+import lombok.Getter;
+
+/**
+ * 数据导出格式枚举
+ */
+@Getter
+public enum ExportFormat {
+
+    /**
+     * 每行一个 JSON 对象
+     */
+    NDJSON("application/x-ndjson;charset=UTF-8", "ndjson"),
+
+    /**
+     * 逗号分隔，首行为表头
+     */
+    CSV("text/csv;charset=UTF-8", "csv");
+
+    /**
+     * 响应内容类型
+     */
+    private final String contentType;
+
+    /**
+     * 文件扩展名
+     */
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    /**
+     * 根据名称获取导出格式（忽略大小写）
+     * @param name 格式名称
+     * @return 导出格式
+     */
+    public static ExportFormat of(String name) {
+        for (ExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        throw new BusinessException(ErrorCode.PARAMS_ERROR, "不支持的导出格式");
+    }
+}
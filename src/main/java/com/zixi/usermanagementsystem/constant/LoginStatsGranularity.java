@@ -0,0 +1,73 @@
+package com.zixi.usermanagementsystem.constant;
+
+import com.zixi.usermanagementsystem.common.ErrorCode;
+import com.zixi.usermanagementsystem.exception.BusinessException;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * 登录统计汇总粒度枚举
+ */
+@Getter
+public enum LoginStatsGranularity {
+
+    /**
+     * 按分钟汇总
+     */
+    MINUTE(ChronoUnit.MINUTES, Duration.ofHours(1)),
+
+    /**
+     * 按小时汇总
+     */
+    HOUR(ChronoUnit.HOURS, Duration.ofDays(1));
+
+    /**
+     * 时间桶单位
+     */
+    private final ChronoUnit unit;
+
+    /**
+     * 未指定起止时间时的默认查询范围
+     */
+    private final Duration defaultWindow;
+
+    LoginStatsGranularity(ChronoUnit unit, Duration defaultWindow) {
+        this.unit = unit;
+        this.defaultWindow = defaultWindow;
+    }
+
+    /**
+     * 截断到所在时间桶的起始时间
+     * @param time 时间
+     * @return 时间桶起始时间
+     */
+    public LocalDateTime truncate(LocalDateTime time) {
+        return time.truncatedTo(unit);
+    }
+
+    /**
+     * 下一个时间桶的起始时间
+     * @param bucketStart 时间桶起始时间
+     * @return 下一个时间桶起始时间
+     */
+    public LocalDateTime next(LocalDateTime bucketStart) {
+        return bucketStart.plus(1, unit);
+    }
+
+    /**
+     * 根据名称获取汇总粒度（忽略大小写）
+     * @param name 粒度名称
+     * @return 汇总粒度
+     */
+    public static LoginStatsGranularity of(String name) {
+        for (LoginStatsGranularity granularity : values()) {
+            if (granularity.name().equalsIgnoreCase(name)) {
+                return granularity;
+            }
+        }
+        throw new BusinessException(ErrorCode.PARAMS_ERROR, "不支持的统计粒度");
+    }
+}
@@ -1,17 +1,32 @@
 package com.zixi.usermanagementsystem.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.zixi.usermanagementsystem.common.BaseResponse;
 import com.zixi.usermanagementsystem.common.ErrorCode;
 import com.zixi.usermanagementsystem.common.PageResult;
+import com.zixi.usermanagementsystem.constant.ExportFormat;
+import com.zixi.usermanagementsystem.constant.LoginStatsGranularity;
 import com.zixi.usermanagementsystem.model.domain.LoginHistory;
 import com.zixi.usermanagementsystem.model.domain.User;
 import com.zixi.usermanagementsystem.model.request.LoginHistoryQueryRequest;
 import com.zixi.usermanagementsystem.model.request.UserQueryRequest;
 import com.zixi.usermanagementsystem.model.request.UserRoleUpdateRequest;
+import com.zixi.usermanagementsystem.monitor.SlowQuery;
+import com.zixi.usermanagementsystem.monitor.SlowQueryLog;
 import com.zixi.usermanagementsystem.service.LoginHistoryService;
 import com.zixi.usermanagementsystem.service.UserManageService;
+import com.zixi.usermanagementsystem.stats.FailedIpCount;
+import com.zixi.usermanagementsystem.stats.LoginStatsService;
+import com.zixi.usermanagementsystem.stats.LoginStatsSummary;
+import com.zixi.usermanagementsystem.util.ExportWriter;
+import com.zixi.usermanagementsystem.ratelimit.RateLimited;
+import io.micrometer.core.annotation.Timed;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -23,8 +38,11 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static com.zixi.usermanagementsystem.service.UserManageService.STATUS_DISABLED;
@@ -42,6 +60,9 @@ public class AdminController {
 
     private final UserManageService userManageService;
     private final LoginHistoryService loginHistoryService;
+    private final ObjectMapper objectMapper;
+    private final SlowQueryLog slowQueryLog;
+    private final LoginStatsService loginStatsService;
 
     /**
      * 分页查询用户列表
@@ -49,6 +70,8 @@ public class AdminController {
      * @return 分页结果
      */
     @PostMapping("/users/query")
+    @RateLimited(key = RateLimited.Key.ACCOUNT, permits = 60, windowSeconds = 60, maxConcurrent = 16)
+    @Timed(value = "ums.admin.query", description = "管理员查询耗时", histogram = true)
     public BaseResponse<PageResult<User>> queryUserPage(@RequestBody @Valid UserQueryRequest queryRequest) {
         if (!isAdmin()) {
             return BaseResponse.fail(ErrorCode.NO_PERMISSION);
@@ -57,11 +80,35 @@ public class AdminController {
     }
 
     /**
-     * 获取所有用户列表（已废弃，请使用 POST /users/query）
+     * 流式导出用户（过滤条件同分页查询，忽略分页参数）
+     * @param queryRequest 查询请求
+     * @param format 导出格式：ndjson（默认）或 csv
+     * @return 导出文件流
+     */
+    @PostMapping("/users/export")
+    @RateLimited(key = RateLimited.Key.ACCOUNT, permits = 5, windowSeconds = 60, maxConcurrent = 2)
+    public ResponseEntity<?> exportUsers(@RequestBody @Valid UserQueryRequest queryRequest,
+                                         @RequestParam(defaultValue = "ndjson") String format) {
+        if (!isAdmin()) {
+            return ResponseEntity.ok(BaseResponse.fail(ErrorCode.NO_PERMISSION));
+        }
+        ExportFormat exportFormat = ExportFormat.of(format);
+        StreamingResponseBody body = out -> {
+            try (ExportWriter<User> writer = new ExportWriter<>(exportFormat, UserManageService.EXPORT_COLUMNS, out, objectMapper)) {
+                userManageService.exportUsers(queryRequest, writer::write);
+            }
+        };
+        return exportResponse("users", exportFormat, body);
+    }
+
+    /**
+     * 获取所有用户列表（已废弃，请使用 POST /users/query 或 POST /users/export）
      * @return 用户列表
      */
     @GetMapping("/users")
+    @RateLimited(key = RateLimited.Key.ACCOUNT, permits = 5, windowSeconds = 60, maxConcurrent = 2)
     @Deprecated
+    @Timed(value = "ums.admin.query", description = "管理员查询耗时", histogram = true)
     public BaseResponse<List<User>> queryAllUsers() {
         if (!isAdmin()) {
             return BaseResponse.fail(ErrorCode.NO_PERMISSION);
@@ -128,6 +175,8 @@ public class AdminController {
      * @return 用户信息
      */
     @GetMapping("/users/{userId}")
+    @RateLimited(key = RateLimited.Key.ACCOUNT, permits = 120, windowSeconds = 60)
+    @Timed(value = "ums.admin.query", description = "管理员查询耗时", histogram = true)
     public BaseResponse<User> getUserById(@PathVariable Long userId) {
         if (!isAdmin()) {
             return BaseResponse.fail(ErrorCode.NO_PERMISSION);
@@ -141,6 +190,8 @@ public class AdminController {
      * @return 分页结果
      */
     @PostMapping("/login-history/query")
+    @RateLimited(key = RateLimited.Key.ACCOUNT, permits = 60, windowSeconds = 60, maxConcurrent = 16)
+    @Timed(value = "ums.admin.query", description = "管理员查询耗时", histogram = true)
     public BaseResponse<PageResult<LoginHistory>> queryLoginHistory(@RequestBody @Valid LoginHistoryQueryRequest queryRequest) {
         if (!isAdmin()) {
             return BaseResponse.fail(ErrorCode.NO_PERMISSION);
@@ -148,6 +199,90 @@ public class AdminController {
         return BaseResponse.success(loginHistoryService.queryLoginHistory(queryRequest));
     }
 
+    /**
+     * 流式导出登录历史（过滤条件同分页查询，忽略分页参数）
+     * @param queryRequest 查询请求
+     * @param format 导出格式：ndjson（默认）或 csv
+     * @return 导出文件流
+     */
+    @PostMapping("/login-history/export")
+    @RateLimited(key = RateLimited.Key.ACCOUNT, permits = 5, windowSeconds = 60, maxConcurrent = 2)
+    public ResponseEntity<?> exportLoginHistory(@RequestBody @Valid LoginHistoryQueryRequest queryRequest,
+                                                @RequestParam(defaultValue = "ndjson") String format) {
+        if (!isAdmin()) {
+            return ResponseEntity.ok(BaseResponse.fail(ErrorCode.NO_PERMISSION));
+        }
+        ExportFormat exportFormat = ExportFormat.of(format);
+        StreamingResponseBody body = out -> {
+            try (ExportWriter<LoginHistory> writer = new ExportWriter<>(exportFormat, LoginHistoryService.EXPORT_COLUMNS, out, objectMapper)) {
+                loginHistoryService.exportLoginHistory(queryRequest, writer::write);
+            }
+        };
+        return exportResponse("login-history", exportFormat, body);
+    }
+
+    /**
+     * 查询登录统计（成功/失败次数、登录成功的不同用户数），数据来自预汇总表，最多延迟 user-center.login-stats.flush-interval
+     * @param granularity 汇总粒度：minute 或 hour（默认）
+     * @param from 起始时间，默认为结束时间前 1 小时（minute）或 1 天（hour）
+     * @param to 结束时间，默认为当前时间
+     * @return 登录统计
+     */
+    @GetMapping("/login-stats")
+    @Timed(value = "ums.admin.query", description = "管理员查询耗时", histogram = true)
+    public BaseResponse<LoginStatsSummary> getLoginStats(
+            @RequestParam(defaultValue = "hour") String granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        if (!isAdmin()) {
+            return BaseResponse.fail(ErrorCode.NO_PERMISSION);
+        }
+        return BaseResponse.success(loginStatsService.getLoginStats(LoginStatsGranularity.of(granularity), from, to));
+    }
+
+    /**
+     * 查询登录失败次数最高的 IP（次数为估计值，不小于真实值）
+     * @param granularity 汇总粒度：minute 或 hour（默认）
+     * @param from 起始时间，默认为结束时间前 1 小时（minute）或 1 天（hour）
+     * @param to 结束时间，默认为当前时间
+     * @param limit 最多返回个数
+     * @return 失败 IP 列表
+     */
+    @GetMapping("/login-stats/top-failed-ips")
+    @Timed(value = "ums.admin.query", description = "管理员查询耗时", histogram = true)
+    public BaseResponse<List<FailedIpCount>> getTopFailedIps(
+            @RequestParam(defaultValue = "hour") String granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "10") int limit) {
+        if (!isAdmin()) {
+            return BaseResponse.fail(ErrorCode.NO_PERMISSION);
+        }
+        return BaseResponse.success(loginStatsService.getTopFailedIps(LoginStatsGranularity.of(granularity), from, to, limit));
+    }
+
+    /**
+     * 获取最近的慢查询（最新的在前），阈值和保留条数见 user-center.slow-sql
+     * @return 慢查询列表
+     */
+    @GetMapping("/slow-queries")
+    public BaseResponse<List<SlowQuery>> getSlowQueries() {
+        if (!isAdmin()) {
+            return BaseResponse.fail(ErrorCode.NO_PERMISSION);
+        }
+        return BaseResponse.success(slowQueryLog.recent());
+    }
+
+    /**
+     * 构建导出文件响应
+     */
+    private ResponseEntity<StreamingResponseBody> exportResponse(String fileName, ExportFormat format, StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + fileName + "." + format.getExtension())
+                .body(body);
+    }
+
     /**
      * 判断当前用户是否为管理员（基于 Spring Security）
      */
@@ -3,17 +3,23 @@ package com.zixi.usermanagementsystem.controller;
 import com.zixi.usermanagementsystem.common.BaseResponse;
 import com.zixi.usermanagementsystem.common.ErrorCode;
 import com.zixi.usermanagementsystem.model.request.SendCodeRequest;
+import com.zixi.usermanagementsystem.model.request.TokenRefreshRequest;
 import com.zixi.usermanagementsystem.model.request.UserChangePasswordRequest;
 import com.zixi.usermanagementsystem.model.request.UserRegisterRequest;
 import com.zixi.usermanagementsystem.model.request.UserUpdateRequest;
 import com.zixi.usermanagementsystem.model.domain.User;
+import com.zixi.usermanagementsystem.ratelimit.RateLimited;
+import com.zixi.usermanagementsystem.security.LoginUser;
+import com.zixi.usermanagementsystem.security.TokenService;
 import com.zixi.usermanagementsystem.service.UserAuthService;
 import com.zixi.usermanagementsystem.service.UserProfileService;
 import com.zixi.usermanagementsystem.service.VerificationCodeService;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -26,6 +32,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @RestController
@@ -37,8 +44,10 @@ public class UserController {
     private final UserAuthService userAuthService;
     private final UserProfileService userProfileService;
     private final VerificationCodeService verificationCodeService;
+    private final ObjectProvider<TokenService> tokenServiceProvider;
 
     @PostMapping("/register")
+    @RateLimited(key = RateLimited.Key.IP, permits = 10, windowSeconds = 60)
     public BaseResponse<Long> register(@RequestBody @Valid UserRegisterRequest userRegisterRequest) {
         if (userRegisterRequest == null) {
             return BaseResponse.fail(ErrorCode.NULL_ERROR);
@@ -52,24 +61,47 @@ public class UserController {
      * @return 是否发送成功
      */
     @PostMapping("/send-code")
+    @RateLimited(key = RateLimited.Key.IP, permits = 5, windowSeconds = 60)
+    @RateLimited(key = RateLimited.Key.GLOBAL, permits = 200, windowSeconds = 60, maxConcurrent = 20)
     public BaseResponse<Boolean> sendRegisterCode(@RequestBody @Valid SendCodeRequest sendCodeRequest) {
         return BaseResponse.success(verificationCodeService.sendRegisterCode(sendCodeRequest.getTarget()));
     }
 
+    /**
+     * 使用刷新令牌换取新的访问令牌（仅 token 认证模式）
+     * @param tokenRefreshRequest 刷新令牌请求
+     * @return 新的令牌对
+     */
+    @PostMapping("/token/refresh")
+    @RateLimited(key = RateLimited.Key.IP, permits = 30, windowSeconds = 60)
+    public BaseResponse<TokenService.TokenPair> refreshToken(@RequestBody @Valid TokenRefreshRequest tokenRefreshRequest) {
+        TokenService tokenService = tokenServiceProvider.getIfAvailable();
+        if (tokenService == null) {
+            return BaseResponse.fail(ErrorCode.OPERATION_ERROR, "未启用令牌认证", "");
+        }
+        try {
+            return BaseResponse.success(tokenService.refresh(tokenRefreshRequest.getRefreshToken()));
+        } catch (AuthenticationException e) {
+            return BaseResponse.fail(ErrorCode.NO_LOGIN, e.getMessage(), "");
+        }
+    }
+
     @GetMapping("/current")
     public ResponseEntity<?> getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null || !authentication.isAuthenticated()) {
             return ResponseEntity.status(401).build();
         }
-        // 假设你返回的是 UserDetails（如 org.springframework.security.core.userdetails.User）
         String username = authentication.getName();
         Collection<? extends GrantedAuthority> authorities = authentication.getAuthorities();
 
-        Map<String, Object> userInfo = Map.of(
-                "username", username,
-                "authorities", authorities.stream().map(GrantedAuthority::getAuthority).toList()
-        );
+        Map<String, Object> userInfo = new LinkedHashMap<>();
+        // 登录时加载的 LoginUser 已带用户ID，直接返回，不查询数据库
+        if (authentication.getPrincipal() instanceof LoginUser loginUser) {
+            userInfo.put("id", loginUser.getId());
+        }
+        userInfo.put("username", username);
+        userInfo.put("authorities", authorities.stream().map(GrantedAuthority::getAuthority).toList());
 
         return ResponseEntity.ok(userInfo);
     }
@@ -84,8 +116,10 @@ public class UserController {
         if (authentication == null || !authentication.isAuthenticated()) {
             return BaseResponse.fail(ErrorCode.NO_LOGIN);
         }
-        String account = authentication.getName();
-        User user = userProfileService.getUserByAccount(account);
+        // 按登录时加载的用户ID走主键查询；旧 Session 中的主体不是 LoginUser 时按账号查询
+        User user = authentication.getPrincipal() instanceof LoginUser loginUser && loginUser.getId() != null
+                ? userProfileService.getById(loginUser.getId())
+                : userProfileService.getUserByAccount(authentication.getName());
         if (user == null) {
             return BaseResponse.fail(ErrorCode.NULL_ERROR);
         }
@@ -0,0 +1,15 @@
+package com.zixi.usermanagementsystem.event;
+
+/**
+ * 用户访问权限被收回事件（禁用或删除用户后发布）
+ * 监听方负责下线该用户已登录的 Session 和令牌
+ * @param userId 用户ID
+ * @param account 用户账号
+ * @param reason 原因：disabled 或 removed
+ */
+public record UserAccessRevokedEvent(Long userId, String account, String reason) {
+
+    public static final String REASON_DISABLED = "disabled";
+
+    public static final String REASON_REMOVED = "removed";
+}
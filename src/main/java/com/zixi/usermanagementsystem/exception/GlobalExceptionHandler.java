@@ -2,8 +2,11 @@ package com.zixi.usermanagementsystem.exception;
 
 import com.zixi.usermanagementsystem.common.BaseResponse;
 import com.zixi.usermanagementsystem.common.ErrorCode;
+import com.zixi.usermanagementsystem.security.PasswordHashingRejectedException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 
@@ -20,6 +23,16 @@ public class GlobalExceptionHandler {
         return BaseResponse.fail(e);
     }
 
+    /**
+     * 密码哈希线程池繁忙，返回 503 让客户端稍后重试
+     */
+    @ExceptionHandler(value = PasswordHashingRejectedException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public <T> BaseResponse<T> passwordHashingRejectedHandler(PasswordHashingRejectedException e) {
+        log.warn("PasswordHashingRejectedException: " + e.getMessage());
+        return BaseResponse.fail(ErrorCode.SERVICE_BUSY, e.getMessage(), "");
+    }
+
     @ExceptionHandler(value = RuntimeException.class)
     public <T> BaseResponse<T> exceptionHandler(RuntimeException e) {
         log.error("RuntimeException: " + e.getMessage(), e);
@@ -1,12 +1,108 @@
 package com.zixi.usermanagementsystem.mapper;
 
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
 import com.zixi.usermanagementsystem.model.domain.LoginHistory;
+import org.apache.ibatis.annotations.Delete;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.ResultType;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * 登录历史记录 Mapper
  */
 @Mapper
 public interface LoginHistoryMapper extends BaseMapper<LoginHistory> {
+
+    /**
+     * 多行批量插入登录历史
+     * @param list 登录历史列表
+     * @return 插入行数
+     */
+    int insertBatch(@Param("list") List<LoginHistory> list);
+
+    /**
+     * 查询 login_history 表的估算行数（InnoDB 统计信息，无需扫描全表）
+     * @return 估算行数
+     */
+    @Select("SELECT TABLE_ROWS FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'login_history'")
+    Long selectApproximateRowCount();
+
+    /**
+     * 流式查询登录历史，逐行回调 ResultHandler
+     * fetchSize 为 Integer.MIN_VALUE 时 MySQL 驱动逐行读取结果集，不会一次加载到内存
+     * @param wrapper 查询条件
+     * @param handler 行处理器
+     */
+    @Select("SELECT id, user_id, account, login_time, ip_address, user_agent, login_status, fail_reason "
+            + "FROM login_history ${ew.customSqlSegment}")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    @ResultType(LoginHistory.class)
+    void streamLoginHistory(@Param(Constants.WRAPPER) Wrapper<LoginHistory> wrapper, ResultHandler<LoginHistory> handler);
+
+    /**
+     * 查询最小的登录历史ID（主键索引，无需扫描）
+     * @return 最小ID，表为空时返回 null
+     */
+    @Select("SELECT MIN(id) FROM login_history")
+    Long selectMinId();
+
+    /**
+     * 查询登录时间早于截止时间的最后一条记录ID，作为分批清理的上界（按 idx_login_time 倒序取一行）
+     * @param cutoff 截止时间
+     * @return 记录ID，不存在时返回 null
+     */
+    @Select("SELECT id FROM login_history WHERE login_time < #{cutoff} ORDER BY login_time DESC LIMIT 1")
+    Long selectLastIdBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * 删除ID范围内登录时间早于截止时间的记录，单次删除行数不超过范围大小
+     * @param fromId 起始ID（含）
+     * @param toId 结束ID（含）
+     * @param cutoff 截止时间
+     * @return 删除行数
+     */
+    @Delete("DELETE FROM login_history WHERE id BETWEEN #{fromId} AND #{toId} AND login_time < #{cutoff}")
+    int deleteInRangeBefore(@Param("fromId") long fromId, @Param("toId") long toId, @Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * 查询 login_history 的分区名，按分区顺序排列
+     * @return 分区名列表，未分区时为空
+     */
+    @Select("SELECT PARTITION_NAME FROM information_schema.PARTITIONS "
+            + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'login_history' AND PARTITION_NAME IS NOT NULL "
+            + "ORDER BY PARTITION_ORDINAL_POSITION")
+    List<String> selectPartitionNames();
+
+    /**
+     * 查询分区的上界定义
+     * @param partition 分区名
+     * @return information_schema 中的 PARTITION_DESCRIPTION，如 '2026-11-01 00:00:00'；分区不存在时为 null
+     */
+    @Select("SELECT PARTITION_DESCRIPTION FROM information_schema.PARTITIONS "
+            + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'login_history' AND PARTITION_NAME = #{partition}")
+    String selectPartitionDescription(@Param("partition") String partition);
+
+    /**
+     * 从 p_future 中拆分出新分区；p_future 为空时只修改元数据
+     * @param partitions 新的分区定义（由分区管理任务生成，最后一个必须是 p_future）
+     */
+    @Update("ALTER TABLE login_history REORGANIZE PARTITION p_future INTO (${partitions})")
+    void reorganizeFuturePartition(@Param("partitions") String partitions);
+
+    /**
+     * 删除整个分区及其中的数据
+     * @param partition 分区名（由分区管理任务校验）
+     */
+    @Update("ALTER TABLE login_history DROP PARTITION ${partition}")
+    void dropPartition(@Param("partition") String partition);
 }
@@ -0,0 +1,74 @@
+package com.zixi.usermanagementsystem.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.zixi.usermanagementsystem.model.domain.LoginStatsRollup;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 登录统计汇总 Mapper
+ */
+@Mapper
+public interface LoginStatsRollupMapper extends BaseMapper<LoginStatsRollup> {
+
+    /**
+     * 时间桶不存在时插入空记录，已存在时忽略
+     * @param granularity 汇总粒度
+     * @param bucketStart 时间桶起始时间
+     * @return 插入行数
+     */
+    @Insert("INSERT IGNORE INTO login_stats_rollup (granularity, bucket_start, success_count, failure_count) "
+            + "VALUES (#{granularity}, #{bucketStart}, 0, 0)")
+    int insertIgnore(@Param("granularity") String granularity, @Param("bucketStart") LocalDateTime bucketStart);
+
+    /**
+     * 锁定并读取一个时间桶，多个节点同时合并同一时间桶时串行执行
+     * @param granularity 汇总粒度
+     * @param bucketStart 时间桶起始时间
+     * @return 汇总记录
+     */
+    @Select("SELECT * FROM login_stats_rollup WHERE granularity = #{granularity} AND bucket_start = #{bucketStart} FOR UPDATE")
+    LoginStatsRollup selectForUpdate(@Param("granularity") String granularity, @Param("bucketStart") LocalDateTime bucketStart);
+
+    /**
+     * 查询时间范围内各时间桶的计数和用户草图（不读取失败 IP 草图）
+     * @param granularity 汇总粒度
+     * @param from 起始时间桶（含）
+     * @param to 结束时间桶（含）
+     * @return 汇总记录，按时间桶升序
+     */
+    @Select("SELECT id, granularity, bucket_start, success_count, failure_count, user_sketch FROM login_stats_rollup "
+            + "WHERE granularity = #{granularity} AND bucket_start BETWEEN #{from} AND #{to} ORDER BY bucket_start")
+    List<LoginStatsRollup> selectCounts(@Param("granularity") String granularity,
+                                        @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * 查询时间范围内各时间桶的失败 IP 草图和候选 IP
+     * @param granularity 汇总粒度
+     * @param from 起始时间桶（含）
+     * @param to 结束时间桶（含）
+     * @return 汇总记录，按时间桶升序
+     */
+    @Select("SELECT id, granularity, bucket_start, failed_ip_sketch, top_failed_ips FROM login_stats_rollup "
+            + "WHERE granularity = #{granularity} AND bucket_start BETWEEN #{from} AND #{to} ORDER BY bucket_start")
+    List<LoginStatsRollup> selectFailedIps(@Param("granularity") String granularity,
+                                           @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * 删除早于截止时间的时间桶，单次最多删除 limit 行
+     * @param granularity 汇总粒度
+     * @param cutoff 截止时间
+     * @param limit 最多删除行数
+     * @return 删除行数
+     */
+    @Delete("DELETE FROM login_stats_rollup WHERE granularity = #{granularity} AND bucket_start < #{cutoff} "
+            + "ORDER BY bucket_start LIMIT #{limit}")
+    int deleteBefore(@Param("granularity") String granularity, @Param("cutoff") LocalDateTime cutoff,
+                     @Param("limit") int limit);
+}
@@ -1,7 +1,15 @@
 package com.zixi.usermanagementsystem.mapper;
 
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
 import com.zixi.usermanagementsystem.model.domain.User;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.ResultType;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
 
 /**
 * @author baiyin
@@ -11,4 +19,16 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 */
 public interface UserMapper extends BaseMapper<User> {
 
+    /**
+     * 流式查询用户（不含密码），逐行回调 ResultHandler
+     * fetchSize 为 Integer.MIN_VALUE 时 MySQL 驱动逐行读取结果集，不会一次加载到内存
+     * 注意：自定义 SQL 不会自动追加逻辑删除条件，需由调用方在 wrapper 中指定
+     * @param wrapper 查询条件
+     * @param handler 行处理器
+     */
+    @Select("SELECT id, username, account, avatar_url, gender, phone, email, status, create_time, update_time, role "
+            + "FROM user ${ew.customSqlSegment}")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    @ResultType(User.class)
+    void streamUsers(@Param(Constants.WRAPPER) Wrapper<User> wrapper, ResultHandler<User> handler);
 }
\ No newline at end of file
@@ -2,11 +2,41 @@ package com.zixi.usermanagementsystem.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.zixi.usermanagementsystem.model.domain.VerificationCode;
+import org.apache.ibatis.annotations.Delete;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDateTime;
 
 /**
  * 验证码 Mapper
  */
 @Mapper
 public interface VerificationCodeMapper extends BaseMapper<VerificationCode> {
+
+    /**
+     * 查询最小的验证码ID（主键索引，无需扫描）
+     * @return 最小ID，表为空时返回 null
+     */
+    @Select("SELECT MIN(id) FROM verification_code")
+    Long selectMinId();
+
+    /**
+     * 查询过期时间早于截止时间的最后一条记录ID，作为分批清理的上界（按 idx_expire_time 倒序取一行）
+     * @param cutoff 截止时间
+     * @return 记录ID，不存在时返回 null
+     */
+    @Select("SELECT id FROM verification_code WHERE expire_time < #{cutoff} ORDER BY expire_time DESC LIMIT 1")
+    Long selectLastIdExpiredBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * 删除ID范围内过期时间早于截止时间的验证码，单次删除行数不超过范围大小
+     * @param fromId 起始ID（含）
+     * @param toId 结束ID（含）
+     * @param cutoff 截止时间
+     * @return 删除行数
+     */
+    @Delete("DELETE FROM verification_code WHERE id BETWEEN #{fromId} AND #{toId} AND expire_time < #{cutoff}")
+    int deleteInRangeExpiredBefore(@Param("fromId") long fromId, @Param("toId") long toId, @Param("cutoff") LocalDateTime cutoff);
 }
@@ -0,0 +1,72 @@
+package com.zixi.usermanagementsystem.model.domain;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 登录统计汇总（每个粒度、每个时间桶一行）
+ */
+@TableName(value = "login_stats_rollup")
+@Data
+public class LoginStatsRollup implements Serializable {
+
+    /**
+     * 主键ID
+     */
+    @TableId(value = "id", type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 汇总粒度：MINUTE、HOUR
+     */
+    @TableField(value = "granularity")
+    private String granularity;
+
+    /**
+     * 时间桶起始时间
+     */
+    @TableField(value = "bucket_start")
+    private LocalDateTime bucketStart;
+
+    /**
+     * 登录成功次数
+     */
+    @TableField(value = "success_count")
+    private Long successCount;
+
+    /**
+     * 登录失败次数
+     */
+    @TableField(value = "failure_count")
+    private Long failureCount;
+
+    /**
+     * 登录成功用户的 HyperLogLog
+     */
+    @TableField(value = "user_sketch")
+    private byte[] userSketch;
+
+    /**
+     * 登录失败 IP 的 Count-Min Sketch
+     */
+    @TableField(value = "failed_ip_sketch")
+    private byte[] failedIpSketch;
+
+    /**
+     * 失败次数最高的候选 IP，逗号分隔
+     */
+    @TableField(value = "top_failed_ips")
+    private String topFailedIps;
+
+    /**
+     * 更新时间
+     */
+    @TableField(value = "update_time")
+    private LocalDateTime updateTime;
+}
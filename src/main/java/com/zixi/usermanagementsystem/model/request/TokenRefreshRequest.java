@@ -0,0 +1,17 @@
+package com.zixi.usermanagementsystem.model.request;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+/**
+ * 刷新访问令牌请求
+ */
+@Data
+public class TokenRefreshRequest {
+
+    /**
+     * 刷新令牌
+     */
+    @NotBlank(message = "刷新令牌不能为空")
+    private String refreshToken;
+}
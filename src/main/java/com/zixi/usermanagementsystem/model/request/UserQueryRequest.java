@@ -49,4 +49,19 @@ public class UserQueryRequest {
      * 每页数量，默认 10
      */
     private Long pageSize = 10L;
+
+    /**
+     * 是否使用游标分页，开启后忽略 pageNum
+     */
+    private Boolean cursorMode = false;
+
+    /**
+     * 游标，取上一页返回的 nextCursor，为空时查询第一页
+     */
+    private String cursor;
+
+    /**
+     * 游标分页时是否跳过总数统计，默认跳过
+     */
+    private Boolean skipCount = true;
 }
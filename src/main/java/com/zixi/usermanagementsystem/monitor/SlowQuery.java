@@ -0,0 +1,17 @@
+package com.zixi.usermanagementsystem.monitor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 一次慢查询记录
+ * 只保存归一化后的 SQL 和参数类型，不保存参数值
+ * @param statement 语句 ID（Mapper 简单类名.方法名）
+ * @param sql 归一化后的 SQL
+ * @param parameterTypes 绑定参数的类型，按占位符顺序
+ * @param elapsedMillis 执行耗时（毫秒）
+ * @param executedAt 执行完成时间
+ */
+public record SlowQuery(String statement, String sql, List<String> parameterTypes,
+                        long elapsedMillis, LocalDateTime executedAt) {
+}
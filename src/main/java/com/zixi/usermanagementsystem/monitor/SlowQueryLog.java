@@ -0,0 +1,49 @@
+package com.zixi.usermanagementsystem.monitor;
+
+import com.zixi.usermanagementsystem.configuration.SlowSqlProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 最近慢查询的定长环形缓冲区
+ * 写满后覆盖最早的记录；只有慢查询才会写入，因此使用简单的对象锁
+ */
+@Component
+public class SlowQueryLog {
+
+    private final SlowQuery[] entries;
+
+    private int next;
+
+    private int size;
+
+    public SlowQueryLog(SlowSqlProperties properties) {
+        this.entries = new SlowQuery[Math.max(1, properties.getRingSize())];
+    }
+
+    /**
+     * 写入一条慢查询
+     * @param slowQuery 慢查询
+     */
+    public synchronized void add(SlowQuery slowQuery) {
+        entries[next] = slowQuery;
+        next = (next + 1) % entries.length;
+        if (size < entries.length) {
+            size++;
+        }
+    }
+
+    /**
+     * 获取当前保留的慢查询
+     * @return 慢查询列表，最新的在前
+     */
+    public synchronized List<SlowQuery> recent() {
+        List<SlowQuery> result = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            result.add(entries[(next - i + entries.length) % entries.length]);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,232 @@
+package com.zixi.usermanagementsystem.monitor;
+
+import com.baomidou.mybatisplus.core.toolkit.PluginUtils;
+import com.zixi.usermanagementsystem.configuration.SlowSqlProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.reflection.ExceptionUtil;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * SQL 执行计时拦截器
+ * 拦截 StatementHandler 的执行方法，将传入的 JDBC 语句包装为代理，只统计 execute* 调用的耗时，
+ * 即语句在数据库上的执行时间；获取连接、预编译、结果映射、ResultHandler 回调和游标逐行读取都不计入，
+ * 流式导出不会因为读取时间长而被记为慢查询。分页插件生成的 COUNT 语句也会单独计时。
+ * 每条语句按 Mapper 方法记录到 ums.sql；超过阈值的语句输出归一化 SQL 和参数类型（不输出参数值），
+ * 并写入最近慢查询列表。
+ */
+@Slf4j
+@Intercepts({
+        @Signature(type = StatementHandler.class, method = "query", args = {Statement.class, ResultHandler.class}),
+        @Signature(type = StatementHandler.class, method = "queryCursor", args = {Statement.class}),
+        @Signature(type = StatementHandler.class, method = "update", args = {Statement.class}),
+        @Signature(type = StatementHandler.class, method = "batch", args = {Statement.class})
+})
+public class SqlTimingInterceptor implements Interceptor {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    /**
+     * IN 列表等连续占位符，归一化后不同长度的列表视为同一语句
+     */
+    private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+
+    private final SlowSqlProperties properties;
+
+    private final SlowQueryLog slowQueryLog;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    private final Map<String, Counter> slowCounters = new ConcurrentHashMap<>();
+
+    public SqlTimingInterceptor(SlowSqlProperties properties, SlowQueryLog slowQueryLog, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.slowQueryLog = slowQueryLog;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        Object[] args = invocation.getArgs();
+        ExecuteTimer executeTimer = new ExecuteTimer((Statement) args[0]);
+        args[0] = executeTimer.proxy();
+        try {
+            return invocation.proceed();
+        } finally {
+            if (executeTimer.executed) {
+                try {
+                    record((StatementHandler) invocation.getTarget(), executeTimer.elapsedNanos);
+                } catch (RuntimeException e) {
+                    // 计时失败不影响业务语句
+                    log.debug("记录 SQL 执行耗时失败", e);
+                }
+            }
+        }
+    }
+
+    private void record(StatementHandler handler, long elapsedNanos) {
+        MappedStatement mappedStatement = PluginUtils.mpStatementHandler(handler).mappedStatement();
+        String statement = shortId(mappedStatement.getId());
+        String command = mappedStatement.getSqlCommandType().name();
+
+        timers.computeIfAbsent(statement, key -> Timer.builder("ums.sql")
+                        .description("SQL 语句执行耗时")
+                        .tag("statement", key)
+                        .tag("command", command)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry))
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+
+        if (elapsedNanos < properties.getThreshold().toNanos()) {
+            return;
+        }
+
+        slowCounters.computeIfAbsent(statement, key -> Counter.builder("ums.sql.slow")
+                        .description("超过阈值的 SQL 语句数")
+                        .tag("statement", key)
+                        .register(meterRegistry))
+                .increment();
+
+        BoundSql boundSql = handler.getBoundSql();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        String sql = normalize(boundSql.getSql(), properties.getMaxSqlLength());
+        List<String> parameterTypes = parameterTypes(mappedStatement.getConfiguration(), boundSql);
+        log.warn("慢 SQL: statement={}, elapsed={}ms, sql={}, parameterTypes={}",
+                statement, elapsedMillis, sql, parameterTypes);
+        slowQueryLog.add(new SlowQuery(statement, sql, parameterTypes, elapsedMillis, LocalDateTime.now()));
+    }
+
+    /**
+     * 去掉语句 ID 的包名，保留 Mapper 简单类名和方法名
+     * @param id 语句 ID
+     * @return 简短语句 ID
+     */
+    static String shortId(String id) {
+        int methodDot = id.lastIndexOf('.');
+        int classDot = methodDot > 0 ? id.lastIndexOf('.', methodDot - 1) : -1;
+        return id.substring(classDot + 1);
+    }
+
+    /**
+     * 归一化 SQL：合并空白，连续占位符折叠为 (?, ...)，超长时截断
+     * @param sql 带占位符的 SQL
+     * @param maxLength 最大长度
+     * @return 归一化后的 SQL
+     */
+    static String normalize(String sql, int maxLength) {
+        String normalized = WHITESPACE.matcher(sql).replaceAll(" ").trim();
+        normalized = PLACEHOLDER_LIST.matcher(normalized).replaceAll("(?, ...)");
+        if (normalized.length() > maxLength) {
+            return normalized.substring(0, maxLength) + "...";
+        }
+        return normalized;
+    }
+
+    /**
+     * 按占位符顺序解析绑定参数的类型，解析方式与 DefaultParameterHandler 一致，只取类型不取值
+     * @param configuration MyBatis 配置
+     * @param boundSql 绑定 SQL
+     * @return 参数类型列表，值为 null 时为 "null"
+     */
+    private static List<String> parameterTypes(Configuration configuration, BoundSql boundSql) {
+        Object parameterObject = boundSql.getParameterObject();
+        MetaObject metaObject = null;
+        List<String> types = new ArrayList<>(boundSql.getParameterMappings().size());
+        for (ParameterMapping mapping : boundSql.getParameterMappings()) {
+            String property = mapping.getProperty();
+            Object value;
+            if (boundSql.hasAdditionalParameter(property)) {
+                value = boundSql.getAdditionalParameter(property);
+            } else if (parameterObject == null) {
+                value = null;
+            } else if (configuration.getTypeHandlerRegistry().hasTypeHandler(parameterObject.getClass())) {
+                value = parameterObject;
+            } else {
+                if (metaObject == null) {
+                    metaObject = configuration.newMetaObject(parameterObject);
+                }
+                value = metaObject.getValue(property);
+            }
+            types.add(value == null ? "null" : value.getClass().getSimpleName());
+        }
+        return types;
+    }
+
+    /**
+     * JDBC 语句代理，累计 execute、executeQuery、executeUpdate、executeBatch 等调用的耗时，其余方法直接委托。
+     * 只在执行 StatementHandler 方法的线程内使用，不需要同步
+     */
+    private static final class ExecuteTimer implements InvocationHandler {
+
+        private final Statement target;
+
+        private long elapsedNanos;
+
+        private boolean executed;
+
+        private ExecuteTimer(Statement target) {
+            this.target = target;
+        }
+
+        /**
+         * 按原语句实际实现的接口创建代理，StatementHandler 内部的强制类型转换仍然成立
+         */
+        private Statement proxy() {
+            Class<?> type = target instanceof CallableStatement ? CallableStatement.class
+                    : target instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+            return (Statement) Proxy.newProxyInstance(SqlTimingInterceptor.class.getClassLoader(),
+                    new Class<?>[]{type}, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (!method.getName().startsWith("execute")) {
+                return invokeTarget(method, args);
+            }
+            long start = System.nanoTime();
+            try {
+                return invokeTarget(method, args);
+            } finally {
+                elapsedNanos += System.nanoTime() - start;
+                executed = true;
+            }
+        }
+
+        private Object invokeTarget(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw ExceptionUtil.unwrapThrowable(e);
+            }
+        }
+    }
+}
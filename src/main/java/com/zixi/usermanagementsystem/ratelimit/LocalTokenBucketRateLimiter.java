@@ -0,0 +1,61 @@
+package com.zixi.usermanagementsystem.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zixi.usermanagementsystem.configuration.RateLimitProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 单机内存令牌桶
+ * 桶按需创建，空闲超过 idle-timeout 的桶被回收（此时桶早已补满，回收不影响限流结果）
+ */
+@Component
+@ConditionalOnProperty(prefix = "user-center.rate-limit", name = "store", havingValue = "local", matchIfMissing = true)
+public class LocalTokenBucketRateLimiter implements RateLimiter {
+
+    private final Cache<String, TokenBucket> buckets;
+
+    public LocalTokenBucketRateLimiter(RateLimitProperties properties) {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getLocalMaximumSize())
+                .expireAfterAccess(properties.getLocalIdleTimeout())
+                .build();
+    }
+
+    @Override
+    public boolean tryAcquire(String key, int capacity, Duration refillPeriod) {
+        long now = System.nanoTime();
+        return buckets.get(key, k -> new TokenBucket(capacity, now))
+                .tryConsume(now, capacity, (double) capacity / refillPeriod.toNanos());
+    }
+
+    /**
+     * 令牌桶，读取时按经过时间补充令牌
+     */
+    static final class TokenBucket {
+
+        private double tokens;
+
+        private long lastRefillNanos;
+
+        TokenBucket(int capacity, long now) {
+            this.tokens = capacity;
+            this.lastRefillNanos = now;
+        }
+
+        synchronized boolean tryConsume(long now, int capacity, double tokensPerNano) {
+            if (now > lastRefillNanos) {
+                tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * tokensPerNano);
+                lastRefillNanos = now;
+            }
+            if (tokens >= 1) {
+                tokens -= 1;
+                return true;
+            }
+            return false;
+        }
+    }
+}
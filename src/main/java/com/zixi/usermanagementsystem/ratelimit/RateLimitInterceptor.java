@@ -0,0 +1,127 @@
+package com.zixi.usermanagementsystem.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zixi.usermanagementsystem.common.BaseResponse;
+import com.zixi.usermanagementsystem.common.ErrorCode;
+import com.zixi.usermanagementsystem.util.RequestUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * @RateLimited 拦截器
+ *
+ * 先检查并发限制（本节点 Semaphore，请求完成后释放），再按各维度扣减令牌，任一不满足即返回 429。
+ * 流式导出等异步请求在异步处理结束后才释放并发许可，异步分派时不重复计数。
+ * 拒绝次数记录在 ums.ratelimit.rejected（endpoint=控制器.方法, reason=rate|concurrency）。
+ * 由 WebMvcConfig 创建并注册
+ */
+@Slf4j
+public class RateLimitInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = RateLimitInterceptor.class.getName() + ".permit";
+
+    private final RateLimiter rateLimiter;
+
+    private final ObjectMapper objectMapper;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Semaphore> bulkheads = new ConcurrentHashMap<>();
+
+    public RateLimitInterceptor(RateLimiter rateLimiter, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (request.getDispatcherType() == DispatcherType.ASYNC || !(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        RateLimited[] limits = handlerMethod.getMethod().getAnnotationsByType(RateLimited.class);
+        if (limits.length == 0) {
+            return true;
+        }
+        String endpoint = handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+
+        Semaphore bulkhead = null;
+        for (RateLimited limit : limits) {
+            if (limit.maxConcurrent() > 0) {
+                bulkhead = bulkheads.computeIfAbsent(endpoint, k -> new Semaphore(limit.maxConcurrent()));
+                if (!bulkhead.tryAcquire()) {
+                    reject(response, endpoint, "concurrency", "服务繁忙，请稍后再试");
+                    return false;
+                }
+                request.setAttribute(PERMIT_ATTRIBUTE, bulkhead);
+                break;
+            }
+        }
+
+        for (RateLimited limit : limits) {
+            if (limit.permits() <= 0) {
+                continue;
+            }
+            String key = endpoint + ":" + limit.key() + ":" + resolveKey(limit.key(), request);
+            if (!rateLimiter.tryAcquire(key, limit.permits(), Duration.ofSeconds(limit.windowSeconds()))) {
+                if (bulkhead != null) {
+                    request.removeAttribute(PERMIT_ATTRIBUTE);
+                    bulkhead.release();
+                }
+                reject(response, endpoint, "rate", "请求过于频繁，请稍后再试");
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        // 同步请求在此释放；异步请求在异步分派完成后释放
+        Object permit = request.getAttribute(PERMIT_ATTRIBUTE);
+        if (permit instanceof Semaphore semaphore) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            semaphore.release();
+        }
+    }
+
+    private String resolveKey(RateLimited.Key key, HttpServletRequest request) {
+        switch (key) {
+            case GLOBAL:
+                return "global";
+            case ACCOUNT: {
+                Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+                if (authentication != null && authentication.isAuthenticated()
+                        && !(authentication instanceof AnonymousAuthenticationToken)) {
+                    return authentication.getName();
+                }
+                return RequestUtils.getClientIp(request);
+            }
+            case IP:
+            default:
+                return RequestUtils.getClientIp(request);
+        }
+    }
+
+    private void reject(HttpServletResponse response, String endpoint, String reason, String message) throws IOException {
+        meterRegistry.counter("ums.ratelimit.rejected", "endpoint", endpoint, "reason", reason).increment();
+        log.debug("接口限流: endpoint={}, reason={}", endpoint, reason);
+        response.setStatus(429);
+        response.setContentType("application/json;charset=UTF-8");
+        objectMapper.writeValue(response.getWriter(), BaseResponse.fail(ErrorCode.TOO_MANY_REQUESTS, message, ""));
+    }
+}
@@ -0,0 +1,70 @@
+package com.zixi.usermanagementsystem.ratelimit;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 接口限流注解（标注在 Controller 方法上，可重复标注组合多个维度）
+ *
+ * permits/windowSeconds 定义令牌桶：容量为 permits，每 windowSeconds 秒匀速补满；
+ * maxConcurrent 大于 0 时同时限制本节点该接口的并发请求数（舱壁）。
+ * 超限时返回 HTTP 429 与 BaseResponse。
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Repeatable(RateLimited.List.class)
+public @interface RateLimited {
+
+    /**
+     * 限流维度
+     */
+    Key key() default Key.IP;
+
+    /**
+     * 窗口内允许的请求数（令牌桶容量），0 表示不限速只限并发
+     */
+    int permits() default 0;
+
+    /**
+     * 令牌补满所需秒数
+     */
+    int windowSeconds() default 60;
+
+    /**
+     * 本节点最大并发请求数，0 表示不限制
+     */
+    int maxConcurrent() default 0;
+
+    /**
+     * 限流维度
+     */
+    enum Key {
+        /**
+         * 按客户端IP
+         */
+        IP,
+        /**
+         * 按登录账号，未登录时按IP
+         */
+        ACCOUNT,
+        /**
+         * 接口全局
+         */
+        GLOBAL
+    }
+
+    /**
+     * 重复标注容器
+     */
+    @Documented
+    @Target(ElementType.METHOD)
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface List {
+        RateLimited[] value();
+    }
+}
@@ -0,0 +1,18 @@
+package com.zixi.usermanagementsystem.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * 令牌桶限流器
+ */
+public interface RateLimiter {
+
+    /**
+     * 尝试获取一个令牌
+     * @param key 桶标识（接口 + 维度 + 维度值）
+     * @param capacity 桶容量
+     * @param refillPeriod 从空桶补满所需时间
+     * @return 是否获取成功
+     */
+    boolean tryAcquire(String key, int capacity, Duration refillPeriod);
+}
@@ -0,0 +1,58 @@
+package com.zixi.usermanagementsystem.ratelimit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 基于 Redis 的令牌桶，集群内共享
+ * 每个桶是一个 hash（tokens, ts），Lua 脚本原子地补充并扣减令牌，桶在补满所需时间后过期
+ */
+@Component
+@ConditionalOnProperty(prefix = "user-center.rate-limit", name = "store", havingValue = "redis")
+public class RedisTokenBucketRateLimiter implements RateLimiter {
+
+    private static final String KEY_PREFIX = "ums:ratelimit:";
+
+    /**
+     * KEYS[1] 桶；ARGV[1] 容量，ARGV[2] 每毫秒补充令牌数，ARGV[3] 当前毫秒时间，ARGV[4] 过期时间（毫秒）
+     * 获取成功返回 1，否则返回 0
+     */
+    private static final RedisScript<Long> TOKEN_BUCKET_SCRIPT = new DefaultRedisScript<>(
+            "local capacity = tonumber(ARGV[1]) "
+                    + "local rate = tonumber(ARGV[2]) "
+                    + "local now = tonumber(ARGV[3]) "
+                    + "local bucket = redis.call('HMGET', KEYS[1], 'tokens', 'ts') "
+                    + "local tokens = tonumber(bucket[1]) "
+                    + "local ts = tonumber(bucket[2]) "
+                    + "if tokens == nil or ts == nil then tokens = capacity ts = now end "
+                    + "tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate) "
+                    + "local allowed = 0 "
+                    + "if tokens >= 1 then tokens = tokens - 1 allowed = 1 end "
+                    + "redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', tostring(now)) "
+                    + "redis.call('PEXPIRE', KEYS[1], ARGV[4]) "
+                    + "return allowed",
+            Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    public RedisTokenBucketRateLimiter(StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    @Override
+    public boolean tryAcquire(String key, int capacity, Duration refillPeriod) {
+        long refillMillis = Math.max(1, refillPeriod.toMillis());
+        Long allowed = stringRedisTemplate.execute(TOKEN_BUCKET_SCRIPT, List.of(KEY_PREFIX + key),
+                String.valueOf(capacity),
+                String.valueOf((double) capacity / refillMillis),
+                String.valueOf(System.currentTimeMillis()),
+                String.valueOf(refillMillis));
+        return allowed != null && allowed == 1L;
+    }
+}
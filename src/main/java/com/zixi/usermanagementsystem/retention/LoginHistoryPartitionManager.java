@@ -0,0 +1,197 @@
+package com.zixi.usermanagementsystem.retention;
+
+import com.zixi.usermanagementsystem.configuration.RetentionProperties;
+import com.zixi.usermanagementsystem.mapper.LoginHistoryMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * 登录历史分区管理
+ * login_history 按 login_time 按月范围分区（见 V7__partition_login_history_by_month.sql）。
+ * 迁移只建立 p_legacy 和 p_future，按月分区全部由本任务创建：定期从 p_future 中拆分出从 p_legacy 上界
+ * 到未来几个月的分区，使新数据总是落在按月分区中；上界早于保留期限的分区整体删除，耗时与分区中的行数无关。多节点部署时通过 Redis 锁只在一个节点执行。
+ */
+@Slf4j
+@Component
+public class LoginHistoryPartitionManager {
+
+    static final String LOCK_NAME = "login-history-partition";
+
+    static final String LEGACY_PARTITION = "p_legacy";
+
+    static final String FUTURE_PARTITION = "p_future";
+
+    private static final Pattern MONTHLY_PARTITION = Pattern.compile("p\\d{6}");
+
+    private static final DateTimeFormatter PARTITION_NAME_FORMAT = DateTimeFormatter.ofPattern("'p'uuuuMM");
+
+    private final RetentionProperties properties;
+
+    private final LoginHistoryMapper loginHistoryMapper;
+
+    private final RedisJobLock jobLock;
+
+    private final MeterRegistry meterRegistry;
+
+    public LoginHistoryPartitionManager(RetentionProperties properties, LoginHistoryMapper loginHistoryMapper,
+                                        RedisJobLock jobLock, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.loginHistoryMapper = loginHistoryMapper;
+        this.jobLock = jobLock;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        scheduledMaintain();
+    }
+
+    @Scheduled(cron = "${user-center.retention.partition.cron:0 0 3 * * *}")
+    public void scheduledMaintain() {
+        if (!Boolean.TRUE.equals(properties.getPartition().getEnabled())) {
+            return;
+        }
+        String token;
+        try {
+            token = jobLock.tryLock(LOCK_NAME, properties.getLockTtl());
+        } catch (RuntimeException e) {
+            log.warn("获取分区维护锁失败，跳过本次执行", e);
+            return;
+        }
+        if (token == null) {
+            log.info("其他节点正在维护登录历史分区，跳过本次执行");
+            return;
+        }
+        try {
+            maintain(LocalDateTime.now());
+        } catch (RuntimeException e) {
+            log.error("登录历史分区维护失败", e);
+        } finally {
+            jobLock.unlock(LOCK_NAME, token);
+        }
+    }
+
+    /**
+     * 创建未来分区并删除过期分区
+     * @param now 当前时间
+     */
+    void maintain(LocalDateTime now) {
+        List<String> partitions = loginHistoryMapper.selectPartitionNames();
+        if (!partitions.contains(FUTURE_PARTITION)) {
+            log.warn("login_history 未按月分区，跳过分区维护: partitions={}", partitions);
+            return;
+        }
+        LocalDate legacyUpperBound = partitions.contains(LEGACY_PARTITION)
+                ? parseUpperBound(loginHistoryMapper.selectPartitionDescription(LEGACY_PARTITION)) : null;
+        createFuturePartitions(partitions, legacyUpperBound,
+                YearMonth.from(now).plusMonths(properties.getPartition().getFutureMonths()));
+        dropExpiredPartitions(partitions, legacyUpperBound, now.minus(properties.getLoginHistory()));
+    }
+
+    /**
+     * 从 p_future 中拆分出直到目标月份的按月分区
+     * @param partitions 现有分区
+     * @param legacyUpperBound p_legacy 的上界，还没有按月分区时从该月开始创建
+     * @param lastMonth 最后一个需要存在的月份
+     */
+    private void createFuturePartitions(List<String> partitions, LocalDate legacyUpperBound, YearMonth lastMonth) {
+        YearMonth latest = null;
+        for (String partition : partitions) {
+            if (MONTHLY_PARTITION.matcher(partition).matches()) {
+                YearMonth month = YearMonth.parse(partition, PARTITION_NAME_FORMAT);
+                if (latest == null || month.isAfter(latest)) {
+                    latest = month;
+                }
+            }
+        }
+        YearMonth month;
+        if (latest != null) {
+            month = latest.plusMonths(1);
+        } else if (legacyUpperBound != null) {
+            month = YearMonth.from(legacyUpperBound);
+        } else {
+            log.warn("无法确定 p_legacy 的上界，跳过创建登录历史分区");
+            return;
+        }
+
+        List<String> created = new ArrayList<>();
+        StringBuilder definitions = new StringBuilder();
+        for (; !month.isAfter(lastMonth); month = month.plusMonths(1)) {
+            String name = month.format(PARTITION_NAME_FORMAT);
+            definitions.append("PARTITION ").append(name)
+                    .append(" VALUES LESS THAN ('").append(month.plusMonths(1).atDay(1)).append("'), ");
+            created.add(name);
+        }
+        if (created.isEmpty()) {
+            return;
+        }
+        definitions.append("PARTITION ").append(FUTURE_PARTITION).append(" VALUES LESS THAN (MAXVALUE)");
+
+        loginHistoryMapper.reorganizeFuturePartition(definitions.toString());
+        meterRegistry.counter("ums.retention.partitions", "action", "created").increment(created.size());
+        log.info("创建登录历史分区: {}", created);
+    }
+
+    /**
+     * 删除上界不晚于保留期限的分区
+     * @param partitions 现有分区
+     * @param legacyUpperBound p_legacy 的上界
+     * @param cutoff 保留期限
+     */
+    private void dropExpiredPartitions(List<String> partitions, LocalDate legacyUpperBound, LocalDateTime cutoff) {
+        for (String partition : partitions) {
+            LocalDate upperBound = LEGACY_PARTITION.equals(partition) ? legacyUpperBound : upperBound(partition);
+            if (upperBound == null || upperBound.atStartOfDay().isAfter(cutoff)) {
+                continue;
+            }
+            loginHistoryMapper.dropPartition(partition);
+            meterRegistry.counter("ums.retention.partitions", "action", "dropped").increment();
+            log.info("删除过期登录历史分区: partition={}, upperBound={}", partition, upperBound);
+        }
+    }
+
+    /**
+     * 解析按月分区的上界（不含）
+     * @param partition 分区名
+     * @return 上界日期，p_legacy、p_future 或无法识别的分区返回 null
+     */
+    static LocalDate upperBound(String partition) {
+        if (MONTHLY_PARTITION.matcher(partition).matches()) {
+            return YearMonth.parse(partition, PARTITION_NAME_FORMAT).plusMonths(1).atDay(1);
+        }
+        return null;
+    }
+
+    /**
+     * 解析 information_schema 中的分区上界定义
+     * @param description PARTITION_DESCRIPTION，如 '2026-11-01 00:00:00'
+     * @return 上界日期，MAXVALUE 或无法解析时返回 null
+     */
+    static LocalDate parseUpperBound(String description) {
+        if (description == null) {
+            return null;
+        }
+        String value = description.replace("'", "").trim();
+        if (value.length() < 10) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value.substring(0, 10));
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.zixi.usermanagementsystem.retention;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 基于 Redis 的定时任务互斥锁
+ * 多节点部署时保证同一任务同一时刻只在一个节点执行；锁带有效期，持有节点宕机后自动释放
+ */
+@Component
+public class RedisJobLock {
+
+    private static final String LOCK_KEY_PREFIX = "ums:job:lock:";
+
+    /**
+     * 比较并删除：仍由当前持有者持有时才释放，避免过期后误删其他节点的锁
+     */
+    private static final RedisScript<Long> UNLOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then "
+                    + "return redis.call('DEL', KEYS[1]) "
+                    + "end "
+                    + "return 0",
+            Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    public RedisJobLock(StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    /**
+     * 尝试获取锁
+     * @param name 任务名
+     * @param ttl 锁有效期
+     * @return 持有者令牌，释放时使用；锁已被其他节点持有时返回 null
+     */
+    public String tryLock(String name, Duration ttl) {
+        String token = UUID.randomUUID().toString();
+        Boolean acquired = stringRedisTemplate.opsForValue().setIfAbsent(LOCK_KEY_PREFIX + name, token, ttl);
+        return Boolean.TRUE.equals(acquired) ? token : null;
+    }
+
+    /**
+     * 释放锁
+     * @param name 任务名
+     * @param token 获取锁时返回的令牌
+     */
+    public void unlock(String name, String token) {
+        stringRedisTemplate.execute(UNLOCK_SCRIPT, List.of(LOCK_KEY_PREFIX + name), token);
+    }
+}
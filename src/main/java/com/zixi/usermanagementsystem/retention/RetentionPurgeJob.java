@@ -0,0 +1,223 @@
+package com.zixi.usermanagementsystem.retention;
+
+import com.zixi.usermanagementsystem.configuration.RetentionProperties;
+import com.zixi.usermanagementsystem.constant.LoginStatsGranularity;
+import com.zixi.usermanagementsystem.mapper.LoginHistoryMapper;
+import com.zixi.usermanagementsystem.mapper.LoginStatsRollupMapper;
+import com.zixi.usermanagementsystem.mapper.VerificationCodeMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 过期数据定时清理
+ * 清理过期的验证码和超过保留时间的登录历史（登录历史按月分区时由 LoginHistoryPartitionManager 删除整个分区）。每张表先确定待删除数据的ID上界，再按固定大小的ID范围分批删除，
+ * 每条 DELETE 只锁定一小段主键范围，批次之间停顿以免造成从库复制延迟。
+ * 登录统计汇总表按粒度分别保留，行数很少，直接按时间桶分批删除。
+ * 多节点部署时通过 Redis 锁保证只有一个节点执行；单次执行超过最长时间后停止，剩余数据下次继续。
+ */
+@Slf4j
+@Component
+public class RetentionPurgeJob {
+
+    static final String LOCK_NAME = "retention-purge";
+
+    static final String TABLE_VERIFICATION_CODE = "verification_code";
+
+    static final String TABLE_LOGIN_HISTORY = "login_history";
+
+    static final String TABLE_LOGIN_STATS_ROLLUP = "login_stats_rollup";
+
+    private final RetentionProperties properties;
+
+    private final VerificationCodeMapper verificationCodeMapper;
+
+    private final LoginHistoryMapper loginHistoryMapper;
+
+    private final LoginStatsRollupMapper loginStatsRollupMapper;
+
+    private final RedisJobLock jobLock;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Timer runTimer;
+
+    public RetentionPurgeJob(RetentionProperties properties, VerificationCodeMapper verificationCodeMapper,
+                             LoginHistoryMapper loginHistoryMapper, LoginStatsRollupMapper loginStatsRollupMapper,
+                             RedisJobLock jobLock, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.verificationCodeMapper = verificationCodeMapper;
+        this.loginHistoryMapper = loginHistoryMapper;
+        this.loginStatsRollupMapper = loginStatsRollupMapper;
+        this.jobLock = jobLock;
+        this.meterRegistry = meterRegistry;
+        this.runTimer = Timer.builder("ums.retention.run")
+                .description("过期数据清理单次执行耗时")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${user-center.retention.cron:0 30 3 * * *}")
+    public void scheduledPurge() {
+        if (!Boolean.TRUE.equals(properties.getEnabled())) {
+            return;
+        }
+        String token;
+        try {
+            token = jobLock.tryLock(LOCK_NAME, properties.getLockTtl());
+        } catch (RuntimeException e) {
+            log.warn("获取数据清理锁失败，跳过本次执行", e);
+            return;
+        }
+        if (token == null) {
+            log.info("其他节点正在执行数据清理，跳过本次执行");
+            return;
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            purgeAll();
+        } finally {
+            sample.stop(runTimer);
+            jobLock.unlock(LOCK_NAME, token);
+        }
+    }
+
+    /**
+     * 依次清理各表
+     * @return 各表删除行数
+     */
+    Map<String, Long> purgeAll() {
+        long start = System.nanoTime();
+        long deadline = start + properties.getMaxRunTime().toNanos();
+        LocalDateTime now = LocalDateTime.now();
+
+        Map<String, Long> purged = new LinkedHashMap<>();
+        purged.put(TABLE_VERIFICATION_CODE, purge(TABLE_VERIFICATION_CODE,
+                now.minus(properties.getVerificationCode()), deadline,
+                verificationCodeMapper::selectMinId,
+                verificationCodeMapper::selectLastIdExpiredBefore,
+                verificationCodeMapper::deleteInRangeExpiredBefore));
+        // 登录历史按月分区时由 LoginHistoryPartitionManager 整体删除过期分区
+        if (!Boolean.TRUE.equals(properties.getPartition().getEnabled())) {
+            purged.put(TABLE_LOGIN_HISTORY, purge(TABLE_LOGIN_HISTORY,
+                    now.minus(properties.getLoginHistory()), deadline,
+                    loginHistoryMapper::selectMinId,
+                    loginHistoryMapper::selectLastIdBefore,
+                    loginHistoryMapper::deleteInRangeBefore));
+        }
+        purged.put(TABLE_LOGIN_STATS_ROLLUP,
+                purgeLoginStats(LoginStatsGranularity.MINUTE, now.minus(properties.getLoginStatsMinute()), deadline)
+                        + purgeLoginStats(LoginStatsGranularity.HOUR, now.minus(properties.getLoginStatsHour()), deadline));
+
+        log.info("过期数据清理完成: purged={}, elapsed={}ms",
+                purged, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return purged;
+    }
+
+    /**
+     * 按ID范围分批删除一张表中早于截止时间的数据
+     * @param table 表名（日志和指标标签）
+     * @param cutoff 截止时间
+     * @param deadline 本次执行的截止时刻（System.nanoTime）
+     * @param minId 查询最小ID
+     * @param lastIdBefore 查询早于截止时间的最后一条记录ID
+     * @param rangeDelete 删除ID范围内早于截止时间的数据
+     * @return 删除行数
+     */
+    private long purge(String table, LocalDateTime cutoff, long deadline, Supplier<Long> minId,
+                       Function<LocalDateTime, Long> lastIdBefore, RangeDelete rangeDelete) {
+        Long upperId = lastIdBefore.apply(cutoff);
+        Long lowerId = minId.get();
+        if (upperId == null || lowerId == null) {
+            return 0;
+        }
+
+        Counter purgedCounter = Counter.builder("ums.retention.purged")
+                .description("过期数据清理删除行数")
+                .tag("table", table)
+                .register(meterRegistry);
+        int batchSize = Math.max(1, properties.getBatchSize());
+        long purged = 0;
+        long fromId = lowerId;
+        while (fromId <= upperId) {
+            long toId = Math.min(upperId, fromId + batchSize - 1);
+            int deleted = rangeDelete.delete(fromId, toId, cutoff);
+            purged += deleted;
+            purgedCounter.increment(deleted);
+            fromId = toId + 1;
+
+            if (fromId > upperId) {
+                break;
+            }
+            if (System.nanoTime() > deadline) {
+                log.warn("过期数据清理超过最长执行时间，剩余数据下次继续: table={}, nextId={}, upperId={}",
+                        table, fromId, upperId);
+                break;
+            }
+            if (!pause()) {
+                break;
+            }
+        }
+        return purged;
+    }
+
+    /**
+     * 分批删除一个粒度下早于截止时间的登录统计时间桶
+     * @param granularity 汇总粒度
+     * @param cutoff 截止时间
+     * @param deadline 本次执行的截止时刻（System.nanoTime）
+     * @return 删除行数
+     */
+    private long purgeLoginStats(LoginStatsGranularity granularity, LocalDateTime cutoff, long deadline) {
+        Counter purgedCounter = Counter.builder("ums.retention.purged")
+                .description("过期数据清理删除行数")
+                .tag("table", TABLE_LOGIN_STATS_ROLLUP)
+                .register(meterRegistry);
+        int batchSize = Math.max(1, properties.getBatchSize());
+        long purged = 0;
+        while (true) {
+            int deleted = loginStatsRollupMapper.deleteBefore(granularity.name(), cutoff, batchSize);
+            purged += deleted;
+            purgedCounter.increment(deleted);
+            if (deleted < batchSize || System.nanoTime() > deadline || !pause()) {
+                return purged;
+            }
+        }
+    }
+
+    /**
+     * 批次间停顿
+     * @return 是否继续执行，线程被中断时返回 false
+     */
+    private boolean pause() {
+        long pauseMillis = properties.getBatchPause().toMillis();
+        if (pauseMillis <= 0) {
+            return true;
+        }
+        try {
+            TimeUnit.MILLISECONDS.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * 按ID范围删除
+     */
+    @FunctionalInterface
+    private interface RangeDelete {
+
+        int delete(long fromId, long toId, LocalDateTime cutoff);
+    }
+}
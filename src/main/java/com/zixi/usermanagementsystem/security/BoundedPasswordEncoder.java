@@ -0,0 +1,135 @@
+package com.zixi.usermanagementsystem.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * 在独立有界线程池中执行密码哈希的 PasswordEncoder
+ *
+ * 登录、注册和修改密码的 BCrypt 计算不再占用 Tomcat 请求线程的 CPU 时间，并发哈希数不超过线程数；
+ * 队列满或等待超时时立即抛出 PasswordHashingRejectedException，避免登录高峰拖垮其他接口。
+ * 记录哈希耗时（ums.password.hash）、排队时间（ums.password.hash.queue）、排队任务数（ums.password.hash.queue.size）
+ * 和拒绝次数（ums.password.hash.rejected）。
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private static final String BUSY_MESSAGE = "系统繁忙，请稍后重试";
+
+    private final PasswordEncoder delegate;
+
+    private final ThreadPoolExecutor executor;
+
+    private final long maxWaitMillis;
+
+    private final Timer encodeTimer;
+
+    private final Timer matchesTimer;
+
+    private final Timer queueTimer;
+
+    private final Counter rejectedCounter;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, Duration maxWait,
+                                  MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.maxWaitMillis = maxWait.toMillis();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("password-hash-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.encodeTimer = Timer.builder("ums.password.hash")
+                .tag("operation", "encode")
+                .description("Password hashing time")
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder("ums.password.hash")
+                .tag("operation", "matches")
+                .description("Password hashing time")
+                .register(meterRegistry);
+        this.queueTimer = Timer.builder("ums.password.hash.queue")
+                .description("Time password hashing tasks wait for a hashing thread")
+                .register(meterRegistry);
+        Gauge.builder("ums.password.hash.queue.size", executor, pool -> pool.getQueue().size())
+                .description("Password hashing tasks waiting for a hashing thread")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("ums.password.hash.rejected")
+                .description("Password hashing tasks rejected because the hashing pool is saturated")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> delegate.encode(rawPassword), encodeTimer);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> delegate.matches(rawPassword, encodedPassword), matchesTimer);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        // 只解析哈希前缀与 cost，无需进入线程池
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * 关闭哈希线程池
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T execute(Supplier<T> task, Timer timer) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                queueTimer.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+                try {
+                    return task.get();
+                } finally {
+                    timer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new PasswordHashingRejectedException(BUSY_MESSAGE);
+        }
+
+        try {
+            return future.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCounter.increment();
+            throw new PasswordHashingRejectedException(BUSY_MESSAGE);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingRejectedException(BUSY_MESSAGE);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
@@ -0,0 +1,380 @@
+package com.zixi.usermanagementsystem.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.zixi.usermanagementsystem.configuration.UserSessionProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.MapSession;
+import org.springframework.session.Session;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 本地 + Redis 两级 Session 仓库
+ *
+ * 最近使用的 Session 以序列化后的属性快照缓存在本地，命中时不访问 Redis，每次请求重新反序列化，请求之间不共享对象。
+ * 只有修改属性、超时时间或 Session ID 时才从 Redis 加载原 Session 并写回；
+ * 仅访问时间变化时，距上次写入超过阈值才写回 Redis，其余请求只更新本地快照。
+ *
+ * 写入或删除 Session 后通过 Redis 发布失效通知，其他节点收到后清除本地缓存（登出在所有节点生效）；
+ * 本地缓存的有效期作为通知丢失时的兜底，从条目首次载入起计算，后续更新不会延长，活跃 Session 也会按期从 Redis 重新加载；
+ * 本地快照对应的原 Session 已不存在时清除缓存，按 Session 失效处理，不会用快照恢复。
+ * @param <S> 被代理仓库的 Session 类型
+ */
+@Slf4j
+public class CachingSessionRepository<S extends Session> implements FindByIndexNameSessionRepository<Session> {
+
+    /**
+     * 失效通知频道，消息格式：节点ID|SessionID
+     */
+    public static final String INVALIDATION_CHANNEL = "ums:session:invalidate";
+
+    private final FindByIndexNameSessionRepository<S> delegate;
+
+    private final RedisSerializer<Object> serializer;
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final Duration lastAccessedWriteThreshold;
+
+    private final Cache<String, CachedEntry> cache;
+
+    private final Counter skippedWriteCounter;
+
+    /**
+     * 当前节点ID，用于忽略自己发出的失效通知
+     */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public CachingSessionRepository(FindByIndexNameSessionRepository<S> delegate,
+                                    RedisSerializer<Object> serializer,
+                                    StringRedisTemplate stringRedisTemplate,
+                                    UserSessionProperties.Cache properties,
+                                    MeterRegistry meterRegistry) {
+        this(delegate, serializer, stringRedisTemplate, properties, meterRegistry, Ticker.systemTicker());
+    }
+
+    CachingSessionRepository(FindByIndexNameSessionRepository<S> delegate,
+                             RedisSerializer<Object> serializer,
+                             StringRedisTemplate stringRedisTemplate,
+                             UserSessionProperties.Cache properties,
+                             MeterRegistry meterRegistry,
+                             Ticker ticker) {
+        this.delegate = delegate;
+        this.serializer = serializer;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.lastAccessedWriteThreshold = properties.getLastAccessedWriteThreshold();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfter(new FixedDeadlineExpiry(properties.getTtl()))
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "sessions");
+        this.skippedWriteCounter = Counter.builder("ums.session.cache.write.skipped")
+                .description("Session saves coalesced into the local cache")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Session createSession() {
+        return delegate.createSession();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void save(Session session) {
+        if (session instanceof CachingSessionRepository.CachedSession) {
+            saveCached((CachedSession) session);
+            return;
+        }
+        S target = (S) session;
+        delegate.save(target);
+        cache.put(target.getId(), CachedEntry.of(target, serializer));
+    }
+
+    @Override
+    public Session findById(String id) {
+        CachedEntry entry = cache.getIfPresent(id);
+        if (entry != null) {
+            MapSession snapshot = entry.toSession(serializer);
+            if (!snapshot.isExpired()) {
+                return new CachedSession(snapshot, null, entry.persistedLastAccessedTime());
+            }
+            cache.invalidate(id);
+        }
+
+        S loaded = delegate.findById(id);
+        if (loaded == null) {
+            return null;
+        }
+        cache.put(id, CachedEntry.of(loaded, serializer));
+        return new CachedSession(new MapSession(loaded), loaded, loaded.getLastAccessedTime());
+    }
+
+    @Override
+    public void deleteById(String id) {
+        delegate.deleteById(id);
+        cache.invalidate(id);
+        publishInvalidation(id);
+    }
+
+    @Override
+    public Map<String, Session> findByIndexNameAndIndexValue(String indexName, String indexValue) {
+        return new HashMap<>(delegate.findByIndexNameAndIndexValue(indexName, indexValue));
+    }
+
+    /**
+     * 处理其他节点发布的失效通知
+     * @param message 通知内容：节点ID|SessionID
+     */
+    public void onInvalidation(String message) {
+        int separator = message.indexOf('|');
+        if (separator < 0 || message.substring(0, separator).equals(nodeId)) {
+            return;
+        }
+        cache.invalidate(message.substring(separator + 1));
+    }
+
+    private void saveCached(CachedSession cached) {
+        Duration sinceWrite = Duration.between(cached.persistedLastAccessedTime, cached.getLastAccessedTime());
+        if (!cached.dirty && sinceWrite.compareTo(lastAccessedWriteThreshold) < 0) {
+            // 仅访问时间变化：只更新本地快照，不写 Redis
+            cache.asMap().computeIfPresent(cached.getId(),
+                    (id, entry) -> entry.withLastAccessedTime(cached.getLastAccessedTime()));
+            skippedWriteCounter.increment();
+            return;
+        }
+
+        S target = cached.materialize();
+        if (target == null) {
+            // 原 Session 已不存在：不写回 Redis，下次请求按无 Session 处理
+            return;
+        }
+        delegate.save(target);
+        if (!cached.originalId.equals(target.getId())) {
+            cache.invalidate(cached.originalId);
+        }
+        cache.put(target.getId(), CachedEntry.of(target, serializer));
+        if (cached.dirty) {
+            publishInvalidation(cached.originalId);
+        }
+        cached.markPersisted();
+    }
+
+    private void publishInvalidation(String sessionId) {
+        try {
+            stringRedisTemplate.convertAndSend(INVALIDATION_CHANNEL, nodeId + "|" + sessionId);
+        } catch (Exception e) {
+            // 通知失败时其他节点依靠缓存有效期兜底
+            log.warn("Session 失效通知发送失败: sessionId={}", sessionId, e);
+        }
+    }
+
+    /**
+     * 本地缓存有效期：从条目创建起固定，更新和读取都不重置
+     */
+    private static final class FixedDeadlineExpiry implements Expiry<String, CachedEntry> {
+
+        private final long ttlNanos;
+
+        FixedDeadlineExpiry(Duration ttl) {
+            this.ttlNanos = ttl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String key, CachedEntry value, long currentTime) {
+            return ttlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedEntry value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedEntry value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    /**
+     * 本地缓存条目：Session 元数据与序列化后的属性
+     */
+    record CachedEntry(String id, Instant creationTime, Instant lastAccessedTime, Duration maxInactiveInterval,
+                       Map<String, byte[]> attributes, Instant persistedLastAccessedTime) {
+
+        static CachedEntry of(Session session, RedisSerializer<Object> serializer) {
+            Map<String, byte[]> attributes = new HashMap<>();
+            for (String name : session.getAttributeNames()) {
+                attributes.put(name, serializer.serialize(session.getAttribute(name)));
+            }
+            return new CachedEntry(session.getId(), session.getCreationTime(), session.getLastAccessedTime(),
+                    session.getMaxInactiveInterval(), attributes, session.getLastAccessedTime());
+        }
+
+        MapSession toSession(RedisSerializer<Object> serializer) {
+            MapSession session = new MapSession(id);
+            session.setCreationTime(creationTime);
+            session.setLastAccessedTime(lastAccessedTime);
+            session.setMaxInactiveInterval(maxInactiveInterval);
+            attributes.forEach((name, bytes) -> session.setAttribute(name, serializer.deserialize(bytes)));
+            return session;
+        }
+
+        CachedEntry withLastAccessedTime(Instant time) {
+            return new CachedEntry(id, creationTime, time, maxInactiveInterval, attributes, persistedLastAccessedTime);
+        }
+    }
+
+    /**
+     * 从本地缓存返回的 Session
+     * 读取使用本地快照；修改时才从 Redis 加载原 Session（materialize），修改同时作用于两者
+     */
+    final class CachedSession implements Session {
+
+        private final MapSession snapshot;
+
+        private final String originalId;
+
+        private S materialized;
+
+        private Instant persistedLastAccessedTime;
+
+        private boolean dirty;
+
+        /**
+         * 原 Session 已在其他节点登出或过期
+         */
+        private boolean invalidated;
+
+        CachedSession(MapSession snapshot, S materialized, Instant persistedLastAccessedTime) {
+            this.snapshot = snapshot;
+            this.originalId = snapshot.getId();
+            this.materialized = materialized;
+            this.persistedLastAccessedTime = persistedLastAccessedTime;
+        }
+
+        /**
+         * 加载被代理仓库中的 Session
+         * 原 Session 已在其他节点登出或过期时不能用本地快照恢复：清除本地缓存并将本 Session 标记为失效
+         * @return 原 Session，已失效时返回 null
+         */
+        S materialize() {
+            if (materialized == null) {
+                if (invalidated) {
+                    return null;
+                }
+                S loaded = delegate.findById(originalId);
+                if (loaded == null) {
+                    cache.invalidate(originalId);
+                    invalidated = true;
+                    return null;
+                }
+                materialized = loaded;
+            }
+            materialized.setLastAccessedTime(snapshot.getLastAccessedTime());
+            return materialized;
+        }
+
+        void markPersisted() {
+            dirty = false;
+            persistedLastAccessedTime = snapshot.getLastAccessedTime();
+        }
+
+        @Override
+        public String getId() {
+            return snapshot.getId();
+        }
+
+        @Override
+        public String changeSessionId() {
+            S target = materialize();
+            String newId = target != null ? target.changeSessionId() : UUID.randomUUID().toString();
+            snapshot.setId(newId);
+            dirty = true;
+            return newId;
+        }
+
+        @Override
+        public <T> T getAttribute(String attributeName) {
+            return snapshot.getAttribute(attributeName);
+        }
+
+        @Override
+        public Set<String> getAttributeNames() {
+            return snapshot.getAttributeNames();
+        }
+
+        @Override
+        public void setAttribute(String attributeName, Object attributeValue) {
+            S target = materialize();
+            if (target != null) {
+                target.setAttribute(attributeName, attributeValue);
+            }
+            snapshot.setAttribute(attributeName, attributeValue);
+            dirty = true;
+        }
+
+        @Override
+        public void removeAttribute(String attributeName) {
+            S target = materialize();
+            if (target != null) {
+                target.removeAttribute(attributeName);
+            }
+            snapshot.removeAttribute(attributeName);
+            dirty = true;
+        }
+
+        @Override
+        public Instant getCreationTime() {
+            return snapshot.getCreationTime();
+        }
+
+        @Override
+        public void setLastAccessedTime(Instant lastAccessedTime) {
+            snapshot.setLastAccessedTime(lastAccessedTime);
+            if (materialized != null) {
+                materialized.setLastAccessedTime(lastAccessedTime);
+            }
+        }
+
+        @Override
+        public Instant getLastAccessedTime() {
+            return snapshot.getLastAccessedTime();
+        }
+
+        @Override
+        public void setMaxInactiveInterval(Duration interval) {
+            S target = materialize();
+            if (target != null) {
+                target.setMaxInactiveInterval(interval);
+            }
+            snapshot.setMaxInactiveInterval(interval);
+            dirty = true;
+        }
+
+        @Override
+        public Duration getMaxInactiveInterval() {
+            return snapshot.getMaxInactiveInterval();
+        }
+
+        @Override
+        public boolean isExpired() {
+            return invalidated || snapshot.isExpired();
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.zixi.usermanagementsystem.security;
+
+import com.zixi.usermanagementsystem.constant.UserRoleEnum;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Session 属性紧凑二进制序列化器
+ *
+ * 格式：1 字节魔数 0xC5 + 1 字节版本号 + 带类型标记的值。
+ * SecurityContextImpl、UsernamePasswordAuthenticationToken、User、LoginUser、WebAuthenticationDetails、SimpleSavedRequest
+ * 以及 Session 元数据使用的 String/Long/Integer 按字段写入，不携带类名；其他类型嵌套写入 JSON。
+ * 字符串按 writeUTF 写入，编码后超过 65535 字节时整个属性值改为 JSON 格式写入。
+ *
+ * 读取时不以魔数开头的数据按旧 JSON 格式解析，compact 为 false 时只写 JSON。
+ * 滚动升级时先以 JSON 模式部署新版本（可读两种格式），全部节点升级后再切换为紧凑格式。
+ */
+public class CompactSessionSerializer implements RedisSerializer<Object> {
+
+    /**
+     * 魔数，不会出现在 JSON 的首字节
+     */
+    static final byte MAGIC = (byte) 0xC5;
+
+    /**
+     * 当前格式版本
+     */
+    static final byte VERSION = 1;
+
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_STRING = 1;
+    private static final byte TAG_LONG = 2;
+    private static final byte TAG_INTEGER = 3;
+    private static final byte TAG_SECURITY_CONTEXT = 4;
+    private static final byte TAG_USERNAME_PASSWORD_TOKEN = 5;
+    private static final byte TAG_WEB_AUTHENTICATION_DETAILS = 6;
+    private static final byte TAG_SAVED_REQUEST = 7;
+    private static final byte TAG_USER = 8;
+    private static final byte TAG_LOGIN_USER = 9;
+    private static final byte TAG_JSON = 127;
+
+    private final RedisSerializer<Object> jsonSerializer;
+
+    private final boolean compact;
+
+    /**
+     * @param jsonSerializer 旧格式 JSON 序列化器，用于回退与兼容读取
+     * @param compact 是否以紧凑格式写入
+     */
+    public CompactSessionSerializer(RedisSerializer<Object> jsonSerializer, boolean compact) {
+        this.jsonSerializer = jsonSerializer;
+        this.compact = compact;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        if (!compact) {
+            return jsonSerializer.serialize(value);
+        }
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(MAGIC);
+            out.writeByte(VERSION);
+            writeValue(out, value);
+            out.flush();
+            return bytes.toByteArray();
+        } catch (UTFDataFormatException e) {
+            // 字符串超过 writeUTF 的长度上限
+            return jsonSerializer.serialize(value);
+        } catch (IOException e) {
+            throw new SerializationException("Could not write compact session attribute", e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            // 旧格式 JSON
+            return jsonSerializer.deserialize(bytes);
+        }
+        if (bytes.length < 2 || bytes[1] != VERSION) {
+            throw new SerializationException("Unsupported compact session format version");
+        }
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 2, bytes.length - 2));
+            return readValue(in);
+        } catch (IOException e) {
+            throw new SerializationException("Could not read compact session attribute", e);
+        }
+    }
+
+    private void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(TAG_NULL);
+        } else if (value instanceof String string) {
+            out.writeByte(TAG_STRING);
+            out.writeUTF(string);
+        } else if (value instanceof Long longValue) {
+            out.writeByte(TAG_LONG);
+            out.writeLong(longValue);
+        } else if (value instanceof Integer intValue) {
+            out.writeByte(TAG_INTEGER);
+            out.writeInt(intValue);
+        } else if (value.getClass() == SecurityContextImpl.class) {
+            out.writeByte(TAG_SECURITY_CONTEXT);
+            writeValue(out, ((SecurityContextImpl) value).getAuthentication());
+        } else if (value.getClass() == UsernamePasswordAuthenticationToken.class) {
+            UsernamePasswordAuthenticationToken token = (UsernamePasswordAuthenticationToken) value;
+            out.writeByte(TAG_USERNAME_PASSWORD_TOKEN);
+            out.writeBoolean(token.isAuthenticated());
+            writeValue(out, token.getPrincipal());
+            writeValue(out, token.getCredentials());
+            writeAuthorities(out, token.getAuthorities());
+            writeValue(out, token.getDetails());
+        } else if (value.getClass() == User.class) {
+            User user = (User) value;
+            out.writeByte(TAG_USER);
+            out.writeUTF(user.getUsername());
+            writeNullableString(out, user.getPassword());
+            out.writeBoolean(user.isEnabled());
+            out.writeBoolean(user.isAccountNonExpired());
+            out.writeBoolean(user.isCredentialsNonExpired());
+            out.writeBoolean(user.isAccountNonLocked());
+            writeAuthorities(out, user.getAuthorities());
+        } else if (value.getClass() == LoginUser.class) {
+            LoginUser loginUser = (LoginUser) value;
+            out.writeByte(TAG_LOGIN_USER);
+            writeValue(out, loginUser.getId());
+            out.writeUTF(loginUser.getUsername());
+            writeNullableString(out, loginUser.getPassword());
+            out.writeByte(loginUser.getRole() == null ? -1 : loginUser.getRole().getValue());
+            writeValue(out, loginUser.getStatus());
+        } else if (value.getClass() == WebAuthenticationDetails.class) {
+            WebAuthenticationDetails details = (WebAuthenticationDetails) value;
+            out.writeByte(TAG_WEB_AUTHENTICATION_DETAILS);
+            writeNullableString(out, details.getRemoteAddress());
+            writeNullableString(out, details.getSessionId());
+        } else if (value instanceof SerializableRequestCache.SimpleSavedRequest savedRequest) {
+            out.writeByte(TAG_SAVED_REQUEST);
+            writeNullableString(out, savedRequest.getRedirectUrl());
+        } else {
+            byte[] json = jsonSerializer.serialize(value);
+            out.writeByte(TAG_JSON);
+            out.writeInt(json.length);
+            out.write(json);
+        }
+    }
+
+    private Object readValue(DataInputStream in) throws IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_STRING:
+                return in.readUTF();
+            case TAG_LONG:
+                return in.readLong();
+            case TAG_INTEGER:
+                return in.readInt();
+            case TAG_SECURITY_CONTEXT:
+                return new SecurityContextImpl((Authentication) readValue(in));
+            case TAG_USERNAME_PASSWORD_TOKEN: {
+                boolean authenticated = in.readBoolean();
+                Object principal = readValue(in);
+                Object credentials = readValue(in);
+                List<GrantedAuthority> authorities = readAuthorities(in);
+                UsernamePasswordAuthenticationToken token = authenticated
+                        ? UsernamePasswordAuthenticationToken.authenticated(principal, credentials, authorities)
+                        : UsernamePasswordAuthenticationToken.unauthenticated(principal, credentials);
+                token.setDetails(readValue(in));
+                return token;
+            }
+            case TAG_USER: {
+                String username = in.readUTF();
+                String password = readNullableString(in);
+                boolean enabled = in.readBoolean();
+                boolean accountNonExpired = in.readBoolean();
+                boolean credentialsNonExpired = in.readBoolean();
+                boolean accountNonLocked = in.readBoolean();
+                List<GrantedAuthority> authorities = readAuthorities(in);
+                User user = new User(username, password != null ? password : "", enabled,
+                        accountNonExpired, credentialsNonExpired, accountNonLocked, authorities);
+                if (password == null) {
+                    // 登录成功后密码已被擦除
+                    user.eraseCredentials();
+                }
+                return user;
+            }
+            case TAG_LOGIN_USER: {
+                Long id = (Long) readValue(in);
+                String username = in.readUTF();
+                String password = readNullableString(in);
+                byte role = in.readByte();
+                Integer status = (Integer) readValue(in);
+                // 权限由角色推导；password 为 null 时构造器会擦除凭证
+                return new LoginUser(id, username, password, role < 0 ? null : UserRoleEnum.getByValue(role), status);
+            }
+            case TAG_WEB_AUTHENTICATION_DETAILS:
+                return new WebAuthenticationDetails(readNullableString(in), readNullableString(in));
+            case TAG_SAVED_REQUEST:
+                return new SerializableRequestCache.SimpleSavedRequest(readNullableString(in));
+            case TAG_JSON: {
+                byte[] json = new byte[in.readInt()];
+                in.readFully(json);
+                return jsonSerializer.deserialize(json);
+            }
+            default:
+                throw new SerializationException("Unknown compact session type tag: " + tag);
+        }
+    }
+
+    private void writeAuthorities(DataOutputStream out, Collection<? extends GrantedAuthority> authorities) throws IOException {
+        out.writeShort(authorities.size());
+        for (GrantedAuthority authority : authorities) {
+            out.writeUTF(authority.getAuthority());
+        }
+    }
+
+    private List<GrantedAuthority> readAuthorities(DataInputStream in) throws IOException {
+        int size = in.readUnsignedShort();
+        List<GrantedAuthority> authorities = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            authorities.add(new SimpleGrantedAuthority(in.readUTF()));
+        }
+        return authorities;
+    }
+
+    private void writeNullableString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private String readNullableString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
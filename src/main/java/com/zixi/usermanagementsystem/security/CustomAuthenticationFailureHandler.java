@@ -17,7 +17,7 @@ import java.io.IOException;
 
 /**
  * 自定义登录失败处理器
- * 记录登录失败日志
+ * 记录登录失败日志，密码错误时累计账号失败次数
  */
 @Slf4j
 @Component
@@ -26,9 +26,20 @@ public class CustomAuthenticationFailureHandler implements AuthenticationFailure
     @Resource
     private LoginHistoryService loginHistoryService;
 
+    @Resource
+    private LoginAttemptLimiter loginAttemptLimiter;
+
     @Override
     public void onAuthenticationFailure(HttpServletRequest request, HttpServletResponse response,
                                         AuthenticationException exception) throws IOException, ServletException {
+        // 密码哈希线程池繁忙：快速返回 503，不计为登录失败
+        if (exception instanceof PasswordHashingRejectedException) {
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setContentType("application/json;charset=UTF-8");
+            response.getWriter().print("{\"success\":false,\"code\":50300,\"message\":\"" + exception.getMessage() + "\",\"data\":null}");
+            return;
+        }
+
         // 获取登录账号（从请求参数中获取）
         String account = request.getParameter("account");
         if (account == null) {
@@ -39,6 +50,8 @@ public class CustomAuthenticationFailureHandler implements AuthenticationFailure
         String failReason;
         if (exception instanceof BadCredentialsException) {
             failReason = "用户名或密码错误";
+            // 计入账号失败次数，达到上限后由 LoginRateLimitFilter 锁定
+            loginAttemptLimiter.recordFailure(request.getParameter("account"));
         } else if (exception instanceof DisabledException) {
             failReason = "账号已被禁用";
         } else if (exception instanceof LockedException) {
@@ -54,8 +67,8 @@ public class CustomAuthenticationFailureHandler implements AuthenticationFailure
             log.error("记录登录失败日志失败", e);
         }
 
-        // 返回登录失败响应
-        response.setStatus(401);
+        // 返回登录失败响应，超过登录限流时返回 429
+        response.setStatus(exception instanceof LoginAttemptsExceededException ? 429 : 401);
         response.setContentType("application/json;charset=UTF-8");
         response.getWriter().print("{\"success\":false,\"code\":40100,\"message\":\"" + failReason + "\",\"data\":null}");
     }
@@ -1,15 +1,16 @@
 package com.zixi.usermanagementsystem.security;
 
-import com.zixi.usermanagementsystem.model.domain.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zixi.usermanagementsystem.common.BaseResponse;
+import com.zixi.usermanagementsystem.configuration.AuthProperties;
 import com.zixi.usermanagementsystem.service.LoginHistoryService;
-import com.zixi.usermanagementsystem.service.UserProfileService;
 import jakarta.annotation.Resource;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
 import org.springframework.stereotype.Component;
 
@@ -17,7 +18,8 @@ import java.io.IOException;
 
 /**
  * 自定义登录成功处理器
- * 记录登录历史日志
+ * 记录登录历史日志；token 认证模式下在响应中返回访问令牌和刷新令牌
+ * 用户ID与角色取自认证时加载的 LoginUser，不再查询 user 表
  */
 @Slf4j
 @Component
@@ -27,17 +29,27 @@ public class CustomAuthenticationSuccessHandler implements AuthenticationSuccess
     private LoginHistoryService loginHistoryService;
 
     @Resource
-    private UserProfileService userProfileService;
+    private LoginAttemptLimiter loginAttemptLimiter;
+
+    @Resource
+    private AuthProperties authProperties;
+
+    @Resource
+    private ObjectProvider<TokenService> tokenServiceProvider;
+
+    @Resource
+    private ObjectMapper objectMapper;
 
     @Override
     public void onAuthenticationSuccess(HttpServletRequest request, HttpServletResponse response,
                                         Authentication authentication) throws IOException, ServletException {
-        // 获取登录账号
+        // 获取登录用户
         String account = authentication.getName();
+        LoginUser loginUser = authentication.getPrincipal() instanceof LoginUser principal ? principal : null;
+        Long userId = loginUser != null ? loginUser.getId() : null;
 
-        // 查询用户ID
-        User user = userProfileService.getUserByAccount(account);
-        Long userId = user != null ? user.getId() : null;
+        // 清除账号密码错误次数
+        loginAttemptLimiter.recordSuccess(account);
 
         // 记录登录成功日志
         try {
@@ -49,6 +61,11 @@ public class CustomAuthenticationSuccessHandler implements AuthenticationSuccess
         // 返回登录成功响应
         response.setStatus(200);
         response.setContentType("application/json;charset=UTF-8");
+        if (authProperties.getMode() == AuthProperties.Mode.TOKEN) {
+            TokenService.TokenPair tokenPair = tokenServiceProvider.getObject().issue(loginUser);
+            objectMapper.writeValue(response.getWriter(), new BaseResponse<>(true, 0, tokenPair, "登录成功", ""));
+            return;
+        }
         response.getWriter().print("{\"success\":true,\"code\":0,\"message\":\"登录成功\",\"data\":null}");
     }
 }
@@ -1,36 +1,76 @@
 package com.zixi.usermanagementsystem.security;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
-import com.zixi.usermanagementsystem.common.ErrorCode;
-import com.zixi.usermanagementsystem.constant.UserRoleEnum;
-import com.zixi.usermanagementsystem.exception.BusinessException;
+import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
 import com.zixi.usermanagementsystem.mapper.UserMapper;
 import com.zixi.usermanagementsystem.model.domain.User;
+import io.micrometer.core.annotation.Timed;
 import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+@Slf4j
 @Service
-public class CustomUserDetailService implements UserDetailsService {
+public class CustomUserDetailService implements UserDetailsService, UserDetailsPasswordService {
 
     @Resource
     private UserMapper userMapper;
 
+    @Resource
+    private UserDetailsCache userDetailsCache;
+
+    /**
+     * 按账号加载登录用户，耗时记录在 ums.auth.load_user（exception 标签区分用户不存在）
+     */
     @Override
+    @Timed(value = "ums.auth.load_user", description = "登录时加载用户耗时", histogram = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        QueryWrapper<User> queryWrapper = new QueryWrapper<>();
-        queryWrapper.eq("account", username);
-        User user = userMapper.selectOne(queryWrapper);
+        UserDetailsCache.CachedUser user = userDetailsCache.get(username, this::selectByAccount);
         if (user == null) {
-            throw new BusinessException(ErrorCode.NULL_ERROR, "account or password is wrong");
+            // 不存在或已逻辑删除：由 DaoAuthenticationProvider 统一转换为用户名或密码错误
+            throw new UsernameNotFoundException("account or password is wrong");
         }
 
-        return org.springframework.security.core.userdetails.User.builder()
-                .username(username)
-                .password(user.getPassword())
-                .roles(user.getRole() == UserRoleEnum.USER ? "USER" : "ADMIN")
+        // 每次构建新的 LoginUser，认证完成后擦除凭证不会影响缓存中的密码哈希
+        return LoginUser.from(user);
+    }
+
+    /**
+     * 登录成功且密码哈希需要升级（无 {bcrypt} 前缀或 cost 低于目标值）时，由 DaoAuthenticationProvider 调用
+     * @param user 已认证的用户
+     * @param newPassword 按目标 cost 重新计算的密码哈希
+     * @return 使用新哈希的用户
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        UpdateWrapper<User> updateWrapper = new UpdateWrapper<>();
+        updateWrapper.eq("account", user.getUsername()).set("password", newPassword);
+        int updated = userMapper.update(null, updateWrapper);
+        if (updated > 0) {
+            userDetailsCache.evict(user.getUsername());
+            log.info("升级密码哈希: account={}", user.getUsername());
+        }
+        if (user instanceof LoginUser loginUser) {
+            return loginUser.withPassword(newPassword);
+        }
+        return org.springframework.security.core.userdetails.User.withUserDetails(user)
+                .password(newPassword)
                 .build();
     }
+
+    /**
+     * 根据账号查询用户，转换为缓存投影
+     * @param account 用户账号
+     * @return 用户投影，不存在时返回 null
+     */
+    private UserDetailsCache.CachedUser selectByAccount(String account) {
+        QueryWrapper<User> queryWrapper = new QueryWrapper<>();
+        queryWrapper.eq("account", account);
+        User user = userMapper.selectOne(queryWrapper);
+        return user == null ? null : UserDetailsCache.CachedUser.from(user);
+    }
 }
@@ -0,0 +1,69 @@
+package com.zixi.usermanagementsystem.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zixi.usermanagementsystem.configuration.LoginRateLimitProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 单机内存登录尝试计数
+ * 每个 key 一个双窗口计数器，Caffeine 限制跟踪的 key 数量，超过两个窗口未访问的 key 自动过期
+ */
+@Component
+@ConditionalOnProperty(prefix = "user-center.login-rate-limit", name = "store", havingValue = "local", matchIfMissing = true)
+public class LocalLoginAttemptStore implements LoginAttemptStore {
+
+    private final Cache<String, WindowCounter> counters;
+
+    public LocalLoginAttemptStore(LoginRateLimitProperties properties) {
+        Duration longestWindow = properties.getIpWindow().compareTo(properties.getAccountWindow()) >= 0
+                ? properties.getIpWindow()
+                : properties.getAccountWindow();
+        this.counters = Caffeine.newBuilder()
+                .maximumSize(properties.getLocalMaximumSize())
+                .expireAfterAccess(longestWindow.multipliedBy(2))
+                .build();
+    }
+
+    @Override
+    public long increment(String key, Duration window) {
+        return counters.get(key, k -> new WindowCounter()).update(System.currentTimeMillis(), window.toMillis(), 1);
+    }
+
+    @Override
+    public long count(String key, Duration window) {
+        WindowCounter counter = counters.getIfPresent(key);
+        return counter == null ? 0 : counter.update(System.currentTimeMillis(), window.toMillis(), 0);
+    }
+
+    @Override
+    public void reset(String key, Duration window) {
+        counters.invalidate(key);
+    }
+
+    /**
+     * 当前窗口与上一窗口的计数
+     */
+    static final class WindowCounter {
+
+        private long windowStart;
+
+        private long previous;
+
+        private long current;
+
+        synchronized long update(long now, long windowMillis, int delta) {
+            long start = now - now % windowMillis;
+            if (start != windowStart) {
+                previous = start - windowStart == windowMillis ? current : 0;
+                current = 0;
+                windowStart = start;
+            }
+            current += delta;
+            return LoginAttemptStore.estimate(previous, current, now - start, windowMillis);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.zixi.usermanagementsystem.security;
+
+import java.time.Duration;
+
+/**
+ * 登录尝试计数存储
+ * 采用滑动窗口计数：当前固定窗口计数 + 上一窗口计数按剩余比例加权，
+ * 内存占用与请求量无关，误差不超过一个窗口边界处的请求数
+ */
+public interface LoginAttemptStore {
+
+    /**
+     * 记录一次尝试
+     * @param key 计数 key（如 ip:1.2.3.4）
+     * @param window 窗口长度
+     * @return 记录后窗口内的估算次数
+     */
+    long increment(String key, Duration window);
+
+    /**
+     * 查询窗口内的估算次数
+     * @param key 计数 key
+     * @param window 窗口长度
+     * @return 估算次数
+     */
+    long count(String key, Duration window);
+
+    /**
+     * 清除计数（登录成功后清除账号失败次数）
+     * @param key 计数 key
+     * @param window 窗口长度
+     */
+    void reset(String key, Duration window);
+
+    /**
+     * 按上一窗口剩余比例加权的滑动窗口估算
+     * @param previous 上一窗口计数
+     * @param current 当前窗口计数
+     * @param elapsedMillis 当前窗口已过去的时间
+     * @param windowMillis 窗口长度
+     * @return 估算次数
+     */
+    static long estimate(long previous, long current, long elapsedMillis, long windowMillis) {
+        double previousWeight = 1.0 - (double) elapsedMillis / windowMillis;
+        return current + (long) Math.floor(previous * previousWeight);
+    }
+}
@@ -0,0 +1,14 @@
+package com.zixi.usermanagementsystem.security;
+
+import org.springframework.security.authentication.LockedException;
+
+/**
+ * 登录尝试超过限制（IP 请求过多或账号密码错误次数过多）
+ * 继承 LockedException，失败处理器按“账号已被锁定”记录并返回 429
+ */
+public class LoginAttemptsExceededException extends LockedException {
+
+    public LoginAttemptsExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,48 @@
+package com.zixi.usermanagementsystem.security;
+
+import com.zixi.usermanagementsystem.util.RequestUtils;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.web.authentication.AuthenticationFailureHandler;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * 登录限流过滤器，位于 UsernamePasswordAuthenticationFilter 之前
+ * 超过限制的登录请求直接交给登录失败处理器（记录登录历史并返回 429），不进入密码校验。
+ * 由 SecurityConfig 创建，不注册为 Spring Bean，避免被 Servlet 容器重复注册
+ */
+public class LoginRateLimitFilter extends OncePerRequestFilter {
+
+    private final LoginAttemptLimiter limiter;
+
+    private final AuthenticationFailureHandler failureHandler;
+
+    private final String loginPath;
+
+    public LoginRateLimitFilter(LoginAttemptLimiter limiter, AuthenticationFailureHandler failureHandler, String loginPath) {
+        this.limiter = limiter;
+        this.failureHandler = failureHandler;
+        this.loginPath = loginPath;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || !loginPath.equals(RequestUtils.getPathWithinApplication(request));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try {
+            limiter.checkAndRecord(RequestUtils.getClientIp(request), request.getParameter("account"));
+        } catch (LoginAttemptsExceededException e) {
+            failureHandler.onAuthenticationFailure(request, response, e);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,103 @@
+package com.zixi.usermanagementsystem.security;
+
+import com.zixi.usermanagementsystem.constant.UserRoleEnum;
+import com.zixi.usermanagementsystem.service.UserManageService;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.List;
+
+/**
+ * 登录用户主体
+ * 在 CustomUserDetailService 加载用户时一次性带上用户ID、角色和状态，
+ * 登录成功处理、登录历史和当前用户接口直接从 Authentication 中读取，无需再次查询 user 表。
+ * 账号状态为禁用时 isEnabled 返回 false，DaoAuthenticationProvider 在校验密码前即拒绝登录。
+ * equals/hashCode 沿用 User 的按账号比较
+ */
+public class LoginUser extends User {
+
+    private static final String ROLE_ADMIN = "ROLE_ADMIN";
+
+    private static final String ROLE_USER = "ROLE_USER";
+
+    private final Long id;
+
+    private final UserRoleEnum role;
+
+    private final Integer status;
+
+    /**
+     * @param id 用户ID
+     * @param account 用户账号
+     * @param password 密码哈希，为 null 时表示凭证已擦除
+     * @param role 用户角色
+     * @param status 用户状态
+     */
+    public LoginUser(Long id, String account, String password, UserRoleEnum role, Integer status) {
+        super(account, password != null ? password : "", enabledOf(status), true, true, true,
+                List.of(new SimpleGrantedAuthority(authorityOf(role))));
+        this.id = id;
+        this.role = role;
+        this.status = status;
+        if (password == null) {
+            eraseCredentials();
+        }
+    }
+
+    /**
+     * 从缓存投影构建登录用户
+     * @param user 用户投影
+     * @return 登录用户
+     */
+    public static LoginUser from(UserDetailsCache.CachedUser user) {
+        return new LoginUser(user.id(), user.account(), user.password(), user.role(), user.status());
+    }
+
+    /**
+     * 账号状态是否允许登录
+     * @param status 用户状态
+     * @return 非禁用状态返回 true
+     */
+    public static boolean enabledOf(Integer status) {
+        return status == null || status != UserManageService.STATUS_DISABLED;
+    }
+
+    /**
+     * 角色对应的权限名
+     * @param role 用户角色
+     * @return 权限名（ROLE_USER 或 ROLE_ADMIN）
+     */
+    public static String authorityOf(UserRoleEnum role) {
+        return role == UserRoleEnum.ADMIN ? ROLE_ADMIN : ROLE_USER;
+    }
+
+    /**
+     * 权限名对应的角色
+     * @param authority 权限名
+     * @return 用户角色
+     */
+    public static UserRoleEnum roleOf(String authority) {
+        return ROLE_ADMIN.equals(authority) ? UserRoleEnum.ADMIN : UserRoleEnum.USER;
+    }
+
+    /**
+     * 使用新的密码哈希复制当前登录用户
+     * @param password 新密码哈希
+     * @return 登录用户
+     */
+    public LoginUser withPassword(String password) {
+        return new LoginUser(id, getUsername(), password, role, status);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public UserRoleEnum getRole() {
+        return role;
+    }
+
+    public Integer getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,32 @@
+package com.zixi.usermanagementsystem.security;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.zixi.usermanagementsystem.constant.UserRoleEnum;
+
+/**
+ * LoginUser 的 Jackson Mixin，用于 Session 的 JSON 序列化
+ * 覆盖 Spring Security 为 User 注册的 UserDeserializer，否则反序列化结果会退化为普通 User；
+ * 权限由角色推导，反序列化时忽略 authorities 等 User 字段
+ */
+@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY,
+        getterVisibility = JsonAutoDetect.Visibility.NONE,
+        isGetterVisibility = JsonAutoDetect.Visibility.NONE)
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonDeserialize(using = JsonDeserializer.None.class)
+public abstract class LoginUserMixin {
+
+    @JsonCreator
+    public LoginUserMixin(
+            @JsonProperty("id") Long id,
+            @JsonProperty("username") String account,
+            @JsonProperty("password") String password,
+            @JsonProperty("role") UserRoleEnum role,
+            @JsonProperty("status") Integer status) {
+        // Mixin 只用于指导反序列化，不需要实现逻辑
+    }
+}
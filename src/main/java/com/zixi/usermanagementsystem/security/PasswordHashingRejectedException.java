@@ -0,0 +1,14 @@
+package com.zixi.usermanagementsystem.security;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+/**
+ * 密码哈希线程池繁忙，拒绝本次计算
+ * 继承 AuthenticationServiceException，登录时由失败处理器返回 503，其他接口由全局异常处理器返回 503
+ */
+public class PasswordHashingRejectedException extends AuthenticationServiceException {
+
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,79 @@
+package com.zixi.usermanagementsystem.security;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 基于 Redis 的登录尝试计数，集群内共享
+ * 每个窗口一个带 TTL 的计数 key（ums:login:attempt:{key}:{窗口序号}），Lua 脚本原子地递增当前窗口并读取上一窗口
+ */
+@Component
+@ConditionalOnProperty(prefix = "user-center.login-rate-limit", name = "store", havingValue = "redis")
+public class RedisLoginAttemptStore implements LoginAttemptStore {
+
+    private static final String KEY_PREFIX = "ums:login:attempt:";
+
+    /**
+     * KEYS[1] 当前窗口，KEYS[2] 上一窗口；ARGV[1] 递增量，ARGV[2] 过期时间（毫秒）
+     * 返回 {当前窗口计数, 上一窗口计数}
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> WINDOW_SCRIPT = new DefaultRedisScript<>(
+            "local current "
+                    + "if tonumber(ARGV[1]) > 0 then "
+                    + "current = redis.call('INCRBY', KEYS[1], ARGV[1]) "
+                    + "if current == tonumber(ARGV[1]) then redis.call('PEXPIRE', KEYS[1], ARGV[2]) end "
+                    + "else "
+                    + "current = tonumber(redis.call('GET', KEYS[1]) or '0') "
+                    + "end "
+                    + "local previous = tonumber(redis.call('GET', KEYS[2]) or '0') "
+                    + "return {current, previous}",
+            List.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    public RedisLoginAttemptStore(StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    @Override
+    public long increment(String key, Duration window) {
+        return execute(key, window, 1);
+    }
+
+    @Override
+    public long count(String key, Duration window) {
+        return execute(key, window, 0);
+    }
+
+    @Override
+    public void reset(String key, Duration window) {
+        long index = System.currentTimeMillis() / window.toMillis();
+        stringRedisTemplate.delete(List.of(windowKey(key, index), windowKey(key, index - 1)));
+    }
+
+    private long execute(String key, Duration window, int delta) {
+        long now = System.currentTimeMillis();
+        long windowMillis = window.toMillis();
+        long index = now / windowMillis;
+        List<?> result = stringRedisTemplate.execute(WINDOW_SCRIPT,
+                List.of(windowKey(key, index), windowKey(key, index - 1)),
+                String.valueOf(delta), String.valueOf(windowMillis * 2));
+        if (result == null || result.size() < 2) {
+            return 0;
+        }
+        long current = ((Number) result.get(0)).longValue();
+        long previous = ((Number) result.get(1)).longValue();
+        return LoginAttemptStore.estimate(previous, current, now % windowMillis, windowMillis);
+    }
+
+    private String windowKey(String key, long index) {
+        return KEY_PREFIX + key + ":" + index;
+    }
+}
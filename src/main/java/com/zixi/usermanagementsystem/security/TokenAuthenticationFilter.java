@@ -0,0 +1,70 @@
+package com.zixi.usermanagementsystem.security;
+
+import com.zixi.usermanagementsystem.service.UserManageService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * 令牌认证过滤器（token 认证模式）
+ * 从 Authorization: Bearer 头读取访问令牌并在进程内校验，校验通过后以 LoginUser 为主体写入 SecurityContext，
+ * 不访问 Redis 或数据库。
+ * 令牌无效时不中断请求，由后续授权规则拒绝。
+ * 由 SecurityConfig 创建，不注册为 Spring Bean，避免被 Servlet 容器重复注册
+ */
+@Slf4j
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final TokenService tokenService;
+
+    public TokenAuthenticationFilter(TokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String token = resolveToken(request);
+        if (token != null) {
+            try {
+                TokenClaims claims = tokenService.parse(token, TokenClaims.TYPE_ACCESS);
+                LoginUser loginUser = new LoginUser(claims.userId(), claims.account(), null,
+                        LoginUser.roleOf(claims.role()), UserManageService.STATUS_NORMAL);
+                UsernamePasswordAuthenticationToken authentication = UsernamePasswordAuthenticationToken.authenticated(
+                        loginUser, null, loginUser.getAuthorities());
+                authentication.setDetails(claims);
+                SecurityContext context = SecurityContextHolder.createEmptyContext();
+                context.setAuthentication(authentication);
+                SecurityContextHolder.setContext(context);
+            } catch (AuthenticationException e) {
+                log.debug("访问令牌校验失败: {}", e.getMessage());
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * 从请求头读取访问令牌
+     * @param request HTTP请求
+     * @return 令牌，不存在时返回 null
+     */
+    public static String resolveToken(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.startsWith(BEARER_PREFIX)) {
+            return null;
+        }
+        return header.substring(BEARER_PREFIX.length()).trim();
+    }
+}
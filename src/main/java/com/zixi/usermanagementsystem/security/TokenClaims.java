@@ -0,0 +1,22 @@
+package com.zixi.usermanagementsystem.security;
+
+import java.time.Instant;
+
+/**
+ * 令牌声明
+ * @param id 令牌ID（jti）
+ * @param sessionId 登录会话ID，同一次登录签发及刷新得到的令牌共用，用于登出时整体吊销
+ * @param userId 用户ID
+ * @param account 用户账号
+ * @param role 角色权限（如 ROLE_USER）
+ * @param type 令牌类型：access 或 refresh
+ * @param issuedAt 签发时间
+ * @param expiresAt 过期时间
+ */
+public record TokenClaims(String id, String sessionId, Long userId, String account, String role, String type,
+                          Instant issuedAt, Instant expiresAt) {
+
+    public static final String TYPE_ACCESS = "access";
+
+    public static final String TYPE_REFRESH = "refresh";
+}
@@ -0,0 +1,279 @@
+package com.zixi.usermanagementsystem.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.zixi.usermanagementsystem.configuration.AuthProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 令牌吊销列表
+ *
+ * 吊销记录以 Redis 键保存，TTL 与刷新令牌有效期一致，节点重启或新节点加入后不会丢失：
+ * ums:token:revoked:id:{令牌ID或会话ID} 和 ums:token:revoked:account:{账号}，值为吊销时间（秒）。
+ *
+ * 访问令牌只查本地内存：本地列表由吊销通知（Redis 发布/订阅）实时同步，启动时再从 Redis 加载，
+ * 条目只需保留一个访问令牌有效期（此前签发的访问令牌届时均已过期），因此不设条目上限，不会因淘汰而失效。
+ * 刷新令牌有效期长，刷新时直接查询 Redis，Redis 不可用时拒绝刷新。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "user-center.auth", name = "mode", havingValue = "token")
+public class TokenDenylist {
+
+    /**
+     * 吊销通知频道，消息格式：id|令牌ID或会话ID|吊销时间秒 或 account|账号|吊销时间秒
+     */
+    public static final String REVOCATION_CHANNEL = "ums:token:revoke";
+
+    static final String KEY_PREFIX = "ums:token:revoked:";
+
+    static final String ID_KEY_PREFIX = KEY_PREFIX + "id:";
+
+    static final String ACCOUNT_KEY_PREFIX = KEY_PREFIX + "account:";
+
+    private static final int LOAD_BATCH_SIZE = 500;
+
+    /**
+     * 令牌ID / 会话ID -> 吊销时间
+     */
+    private final Cache<String, Instant> revokedIds;
+
+    /**
+     * 账号 -> 吊销时间，此前签发的令牌全部失效
+     */
+    private final Cache<String, Instant> revokedAccounts;
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final Duration accessTokenTtl;
+
+    private final Duration refreshTokenTtl;
+
+    public TokenDenylist(AuthProperties authProperties, StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.accessTokenTtl = authProperties.getToken().getAccessTokenTtl();
+        this.refreshTokenTtl = authProperties.getToken().getRefreshTokenTtl();
+        this.revokedIds = Caffeine.newBuilder().expireAfter(localExpiry()).build();
+        this.revokedAccounts = Caffeine.newBuilder().expireAfter(localExpiry()).build();
+    }
+
+    /**
+     * 吊销令牌ID或登录会话ID
+     * @param id 令牌ID或会话ID
+     * @param expiresAt 对应令牌的过期时间，Redis 中的记录保留到此时
+     */
+    public void revoke(String id, Instant expiresAt) {
+        Instant now = Instant.now();
+        Duration ttl = Duration.between(now, expiresAt);
+        if (ttl.isNegative() || ttl.isZero()) {
+            return;
+        }
+        stringRedisTemplate.opsForValue().set(ID_KEY_PREFIX + id, String.valueOf(now.getEpochSecond()), ttl);
+        revokedIds.put(id, now);
+        publish("id|" + id + "|" + now.getEpochSecond());
+    }
+
+    /**
+     * 原子地占用并吊销一次性令牌（刷新令牌）的ID，并发使用同一令牌时只有一个调用成功
+     * 刷新令牌的吊销状态只在 Redis 中判断，不需要广播
+     * @param id 令牌ID
+     * @param expiresAt 令牌过期时间，Redis 中的记录保留到此时
+     * @return 是否由本次调用占用；令牌已被使用或吊销时返回 false
+     * @throws AuthenticationServiceException Redis 不可用，无法保证只使用一次
+     */
+    public boolean claim(String id, Instant expiresAt) {
+        Instant now = Instant.now();
+        Duration ttl = Duration.between(now, expiresAt);
+        if (ttl.isNegative() || ttl.isZero()) {
+            return false;
+        }
+        Boolean claimed;
+        try {
+            claimed = stringRedisTemplate.opsForValue()
+                    .setIfAbsent(ID_KEY_PREFIX + id, String.valueOf(now.getEpochSecond()), ttl);
+        } catch (RuntimeException e) {
+            log.warn("占用刷新令牌失败", e);
+            throw new AuthenticationServiceException("令牌状态暂时无法校验，请稍后重试", e);
+        }
+        if (!Boolean.TRUE.equals(claimed)) {
+            return false;
+        }
+        revokedIds.put(id, now);
+        return true;
+    }
+
+    /**
+     * 吊销账号在此之前签发的全部令牌（禁用、删除账号或修改密码时使用）
+     * @param account 账号
+     */
+    public void revokeAccount(String account) {
+        Instant now = Instant.now();
+        stringRedisTemplate.opsForValue().set(ACCOUNT_KEY_PREFIX + account, String.valueOf(now.getEpochSecond()),
+                refreshTokenTtl);
+        revokedAccounts.asMap().merge(account, now, TokenDenylist::later);
+        publish("account|" + account + "|" + now.getEpochSecond());
+    }
+
+    /**
+     * 判断令牌是否已被吊销：访问令牌查本地列表，刷新令牌查 Redis
+     * @param claims 令牌声明
+     * @return 是否已吊销
+     * @throws AuthenticationServiceException 刷新令牌的吊销状态无法从 Redis 读取
+     */
+    public boolean isRevoked(TokenClaims claims) {
+        if (isRevokedLocally(claims)) {
+            return true;
+        }
+        return TokenClaims.TYPE_REFRESH.equals(claims.type()) && isRevokedInStore(claims);
+    }
+
+    private boolean isRevokedLocally(TokenClaims claims) {
+        if (revokedIds.getIfPresent(claims.id()) != null || revokedIds.getIfPresent(claims.sessionId()) != null) {
+            return true;
+        }
+        Instant revokedAt = revokedAccounts.getIfPresent(claims.account());
+        return revokedAt != null && !claims.issuedAt().isAfter(revokedAt);
+    }
+
+    private boolean isRevokedInStore(TokenClaims claims) {
+        List<String> values;
+        try {
+            values = stringRedisTemplate.opsForValue().multiGet(List.of(ID_KEY_PREFIX + claims.id(),
+                    ID_KEY_PREFIX + claims.sessionId(), ACCOUNT_KEY_PREFIX + claims.account()));
+        } catch (RuntimeException e) {
+            log.warn("读取令牌吊销状态失败", e);
+            throw new AuthenticationServiceException("令牌状态暂时无法校验，请稍后重试", e);
+        }
+        if (values == null) {
+            throw new AuthenticationServiceException("令牌状态暂时无法校验，请稍后重试");
+        }
+        if (values.get(0) != null || values.get(1) != null) {
+            return true;
+        }
+        String accountRevokedAt = values.get(2);
+        return accountRevokedAt != null
+                && !claims.issuedAt().isAfter(Instant.ofEpochSecond(Long.parseLong(accountRevokedAt)));
+    }
+
+    /**
+     * 启动时从 Redis 加载仍可能影响访问令牌的吊销记录，补上启动前错过的吊销通知
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadRevocations() {
+        int loaded = 0;
+        ScanOptions options = ScanOptions.scanOptions().match(KEY_PREFIX + "*").count(LOAD_BATCH_SIZE).build();
+        try (Cursor<String> cursor = stringRedisTemplate.scan(options)) {
+            List<String> batch = new ArrayList<>(LOAD_BATCH_SIZE);
+            while (cursor.hasNext()) {
+                batch.add(cursor.next());
+                if (batch.size() == LOAD_BATCH_SIZE) {
+                    loaded += loadBatch(batch);
+                    batch.clear();
+                }
+            }
+            loaded += loadBatch(batch);
+        } catch (RuntimeException e) {
+            log.error("从 Redis 加载令牌吊销记录失败，启动前吊销的访问令牌在其有效期内仍可能通过校验", e);
+            return;
+        }
+        log.info("已加载令牌吊销记录: {}", loaded);
+    }
+
+    private int loadBatch(List<String> keys) {
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        List<String> values = stringRedisTemplate.opsForValue().multiGet(keys);
+        if (values == null) {
+            return 0;
+        }
+        int loaded = 0;
+        for (int i = 0; i < keys.size(); i++) {
+            String value = values.get(i);
+            if (value != null && apply(keys.get(i), Instant.ofEpochSecond(Long.parseLong(value)))) {
+                loaded++;
+            }
+        }
+        return loaded;
+    }
+
+    private boolean apply(String key, Instant revokedAt) {
+        if (!revokedAt.plus(accessTokenTtl).isAfter(Instant.now())) {
+            return false;
+        }
+        if (key.startsWith(ID_KEY_PREFIX)) {
+            revokedIds.asMap().merge(key.substring(ID_KEY_PREFIX.length()), revokedAt, TokenDenylist::later);
+            return true;
+        }
+        if (key.startsWith(ACCOUNT_KEY_PREFIX)) {
+            revokedAccounts.asMap().merge(key.substring(ACCOUNT_KEY_PREFIX.length()), revokedAt, TokenDenylist::later);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 处理其他节点发布的吊销通知
+     * @param message 通知内容
+     */
+    public void onRevocation(String message) {
+        String[] parts = message.split("\\|", 3);
+        if (parts.length != 3) {
+            return;
+        }
+        Instant time = Instant.ofEpochSecond(Long.parseLong(parts[2]));
+        if ("id".equals(parts[0])) {
+            revokedIds.asMap().merge(parts[1], time, TokenDenylist::later);
+        } else if ("account".equals(parts[0])) {
+            revokedAccounts.asMap().merge(parts[1], time, TokenDenylist::later);
+        }
+    }
+
+    private void publish(String message) {
+        try {
+            stringRedisTemplate.convertAndSend(REVOCATION_CHANNEL, message);
+        } catch (Exception e) {
+            log.warn("令牌吊销通知发送失败: {}", message, e);
+        }
+    }
+
+    private static Instant later(Instant a, Instant b) {
+        return b.isAfter(a) ? b : a;
+    }
+
+    /**
+     * 本地条目保留到吊销时间之后一个访问令牌有效期
+     */
+    private Expiry<String, Instant> localExpiry() {
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(String key, Instant revokedAt, long currentTime) {
+                return Math.max(0, Duration.between(Instant.now(), revokedAt.plus(accessTokenTtl)).toNanos());
+            }
+
+            @Override
+            public long expireAfterUpdate(String key, Instant revokedAt, long currentTime, long currentDuration) {
+                return expireAfterCreate(key, revokedAt, currentTime);
+            }
+
+            @Override
+            public long expireAfterRead(String key, Instant revokedAt, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+        };
+    }
+}
@@ -0,0 +1,262 @@
+package com.zixi.usermanagementsystem.security;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zixi.usermanagementsystem.configuration.AuthProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.CredentialsExpiredException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 令牌服务（token 认证模式）
+ *
+ * 令牌为 HS256 签名的 JWT：header.payload.signature，密钥从本地文件读取，签发与校验均在进程内完成。
+ * 访问令牌有效期短，刷新令牌一次性使用，刷新时吊销旧刷新令牌并签发新的令牌对。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "user-center.auth", name = "mode", havingValue = "token")
+public class TokenService {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    /**
+     * 固定的 JWT 头，校验时按字符串比较，不接受其他算法
+     */
+    private static final String HEADER = ENCODER.encodeToString(
+            "{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final AuthProperties.Token properties;
+
+    private final TokenDenylist tokenDenylist;
+
+    private final UserDetailsService userDetailsService;
+
+    private final ThreadLocal<Mac> macHolder;
+
+    public TokenService(AuthProperties authProperties, TokenDenylist tokenDenylist, UserDetailsService userDetailsService) {
+        this.properties = authProperties.getToken();
+        this.tokenDenylist = tokenDenylist;
+        this.userDetailsService = userDetailsService;
+        SecretKeySpec key = new SecretKeySpec(loadKey(Path.of(properties.getKeyFile())), HMAC_ALGORITHM);
+        this.macHolder = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 不可用", e);
+            }
+        });
+    }
+
+    /**
+     * 登录成功后签发令牌对
+     * @param loginUser 登录用户
+     * @return 令牌对
+     */
+    public TokenPair issue(LoginUser loginUser) {
+        return issue(loginUser.getId(), loginUser.getUsername(), LoginUser.authorityOf(loginUser.getRole()),
+                UUID.randomUUID().toString());
+    }
+
+    /**
+     * 使用刷新令牌换取新的令牌对，旧刷新令牌随即失效
+     * 旧刷新令牌的ID通过 SET NX 原子占用，并发使用同一刷新令牌时只有一个请求能换到新令牌对。
+     * 重新加载用户信息，角色变更或账号禁用在刷新时生效
+     * @param refreshToken 刷新令牌
+     * @return 新令牌对
+     * @throws BadCredentialsException 刷新令牌无效或已被使用
+     */
+    public TokenPair refresh(String refreshToken) {
+        TokenClaims claims = parse(refreshToken, TokenClaims.TYPE_REFRESH);
+        if (!tokenDenylist.claim(claims.id(), claims.expiresAt())) {
+            throw new BadCredentialsException("令牌已失效");
+        }
+
+        UserDetails user = userDetailsService.loadUserByUsername(claims.account());
+        if (!user.isEnabled()) {
+            throw new DisabledException("账号已被禁用");
+        }
+        String role = user.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .findFirst()
+                .orElse(claims.role());
+        Long userId = user instanceof LoginUser loginUser ? loginUser.getId() : claims.userId();
+        return issue(userId, claims.account(), role, claims.sessionId());
+    }
+
+    /**
+     * 校验令牌签名、类型、有效期和吊销状态
+     * @param token 令牌
+     * @param expectedType 期望的令牌类型
+     * @return 令牌声明
+     * @throws BadCredentialsException 令牌无效或已吊销
+     * @throws CredentialsExpiredException 令牌已过期
+     * @throws AuthenticationServiceException 刷新令牌的吊销状态无法读取
+     */
+    public TokenClaims parse(String token, String expectedType) {
+        int firstDot = token.indexOf('.');
+        int lastDot = token.lastIndexOf('.');
+        if (firstDot < 0 || firstDot == lastDot || !HEADER.equals(token.substring(0, firstDot))) {
+            throw new BadCredentialsException("令牌格式不正确");
+        }
+        byte[] expected = sign(token.substring(0, lastDot));
+        byte[] actual;
+        try {
+            actual = DECODER.decode(token.substring(lastDot + 1));
+        } catch (IllegalArgumentException e) {
+            throw new BadCredentialsException("令牌格式不正确");
+        }
+        if (!MessageDigest.isEqual(expected, actual)) {
+            throw new BadCredentialsException("令牌签名不正确");
+        }
+
+        TokenClaims claims = readClaims(token.substring(firstDot + 1, lastDot));
+        if (!expectedType.equals(claims.type())) {
+            throw new BadCredentialsException("令牌类型不正确");
+        }
+        if (!claims.expiresAt().isAfter(Instant.now())) {
+            throw new CredentialsExpiredException("令牌已过期");
+        }
+        if (tokenDenylist.isRevoked(claims)) {
+            throw new BadCredentialsException("令牌已失效");
+        }
+        return claims;
+    }
+
+    /**
+     * 吊销令牌所属的登录会话（登出），访问令牌与刷新令牌同时失效
+     * @param claims 令牌声明
+     */
+    public void revokeSession(TokenClaims claims) {
+        tokenDenylist.revoke(claims.sessionId(), Instant.now().plus(properties.getRefreshTokenTtl()));
+    }
+
+    private TokenPair issue(Long userId, String account, String role, String sessionId) {
+        Instant now = Instant.now();
+        String accessToken = createToken(userId, account, role, sessionId, TokenClaims.TYPE_ACCESS, now,
+                properties.getAccessTokenTtl());
+        String refreshToken = createToken(userId, account, role, sessionId, TokenClaims.TYPE_REFRESH, now,
+                properties.getRefreshTokenTtl());
+        return new TokenPair(accessToken, refreshToken, "Bearer", properties.getAccessTokenTtl().toSeconds());
+    }
+
+    private String createToken(Long userId, String account, String role, String sessionId, String type,
+                               Instant now, Duration ttl) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("iss", properties.getIssuer());
+        payload.put("sub", account);
+        payload.put("uid", userId);
+        payload.put("role", role);
+        payload.put("typ", type);
+        payload.put("sid", sessionId);
+        payload.put("jti", UUID.randomUUID().toString());
+        payload.put("iat", now.getEpochSecond());
+        payload.put("exp", now.plus(ttl).getEpochSecond());
+        try {
+            String signingInput = HEADER + "." + ENCODER.encodeToString(objectMapper.writeValueAsBytes(payload));
+            return signingInput + "." + ENCODER.encodeToString(sign(signingInput));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private TokenClaims readClaims(String encodedPayload) {
+        try {
+            Map<String, Object> payload = objectMapper.readValue(DECODER.decode(encodedPayload), new TypeReference<>() {
+            });
+            if (!properties.getIssuer().equals(payload.get("iss"))) {
+                throw new BadCredentialsException("令牌签发者不正确");
+            }
+            return new TokenClaims(
+                    (String) payload.get("jti"),
+                    (String) payload.get("sid"),
+                    payload.get("uid") instanceof Number uid ? uid.longValue() : null,
+                    (String) payload.get("sub"),
+                    (String) payload.get("role"),
+                    (String) payload.get("typ"),
+                    Instant.ofEpochSecond(((Number) payload.get("iat")).longValue()),
+                    Instant.ofEpochSecond(((Number) payload.get("exp")).longValue()));
+        } catch (BadCredentialsException e) {
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            throw new BadCredentialsException("令牌内容不正确");
+        }
+    }
+
+    private byte[] sign(String signingInput) {
+        return macHolder.get().doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * 读取签名密钥，文件不存在时生成随机密钥并写入
+     * @param keyFile 密钥文件
+     * @return 密钥
+     */
+    static byte[] loadKey(Path keyFile) {
+        try {
+            if (Files.notExists(keyFile)) {
+                byte[] generated = new byte[32];
+                new SecureRandom().nextBytes(generated);
+                if (keyFile.getParent() != null) {
+                    Files.createDirectories(keyFile.getParent());
+                }
+                Files.writeString(keyFile, Base64.getEncoder().encodeToString(generated));
+                try {
+                    Files.setPosixFilePermissions(keyFile, PosixFilePermissions.fromString("rw-------"));
+                } catch (UnsupportedOperationException e) {
+                    // 非 POSIX 文件系统
+                }
+                log.warn("令牌签名密钥文件不存在，已生成新密钥: {}（多节点部署需分发同一文件）", keyFile.toAbsolutePath());
+            }
+            byte[] key = Base64.getDecoder().decode(Files.readString(keyFile).trim());
+            if (key.length < 32) {
+                throw new IllegalStateException("令牌签名密钥长度不能少于 32 字节: " + keyFile);
+            }
+            return key;
+        } catch (IOException e) {
+            throw new UncheckedIOException("读取令牌签名密钥失败: " + keyFile, e);
+        }
+    }
+
+    /**
+     * 令牌对
+     * @param accessToken 访问令牌
+     * @param refreshToken 刷新令牌
+     * @param tokenType 令牌类型
+     * @param expiresIn 访问令牌有效期（秒）
+     */
+    public record TokenPair(String accessToken, String refreshToken, String tokenType, long expiresIn) {
+    }
+}
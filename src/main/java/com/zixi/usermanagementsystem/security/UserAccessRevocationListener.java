@@ -0,0 +1,116 @@
+package com.zixi.usermanagementsystem.security;
+
+import com.zixi.usermanagementsystem.configuration.RedisSessionConfig;
+import com.zixi.usermanagementsystem.configuration.UserSessionProperties;
+import com.zixi.usermanagementsystem.event.UserAccessRevokedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.Session;
+import org.springframework.session.data.redis.RedisIndexedSessionRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 用户被禁用或删除后下线其登录状态
+ *
+ * Session 模式：用 SSCAN 分批读取 Spring Session 的主体名索引集合（只有 Session ID，不加载 Session 内容，不扫描 Redis），
+ * 每批 user-center.session.revoke-batch-size 个，逐个删除后从索引中移除，直到索引为空，不设总数上限。
+ * 删除经由 Session 仓库完成，启用本地 Session 缓存时由 CachingSessionRepository 通知其他节点同步清除。
+ * Token 模式：吊销该账号在此之前签发的全部令牌，并广播到其他节点。
+ */
+@Slf4j
+@Component
+public class UserAccessRevocationListener {
+
+    /**
+     * 主体名索引集合的 key，与 RedisIndexedSessionRepository 的命名一致
+     */
+    static final String PRINCIPAL_INDEX_KEY_PREFIX = RedisSessionConfig.REDIS_NAMESPACE + ":index:"
+            + FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME + ":";
+
+    private final ObjectProvider<FindByIndexNameSessionRepository<? extends Session>> sessionRepositoryProvider;
+
+    private final ObjectProvider<RedisIndexedSessionRepository> indexedSessionRepositoryProvider;
+
+    private final ObjectProvider<TokenDenylist> tokenDenylistProvider;
+
+    private final int revokeBatchSize;
+
+    private final Counter revokedSessionCounter;
+
+    public UserAccessRevocationListener(ObjectProvider<FindByIndexNameSessionRepository<? extends Session>> sessionRepositoryProvider,
+                                        ObjectProvider<RedisIndexedSessionRepository> indexedSessionRepositoryProvider,
+                                        ObjectProvider<TokenDenylist> tokenDenylistProvider,
+                                        UserSessionProperties userSessionProperties,
+                                        MeterRegistry meterRegistry) {
+        this.sessionRepositoryProvider = sessionRepositoryProvider;
+        this.indexedSessionRepositoryProvider = indexedSessionRepositoryProvider;
+        this.tokenDenylistProvider = tokenDenylistProvider;
+        this.revokeBatchSize = userSessionProperties.getRevokeBatchSize();
+        this.revokedSessionCounter = Counter.builder("ums.session.revoked")
+                .description("Sessions deleted because the user was disabled or removed")
+                .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onUserAccessRevoked(UserAccessRevokedEvent event) {
+        String account = event.account();
+        if (account == null) {
+            return;
+        }
+
+        TokenDenylist tokenDenylist = tokenDenylistProvider.getIfAvailable();
+        if (tokenDenylist != null) {
+            tokenDenylist.revokeAccount(account);
+        }
+
+        FindByIndexNameSessionRepository<? extends Session> sessionRepository = sessionRepositoryProvider.getIfAvailable();
+        RedisIndexedSessionRepository indexedSessionRepository = indexedSessionRepositoryProvider.getIfAvailable();
+        if (sessionRepository == null || indexedSessionRepository == null) {
+            return;
+        }
+
+        // 索引集合的成员由 Session 仓库的序列化器写入，需通过同一个 RedisOperations 读取
+        RedisOperations<String, Object> operations = indexedSessionRepository.getSessionRedisOperations();
+        String indexKey = PRINCIPAL_INDEX_KEY_PREFIX + account;
+        ScanOptions options = ScanOptions.scanOptions().count(revokeBatchSize).build();
+        List<Object> batch = new ArrayList<>(revokeBatchSize);
+        long revoked = 0;
+        try (Cursor<Object> cursor = operations.opsForSet().scan(indexKey, options)) {
+            while (cursor.hasNext()) {
+                batch.add(cursor.next());
+                if (batch.size() >= revokeBatchSize) {
+                    revoked += deleteBatch(sessionRepository, operations, indexKey, batch);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            revoked += deleteBatch(sessionRepository, operations, indexKey, batch);
+        }
+        revokedSessionCounter.increment(revoked);
+        log.info("下线用户: account={}, reason={}, sessions={}", account, event.reason(), revoked);
+    }
+
+    /**
+     * 删除一批 Session，并从索引中移除这些 ID（包括 Session 已过期、只剩索引的 ID）
+     * @return 本批 Session ID 数
+     */
+    private int deleteBatch(FindByIndexNameSessionRepository<? extends Session> sessionRepository,
+                            RedisOperations<String, Object> operations, String indexKey, List<Object> batch) {
+        for (Object sessionId : batch) {
+            sessionRepository.deleteById(String.valueOf(sessionId));
+        }
+        operations.opsForSet().remove(indexKey, batch.toArray());
+        return batch.size();
+    }
+}
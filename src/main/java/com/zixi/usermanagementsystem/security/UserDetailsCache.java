@@ -0,0 +1,79 @@
+package com.zixi.usermanagementsystem.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zixi.usermanagementsystem.configuration.UserDetailsCacheProperties;
+import com.zixi.usermanagementsystem.constant.UserRoleEnum;
+import com.zixi.usermanagementsystem.model.domain.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Function;
+
+/**
+ * 登录用户信息本地缓存
+ * 缓存 account -> (密码哈希, 角色, 状态) 的投影，避免每次登录都查询 user 表。
+ * 用户密码、角色、状态变更或被删除时需调用 {@link #evict(String)} 失效对应条目；
+ * 其他节点上的旧条目最多存活 ttl 时长。
+ * 命中、未命中、淘汰次数通过 Actuator 的 cache.* 指标暴露（cache=userDetails）。
+ */
+@Slf4j
+@Component
+public class UserDetailsCache {
+
+    private final boolean enabled;
+
+    private final Cache<String, CachedUser> cache;
+
+    public UserDetailsCache(UserDetailsCacheProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = Boolean.TRUE.equals(properties.getEnabled());
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userDetails");
+    }
+
+    /**
+     * 获取账号对应的用户投影，未命中时通过 loader 加载
+     * @param account 用户账号
+     * @param loader 加载函数，返回 null 表示用户不存在（不缓存）
+     * @return 用户投影，不存在时返回 null
+     */
+    public CachedUser get(String account, Function<String, CachedUser> loader) {
+        if (!enabled || account == null) {
+            return loader.apply(account);
+        }
+        return cache.get(account, loader);
+    }
+
+    /**
+     * 失效账号对应的缓存条目
+     * @param account 用户账号
+     */
+    public void evict(String account) {
+        if (account == null) {
+            return;
+        }
+        cache.invalidate(account);
+        log.debug("失效登录用户缓存: account={}", account);
+    }
+
+    /**
+     * 缓存的用户投影，只包含认证所需字段
+     * @param id 用户ID
+     * @param account 用户账号
+     * @param password 密码哈希
+     * @param role 用户角色
+     * @param status 用户状态
+     */
+    public record CachedUser(Long id, String account, String password, UserRoleEnum role, Integer status) {
+
+        public static CachedUser from(User user) {
+            return new CachedUser(user.getId(), user.getAccount(), user.getPassword(), user.getRole(), user.getStatus());
+        }
+    }
+}
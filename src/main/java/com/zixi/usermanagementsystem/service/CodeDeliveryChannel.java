@@ -0,0 +1,21 @@
+package com.zixi.usermanagementsystem.service;
+
+/**
+ * 验证码发送渠道
+ */
+public interface CodeDeliveryChannel {
+
+    /**
+     * 渠道对应的目标类型，见 VerificationCode.TARGET_TYPE_*
+     * @return 目标类型
+     */
+    String getTargetType();
+
+    /**
+     * 发送验证码
+     * @param target 目标（手机号或邮箱）
+     * @param code 验证码
+     * @return 是否发送成功
+     */
+    Boolean sendVerificationCode(String target, String code);
+}
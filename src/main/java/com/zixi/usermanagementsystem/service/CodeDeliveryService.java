@@ -0,0 +1,246 @@
+package com.zixi.usermanagementsystem.service;
+
+import com.zixi.usermanagementsystem.common.ErrorCode;
+import com.zixi.usermanagementsystem.configuration.CodeDeliveryProperties;
+import com.zixi.usermanagementsystem.exception.BusinessException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 验证码异步发送服务
+ * 使用独立的有界线程池发送短信和邮件，请求线程只负责入队。
+ * 每个渠道有独立的并发上限；发送失败按带抖动的指数退避重试，
+ * 重试耗尽或超过最长排队时间的任务写入死信日志。
+ * 每次渠道调用按渠道和结果记录在 ums.code.delivery（短信即腾讯云短信，邮件即 SMTP）。
+ */
+@Slf4j
+@Service
+public class CodeDeliveryService {
+
+    /**
+     * 死信日志，可在日志配置中单独输出到文件
+     */
+    private static final Logger DEAD_LETTER_LOG = LoggerFactory.getLogger("code-delivery.dead-letter");
+
+    private final CodeDeliveryProperties properties;
+
+    private final Map<String, CodeDeliveryChannel> channels = new HashMap<>();
+
+    private final Map<String, Semaphore> channelPermits = new HashMap<>();
+
+    private final ThreadPoolExecutor executor;
+
+    private final ScheduledExecutorService retryScheduler;
+
+    private final MeterRegistry meterRegistry;
+
+    public CodeDeliveryService(List<CodeDeliveryChannel> channelList, CodeDeliveryProperties properties,
+                               MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        for (CodeDeliveryChannel channel : channelList) {
+            String targetType = channel.getTargetType();
+            channels.put(targetType, channel);
+            int concurrency = properties.getChannelConcurrency().getOrDefault(targetType, properties.getThreads());
+            channelPermits.put(targetType, new Semaphore(concurrency));
+        }
+        this.executor = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                new CustomizableThreadFactory("code-delivery-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("code-delivery-retry-"));
+
+        Gauge.builder("ums.code.delivery.queue", executor, e -> e.getQueue().size())
+                .description("验证码待发送队列深度")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 提交验证码发送任务，立即返回
+     * @param target 目标（手机号或邮箱）
+     * @param targetType 目标类型
+     * @param code 验证码
+     */
+    public void enqueue(String target, String targetType, String code) {
+        if (!channels.containsKey(targetType)) {
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "不支持的验证码发送渠道: " + targetType);
+        }
+        try {
+            executor.execute(new DeliveryTask(target, targetType, code));
+        } catch (RejectedExecutionException e) {
+            counter("ums.code.delivery.rejected", "发送队列已满被拒绝的验证码数", targetType).increment();
+            log.warn("验证码发送队列已满: target={}, type={}", target, targetType);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "验证码发送繁忙，请稍后重试");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        List<Runnable> pendingRetries = retryScheduler.shutdownNow();
+        if (!pendingRetries.isEmpty()) {
+            log.warn("应用关闭，放弃 {} 个待重试的验证码发送任务", pendingRetries.size());
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("验证码发送线程池未能在超时前完成，剩余任务 {} 个", executor.shutdownNow().size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 计算第 attempt 次失败后的退避时间：指数增长，取上限后在后半段随机抖动
+     * @param attempt 已尝试次数
+     * @return 退避毫秒数
+     */
+    long backoffMillis(int attempt) {
+        long initial = properties.getInitialBackoff().toMillis();
+        long max = properties.getMaxBackoff().toMillis();
+        long backoff = Math.min(max, initial << Math.min(attempt - 1, 20));
+        long half = backoff / 2;
+        return half + ThreadLocalRandom.current().nextLong(backoff - half + 1);
+    }
+
+    private void retryOrDeadLetter(DeliveryTask task, String reason) {
+        if (task.attempt >= properties.getMaxAttempts()) {
+            deadLetter(task, reason);
+            return;
+        }
+        long delay = backoffMillis(task.attempt);
+        task.attempt++;
+        log.info("验证码发送失败，{}ms 后重试: target={}, type={}, attempt={}, reason={}",
+                delay, task.target, task.targetType, task.attempt, reason);
+        try {
+            retryScheduler.schedule(() -> resubmit(task), delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            deadLetter(task, "重试调度已关闭");
+        }
+    }
+
+    private void resubmit(DeliveryTask task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            deadLetter(task, "发送队列已满");
+        }
+    }
+
+    private void deadLetter(DeliveryTask task, String reason) {
+        counter("ums.code.delivery.dead_letter", "进入死信的验证码数", task.targetType).increment();
+        DEAD_LETTER_LOG.warn("验证码发送失败进入死信: target={}, type={}, attempts={}, reason={}",
+                task.target, task.targetType, task.attempt, reason);
+    }
+
+    private Counter counter(String name, String description, String targetType) {
+        return Counter.builder(name)
+                .description(description)
+                .tag("channel", targetType)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 记录一次渠道调用
+     * @param targetType 目标类型
+     * @param outcome 结果：success-成功，failure-渠道返回失败，error-渠道抛出异常
+     * @param startNanos 调用开始时间
+     */
+    private void recordAttempt(String targetType, String outcome, long startNanos) {
+        Timer.builder("ums.code.delivery")
+                .description("验证码渠道发送耗时")
+                .tag("channel", targetType)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 验证码发送任务
+     */
+    private final class DeliveryTask implements Runnable {
+
+        private final String target;
+
+        private final String targetType;
+
+        private final String code;
+
+        private final long enqueuedAt = System.nanoTime();
+
+        private int attempt = 1;
+
+        private DeliveryTask(String target, String targetType, String code) {
+            this.target = target;
+            this.targetType = targetType;
+            this.code = code;
+        }
+
+        @Override
+        public void run() {
+            if (System.nanoTime() - enqueuedAt > properties.getMaxQueueTime().toNanos()) {
+                deadLetter(this, "超过最长排队时间");
+                return;
+            }
+
+            Semaphore permits = channelPermits.get(targetType);
+            try {
+                if (!permits.tryAcquire(properties.getAcquireTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                    retryOrDeadLetter(this, "渠道并发已满");
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                deadLetter(this, "发送线程被中断");
+                return;
+            }
+
+            boolean sent;
+            String reason = "渠道返回发送失败";
+            String outcome = "failure";
+            long start = System.nanoTime();
+            try {
+                sent = Boolean.TRUE.equals(channels.get(targetType).sendVerificationCode(target, code));
+                if (sent) {
+                    outcome = "success";
+                }
+            } catch (Exception e) {
+                sent = false;
+                reason = e.getMessage();
+                outcome = "error";
+            } finally {
+                permits.release();
+                recordAttempt(targetType, outcome, start);
+            }
+
+            if (sent) {
+                log.debug("验证码发送成功: target={}, type={}, attempt={}", target, targetType, attempt);
+            } else {
+                retryOrDeadLetter(this, reason);
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.zixi.usermanagementsystem.service;
 
+import com.zixi.usermanagementsystem.model.domain.VerificationCode;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -13,7 +14,7 @@ import org.springframework.stereotype.Service;
  */
 @Slf4j
 @Service
-public class EmailService {
+public class EmailService implements CodeDeliveryChannel {
 
     @Resource
     private JavaMailSender mailSender;
@@ -30,12 +31,18 @@ public class EmailService {
     @Value("${spring.mail.enabled:false}")
     private Boolean enabled;
 
+    @Override
+    public String getTargetType() {
+        return VerificationCode.TARGET_TYPE_EMAIL;
+    }
+
     /**
      * 发送验证码邮件
      * @param toEmail 收件人邮箱
      * @param code 验证码
      * @return 是否发送成功
      */
+    @Override
     public Boolean sendVerificationCode(String toEmail, String code) {
         // 如果未启用邮件服务，直接返回成功（打印日志）
         if (!Boolean.TRUE.equals(enabled)) {
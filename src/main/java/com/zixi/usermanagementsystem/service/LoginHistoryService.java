@@ -4,10 +4,15 @@ import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.zixi.usermanagementsystem.common.PageCursor;
 import com.zixi.usermanagementsystem.common.PageResult;
+import com.zixi.usermanagementsystem.configuration.PaginationProperties;
 import com.zixi.usermanagementsystem.mapper.LoginHistoryMapper;
 import com.zixi.usermanagementsystem.model.domain.LoginHistory;
 import com.zixi.usermanagementsystem.model.request.LoginHistoryQueryRequest;
+import com.zixi.usermanagementsystem.util.ExportColumn;
+import com.zixi.usermanagementsystem.util.RequestUtils;
+import io.micrometer.core.annotation.Timed;
 import jakarta.annotation.Resource;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
@@ -15,6 +20,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * 登录历史服务
@@ -24,26 +31,50 @@ import java.time.LocalDateTime;
 @Service
 public class LoginHistoryService extends ServiceImpl<LoginHistoryMapper, LoginHistory> {
 
+    /**
+     * 登录历史导出列
+     */
+    public static final List<ExportColumn<LoginHistory>> EXPORT_COLUMNS = List.of(
+            new ExportColumn<>("id", LoginHistory::getId),
+            new ExportColumn<>("userId", LoginHistory::getUserId),
+            new ExportColumn<>("account", LoginHistory::getAccount),
+            new ExportColumn<>("loginTime", LoginHistory::getLoginTime),
+            new ExportColumn<>("ipAddress", LoginHistory::getIpAddress),
+            new ExportColumn<>("userAgent", LoginHistory::getUserAgent),
+            new ExportColumn<>("loginStatus", LoginHistory::getLoginStatus),
+            new ExportColumn<>("failReason", LoginHistory::getFailReason)
+    );
+
+    @Resource
+    private LoginHistoryWriter loginHistoryWriter;
+
     @Resource
     private LoginHistoryMapper loginHistoryMapper;
 
+    @Resource
+    private PageTotalCache pageTotalCache;
+
+    @Resource
+    private PaginationProperties paginationProperties;
+
     /**
      * 记录登录成功日志
      * @param userId 用户ID
      * @param account 登录账号
      * @param request HTTP请求
      */
+    @Timed(value = "ums.login.history.record", description = "请求线程记录登录历史耗时（含同步写入）", histogram = true)
     public void recordLoginSuccess(Long userId, String account, HttpServletRequest request) {
         LoginHistory history = new LoginHistory();
         history.setUserId(userId);
         history.setAccount(account);
         history.setLoginTime(LocalDateTime.now());
-        history.setIpAddress(getClientIp(request));
+        history.setIpAddress(RequestUtils.getClientIp(request));
         history.setUserAgent(request.getHeader("User-Agent"));
         history.setLoginStatus(LoginHistory.LOGIN_STATUS_SUCCESS);
         history.setFailReason(null);
 
-        loginHistoryMapper.insert(history);
+        loginHistoryWriter.write(history);
         log.debug("记录登录成功日志: userId={}, account={}", userId, account);
     }
 
@@ -53,17 +84,18 @@ public class LoginHistoryService extends ServiceImpl<LoginHistoryMapper, LoginHi
      * @param request HTTP请求
      * @param failReason 失败原因
      */
+    @Timed(value = "ums.login.history.record", description = "请求线程记录登录历史耗时（含同步写入）", histogram = true)
     public void recordLoginFailed(String account, HttpServletRequest request, String failReason) {
         LoginHistory history = new LoginHistory();
         history.setUserId(null);
         history.setAccount(account);
         history.setLoginTime(LocalDateTime.now());
-        history.setIpAddress(getClientIp(request));
+        history.setIpAddress(RequestUtils.getClientIp(request));
         history.setUserAgent(request.getHeader("User-Agent"));
         history.setLoginStatus(LoginHistory.LOGIN_STATUS_FAILED);
         history.setFailReason(failReason);
 
-        loginHistoryMapper.insert(history);
+        loginHistoryWriter.write(history);
         log.debug("记录登录失败日志: account={}, reason={}", account, failReason);
     }
 
@@ -79,7 +111,7 @@ public class LoginHistoryService extends ServiceImpl<LoginHistoryMapper, LoginHi
         queryWrapper.eq("user_id", userId);
         queryWrapper.orderByDesc("login_time");
 
-        Page<LoginHistory> page = new Page<>(pageNum, pageSize);
+        Page<LoginHistory> page = new Page<>(pageNum, paginationProperties.resolvePageSize(pageSize));
         return this.page(page, queryWrapper);
     }
 
@@ -93,7 +125,7 @@ public class LoginHistoryService extends ServiceImpl<LoginHistoryMapper, LoginHi
         QueryWrapper<LoginHistory> queryWrapper = new QueryWrapper<>();
         queryWrapper.orderByDesc("login_time");
 
-        Page<LoginHistory> page = new Page<>(pageNum, pageSize);
+        Page<LoginHistory> page = new Page<>(pageNum, paginationProperties.resolvePageSize(pageSize));
         return this.page(page, queryWrapper);
     }
 
@@ -103,6 +135,98 @@ public class LoginHistoryService extends ServiceImpl<LoginHistoryMapper, LoginHi
      * @return 分页结果
      */
     public PageResult<LoginHistory> queryLoginHistory(LoginHistoryQueryRequest queryRequest) {
+        QueryWrapper<LoginHistory> queryWrapper = buildQueryWrapper(queryRequest);
+
+        long pageNum = queryRequest.getPageNum() != null ? queryRequest.getPageNum() : 1;
+        long pageSize = paginationProperties.resolvePageSize(queryRequest.getPageSize());
+
+        // 游标分页
+        if (Boolean.TRUE.equals(queryRequest.getCursorMode())) {
+            return queryLoginHistoryByCursor(queryRequest, queryWrapper, pageSize);
+        }
+
+        // 无过滤条件时可使用估算总数（需在追加排序前判断）
+        boolean unfiltered = queryWrapper.isEmptyOfWhere();
+
+        // 按登录时间倒序
+        queryWrapper.orderByDesc("login_time");
+
+        Page<LoginHistory> page = new Page<>(pageNum, pageSize);
+        Long knownTotal = resolveKnownTotal(queryWrapper, unfiltered);
+        if (knownTotal != null) {
+            page.setSearchCount(false);
+            page.setTotal(knownTotal);
+        }
+        IPage<LoginHistory> resultPage = this.page(page, queryWrapper);
+
+        long total = knownTotal != null ? knownTotal : resultPage.getTotal();
+        if (knownTotal == null) {
+            pageTotalCache.put("login_history", queryWrapper, total);
+        }
+        long totalPages = (total + pageSize - 1) / pageSize;
+
+        return new PageResult<>(resultPage.getRecords(), total, pageNum, pageSize, totalPages);
+    }
+
+    /**
+     * 流式导出登录历史，按查询条件逐行回调，不在内存中累积结果
+     * @param queryRequest 查询请求（仅使用过滤条件，忽略分页参数）
+     * @param consumer 行处理函数
+     */
+    @Timed(value = "ums.admin.export", description = "管理员流式导出耗时", histogram = true)
+    public void exportLoginHistory(LoginHistoryQueryRequest queryRequest, Consumer<LoginHistory> consumer) {
+        QueryWrapper<LoginHistory> queryWrapper = buildQueryWrapper(queryRequest);
+        queryWrapper.orderByAsc("id");
+        loginHistoryMapper.streamLoginHistory(queryWrapper, context -> consumer.accept(context.getResultObject()));
+    }
+
+    /**
+     * 获取无需 COUNT 的总数：优先使用缓存，无过滤条件时使用表的估算行数
+     * @param queryWrapper 查询条件
+     * @param unfiltered 是否无过滤条件
+     * @return 总数，需要执行 COUNT 时返回 null
+     */
+    private Long resolveKnownTotal(QueryWrapper<LoginHistory> queryWrapper, boolean unfiltered) {
+        Long cachedTotal = pageTotalCache.get("login_history", queryWrapper);
+        if (cachedTotal != null) {
+            return cachedTotal;
+        }
+        if (unfiltered && Boolean.TRUE.equals(paginationProperties.getApproximateTotal())) {
+            Long approximateTotal = loginHistoryMapper.selectApproximateRowCount();
+            if (approximateTotal != null) {
+                pageTotalCache.put("login_history", queryWrapper, approximateTotal);
+                return approximateTotal;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 游标分页查询登录历史，按 (login_time DESC, id DESC) 通过索引范围定位下一页
+     * @param queryRequest 查询请求
+     * @param queryWrapper 过滤条件
+     * @param pageSize 每页数量
+     * @return 分页结果
+     */
+    private PageResult<LoginHistory> queryLoginHistoryByCursor(LoginHistoryQueryRequest queryRequest,
+                                                               QueryWrapper<LoginHistory> queryWrapper, long pageSize) {
+        Long total = null;
+        if (!Boolean.TRUE.equals(queryRequest.getSkipCount())) {
+            total = this.count(queryWrapper);
+        }
+
+        PageCursor.seek(queryWrapper, "login_time", queryRequest.getCursor(), pageSize);
+        List<LoginHistory> rows = this.list(queryWrapper);
+
+        return PageCursor.toPageResult(rows, pageSize, total, LoginHistory::getLoginTime, LoginHistory::getId);
+    }
+
+    /**
+     * 根据查询请求构建过滤条件（不含排序）
+     * @param queryRequest 查询请求
+     * @return 查询条件
+     */
+    private QueryWrapper<LoginHistory> buildQueryWrapper(LoginHistoryQueryRequest queryRequest) {
         QueryWrapper<LoginHistory> queryWrapper = new QueryWrapper<>();
 
         // 用户ID过滤
@@ -128,50 +252,6 @@ public class LoginHistoryService extends ServiceImpl<LoginHistoryMapper, LoginHi
             queryWrapper.le("login_time", queryRequest.getLoginTimeEnd());
         }
 
-        // 按登录时间倒序
-        queryWrapper.orderByDesc("login_time");
-
-        long pageNum = queryRequest.getPageNum() != null ? queryRequest.getPageNum() : 1;
-        long pageSize = queryRequest.getPageSize() != null ? queryRequest.getPageSize() : 10;
-        if (pageSize > 100) {
-            pageSize = 100;
-        }
-
-        Page<LoginHistory> page = new Page<>(pageNum, pageSize);
-        IPage<LoginHistory> resultPage = this.page(page, queryWrapper);
-
-        long total = resultPage.getTotal();
-        long totalPages = (total + pageSize - 1) / pageSize;
-
-        return new PageResult<>(resultPage.getRecords(), total, pageNum, pageSize, totalPages);
-    }
-
-    /**
-     * 获取客户端真实IP地址
-     * @param request HTTP请求
-     * @return IP地址
-     */
-    private String getClientIp(HttpServletRequest request) {
-        String ip = request.getHeader("X-Forwarded-For");
-        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getHeader("Proxy-Client-IP");
-        }
-        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getHeader("WL-Proxy-Client-IP");
-        }
-        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getHeader("HTTP_CLIENT_IP");
-        }
-        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getHeader("HTTP_X_FORWARDED_FOR");
-        }
-        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getRemoteAddr();
-        }
-        // 如果是多级代理，取第一个IP
-        if (ip != null && ip.contains(",")) {
-            ip = ip.split(",")[0].trim();
-        }
-        return ip;
+        return queryWrapper;
     }
 }
@@ -0,0 +1,225 @@
+package com.zixi.usermanagementsystem.service;
+
+import com.zixi.usermanagementsystem.configuration.LoginHistoryWriterProperties;
+import com.zixi.usermanagementsystem.mapper.LoginHistoryMapper;
+import com.zixi.usermanagementsystem.model.domain.LoginHistory;
+import com.zixi.usermanagementsystem.stats.LoginStatsAggregator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 登录历史异步批量写入器
+ * 请求线程只负责入队，后台线程按批次大小或等待时间触发多行批量插入。
+ * 队列满时按配置的策略阻塞、丢弃最早记录或退化为同步写入；应用关闭时会把队列中剩余记录写完。
+ * 只有成功写入 login_history 的记录才计入登录统计，汇总表与明细表保持一致。
+ */
+@Slf4j
+@Component
+public class LoginHistoryWriter {
+
+    private final LoginHistoryMapper loginHistoryMapper;
+
+    private final LoginHistoryWriterProperties properties;
+
+    private final LoginStatsAggregator loginStatsAggregator;
+
+    private final BlockingQueue<LoginHistory> queue;
+
+    private final Timer flushTimer;
+
+    private final Counter droppedCounter;
+
+    private final Counter syncFallbackCounter;
+
+    private Thread flusher;
+
+    private volatile boolean running;
+
+    public LoginHistoryWriter(LoginHistoryMapper loginHistoryMapper, LoginHistoryWriterProperties properties,
+                              LoginStatsAggregator loginStatsAggregator, MeterRegistry meterRegistry) {
+        this.loginHistoryMapper = loginHistoryMapper;
+        this.properties = properties;
+        this.loginStatsAggregator = loginStatsAggregator;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+
+        Gauge.builder("ums.login.history.queue", queue, BlockingQueue::size)
+                .description("登录历史待写入队列深度")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("ums.login.history.flush")
+                .description("登录历史批量写入耗时")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("ums.login.history.dropped")
+                .description("队列满时丢弃的登录历史条数")
+                .register(meterRegistry);
+        this.syncFallbackCounter = Counter.builder("ums.login.history.sync")
+                .description("在请求线程同步写入的登录历史条数")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!Boolean.TRUE.equals(properties.getEnabled())) {
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::runFlushLoop, "login-history-writer");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * 写入一条登录历史
+     * @param history 登录历史
+     */
+    public void write(LoginHistory history) {
+        if (!running) {
+            insertSync(history);
+            return;
+        }
+        if (!queue.offer(history)) {
+            enqueueOnOverflow(history);
+        }
+        // 入队期间写入器可能已关闭并完成最后一次清空，此时由当前线程写入剩余记录：
+        // running 为 volatile，读到 true 说明关闭流程的清空发生在入队之后，一定能取到这条记录
+        if (!running) {
+            drainAndFlush();
+        }
+    }
+
+    /**
+     * 队列已满时按配置的策略处理
+     */
+    private void enqueueOnOverflow(LoginHistory history) {
+        switch (properties.getOverflowStrategy()) {
+            case BLOCK -> {
+                try {
+                    queue.put(history);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    insertSync(history);
+                }
+            }
+            case DROP_OLDEST -> {
+                while (!queue.offer(history)) {
+                    LoginHistory dropped = queue.poll();
+                    if (dropped != null) {
+                        droppedCounter.increment();
+                        log.warn("登录历史队列已满，丢弃最早记录: account={}", dropped.getAccount());
+                    }
+                }
+            }
+            default -> insertSync(history);
+        }
+    }
+
+    /**
+     * 停止后台线程，并把队列中剩余的记录全部写入
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            flusher.join(properties.getShutdownTimeout().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        drainAndFlush();
+        log.info("登录历史写入器已关闭");
+    }
+
+    /**
+     * 把队列中剩余的记录全部写入
+     */
+    private void drainAndFlush() {
+        List<LoginHistory> batch = new ArrayList<>(properties.getBatchSize());
+        while (queue.drainTo(batch, properties.getBatchSize()) > 0) {
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    private void runFlushLoop() {
+        int batchSize = properties.getBatchSize();
+        long flushIntervalNanos = properties.getFlushInterval().toNanos();
+        List<LoginHistory> batch = new ArrayList<>(batchSize);
+
+        while (running) {
+            try {
+                LoginHistory first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // 攒批：达到批次大小或等待时间到期即写入
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    LoginHistory next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<LoginHistory> batch) {
+        try {
+            flushTimer.record(() -> {
+                loginHistoryMapper.insertBatch(batch);
+            });
+            log.debug("批量写入登录历史: size={}", batch.size());
+        } catch (Exception e) {
+            // 批量写入失败时逐条重试，避免一条异常数据拖累整批
+            log.error("批量写入登录历史失败，改为逐条写入: size={}", batch.size(), e);
+            for (LoginHistory history : batch) {
+                try {
+                    loginHistoryMapper.insert(history);
+                } catch (Exception ex) {
+                    log.error("写入登录历史失败: account={}", history.getAccount(), ex);
+                    continue;
+                }
+                loginStatsAggregator.record(history);
+            }
+            return;
+        }
+        batch.forEach(loginStatsAggregator::record);
+    }
+
+    private void insertSync(LoginHistory history) {
+        syncFallbackCounter.increment();
+        loginHistoryMapper.insert(history);
+        loginStatsAggregator.record(history);
+    }
+}
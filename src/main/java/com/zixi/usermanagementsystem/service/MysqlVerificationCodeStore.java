@@ -0,0 +1,103 @@
+package com.zixi.usermanagementsystem.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
+import com.zixi.usermanagementsystem.mapper.VerificationCodeMapper;
+import com.zixi.usermanagementsystem.model.domain.VerificationCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * 基于 verification_code 表的验证码存储
+ * Redis 不可用时的备选实现。
+ * 保存新验证码时作废同一目标同一用途的旧验证码，校验时通过一条条件 UPDATE 比较并消费，
+ * 由受影响行数判断结果，并发校验同一验证码只有一个能成功。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "user-center.verification-code", name = "store", havingValue = "mysql")
+public class MysqlVerificationCodeStore implements VerificationCodeStore {
+
+    private final VerificationCodeMapper verificationCodeMapper;
+
+    public MysqlVerificationCodeStore(VerificationCodeMapper verificationCodeMapper) {
+        this.verificationCodeMapper = verificationCodeMapper;
+    }
+
+    @Override
+    public boolean tryAcquireSendPermit(String target, String purpose, Duration interval) {
+        QueryWrapper<VerificationCode> queryWrapper = new QueryWrapper<>();
+        queryWrapper.eq("target", target);
+        queryWrapper.eq("purpose", purpose);
+        queryWrapper.gt("create_time", LocalDateTime.now().minus(interval));
+        queryWrapper.orderByDesc("create_time");
+        queryWrapper.last("LIMIT 1");
+
+        return verificationCodeMapper.selectOne(queryWrapper) == null;
+    }
+
+    @Override
+    public void save(String target, String targetType, String purpose, String code, Duration ttl) {
+        // 作废旧验证码，保证只有最新的验证码有效
+        UpdateWrapper<VerificationCode> updateWrapper = new UpdateWrapper<>();
+        updateWrapper.set("used", VerificationCode.USED_YES);
+        updateWrapper.eq("target", target);
+        updateWrapper.eq("purpose", purpose);
+        updateWrapper.eq("used", VerificationCode.USED_NO);
+        verificationCodeMapper.update(null, updateWrapper);
+
+        VerificationCode verificationCode = new VerificationCode();
+        verificationCode.setTarget(target);
+        verificationCode.setTargetType(targetType);
+        verificationCode.setCode(code);
+        verificationCode.setPurpose(purpose);
+        verificationCode.setExpireTime(LocalDateTime.now().plus(ttl));
+        verificationCode.setUsed(VerificationCode.USED_NO);
+
+        verificationCodeMapper.insert(verificationCode);
+    }
+
+    @Override
+    public boolean matches(String target, String purpose, String code) {
+        QueryWrapper<VerificationCode> queryWrapper = new QueryWrapper<>();
+        queryWrapper.eq("target", target);
+        queryWrapper.eq("purpose", purpose);
+        queryWrapper.eq("code", code);
+        queryWrapper.eq("used", VerificationCode.USED_NO);
+        queryWrapper.gt("expire_time", LocalDateTime.now());
+
+        return verificationCodeMapper.selectCount(queryWrapper) > 0;
+    }
+
+    @Override
+    public boolean consume(String target, String purpose, String code) {
+        // UPDATE ... SET used = 1 WHERE target = ? AND purpose = ? AND code = ? AND used = 0 AND expire_time > ?
+        // 由 idx_target_purpose_code 定位，比较和标记在同一条语句中完成
+        UpdateWrapper<VerificationCode> updateWrapper = new UpdateWrapper<>();
+        updateWrapper.set("used", VerificationCode.USED_YES);
+        updateWrapper.eq("target", target);
+        updateWrapper.eq("purpose", purpose);
+        updateWrapper.eq("code", code);
+        updateWrapper.eq("used", VerificationCode.USED_NO);
+        updateWrapper.gt("expire_time", LocalDateTime.now());
+
+        return verificationCodeMapper.update(null, updateWrapper) > 0;
+    }
+
+    @Override
+    public void release(String target, String purpose, String code) {
+        // 发送间隔由最近一条记录的 create_time 判断，删除本次插入的记录即同时释放间隔；
+        // 保存时作废的旧验证码不恢复
+        QueryWrapper<VerificationCode> queryWrapper = new QueryWrapper<>();
+        queryWrapper.eq("target", target);
+        queryWrapper.eq("purpose", purpose);
+        queryWrapper.eq("code", code);
+        queryWrapper.eq("used", VerificationCode.USED_NO);
+
+        verificationCodeMapper.delete(queryWrapper);
+    }
+}
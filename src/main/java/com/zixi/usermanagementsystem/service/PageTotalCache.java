@@ -0,0 +1,56 @@
+package com.zixi.usermanagementsystem.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zixi.usermanagementsystem.configuration.PaginationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 分页总数缓存
+ * 相同表、相同查询条件在有效期内复用 COUNT 结果，翻页时不再重复统计
+ */
+@Component
+public class PageTotalCache {
+
+    private final Cache<String, Long> cache;
+
+    private final boolean enabled;
+
+    public PageTotalCache(PaginationProperties paginationProperties) {
+        Duration ttl = paginationProperties.getTotalCacheTtl();
+        this.enabled = ttl != null && !ttl.isZero() && !ttl.isNegative();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(1000)
+                .expireAfterWrite(enabled ? ttl : Duration.ofSeconds(1))
+                .build();
+    }
+
+    /**
+     * 获取缓存的总数
+     * @param table 表名
+     * @param queryWrapper 查询条件
+     * @return 总数，未缓存时返回 null
+     */
+    public Long get(String table, QueryWrapper<?> queryWrapper) {
+        return enabled ? cache.getIfPresent(key(table, queryWrapper)) : null;
+    }
+
+    /**
+     * 缓存总数
+     * @param table 表名
+     * @param queryWrapper 查询条件
+     * @param total 总数
+     */
+    public void put(String table, QueryWrapper<?> queryWrapper, long total) {
+        if (enabled) {
+            cache.put(key(table, queryWrapper), total);
+        }
+    }
+
+    private String key(String table, QueryWrapper<?> queryWrapper) {
+        return table + ":" + queryWrapper.getCustomSqlSegment() + ":" + queryWrapper.getParamNameValuePairs();
+    }
+}
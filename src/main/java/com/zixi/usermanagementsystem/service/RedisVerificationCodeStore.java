@@ -0,0 +1,77 @@
+package com.zixi.usermanagementsystem.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 基于 Redis 的验证码存储
+ * 验证码和发送间隔都是带 TTL 的 key，过期后由 Redis 自动清理：
+ * 发送间隔使用 SET NX EX，校验使用 Lua 脚本原子地比较并删除。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "user-center.verification-code", name = "store", havingValue = "redis", matchIfMissing = true)
+public class RedisVerificationCodeStore implements VerificationCodeStore {
+
+    private static final String CODE_KEY_PREFIX = "ums:verification:code:";
+
+    private static final String INTERVAL_KEY_PREFIX = "ums:verification:interval:";
+
+    /**
+     * 比较并消费：验证码一致时删除 key 并返回 1，否则返回 0
+     */
+    private static final RedisScript<Long> CONSUME_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then "
+                    + "redis.call('DEL', KEYS[1]) "
+                    + "return 1 "
+                    + "end "
+                    + "return 0",
+            Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    public RedisVerificationCodeStore(StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    @Override
+    public boolean tryAcquireSendPermit(String target, String purpose, Duration interval) {
+        Boolean acquired = stringRedisTemplate.opsForValue()
+                .setIfAbsent(INTERVAL_KEY_PREFIX + purpose + ":" + target, "1", interval);
+        return Boolean.TRUE.equals(acquired);
+    }
+
+    @Override
+    public void save(String target, String targetType, String purpose, String code, Duration ttl) {
+        stringRedisTemplate.opsForValue().set(codeKey(target, purpose), code, ttl);
+    }
+
+    @Override
+    public boolean matches(String target, String purpose, String code) {
+        return code.equals(stringRedisTemplate.opsForValue().get(codeKey(target, purpose)));
+    }
+
+    @Override
+    public boolean consume(String target, String purpose, String code) {
+        Long result = stringRedisTemplate.execute(CONSUME_SCRIPT, List.of(codeKey(target, purpose)), code);
+        return result != null && result == 1L;
+    }
+
+    @Override
+    public void release(String target, String purpose, String code) {
+        // 与消费相同的比较并删除，不会删掉并发请求保存的新验证码
+        stringRedisTemplate.execute(CONSUME_SCRIPT, List.of(codeKey(target, purpose)), code);
+        stringRedisTemplate.delete(INTERVAL_KEY_PREFIX + purpose + ":" + target);
+    }
+
+    private String codeKey(String target, String purpose) {
+        return CODE_KEY_PREFIX + purpose + ":" + target;
+    }
+}
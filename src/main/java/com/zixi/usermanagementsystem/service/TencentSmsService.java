@@ -9,27 +9,59 @@ import com.tencentcloudapi.sms.v20210111.models.SendSmsRequest;
 import com.tencentcloudapi.sms.v20210111.models.SendSmsResponse;
 import com.tencentcloudapi.sms.v20210111.models.SendStatus;
 import com.zixi.usermanagementsystem.configuration.TencentSmsProperties;
+import com.zixi.usermanagementsystem.model.domain.VerificationCode;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * 腾讯云短信服务
  * 提供真实的短信发送能力
+ * SmsClient 只在首次使用或配置变化时构建，之后复用其底层 HTTP 连接和 TLS 会话。
+ * 同一模板参数发给多个手机号时使用 sendBatch，按腾讯云单次上限合并为一次请求。
  */
 @Slf4j
 @Service
-public class TencentSmsService {
+public class TencentSmsService implements CodeDeliveryChannel {
+
+    /**
+     * 单次请求最多支持的手机号数量（腾讯云限制）
+     */
+    public static final int MAX_PHONE_NUMBERS_PER_REQUEST = 200;
+
+    private static final String PHONE_PREFIX = "+86";
 
     @Resource
     private TencentSmsProperties tencentSmsProperties;
 
+    /**
+     * 当前使用的客户端及其构建时的配置指纹（不含密钥明文）
+     */
+    private volatile ClientHolder clientHolder;
+
+    @Override
+    public String getTargetType() {
+        return VerificationCode.TARGET_TYPE_PHONE;
+    }
+
     /**
      * 发送短信验证码
      * @param phoneNumber 手机号
      * @param code 验证码
      * @return 是否发送成功
      */
+    @Override
     public Boolean sendVerificationCode(String phoneNumber, String code) {
         // 如果未启用短信服务，直接返回成功（打印日志）
         if (!Boolean.TRUE.equals(tencentSmsProperties.getEnabled())) {
@@ -38,45 +70,8 @@ public class TencentSmsService {
         }
 
         try {
-            // 实例化认证对象
-            Credential cred = new Credential(
-                    tencentSmsProperties.getSecretId(),
-                    tencentSmsProperties.getSecretKey()
-            );
-
-            // 实例化 HTTP 选项
-            HttpProfile httpProfile = new HttpProfile();
-            httpProfile.setEndpoint("sms.tencentcloudapi.com");
-
-            // 实例化客户端选项
-            ClientProfile clientProfile = new ClientProfile();
-            clientProfile.setHttpProfile(httpProfile);
-
-            // 实例化 SMS 客户端
-            SmsClient client = new SmsClient(cred, tencentSmsProperties.getRegion(), clientProfile);
-
-            // 实例化请求对象
-            SendSmsRequest req = new SendSmsRequest();
-
-            // 设置手机号（需要+86前缀）
-            String[] phoneNumberSet = {"+86" + phoneNumber};
-            req.setPhoneNumberSet(phoneNumberSet);
-
-            // 设置短信应用 SDK AppID
-            req.setSmsSdkAppId(tencentSmsProperties.getAppId());
-
-            // 设置短信签名
-            req.setSignName(tencentSmsProperties.getSignName());
-
-            // 设置短信模板 ID
-            req.setTemplateId(tencentSmsProperties.getTemplateId());
-
-            // 设置模板参数（验证码）
-            String[] templateParamSet = {code};
-            req.setTemplateParamSet(templateParamSet);
-
             // 发送短信
-            SendSmsResponse response = client.SendSms(req);
+            SendSmsResponse response = getClient().SendSms(buildRequest(List.of(phoneNumber), code));
 
             // 处理响应
             SendStatus[] sendStatusSet = response.getSendStatusSet();
@@ -102,4 +97,150 @@ public class TencentSmsService {
             return false;
         }
     }
+
+    /**
+     * 使用同一模板参数批量发送短信，按腾讯云单次上限分批请求
+     * @param phoneNumbers 手机号列表
+     * @param templateParams 模板参数
+     * @return 每个手机号的发送结果，请求失败或响应中缺失的手机号为 false
+     */
+    public Map<String, Boolean> sendBatch(Collection<String> phoneNumbers, String... templateParams) {
+        Map<String, Boolean> results = new LinkedHashMap<>();
+        if (!Boolean.TRUE.equals(tencentSmsProperties.getEnabled())) {
+            log.info("【短信服务未启用】批量发送: count={}", phoneNumbers.size());
+            phoneNumbers.forEach(phone -> results.put(phone, true));
+            return results;
+        }
+
+        List<String> phones = new ArrayList<>(phoneNumbers);
+        for (int from = 0; from < phones.size(); from += MAX_PHONE_NUMBERS_PER_REQUEST) {
+            List<String> chunk = phones.subList(from, Math.min(from + MAX_PHONE_NUMBERS_PER_REQUEST, phones.size()));
+            chunk.forEach(phone -> results.put(phone, false));
+            try {
+                SendSmsResponse response = getClient().SendSms(buildRequest(chunk, templateParams));
+                SendStatus[] sendStatusSet = response.getSendStatusSet();
+                if (sendStatusSet == null) {
+                    continue;
+                }
+                for (SendStatus status : sendStatusSet) {
+                    String phone = stripPrefix(status.getPhoneNumber());
+                    boolean ok = "Ok".equals(status.getCode());
+                    results.put(phone, ok);
+                    if (!ok) {
+                        log.error("短信发送失败: phone={}, code={}, message={}",
+                                phone, status.getCode(), status.getMessage());
+                    }
+                }
+            } catch (Exception e) {
+                log.error("批量短信发送异常: count={}, error={}", chunk.size(), e.getMessage(), e);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * 获取客户端，配置变化（如刷新密钥）后重新构建
+     * @return 短信客户端
+     */
+    SmsClient getClient() {
+        List<Object> fingerprint = fingerprint();
+        ClientHolder holder = clientHolder;
+        if (holder != null && holder.fingerprint().equals(fingerprint)) {
+            return holder.client();
+        }
+        synchronized (this) {
+            holder = clientHolder;
+            if (holder == null || !holder.fingerprint().equals(fingerprint)) {
+                holder = new ClientHolder(fingerprint, buildClient());
+                clientHolder = holder;
+                log.info("腾讯云短信客户端已构建: region={}", tencentSmsProperties.getRegion());
+            }
+            return holder.client();
+        }
+    }
+
+    /**
+     * 构建客户端
+     * SDK 在 SmsClient 内部创建 OkHttp 客户端，均由进程内共享的 OkHttpClient 派生，连接池和 keep-alive
+     * 使用 OkHttp 默认值（最多 5 个空闲连接，空闲 5 分钟后关闭）；HttpProfile 没有连接池和 keep-alive 的配置项，
+     * 这里只能配置超时。验证码发送频率下默认连接池足够，复用同一个 SmsClient 即可保持连接和 TLS 会话。
+     */
+    private SmsClient buildClient() {
+        // 实例化认证对象
+        Credential cred = new Credential(
+                tencentSmsProperties.getSecretId(),
+                tencentSmsProperties.getSecretKey()
+        );
+
+        // 实例化 HTTP 选项
+        HttpProfile httpProfile = new HttpProfile();
+        httpProfile.setEndpoint(tencentSmsProperties.getEndpoint());
+        httpProfile.setConnTimeout(tencentSmsProperties.getConnectTimeout());
+        httpProfile.setReadTimeout(tencentSmsProperties.getReadTimeout());
+        httpProfile.setWriteTimeout(tencentSmsProperties.getWriteTimeout());
+
+        // 实例化客户端选项
+        ClientProfile clientProfile = new ClientProfile();
+        clientProfile.setHttpProfile(httpProfile);
+
+        // 实例化 SMS 客户端
+        return new SmsClient(cred, tencentSmsProperties.getRegion(), clientProfile);
+    }
+
+    private SendSmsRequest buildRequest(List<String> phoneNumbers, String... templateParams) {
+        SendSmsRequest req = new SendSmsRequest();
+
+        // 设置手机号（需要+86前缀）
+        req.setPhoneNumberSet(phoneNumbers.stream().map(phone -> PHONE_PREFIX + phone).toArray(String[]::new));
+
+        // 设置短信应用 SDK AppID
+        req.setSmsSdkAppId(tencentSmsProperties.getAppId());
+
+        // 设置短信签名
+        req.setSignName(tencentSmsProperties.getSignName());
+
+        // 设置短信模板 ID
+        req.setTemplateId(tencentSmsProperties.getTemplateId());
+
+        // 设置模板参数
+        req.setTemplateParamSet(templateParams);
+        return req;
+    }
+
+    /**
+     * 客户端配置指纹，密钥只保存其 SHA-256 摘要
+     * @return 配置指纹
+     */
+    List<Object> fingerprint() {
+        return Arrays.asList(
+                tencentSmsProperties.getSecretId(),
+                digest(tencentSmsProperties.getSecretKey()),
+                tencentSmsProperties.getRegion(),
+                tencentSmsProperties.getEndpoint(),
+                tencentSmsProperties.getConnectTimeout(),
+                tencentSmsProperties.getReadTimeout(),
+                tencentSmsProperties.getWriteTimeout());
+    }
+
+    private String stripPrefix(String phoneNumber) {
+        if (phoneNumber != null && phoneNumber.startsWith(PHONE_PREFIX)) {
+            return phoneNumber.substring(PHONE_PREFIX.length());
+        }
+        return phoneNumber;
+    }
+
+    private static String digest(String secret) {
+        if (secret == null) {
+            return null;
+        }
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+
+    private record ClientHolder(List<Object> fingerprint, SmsClient client) {
+    }
 }
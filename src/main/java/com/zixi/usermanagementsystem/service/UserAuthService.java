@@ -1,6 +1,5 @@
 package com.zixi.usermanagementsystem.service;
 
-import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.zixi.usermanagementsystem.common.ErrorCode;
 import com.zixi.usermanagementsystem.exception.BusinessException;
@@ -10,8 +9,10 @@ import com.zixi.usermanagementsystem.model.domain.VerificationCode;
 import com.zixi.usermanagementsystem.model.request.UserRegisterRequest;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.regex.Pattern;
 
@@ -35,21 +36,38 @@ public class UserAuthService extends ServiceImpl<UserMapper, User> {
     /**
      * 手机号正则
      */
-    private static final Pattern PHONE_PATTERN = Pattern.compile("^1[3-9]\\d{9}$");
+    static final Pattern PHONE_PATTERN = Pattern.compile("^1[3-9]\\d{9}$");
 
     /**
      * 邮箱正则
      */
-    private static final Pattern EMAIL_PATTERN = Pattern.compile("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+$");
+    static final Pattern EMAIL_PATTERN = Pattern.compile("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+$");
 
-    public UserAuthService(UserMapper userMapper, PasswordEncoder passwordEncoder, VerificationCodeService verificationCodeService) {
+    /**
+     * user 表唯一索引名，见 V5__add_user_lookup_indexes.sql
+     */
+    private static final String UK_ACCOUNT = "uk_user_account";
+
+    private static final String UK_PHONE = "uk_user_phone";
+
+    private static final String UK_EMAIL = "uk_user_email";
+
+    private final TransactionTemplate transactionTemplate;
+
+    public UserAuthService(UserMapper userMapper, PasswordEncoder passwordEncoder, VerificationCodeService verificationCodeService,
+                           TransactionTemplate transactionTemplate) {
         this.userMapper = userMapper;
         this.passwordEncoder = passwordEncoder;
         this.verificationCodeService = verificationCodeService;
+        this.transactionTemplate = transactionTemplate;
     }
 
     /**
      * 用户注册
+     * 不预先查询账号、手机号、邮箱是否已存在，由 user 表上的唯一索引（uk_user_account、uk_user_phone、uk_user_email，
+     * 只约束未删除的用户）保证唯一，并发注册同一账号时只有一个能插入成功。
+     * 验证码先只检查不消费，插入成功后在同一事务中消费：账号、手机号或邮箱冲突时验证码仍然有效，
+     * 用户修改后可以直接重试，不必等待发送间隔重新获取；消费失败（已被并发请求使用）时回滚插入。
      * @param userRegisterRequest 注册请求
      * @return 用户ID
      */
@@ -63,52 +81,62 @@ public class UserAuthService extends ServiceImpl<UserMapper, User> {
             if (!PHONE_PATTERN.matcher(phone).matches()) {
                 throw new BusinessException(ErrorCode.PARAMS_ERROR, "手机号格式不正确");
             }
-            // 检查手机号是否已注册
-            QueryWrapper<User> phoneQuery = new QueryWrapper<>();
-            phoneQuery.eq("phone", phone);
-            if (userMapper.selectCount(phoneQuery) > 0) {
-                throw new BusinessException(ErrorCode.PARAMS_ERROR, "手机号已被注册");
-            }
             target = phone;
         } else if (email != null && !email.isEmpty()) {
             if (!EMAIL_PATTERN.matcher(email).matches()) {
                 throw new BusinessException(ErrorCode.PARAMS_ERROR, "邮箱格式不正确");
             }
-            // 检查邮箱是否已注册
-            QueryWrapper<User> emailQuery = new QueryWrapper<>();
-            emailQuery.eq("email", email);
-            if (userMapper.selectCount(emailQuery) > 0) {
-                throw new BusinessException(ErrorCode.PARAMS_ERROR, "邮箱已被注册");
-            }
             target = email;
         } else {
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "手机号或邮箱必须填写一个");
         }
 
-        // 2. 验证验证码
-        boolean codeValid = verificationCodeService.verifyCode(target, userRegisterRequest.getVerificationCode(), VerificationCode.PURPOSE_REGISTER);
-        if (!codeValid) {
+        // 2. 检查验证码，此时不消费；验证码无效时不进行密码哈希
+        String verificationCode = userRegisterRequest.getVerificationCode();
+        if (!verificationCodeService.checkCode(target, verificationCode, VerificationCode.PURPOSE_REGISTER)) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "验证码错误或已过期");
         }
 
-        // 3. 用户账号校验：不能和已有的重复
-        QueryWrapper<User> queryWrapper = new QueryWrapper<>();
-        queryWrapper.eq("account", userRegisterRequest.getAccount());
-        long count = userMapper.selectCount(queryWrapper);
-        if (count > 0) {
-            throw new BusinessException(ErrorCode.PARAMS_ERROR, "用户账号已存在");
-        }
-
-        // 4. 密码使用BCrypt加密后存储，保存到数据库
+        // 3. 密码使用BCrypt加密，在事务外计算，不在哈希期间占用数据库连接
         User user = new User();
         user.setAccount(userRegisterRequest.getAccount());
         user.setPassword(passwordEncoder.encode(userRegisterRequest.getPassword()));
         user.setPhone(phone);
         user.setEmail(email);
-        int inserted = userMapper.insert(user);
-        if (inserted == 0) {
-            throw new BusinessException(ErrorCode.NULL_ERROR, "注册失败");
+
+        // 4. 插入用户，成功后消费验证码
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (userMapper.insert(user) == 0) {
+                    throw new BusinessException(ErrorCode.NULL_ERROR, "注册失败");
+                }
+                if (!verificationCodeService.verifyCode(target, verificationCode, VerificationCode.PURPOSE_REGISTER)) {
+                    throw new BusinessException(ErrorCode.PARAMS_ERROR, "验证码错误或已过期");
+                }
+            });
+        } catch (DuplicateKeyException e) {
+            throw duplicateKeyError(e);
         }
         return user.getId();
     }
+
+    /**
+     * 根据冲突的唯一索引转换为对应的业务异常
+     * @param e 唯一索引冲突异常
+     * @return 业务异常
+     */
+    static BusinessException duplicateKeyError(DuplicateKeyException e) {
+        String message = String.valueOf(e.getMostSpecificCause().getMessage());
+        if (message.contains(UK_ACCOUNT)) {
+            return new BusinessException(ErrorCode.PARAMS_ERROR, "用户账号已存在");
+        }
+        if (message.contains(UK_PHONE)) {
+            return new BusinessException(ErrorCode.PARAMS_ERROR, "手机号已被注册");
+        }
+        if (message.contains(UK_EMAIL)) {
+            return new BusinessException(ErrorCode.PARAMS_ERROR, "邮箱已被注册");
+        }
+        log.warn("注册时发生未识别的唯一索引冲突: {}", message);
+        return new BusinessException(ErrorCode.SYSTEM_ERROR, "注册失败");
+    }
 }
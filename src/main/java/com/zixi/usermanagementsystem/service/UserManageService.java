@@ -4,17 +4,25 @@ import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.zixi.usermanagementsystem.common.PageCursor;
 import com.zixi.usermanagementsystem.common.PageResult;
+import com.zixi.usermanagementsystem.configuration.PaginationProperties;
 import com.zixi.usermanagementsystem.mapper.UserMapper;
 import com.zixi.usermanagementsystem.model.domain.User;
 import com.zixi.usermanagementsystem.constant.UserRoleEnum;
+import com.zixi.usermanagementsystem.event.UserAccessRevokedEvent;
 import com.zixi.usermanagementsystem.model.request.UserQueryRequest;
 import com.zixi.usermanagementsystem.model.request.UserRoleUpdateRequest;
+import com.zixi.usermanagementsystem.security.UserDetailsCache;
+import com.zixi.usermanagementsystem.util.ExportColumn;
+import io.micrometer.core.annotation.Timed;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -35,15 +43,49 @@ public class UserManageService extends ServiceImpl<UserMapper, User> {
      */
     public static final int STATUS_DISABLED = 1;
 
+    /**
+     * 用户导出列（不含密码等敏感字段）
+     */
+    public static final List<ExportColumn<User>> EXPORT_COLUMNS = List.of(
+            new ExportColumn<>("id", User::getId),
+            new ExportColumn<>("username", User::getUsername),
+            new ExportColumn<>("account", User::getAccount),
+            new ExportColumn<>("avatarUrl", User::getAvatarUrl),
+            new ExportColumn<>("gender", User::getGender),
+            new ExportColumn<>("phone", User::getPhone),
+            new ExportColumn<>("email", User::getEmail),
+            new ExportColumn<>("status", User::getStatus),
+            new ExportColumn<>("role", user -> user.getRole() == null ? null : user.getRole().getDesc()),
+            new ExportColumn<>("createTime", User::getCreateTime),
+            new ExportColumn<>("updateTime", User::getUpdateTime)
+    );
+
     @Resource
     private final UserMapper userMapper;
 
-    public UserManageService(UserMapper userMapper) {
+    @Resource
+    private final UserDetailsCache userDetailsCache;
+
+    @Resource
+    private final PageTotalCache pageTotalCache;
+
+    @Resource
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Resource
+    private final PaginationProperties paginationProperties;
+
+    public UserManageService(UserMapper userMapper, UserDetailsCache userDetailsCache, PageTotalCache pageTotalCache,
+                             ApplicationEventPublisher eventPublisher, PaginationProperties paginationProperties) {
         this.userMapper = userMapper;
+        this.userDetailsCache = userDetailsCache;
+        this.pageTotalCache = pageTotalCache;
+        this.eventPublisher = eventPublisher;
+        this.paginationProperties = paginationProperties;
     }
 
     /**
-     * 返回全部用户列表
+     * 返回全部用户列表（数据量大时请使用 exportUsers 流式导出）
      * @return 用户列表
      */
     public List<User> queryUserList() {
@@ -71,12 +113,83 @@ public class UserManageService extends ServiceImpl<UserMapper, User> {
     public PageResult<User> queryUserPage(UserQueryRequest queryRequest) {
         // 参数校验
         long pageNum = queryRequest.getPageNum() != null ? queryRequest.getPageNum() : 1;
-        long pageSize = queryRequest.getPageSize() != null ? queryRequest.getPageSize() : 10;
-        if (pageSize > 100) {
-            pageSize = 100; // 限制每页最大100条
-        }
+        long pageSize = paginationProperties.resolvePageSize(queryRequest.getPageSize());
 
         // 构建查询条件
+        QueryWrapper<User> queryWrapper = buildQueryWrapper(queryRequest);
+
+        // 游标分页
+        if (Boolean.TRUE.equals(queryRequest.getCursorMode())) {
+            return queryUserPageByCursor(queryRequest, queryWrapper, pageSize);
+        }
+
+        // 按创建时间倒序
+        queryWrapper.orderByDesc("create_time");
+
+        // 分页查询，相同条件翻页时复用缓存的总数
+        Page<User> page = new Page<>(pageNum, pageSize);
+        Long cachedTotal = pageTotalCache.get("user", queryWrapper);
+        if (cachedTotal != null) {
+            page.setSearchCount(false);
+            page.setTotal(cachedTotal);
+        }
+        IPage<User> userPage = this.page(page, queryWrapper);
+        if (cachedTotal == null) {
+            pageTotalCache.put("user", queryWrapper, userPage.getTotal());
+        }
+
+        // 转换为 VO
+        List<User> records = userPage.getRecords().stream()
+                .map(User::buildUserVO)
+                .collect(Collectors.toList());
+
+        long total = userPage.getTotal();
+        long totalPages = (total + pageSize - 1) / pageSize;
+
+        return new PageResult<>(records, total, pageNum, pageSize, totalPages);
+    }
+
+    /**
+     * 游标分页查询用户列表，按 (create_time DESC, id DESC) 通过索引范围定位下一页
+     * @param queryRequest 查询请求
+     * @param queryWrapper 过滤条件
+     * @param pageSize 每页数量
+     * @return 分页结果
+     */
+    private PageResult<User> queryUserPageByCursor(UserQueryRequest queryRequest, QueryWrapper<User> queryWrapper, long pageSize) {
+        Long total = null;
+        if (!Boolean.TRUE.equals(queryRequest.getSkipCount())) {
+            total = userMapper.selectCount(queryWrapper);
+        }
+
+        PageCursor.seek(queryWrapper, "create_time", queryRequest.getCursor(), pageSize);
+        List<User> rows = userMapper.selectList(queryWrapper).stream()
+                .map(User::buildUserVO)
+                .collect(Collectors.toList());
+
+        return PageCursor.toPageResult(rows, pageSize, total, User::getCreateTime, User::getId);
+    }
+
+    /**
+     * 流式导出用户，按查询条件逐行回调，不在内存中累积结果
+     * @param queryRequest 查询请求（仅使用过滤条件，忽略分页参数）
+     * @param consumer 行处理函数
+     */
+    @Timed(value = "ums.admin.export", description = "管理员流式导出耗时", histogram = true)
+    public void exportUsers(UserQueryRequest queryRequest, Consumer<User> consumer) {
+        QueryWrapper<User> queryWrapper = buildQueryWrapper(queryRequest);
+        // 自定义 SQL 需显式过滤已删除用户
+        queryWrapper.eq("deleted", 0);
+        queryWrapper.orderByAsc("id");
+        userMapper.streamUsers(queryWrapper, context -> consumer.accept(context.getResultObject()));
+    }
+
+    /**
+     * 根据查询请求构建过滤条件（不含排序）
+     * @param queryRequest 查询请求
+     * @return 查询条件
+     */
+    private QueryWrapper<User> buildQueryWrapper(UserQueryRequest queryRequest) {
         QueryWrapper<User> queryWrapper = new QueryWrapper<>();
 
         // 关键词搜索（模糊匹配用户名或账号）
@@ -108,22 +221,7 @@ public class UserManageService extends ServiceImpl<UserMapper, User> {
             queryWrapper.le("create_time", queryRequest.getCreateTimeEnd());
         }
 
-        // 按创建时间倒序
-        queryWrapper.orderByDesc("create_time");
-
-        // 分页查询
-        Page<User> page = new Page<>(pageNum, pageSize);
-        IPage<User> userPage = this.page(page, queryWrapper);
-
-        // 转换为 VO
-        List<User> records = userPage.getRecords().stream()
-                .map(User::buildUserVO)
-                .collect(Collectors.toList());
-
-        long total = userPage.getTotal();
-        long totalPages = (total + pageSize - 1) / pageSize;
-
-        return new PageResult<>(records, total, pageNum, pageSize, totalPages);
+        return queryWrapper;
     }
 
     /**
@@ -132,7 +230,16 @@ public class UserManageService extends ServiceImpl<UserMapper, User> {
      * @return 是否删除成功
      */
     public Boolean removeUserById(Long userId) {
-        return this.removeById(userId);
+        User user = userMapper.selectById(userId);
+        if (user == null) {
+            return false;
+        }
+        boolean removed = this.removeById(userId);
+        if (removed) {
+            userDetailsCache.evict(user.getAccount());
+            eventPublisher.publishEvent(new UserAccessRevokedEvent(userId, user.getAccount(), UserAccessRevokedEvent.REASON_REMOVED));
+        }
+        return removed;
     }
 
     /**
@@ -161,6 +268,13 @@ public class UserManageService extends ServiceImpl<UserMapper, User> {
 
         user.setStatus(status);
         int updated = userMapper.updateById(user);
+        if (updated > 0) {
+            userDetailsCache.evict(user.getAccount());
+            if (status == STATUS_DISABLED) {
+                // 下线该用户已有的 Session 和令牌
+                eventPublisher.publishEvent(new UserAccessRevokedEvent(userId, user.getAccount(), UserAccessRevokedEvent.REASON_DISABLED));
+            }
+        }
         return updated > 0;
     }
 
@@ -187,6 +301,9 @@ public class UserManageService extends ServiceImpl<UserMapper, User> {
 
         user.setRole(roleUpdateRequest.getRole());
         int updated = userMapper.updateById(user);
+        if (updated > 0) {
+            userDetailsCache.evict(user.getAccount());
+        }
         return updated > 0;
     }
 }
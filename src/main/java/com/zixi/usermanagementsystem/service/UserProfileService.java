@@ -8,8 +8,11 @@ import com.zixi.usermanagementsystem.mapper.UserMapper;
 import com.zixi.usermanagementsystem.model.domain.User;
 import com.zixi.usermanagementsystem.model.request.UserChangePasswordRequest;
 import com.zixi.usermanagementsystem.model.request.UserUpdateRequest;
+import com.zixi.usermanagementsystem.security.TokenDenylist;
+import com.zixi.usermanagementsystem.security.UserDetailsCache;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -27,9 +30,20 @@ public class UserProfileService extends ServiceImpl<UserMapper, User> {
     @Resource
     private final PasswordEncoder passwordEncoder;
 
-    public UserProfileService(UserMapper userMapper, PasswordEncoder passwordEncoder) {
+    @Resource
+    private final UserDetailsCache userDetailsCache;
+
+    /**
+     * 令牌吊销列表，仅 token 认证模式下存在
+     */
+    private final ObjectProvider<TokenDenylist> tokenDenylistProvider;
+
+    public UserProfileService(UserMapper userMapper, PasswordEncoder passwordEncoder, UserDetailsCache userDetailsCache,
+                              ObjectProvider<TokenDenylist> tokenDenylistProvider) {
         this.userMapper = userMapper;
         this.passwordEncoder = passwordEncoder;
+        this.userDetailsCache = userDetailsCache;
+        this.tokenDenylistProvider = tokenDenylistProvider;
     }
 
     /**
@@ -86,6 +100,7 @@ public class UserProfileService extends ServiceImpl<UserMapper, User> {
 
     /**
      * 修改用户密码
+     * token 认证模式下吊销该账号此前签发的全部令牌，需要使用新密码重新登录
      * @param account 用户账号
      * @param changePasswordRequest 修改密码请求
      */
@@ -107,7 +122,8 @@ public class UserProfileService extends ServiceImpl<UserMapper, User> {
         }
 
         // 3. 验证新密码不能与旧密码相同
-        if (passwordEncoder.matches(changePasswordRequest.getNewPassword(), user.getPassword())) {
+        // 旧密码已校验与哈希匹配，直接比较明文即可，省去一次 BCrypt 计算
+        if (changePasswordRequest.getNewPassword().equals(changePasswordRequest.getOldPassword())) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "新密码不能与旧密码相同");
         }
 
@@ -117,5 +133,7 @@ public class UserProfileService extends ServiceImpl<UserMapper, User> {
         if (updated == 0) {
             throw new BusinessException(ErrorCode.OPERATION_ERROR, "修改密码失败");
         }
+        userDetailsCache.evict(account);
+        tokenDenylistProvider.ifAvailable(tokenDenylist -> tokenDenylist.revokeAccount(account));
     }
 }
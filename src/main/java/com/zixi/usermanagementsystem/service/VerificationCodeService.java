@@ -1,16 +1,17 @@
 package com.zixi.usermanagementsystem.service;
 
-import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.zixi.usermanagementsystem.common.ErrorCode;
 import com.zixi.usermanagementsystem.exception.BusinessException;
 import com.zixi.usermanagementsystem.mapper.VerificationCodeMapper;
 import com.zixi.usermanagementsystem.model.domain.VerificationCode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
+import java.time.Duration;
 import java.util.Random;
 import java.util.regex.Pattern;
 
@@ -23,18 +24,18 @@ import java.util.regex.Pattern;
 public class VerificationCodeService extends ServiceImpl<VerificationCodeMapper, VerificationCode> {
 
     @Resource
-    private VerificationCodeMapper verificationCodeMapper;
+    private VerificationCodeStore verificationCodeStore;
 
     @Resource
-    private TencentSmsService tencentSmsService;
+    private CodeDeliveryService codeDeliveryService;
 
     @Resource
-    private EmailService emailService;
+    private MeterRegistry meterRegistry;
 
     /**
-     * 验证码有效期（分钟）
+     * 验证码有效期
      */
-    private static final int CODE_EXPIRE_MINUTES = 5;
+    private static final Duration CODE_EXPIRE = Duration.ofMinutes(5);
 
     /**
      * 验证码长度
@@ -42,19 +43,24 @@ public class VerificationCodeService extends ServiceImpl<VerificationCodeMapper,
     private static final int CODE_LENGTH = 6;
 
     /**
-     * 同一目标发送间隔（秒）
+     * 同一目标发送间隔
      */
-    private static final int SEND_INTERVAL_SECONDS = 60;
+    private static final Duration SEND_INTERVAL = Duration.ofSeconds(60);
 
     /**
      * 手机号正则
      */
-    private static final Pattern PHONE_PATTERN = Pattern.compile("^1[3-9]\\d{9}$");
+    static final Pattern PHONE_PATTERN = Pattern.compile("^1[3-9]\\d{9}$");
 
     /**
      * 邮箱正则
      */
-    private static final Pattern EMAIL_PATTERN = Pattern.compile("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+$");
+    static final Pattern EMAIL_PATTERN = Pattern.compile("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+$");
+
+    /**
+     * 无法识别的目标类型（指标标签）
+     */
+    private static final String CHANNEL_UNKNOWN = "UNKNOWN";
 
     /**
      * 发送验证码（注册用途）
@@ -65,28 +71,51 @@ public class VerificationCodeService extends ServiceImpl<VerificationCodeMapper,
         // 验证目标格式
         String targetType = validateTarget(target);
 
-        // 检查发送频率
-        checkSendFrequency(target, VerificationCode.PURPOSE_REGISTER);
-
-        // 生成验证码
-        String code = generateCode();
-
-        // 保存验证码到数据库
-        VerificationCode verificationCode = new VerificationCode();
-        verificationCode.setTarget(target);
-        verificationCode.setTargetType(targetType);
-        verificationCode.setCode(code);
-        verificationCode.setPurpose(VerificationCode.PURPOSE_REGISTER);
-        verificationCode.setExpireTime(LocalDateTime.now().plusMinutes(CODE_EXPIRE_MINUTES));
-        verificationCode.setUsed(VerificationCode.USED_NO);
-
-        verificationCodeMapper.insert(verificationCode);
-
-        // 发送验证码（实际项目中这里调用短信或邮件服务）
-        sendCodeToTarget(target, targetType, code);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            // 检查发送频率
+            checkSendFrequency(target, VerificationCode.PURPOSE_REGISTER);
+
+            // 生成验证码
+            String code = generateCode();
+
+            // 保存验证码
+            verificationCodeStore.save(target, targetType, VerificationCode.PURPOSE_REGISTER, code, CODE_EXPIRE);
+
+            // 提交发送任务，验证码已保存即可返回；发送队列拒绝时撤销验证码和发送间隔，用户可以立即重试
+            try {
+                sendCodeToTarget(target, targetType, code);
+            } catch (BusinessException e) {
+                verificationCodeStore.release(target, VerificationCode.PURPOSE_REGISTER, code);
+                throw e;
+            }
+
+            outcome = "success";
+            log.info("注册验证码已提交发送: target={}, type={}", target, targetType);
+            return true;
+        } catch (BusinessException e) {
+            // 发送过于频繁或发送队列已满
+            outcome = "rejected";
+            throw e;
+        } finally {
+            sample.stop(timer("ums.verification.send", "验证码发送请求耗时（不含异步投递）", targetType, outcome));
+        }
+    }
 
-        log.info("发送注册验证码成功: target={}, type={}", target, targetType);
-        return true;
+    /**
+     * 检查验证码是否正确，不消费验证码
+     * 检查通过后仍需调用 verifyCode 消费，二者之间验证码可能被其他请求使用
+     * @param target 目标（手机号或邮箱）
+     * @param code 验证码
+     * @param purpose 用途
+     * @return 是否正确
+     */
+    public Boolean checkCode(String target, String code, String purpose) {
+        if (target == null || code == null || purpose == null) {
+            return false;
+        }
+        return verificationCodeStore.matches(target, purpose, code);
     }
 
     /**
@@ -101,31 +130,42 @@ public class VerificationCodeService extends ServiceImpl<VerificationCodeMapper,
             return false;
         }
 
-        // 查询最新未使用的验证码
-        QueryWrapper<VerificationCode> queryWrapper = new QueryWrapper<>();
-        queryWrapper.eq("target", target);
-        queryWrapper.eq("purpose", purpose);
-        queryWrapper.eq("used", VerificationCode.USED_NO);
-        queryWrapper.gt("expire_time", LocalDateTime.now());
-        queryWrapper.orderByDesc("create_time");
-        queryWrapper.last("LIMIT 1");
-
-        VerificationCode verificationCode = verificationCodeMapper.selectOne(queryWrapper);
-
-        if (verificationCode == null) {
-            return false;
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            boolean valid = verificationCodeStore.consume(target, purpose, code);
+            outcome = valid ? "success" : "mismatch";
+            return valid;
+        } finally {
+            sample.stop(timer("ums.verification.verify", "验证码校验耗时", channelOf(target), outcome));
         }
+    }
 
-        // 验证验证码是否匹配
-        if (!verificationCode.getCode().equals(code)) {
-            return false;
+    /**
+     * 按目标格式推断渠道，只用于指标标签，不抛出异常
+     * @param target 目标
+     * @return 目标类型
+     */
+    private static String channelOf(String target) {
+        if (PHONE_PATTERN.matcher(target).matches()) {
+            return VerificationCode.TARGET_TYPE_PHONE;
         }
+        if (EMAIL_PATTERN.matcher(target).matches()) {
+            return VerificationCode.TARGET_TYPE_EMAIL;
+        }
+        return CHANNEL_UNKNOWN;
+    }
 
-        // 标记验证码为已使用
-        verificationCode.setUsed(VerificationCode.USED_YES);
-        verificationCodeMapper.updateById(verificationCode);
-
-        return true;
+    /**
+     * 按渠道和结果获取计时器，标签取值固定，不包含目标本身
+     */
+    private Timer timer(String name, String description, String channel, String outcome) {
+        return Timer.builder(name)
+                .description(description)
+                .tag("channel", channel)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
     /**
@@ -133,7 +173,7 @@ public class VerificationCodeService extends ServiceImpl<VerificationCodeMapper,
      * @param target 目标
      * @return 目标类型
      */
-    private String validateTarget(String target) {
+    String validateTarget(String target) {
         if (target == null || target.isEmpty()) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "手机号或邮箱不能为空");
         }
@@ -155,16 +195,7 @@ public class VerificationCodeService extends ServiceImpl<VerificationCodeMapper,
      * @param purpose 用途
      */
     private void checkSendFrequency(String target, String purpose) {
-        QueryWrapper<VerificationCode> queryWrapper = new QueryWrapper<>();
-        queryWrapper.eq("target", target);
-        queryWrapper.eq("purpose", purpose);
-        queryWrapper.gt("create_time", LocalDateTime.now().minusSeconds(SEND_INTERVAL_SECONDS));
-        queryWrapper.orderByDesc("create_time");
-        queryWrapper.last("LIMIT 1");
-
-        VerificationCode recentCode = verificationCodeMapper.selectOne(queryWrapper);
-
-        if (recentCode != null) {
+        if (!verificationCodeStore.tryAcquireSendPermit(target, purpose, SEND_INTERVAL)) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "发送过于频繁，请稍后再试");
         }
     }
@@ -173,7 +204,7 @@ public class VerificationCodeService extends ServiceImpl<VerificationCodeMapper,
      * 生成随机验证码
      * @return 验证码
      */
-    private String generateCode() {
+    String generateCode() {
         Random random = new Random();
         StringBuilder code = new StringBuilder();
         for (int i = 0; i < CODE_LENGTH; i++) {
@@ -183,24 +214,12 @@ public class VerificationCodeService extends ServiceImpl<VerificationCodeMapper,
     }
 
     /**
-     * 发送验证码到目标（集成腾讯云短信和邮件）
+     * 提交验证码发送任务（腾讯云短信或邮件），由 CodeDeliveryService 异步发送
      * @param target 目标
      * @param targetType 目标类型
      * @param code 验证码
      */
     private void sendCodeToTarget(String target, String targetType, String code) {
-        boolean sent;
-        if (VerificationCode.TARGET_TYPE_PHONE.equals(targetType)) {
-            // 调用腾讯云短信服务发送
-            sent = tencentSmsService.sendVerificationCode(target, code);
-        } else {
-            // 调用邮件服务发送
-            sent = emailService.sendVerificationCode(target, code);
-        }
-
-        if (!sent) {
-            // 如果发送失败，抛出异常（事务回滚，不会保存验证码）
-            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "验证码发送失败，请稍后重试");
-        }
+        codeDeliveryService.enqueue(target, targetType, code);
     }
 }
@@ -0,0 +1,56 @@
+package com.zixi.usermanagementsystem.service;
+
+import java.time.Duration;
+
+/**
+ * 验证码存储
+ * 通过 user-center.verification-code.store 选择实现：redis（默认）或 mysql
+ */
+public interface VerificationCodeStore {
+
+    /**
+     * 占用发送间隔，同一目标同一用途在间隔内只能成功一次
+     * @param target 目标（手机号或邮箱）
+     * @param purpose 用途
+     * @param interval 发送间隔
+     * @return 是否允许发送
+     */
+    boolean tryAcquireSendPermit(String target, String purpose, Duration interval);
+
+    /**
+     * 保存验证码，同一目标同一用途只有最新的验证码有效
+     * @param target 目标（手机号或邮箱）
+     * @param targetType 目标类型
+     * @param purpose 用途
+     * @param code 验证码
+     * @param ttl 有效期
+     */
+    void save(String target, String targetType, String purpose, String code, Duration ttl);
+
+    /**
+     * 检查验证码是否有效，不消费验证码
+     * @param target 目标（手机号或邮箱）
+     * @param purpose 用途
+     * @param code 验证码
+     * @return 验证码是否一致且未使用、未过期
+     */
+    boolean matches(String target, String purpose, String code);
+
+    /**
+     * 校验并消费验证码，同一验证码只能消费一次
+     * @param target 目标（手机号或邮箱）
+     * @param purpose 用途
+     * @param code 验证码
+     * @return 是否校验成功
+     */
+    boolean consume(String target, String purpose, String code);
+
+    /**
+     * 撤销一次未能投递的发送：删除本次保存的验证码并释放发送间隔，用户可以立即重新获取
+     * 只删除与 code 一致的验证码，期间已被替换的新验证码不受影响
+     * @param target 目标（手机号或邮箱）
+     * @param purpose 用途
+     * @param code 本次保存的验证码
+     */
+    void release(String target, String purpose, String code);
+}
@@ -0,0 +1,105 @@
+package com.zixi.usermanagementsystem.stats;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Count-Min Sketch 频次估计
+ * depth 行、每行 width 个计数器，每行用不同的哈希位置计数，估计值取各行最小值：
+ * 只会高估不会低估，高估量不超过总计数的 e / width（概率 1 - e^-depth）。
+ * 合并即对应计数器相加。非线程安全，由调用方加锁。
+ */
+public class CountMinSketch {
+
+    private final int depth;
+
+    private final int width;
+
+    private final int[] counters;
+
+    public CountMinSketch(int depth, int width) {
+        if (depth <= 0 || width <= 0) {
+            throw new IllegalArgumentException("depth and width must be positive");
+        }
+        this.depth = depth;
+        this.width = width;
+        this.counters = new int[depth * width];
+    }
+
+    private CountMinSketch(int depth, int width, int[] counters) {
+        this.depth = depth;
+        this.width = width;
+        this.counters = counters;
+    }
+
+    /**
+     * 增加一个元素的计数
+     * @param hash 元素的 64 位哈希
+     * @param count 增加的次数
+     */
+    public void add(long hash, int count) {
+        for (int row = 0; row < depth; row++) {
+            counters[row * width + index(hash, row)] += count;
+        }
+    }
+
+    /**
+     * 估算元素的计数
+     * @param hash 元素的 64 位哈希
+     * @return 估算值（不小于真实值）
+     */
+    public long estimate(long hash) {
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counters[row * width + index(hash, row)]);
+        }
+        return min;
+    }
+
+    /**
+     * 合并另一个相同尺寸的 Count-Min Sketch
+     * @param other 另一个 Count-Min Sketch
+     */
+    public void merge(CountMinSketch other) {
+        if (other.depth != depth || other.width != width) {
+            throw new IllegalArgumentException("sketch size mismatch");
+        }
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] += other.counters[i];
+        }
+    }
+
+    /**
+     * 第 row 行的位置：由哈希的高低 32 位组合出各行相互独立的哈希（Kirsch-Mitzenmacher）
+     */
+    private int index(long hash, int row) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        return Math.floorMod(h1 + row * h2, width);
+    }
+
+    /**
+     * 序列化：1 字节 depth + 4 字节 width + 计数器
+     * @return 字节数组
+     */
+    public byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 4 + counters.length * 4)
+                .put((byte) depth)
+                .putInt(width);
+        buffer.asIntBuffer().put(counters);
+        return buffer.array();
+    }
+
+    /**
+     * 反序列化
+     * @param bytes toBytes 的结果
+     * @return Count-Min Sketch
+     */
+    public static CountMinSketch fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int depth = buffer.get();
+        int width = buffer.getInt();
+        int[] counters = new int[depth * width];
+        buffer.asIntBuffer().get(counters);
+        return new CountMinSketch(depth, width, counters);
+    }
+}
@@ -0,0 +1,9 @@
+package com.zixi.usermanagementsystem.stats;
+
+/**
+ * 登录失败 IP 及失败次数
+ * @param ip IP 地址
+ * @param failures 失败次数（Count-Min Sketch 估计值，不小于真实值）
+ */
+public record FailedIpCount(String ip, long failures) {
+}
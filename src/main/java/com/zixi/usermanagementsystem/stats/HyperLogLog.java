@@ -0,0 +1,104 @@
+package com.zixi.usermanagementsystem.stats;
+
+import java.nio.ByteBuffer;
+
+/**
+ * HyperLogLog 基数估计
+ * 2^precision 个寄存器各占一个字节，标准误差约为 1.04 / sqrt(2^precision)；
+ * 合并即逐个寄存器取最大值，因此多个节点、多个时间桶的结果可以任意合并。
+ * 非线程安全，由调用方加锁。
+ */
+public class HyperLogLog {
+
+    private final int precision;
+
+    private final byte[] registers;
+
+    public HyperLogLog(int precision) {
+        if (precision < 4 || precision > 16) {
+            throw new IllegalArgumentException("precision must be between 4 and 16");
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    private HyperLogLog(int precision, byte[] registers) {
+        this.precision = precision;
+        this.registers = registers;
+    }
+
+    /**
+     * 添加一个元素的 64 位哈希
+     * @param hash 哈希值
+     */
+    public void add(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        // 剩余位中第一个 1 的位置，全 0 时取最大值
+        long remaining = hash << precision;
+        int rank = remaining == 0 ? 64 - precision + 1 : Long.numberOfLeadingZeros(remaining) + 1;
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+    }
+
+    /**
+     * 合并另一个相同精度的 HyperLogLog
+     * @param other 另一个 HyperLogLog
+     */
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("precision mismatch: " + precision + " != " + other.precision);
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    /**
+     * 估算不同元素个数，基数较小时使用线性计数修正
+     * @return 估算值
+     */
+    public long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += Math.scalb(1.0, -register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double alpha = 0.7213 / (1 + 1.079 / m);
+        double estimate = alpha * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * 序列化：1 字节精度 + 寄存器
+     * @return 字节数组
+     */
+    public byte[] toBytes() {
+        return ByteBuffer.allocate(1 + registers.length)
+                .put((byte) precision)
+                .put(registers)
+                .array();
+    }
+
+    /**
+     * 反序列化
+     * @param bytes toBytes 的结果
+     * @return HyperLogLog
+     */
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int precision = buffer.get();
+        byte[] registers = new byte[1 << precision];
+        buffer.get(registers);
+        return new HyperLogLog(precision, registers);
+    }
+}
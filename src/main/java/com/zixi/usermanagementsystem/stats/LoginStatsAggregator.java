@@ -0,0 +1,134 @@
+package com.zixi.usermanagementsystem.stats;
+
+import com.zixi.usermanagementsystem.configuration.LoginStatsProperties;
+import com.zixi.usermanagementsystem.constant.LoginStatsGranularity;
+import com.zixi.usermanagementsystem.mapper.LoginStatsRollupMapper;
+import com.zixi.usermanagementsystem.model.domain.LoginHistory;
+import com.zixi.usermanagementsystem.model.domain.LoginStatsRollup;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 登录统计增量汇总
+ * 登录历史成功写入 login_history 后（由 LoginHistoryWriter 调用）在内存中累加到当前分钟和小时的时间桶，不访问数据库；
+ * 定时把各时间桶的增量合并到 login_stats_rollup 表（行锁串行化多个节点的合并），合并失败的增量放回内存下次重试。
+ */
+@Slf4j
+@Component
+public class LoginStatsAggregator {
+
+    private final LoginStatsProperties properties;
+
+    private final LoginStatsRollupMapper rollupMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * 尚未合并到汇总表的增量
+     */
+    private final Map<BucketKey, LoginStatsBucket> pending = new ConcurrentHashMap<>();
+
+    private final Timer flushTimer;
+
+    private final Counter flushFailedCounter;
+
+    public LoginStatsAggregator(LoginStatsProperties properties, LoginStatsRollupMapper rollupMapper,
+                                TransactionTemplate transactionTemplate, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.rollupMapper = rollupMapper;
+        this.transactionTemplate = transactionTemplate;
+
+        Gauge.builder("ums.login.stats.pending", pending, Map::size)
+                .description("尚未合并到汇总表的时间桶数")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("ums.login.stats.flush")
+                .description("单个时间桶合并到汇总表的耗时")
+                .register(meterRegistry);
+        this.flushFailedCounter = Counter.builder("ums.login.stats.flush.failed")
+                .description("合并到汇总表失败的时间桶数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 统计一条已写入的登录记录
+     * @param history 登录历史
+     */
+    public void record(LoginHistory history) {
+        if (!Boolean.TRUE.equals(properties.getEnabled())) {
+            return;
+        }
+        LocalDateTime loginTime = history.getLoginTime() != null ? history.getLoginTime() : LocalDateTime.now();
+        for (LoginStatsGranularity granularity : LoginStatsGranularity.values()) {
+            // compute 与 flush 中的 remove 对同一个键互斥，记录要么进入被取走的增量，要么进入新的增量
+            pending.compute(new BucketKey(granularity, granularity.truncate(loginTime)), (key, bucket) -> {
+                LoginStatsBucket target = bucket != null ? bucket : new LoginStatsBucket(properties.getTopIpCapacity());
+                target.record(history);
+                return target;
+            });
+        }
+    }
+
+    /**
+     * 把内存中的增量合并到汇总表
+     */
+    @Scheduled(fixedDelayString = "${user-center.login-stats.flush-interval:10s}")
+    public void flush() {
+        for (BucketKey key : pending.keySet()) {
+            LoginStatsBucket delta = pending.remove(key);
+            if (delta == null) {
+                continue;
+            }
+            try {
+                flushTimer.record(() -> mergeIntoRollup(key, delta));
+            } catch (RuntimeException e) {
+                flushFailedCounter.increment();
+                log.error("登录统计合并失败，下次重试: granularity={}, bucketStart={}",
+                        key.granularity(), key.bucketStart(), e);
+                pending.merge(key, delta, (current, failed) -> {
+                    current.merge(failed);
+                    return current;
+                });
+            }
+        }
+    }
+
+    /**
+     * 应用关闭前合并剩余的增量
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * 在一个事务内锁定时间桶所在行，与增量合并后写回
+     */
+    private void mergeIntoRollup(BucketKey key, LoginStatsBucket delta) {
+        String granularity = key.granularity().name();
+        transactionTemplate.executeWithoutResult(status -> {
+            rollupMapper.insertIgnore(granularity, key.bucketStart());
+            LoginStatsRollup rollup = rollupMapper.selectForUpdate(granularity, key.bucketStart());
+            LoginStatsBucket merged = LoginStatsBucket.fromRollup(rollup, properties.getTopIpCapacity());
+            merged.merge(delta);
+            merged.writeTo(rollup);
+            rollupMapper.updateById(rollup);
+        });
+    }
+
+    /**
+     * 时间桶标识
+     */
+    private record BucketKey(LoginStatsGranularity granularity, LocalDateTime bucketStart) {
+    }
+}
@@ -0,0 +1,194 @@
+package com.zixi.usermanagementsystem.stats;
+
+import com.zixi.usermanagementsystem.model.domain.LoginHistory;
+import com.zixi.usermanagementsystem.model.domain.LoginStatsRollup;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 一个时间桶内的登录统计
+ * 成功/失败次数精确计数；登录成功的不同用户数用 HyperLogLog 估计；
+ * 失败 IP 的次数用 Count-Min Sketch 估计，并维护一组次数最高的候选 IP（Count-Min Sketch 本身无法枚举元素）。
+ * 同一时间桶的多份统计（不同节点、不同刷新批次）可以合并，合并后的结果与一次性统计相同。
+ * 非线程安全，由调用方加锁。
+ */
+public class LoginStatsBucket {
+
+    /**
+     * HyperLogLog 精度：2048 个寄存器，标准误差约 2.3%
+     */
+    static final int USER_SKETCH_PRECISION = 11;
+
+    /**
+     * Count-Min Sketch 尺寸：高估量不超过该时间桶失败次数的约 1%
+     */
+    static final int IP_SKETCH_DEPTH = 4;
+
+    static final int IP_SKETCH_WIDTH = 256;
+
+    private static final String UNKNOWN_IP = "unknown";
+
+    private final int topIpCapacity;
+
+    private long successCount;
+
+    private long failureCount;
+
+    private final HyperLogLog users;
+
+    private final CountMinSketch failedIps;
+
+    /**
+     * 失败次数最高的候选 IP 及其估计次数，最多 topIpCapacity 个
+     */
+    private final Map<String, Long> topFailedIps;
+
+    public LoginStatsBucket(int topIpCapacity) {
+        this(topIpCapacity, 0, 0, new HyperLogLog(USER_SKETCH_PRECISION),
+                new CountMinSketch(IP_SKETCH_DEPTH, IP_SKETCH_WIDTH), List.of());
+    }
+
+    private LoginStatsBucket(int topIpCapacity, long successCount, long failureCount, HyperLogLog users,
+                             CountMinSketch failedIps, List<String> candidates) {
+        this.topIpCapacity = topIpCapacity;
+        this.successCount = successCount;
+        this.failureCount = failureCount;
+        this.users = users;
+        this.failedIps = failedIps;
+        this.topFailedIps = new HashMap<>();
+        for (String ip : candidates) {
+            topFailedIps.put(ip, failedIps.estimate(SketchHash.hash(ip)));
+        }
+    }
+
+    /**
+     * 统计一条登录记录
+     * @param history 登录历史
+     */
+    public void record(LoginHistory history) {
+        if (Integer.valueOf(LoginHistory.LOGIN_STATUS_SUCCESS).equals(history.getLoginStatus())) {
+            successCount++;
+            if (history.getUserId() != null) {
+                users.add(SketchHash.hash(history.getUserId()));
+            }
+            return;
+        }
+        failureCount++;
+        String ip = StringUtils.hasText(history.getIpAddress()) ? history.getIpAddress() : UNKNOWN_IP;
+        long hash = SketchHash.hash(ip);
+        failedIps.add(hash, 1);
+        offerCandidate(ip, failedIps.estimate(hash));
+    }
+
+    /**
+     * 合并同一时间桶的另一份统计
+     * @param other 另一份统计
+     */
+    public void merge(LoginStatsBucket other) {
+        successCount += other.successCount;
+        failureCount += other.failureCount;
+        users.merge(other.users);
+        failedIps.merge(other.failedIps);
+
+        // 合并后按新的计数重新估计两边的候选
+        Set<String> candidates = new LinkedHashSet<>(topFailedIps.keySet());
+        candidates.addAll(other.topFailedIps.keySet());
+        topFailedIps.clear();
+        for (String ip : candidates) {
+            offerCandidate(ip, failedIps.estimate(SketchHash.hash(ip)));
+        }
+    }
+
+    /**
+     * 放入候选 IP，已满时替换估计次数最小的候选
+     */
+    private void offerCandidate(String ip, long estimate) {
+        if (topFailedIps.containsKey(ip) || topFailedIps.size() < topIpCapacity) {
+            topFailedIps.put(ip, estimate);
+            return;
+        }
+        Map.Entry<String, Long> min = null;
+        for (Map.Entry<String, Long> entry : topFailedIps.entrySet()) {
+            if (min == null || entry.getValue() < min.getValue()) {
+                min = entry;
+            }
+        }
+        if (min != null && estimate > min.getValue()) {
+            topFailedIps.remove(min.getKey());
+            topFailedIps.put(ip, estimate);
+        }
+    }
+
+    public long getSuccessCount() {
+        return successCount;
+    }
+
+    public long getFailureCount() {
+        return failureCount;
+    }
+
+    /**
+     * 估计登录成功的不同用户数
+     * @return 估计值
+     */
+    public long getDistinctUsers() {
+        return users.estimate();
+    }
+
+    /**
+     * 失败次数最高的 IP
+     * @param limit 最多返回个数
+     * @return 按估计次数倒序排列的 IP
+     */
+    public List<FailedIpCount> getTopFailedIps(int limit) {
+        // 候选中记录的是放入时的估计值，返回前按当前计数重新估计
+        List<FailedIpCount> result = new ArrayList<>(topFailedIps.size());
+        for (String ip : topFailedIps.keySet()) {
+            result.add(new FailedIpCount(ip, failedIps.estimate(SketchHash.hash(ip))));
+        }
+        result.sort(Comparator.comparingLong(FailedIpCount::failures).reversed()
+                .thenComparing(FailedIpCount::ip));
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    /**
+     * 从汇总表记录还原，草图为空的列视为空草图
+     * @param rollup 汇总表记录
+     * @param topIpCapacity 候选 IP 个数
+     * @return 时间桶统计
+     */
+    public static LoginStatsBucket fromRollup(LoginStatsRollup rollup, int topIpCapacity) {
+        HyperLogLog users = rollup.getUserSketch() != null
+                ? HyperLogLog.fromBytes(rollup.getUserSketch())
+                : new HyperLogLog(USER_SKETCH_PRECISION);
+        CountMinSketch failedIps = rollup.getFailedIpSketch() != null
+                ? CountMinSketch.fromBytes(rollup.getFailedIpSketch())
+                : new CountMinSketch(IP_SKETCH_DEPTH, IP_SKETCH_WIDTH);
+        List<String> candidates = StringUtils.hasText(rollup.getTopFailedIps())
+                ? List.of(rollup.getTopFailedIps().split(","))
+                : List.of();
+        return new LoginStatsBucket(topIpCapacity,
+                rollup.getSuccessCount() == null ? 0 : rollup.getSuccessCount(),
+                rollup.getFailureCount() == null ? 0 : rollup.getFailureCount(),
+                users, failedIps, candidates);
+    }
+
+    /**
+     * 写回汇总表记录，候选 IP 只保存 IP 本身，次数由 Count-Min Sketch 重新估计
+     * @param rollup 汇总表记录
+     */
+    public void writeTo(LoginStatsRollup rollup) {
+        rollup.setSuccessCount(successCount);
+        rollup.setFailureCount(failureCount);
+        rollup.setUserSketch(users.toBytes());
+        rollup.setFailedIpSketch(failedIps.toBytes());
+        rollup.setTopFailedIps(String.join(",", topFailedIps.keySet()));
+    }
+}
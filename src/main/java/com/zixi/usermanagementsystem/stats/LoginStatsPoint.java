@@ -0,0 +1,13 @@
+package com.zixi.usermanagementsystem.stats;
+
+import java.time.LocalDateTime;
+
+/**
+ * 一个时间桶的登录统计
+ * @param bucketStart 时间桶起始时间
+ * @param successCount 登录成功次数
+ * @param failureCount 登录失败次数
+ * @param distinctUsers 登录成功的不同用户数（估计值）
+ */
+public record LoginStatsPoint(LocalDateTime bucketStart, long successCount, long failureCount, long distinctUsers) {
+}
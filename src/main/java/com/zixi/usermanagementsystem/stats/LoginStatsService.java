@@ -0,0 +1,108 @@
+package com.zixi.usermanagementsystem.stats;
+
+import com.zixi.usermanagementsystem.common.ErrorCode;
+import com.zixi.usermanagementsystem.configuration.LoginStatsProperties;
+import com.zixi.usermanagementsystem.constant.LoginStatsGranularity;
+import com.zixi.usermanagementsystem.exception.BusinessException;
+import com.zixi.usermanagementsystem.mapper.LoginStatsRollupMapper;
+import com.zixi.usermanagementsystem.model.domain.LoginStatsRollup;
+import jakarta.annotation.Resource;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 登录统计查询服务
+ * 只读取 login_stats_rollup 表，查询耗时取决于时间桶个数（不超过 maxBuckets），与 login_history 的行数无关。
+ */
+@Service
+public class LoginStatsService {
+
+    @Resource
+    private LoginStatsRollupMapper rollupMapper;
+
+    @Resource
+    private LoginStatsProperties properties;
+
+    /**
+     * 查询一段时间内的登录统计
+     * @param granularity 汇总粒度
+     * @param from 起始时间，为空时为结束时间前的默认范围
+     * @param to 结束时间，为空时为当前时间
+     * @return 登录统计
+     */
+    public LoginStatsSummary getLoginStats(LoginStatsGranularity granularity, LocalDateTime from, LocalDateTime to) {
+        BucketRange range = resolveRange(granularity, from, to);
+        Map<LocalDateTime, LoginStatsRollup> rollups = new HashMap<>();
+        for (LoginStatsRollup rollup : rollupMapper.selectCounts(granularity.name(), range.first(), range.last())) {
+            rollups.put(rollup.getBucketStart(), rollup);
+        }
+
+        LoginStatsBucket total = new LoginStatsBucket(properties.getTopIpCapacity());
+        List<LoginStatsPoint> series = new ArrayList<>();
+        for (LocalDateTime bucketStart = range.first(); !bucketStart.isAfter(range.last());
+             bucketStart = granularity.next(bucketStart)) {
+            LoginStatsRollup rollup = rollups.get(bucketStart);
+            if (rollup == null) {
+                series.add(new LoginStatsPoint(bucketStart, 0, 0, 0));
+                continue;
+            }
+            LoginStatsBucket bucket = LoginStatsBucket.fromRollup(rollup, properties.getTopIpCapacity());
+            series.add(new LoginStatsPoint(bucketStart, bucket.getSuccessCount(), bucket.getFailureCount(),
+                    bucket.getDistinctUsers()));
+            total.merge(bucket);
+        }
+        return new LoginStatsSummary(granularity, range.first(), range.last(), total.getSuccessCount(),
+                total.getFailureCount(), total.getDistinctUsers(), series);
+    }
+
+    /**
+     * 查询一段时间内登录失败次数最高的 IP
+     * @param granularity 汇总粒度
+     * @param from 起始时间，为空时为结束时间前的默认范围
+     * @param to 结束时间，为空时为当前时间
+     * @param limit 最多返回个数，不超过 topIpCapacity
+     * @return 按失败次数倒序排列的 IP
+     */
+    public List<FailedIpCount> getTopFailedIps(LoginStatsGranularity granularity, LocalDateTime from,
+                                               LocalDateTime to, int limit) {
+        if (limit <= 0 || limit > properties.getTopIpCapacity()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "limit 须在 1 到 " + properties.getTopIpCapacity() + " 之间");
+        }
+        BucketRange range = resolveRange(granularity, from, to);
+        LoginStatsBucket total = new LoginStatsBucket(properties.getTopIpCapacity());
+        for (LoginStatsRollup rollup : rollupMapper.selectFailedIps(granularity.name(), range.first(), range.last())) {
+            total.merge(LoginStatsBucket.fromRollup(rollup, properties.getTopIpCapacity()));
+        }
+        return total.getTopFailedIps(limit);
+    }
+
+    /**
+     * 把查询时间对齐到时间桶，并限制时间桶个数
+     */
+    private BucketRange resolveRange(LoginStatsGranularity granularity, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minus(granularity.getDefaultWindow());
+        if (start.isAfter(end)) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "起始时间不能晚于结束时间");
+        }
+        LocalDateTime first = granularity.truncate(start);
+        LocalDateTime last = granularity.truncate(end);
+        long buckets = granularity.getUnit().between(first, last) + 1;
+        if (buckets > properties.getMaxBuckets()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR,
+                    "查询范围过大，最多 " + properties.getMaxBuckets() + " 个时间桶，请缩小范围或使用更大的粒度");
+        }
+        return new BucketRange(first, last);
+    }
+
+    /**
+     * 对齐后的时间桶范围（首尾都包含）
+     */
+    private record BucketRange(LocalDateTime first, LocalDateTime last) {
+    }
+}
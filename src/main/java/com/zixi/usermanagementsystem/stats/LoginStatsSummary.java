@@ -0,0 +1,21 @@
+package com.zixi.usermanagementsystem.stats;
+
+import com.zixi.usermanagementsystem.constant.LoginStatsGranularity;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 一段时间内的登录统计
+ * @param granularity 汇总粒度
+ * @param from 第一个时间桶的起始时间
+ * @param to 最后一个时间桶的起始时间
+ * @param successCount 登录成功次数
+ * @param failureCount 登录失败次数
+ * @param distinctUsers 整段时间内登录成功的不同用户数（合并各时间桶的 HyperLogLog，不是各桶之和）
+ * @param series 各时间桶的统计，没有登录的时间桶计数为 0
+ */
+public record LoginStatsSummary(LoginStatsGranularity granularity, LocalDateTime from, LocalDateTime to,
+                                long successCount, long failureCount, long distinctUsers,
+                                List<LoginStatsPoint> series) {
+}
@@ -0,0 +1,40 @@
+package com.zixi.usermanagementsystem.stats;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 概率数据结构使用的 64 位哈希
+ * FNV-1a 之后再做一次 MurmurHash3 的 fmix64 混淆，使高位和低位都分布均匀。
+ * 哈希结果会随草图持久化，修改算法会使已有汇总数据无法与新数据合并。
+ */
+final class SketchHash {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private SketchHash() {
+    }
+
+    static long hash(String value) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return fmix64(hash);
+    }
+
+    static long hash(long value) {
+        return fmix64(value ^ FNV_OFFSET_BASIS);
+    }
+
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
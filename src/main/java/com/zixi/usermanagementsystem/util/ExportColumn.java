@@ -0,0 +1,12 @@
+package com.zixi.usermanagementsystem.util;
+
+import java.util.function.Function;
+
+/**
+ * 导出列定义
+ * @param name 列名（CSV 表头 / JSON 字段名）
+ * @param getter 取值函数
+ * @param <T> 行类型
+ */
+public record ExportColumn<T>(String name, Function<T, Object> getter) {
+}
@@ -0,0 +1,144 @@
+package com.zixi.usermanagementsystem.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zixi.usermanagementsystem.constant.ExportFormat;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * 导出写入器
+ * 逐行把数据写入输出流（NDJSON 或 CSV），不在内存中累积结果
+ * @param <T> 行类型
+ */
+public class ExportWriter<T> implements Closeable {
+
+    /**
+     * 每写入多少行刷新一次输出流，让客户端尽快收到数据
+     */
+    private static final int FLUSH_ROWS = 1000;
+
+    private final ExportFormat format;
+    private final List<ExportColumn<T>> columns;
+    private final Writer writer;
+    private final JsonGenerator jsonGenerator;
+    private long rows;
+
+    public ExportWriter(ExportFormat format, List<ExportColumn<T>> columns, OutputStream out, ObjectMapper objectMapper) {
+        this.format = format;
+        this.columns = columns;
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try {
+            if (format == ExportFormat.NDJSON) {
+                this.jsonGenerator = objectMapper.getFactory().createGenerator(writer);
+                this.jsonGenerator.setRootValueSeparator(null);
+            } else {
+                this.jsonGenerator = null;
+                // UTF-8 BOM，便于 Excel 正确识别中文
+                writer.write('\uFEFF');
+                writeCsvHeader();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 写入一行
+     * @param row 行数据
+     */
+    public void write(T row) {
+        try {
+            if (format == ExportFormat.NDJSON) {
+                writeJsonRow(row);
+            } else {
+                writeCsvRow(row);
+            }
+            if (++rows % FLUSH_ROWS == 0) {
+                flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return 已写入行数
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+
+    private void flush() throws IOException {
+        if (jsonGenerator != null) {
+            jsonGenerator.flush();
+        }
+        writer.flush();
+    }
+
+    private void writeJsonRow(T row) throws IOException {
+        jsonGenerator.writeStartObject();
+        for (ExportColumn<T> column : columns) {
+            jsonGenerator.writeFieldName(column.name());
+            jsonGenerator.writeObject(column.getter().apply(row));
+        }
+        jsonGenerator.writeEndObject();
+        jsonGenerator.writeRaw('\n');
+    }
+
+    private void writeCsvHeader() throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escapeCsv(columns.get(i).name()));
+        }
+        writer.write("\r\n");
+    }
+
+    private void writeCsvRow(T row) throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value = columns.get(i).getter().apply(row);
+            if (value != null) {
+                writer.write(escapeCsv(value.toString()));
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * CSV 字段转义：包含分隔符、引号或换行时加引号；
+     * 以公式字符开头时加单引号前缀，防止表格软件执行公式
+     * @param value 原始值
+     * @return 转义后的值
+     */
+    static String escapeCsv(String value) {
+        if (value.isEmpty()) {
+            return value;
+        }
+        char first = value.charAt(0);
+        if (first == '=' || first == '+' || first == '-' || first == '@') {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
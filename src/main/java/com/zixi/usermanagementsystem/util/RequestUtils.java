@@ -0,0 +1,32 @@
+package com.zixi.usermanagementsystem.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+public class RequestUtils {
+
+    /**
+     * 获取客户端IP地址
+     * 不读取 X-Forwarded-For 等请求头（客户端可以任意伪造，会绕过按 IP 的限流）；
+     * 部署在反向代理之后时由 Tomcat RemoteIpValve（server.forward-headers-strategy=native）
+     * 只在直连对端属于 server.tomcat.remoteip.internal-proxies 时用转发头改写远端地址。
+     * @param request HTTP请求
+     * @return IP地址
+     */
+    public static String getClientIp(HttpServletRequest request) {
+        return request.getRemoteAddr();
+    }
+
+    /**
+     * 获取去掉 context-path 的请求路径
+     * @param request HTTP请求
+     * @return 请求路径
+     */
+    public static String getPathWithinApplication(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        String contextPath = request.getContextPath();
+        if (contextPath != null && !contextPath.isEmpty() && uri.startsWith(contextPath)) {
+            return uri.substring(contextPath.length());
+        }
+        return uri;
+    }
+}
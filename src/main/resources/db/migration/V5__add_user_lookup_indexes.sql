@@ -0,0 +1,45 @@
+-- 账号、手机号、邮箱唯一约束，仅作用于未删除的数据：
+-- 函数索引表达式在逻辑删除后为 NULL，不参与唯一性校验，注销后的账号、手机号、邮箱可重新注册（需 MySQL 8.0.13+）
+--
+-- 加唯一索引前先检查未删除数据中是否已有重复（此前注册存在并发竞态，可能写入了重复账号）。
+-- 有重复时迁移在检查约束 chk_v5_no_duplicate_user 处失败，不会建立任何索引（检查约束需 MySQL 8.0.16+，更早的版本会在下面的
+-- ALTER 处以 Duplicate entry 失败）。重复数据涉及用户归属，不自动清理，需人工处理：
+--   1. 查出重复项：
+--      SELECT account, COUNT(*), GROUP_CONCAT(id ORDER BY id) FROM `user` WHERE deleted = 0 GROUP BY account HAVING COUNT(*) > 1;
+--      phone、email 同理（跳过 NULL）。
+--   2. 逐个确认保留哪条记录（通常是最早注册、有登录记录的一条），其余记录逻辑删除（UPDATE `user` SET deleted = 1 WHERE id IN (...)），
+--      或清空重复的 phone / email 并通知用户重新绑定。
+--   3. 执行 flyway repair 清除失败记录后重新部署。
+CREATE TEMPORARY TABLE v5_duplicate_user_check
+(
+    duplicates BIGINT NOT NULL,
+    CONSTRAINT chk_v5_no_duplicate_user CHECK (duplicates = 0)
+);
+
+INSERT INTO v5_duplicate_user_check (duplicates)
+SELECT (SELECT COUNT(*) FROM (SELECT account FROM `user` WHERE deleted = 0 AND account IS NOT NULL
+                              GROUP BY account HAVING COUNT(*) > 1) a)
+     + (SELECT COUNT(*) FROM (SELECT phone FROM `user` WHERE deleted = 0 AND phone IS NOT NULL
+                              GROUP BY phone HAVING COUNT(*) > 1) p)
+     + (SELECT COUNT(*) FROM (SELECT email FROM `user` WHERE deleted = 0 AND email IS NOT NULL
+                              GROUP BY email HAVING COUNT(*) > 1) e);
+
+DROP TEMPORARY TABLE v5_duplicate_user_check;
+
+ALTER TABLE `user`
+    ADD UNIQUE INDEX uk_user_account ((IF(deleted = 0, account, NULL))),
+    ADD UNIQUE INDEX uk_user_phone ((IF(deleted = 0, phone, NULL))),
+    ADD UNIQUE INDEX uk_user_email ((IF(deleted = 0, email, NULL)));
+
+-- 按账号、手机号、邮箱等值查询（MyBatis-Plus 逻辑删除会追加 deleted = 0 条件）
+ALTER TABLE `user`
+    ADD INDEX idx_account_deleted (account, deleted),
+    ADD INDEX idx_phone_deleted (phone, deleted),
+    ADD INDEX idx_email_deleted (email, deleted);
+
+-- 管理员分页查询：等值过滤条件在前，create_time 排序在后
+ALTER TABLE `user`
+    ADD INDEX idx_deleted_create_time (deleted, create_time),
+    ADD INDEX idx_role_create_time (role, deleted, create_time),
+    ADD INDEX idx_status_create_time (status, deleted, create_time),
+    ADD INDEX idx_gender_create_time (gender, deleted, create_time);
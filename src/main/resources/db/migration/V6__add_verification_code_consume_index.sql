@@ -0,0 +1,5 @@
+-- 校验验证码的条件更新：UPDATE ... WHERE target = ? AND purpose = ? AND code = ? AND used = 0 AND expire_time > ?
+-- 等值条件在前，expire_time 范围条件在后；(target, purpose) 前缀同时覆盖发送频率检查和作废旧验证码，替代原 idx_target_purpose
+ALTER TABLE `verification_code`
+    ADD INDEX idx_target_purpose_code (target, purpose, code, used, expire_time),
+    DROP INDEX idx_target_purpose;
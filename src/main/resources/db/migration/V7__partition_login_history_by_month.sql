@@ -0,0 +1,35 @@
+-- login_history 按 login_time 按月范围分区
+-- 分区键必须包含在每个唯一索引中，主键改为 (id, login_time)。
+-- 按登录时间范围查询（管理员条件查询、游标分页）只扫描命中的分区；过期数据按整个分区删除，无需逐行 DELETE。
+-- 只按 id 查询（如 selectById）无法裁剪分区，需要在每个分区的主键上各查找一次，代价随分区数（保留月数 + 预建月数）线性增加；
+-- 需要按 id 定位记录时应同时带上 login_time 条件。
+--
+-- 迁移时只建立两个分区，上界按执行迁移的日期计算，与部署时间无关：
+--   p_legacy 存放迁移前的历史数据和当月数据，上界为执行迁移的下个月 1 日，由分区管理任务在其上界超过保留期限后整体删除；
+--   p_future 兜底存放尚未创建分区的数据，分区管理任务（LoginHistoryPartitionManager）在启动和每天定时从中拆分出
+--   从 p_legacy 上界开始的按月分区。此时 p_future 为空，拆分只修改元数据。
+-- 分区名 pYYYYMM 与上界的对应关系由分区管理任务解析，修改命名规则时需同步修改。
+--
+-- 锁与耗时：修改主键和分区都需要重建表（ALGORITHM=COPY），这里合并为一条 ALTER 只复制一次全表。
+-- 复制期间表持有共享锁，可读不可写，耗时与表大小成正比（粗略估计每百万行数十秒，以实际环境为准）。
+-- 登录历史写入是异步批量的，锁表期间写入先在 LoginHistoryWriter 的队列中堆积，队列满后按溢出策略处理（默认 SYNC 会阻塞登录请求）。
+-- 表较大时应在维护窗口内执行，或先用 pt-online-schema-change / gh-ost 在线完成同样的变更，
+-- 再在 flyway_schema_history 中手工补录本版本，避免 Flyway 重复执行。
+
+-- 主键列不能为空：历史空值归入 p_legacy
+UPDATE login_history SET login_time = '1970-01-01 00:00:00' WHERE login_time IS NULL;
+
+SET @legacy_upper_bound = DATE_FORMAT(CURRENT_DATE + INTERVAL 1 MONTH, '%Y-%m-01');
+
+SET @partition_ddl = CONCAT(
+    'ALTER TABLE login_history ',
+    'MODIFY login_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT ''登录时间'', ',
+    'DROP PRIMARY KEY, ',
+    'ADD PRIMARY KEY (id, login_time) ',
+    'PARTITION BY RANGE COLUMNS (login_time) (',
+    'PARTITION p_legacy VALUES LESS THAN (''', @legacy_upper_bound, '''), ',
+    'PARTITION p_future VALUES LESS THAN (MAXVALUE))');
+
+PREPARE partition_stmt FROM @partition_ddl;
+EXECUTE partition_stmt;
+DEALLOCATE PREPARE partition_stmt;
@@ -0,0 +1,16 @@
+-- 登录统计汇总表：每个粒度（MINUTE / HOUR）每个时间桶一行，由各节点定期合并内存中的增量
+-- user_sketch 为登录成功用户的 HyperLogLog（1 + 2048 字节），failed_ip_sketch 为失败 IP 的 Count-Min Sketch（5 + 4 * 256 * 4 字节），
+-- 格式见 com.zixi.usermanagementsystem.stats 包；管理员统计接口只读取本表，查询耗时与 login_history 的行数无关。
+CREATE TABLE `login_stats_rollup`
+(
+    id               BIGINT      NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    granularity      VARCHAR(10) NOT NULL COMMENT '汇总粒度：MINUTE、HOUR',
+    bucket_start     DATETIME    NOT NULL COMMENT '时间桶起始时间',
+    success_count    BIGINT      NOT NULL DEFAULT 0 COMMENT '登录成功次数',
+    failure_count    BIGINT      NOT NULL DEFAULT 0 COMMENT '登录失败次数',
+    user_sketch      BLOB        NULL COMMENT '登录成功用户的 HyperLogLog',
+    failed_ip_sketch BLOB        NULL COMMENT '登录失败 IP 的 Count-Min Sketch',
+    top_failed_ips   TEXT        NULL COMMENT '失败次数最高的候选 IP，逗号分隔',
+    update_time      DATETIME    DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    UNIQUE KEY uk_granularity_bucket (granularity, bucket_start)
+) COMMENT '登录统计汇总表';
@@ -0,0 +1,4 @@
+-- 登录失败时账号可能不存在，LoginHistoryService.recordLoginFailed 写入的 user_id 为空；
+-- 原 NOT NULL 约束使包含失败记录的批量插入整批失败，逐条重试时失败记录再次被拒绝而丢失
+ALTER TABLE login_history
+    MODIFY user_id BIGINT NULL COMMENT '用户ID，登录失败时为空';
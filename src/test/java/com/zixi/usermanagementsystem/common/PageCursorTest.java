@@ -0,0 +1,179 @@
+package com.zixi.usermanagementsystem.common;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.zixi.usermanagementsystem.exception.BusinessException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * PageCursor 单元测试
+ */
+class PageCursorTest {
+
+    private static final LocalDateTime TIME = LocalDateTime.of(2026, 10, 18, 9, 30, 15, 123_000_000);
+
+    /**
+     * 测试游标编码后可还原
+     */
+    @Test
+    void testRoundTrip() {
+        PageCursor cursor = PageCursor.decode(new PageCursor(TIME, 42L).encode());
+
+        Assertions.assertEquals(TIME, cursor.getTime());
+        Assertions.assertEquals(42L, cursor.getId());
+    }
+
+    /**
+     * 测试排序时间为空的记录生成的游标可还原
+     */
+    @Test
+    void testRoundTripWithNullTime() {
+        PageCursor cursor = PageCursor.decode(new PageCursor(null, 7L).encode());
+
+        Assertions.assertNull(cursor.getTime());
+        Assertions.assertEquals(7L, cursor.getId());
+    }
+
+    /**
+     * 测试格式错误的游标返回参数错误
+     */
+    @Test
+    void testDecodeInvalidCursor() {
+        String missingId = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((TIME + "|null").getBytes(StandardCharsets.UTF_8));
+
+        for (String cursor : new String[]{"not base64!", "bm8tc2VwYXJhdG9y", missingId}) {
+            BusinessException e = Assertions.assertThrows(BusinessException.class, () -> PageCursor.decode(cursor));
+            Assertions.assertEquals(ErrorCode.PARAMS_ERROR.getCode(), e.getCode());
+        }
+    }
+
+    /**
+     * 测试第一页只追加排序和 LIMIT
+     */
+    @Test
+    void testSeekFirstPage() {
+        QueryWrapper<Object> queryWrapper = new QueryWrapper<>();
+
+        PageCursor.seek(queryWrapper, "create_time", null, 20);
+
+        String sql = queryWrapper.getSqlSegment();
+        Assertions.assertFalse(sql.contains("create_time <"), sql);
+        Assertions.assertTrue(sql.contains("ORDER BY create_time DESC,id DESC"), sql);
+        Assertions.assertTrue(sql.endsWith("LIMIT 21"), sql);
+    }
+
+    /**
+     * 测试时间相同时按 id 继续定位，时间为空的记录排在最后
+     */
+    @Test
+    void testSeekTieBreakOnId() {
+        QueryWrapper<Object> queryWrapper = new QueryWrapper<>();
+
+        PageCursor.seek(queryWrapper, "create_time", new PageCursor(TIME, 42L).encode(), 20);
+
+        String sql = queryWrapper.getTargetSql();
+        Assertions.assertTrue(sql.contains("create_time < ?"), sql);
+        Assertions.assertTrue(sql.contains("create_time = ? AND id < ?"), sql);
+        Assertions.assertTrue(sql.contains("create_time IS NULL"), sql);
+        Assertions.assertTrue(queryWrapper.getParamNameValuePairs().containsValue(TIME));
+        Assertions.assertTrue(queryWrapper.getParamNameValuePairs().containsValue(42L));
+    }
+
+    /**
+     * 测试游标时间为空时只在时间为空的记录中按 id 定位
+     */
+    @Test
+    void testSeekAfterNullTime() {
+        QueryWrapper<Object> queryWrapper = new QueryWrapper<>();
+
+        PageCursor.seek(queryWrapper, "create_time", new PageCursor(null, 7L).encode(), 20);
+
+        String sql = queryWrapper.getTargetSql();
+        Assertions.assertTrue(sql.contains("create_time IS NULL AND id < ?"), sql);
+        Assertions.assertFalse(sql.contains("create_time <"), sql);
+    }
+
+    /**
+     * 测试多取的一条不返回，游标指向本页最后一条
+     */
+    @Test
+    void testToPageResultWithNextPage() {
+        List<Row> rows = List.of(new Row(TIME, 3L), new Row(TIME, 2L), new Row(TIME, 1L));
+
+        PageResult<Row> result = PageCursor.toPageResult(rows, 2, 10L, Row::time, Row::id);
+
+        Assertions.assertEquals(List.of(rows.get(0), rows.get(1)), result.getRecords());
+        Assertions.assertEquals(10L, result.getTotal());
+        PageCursor next = PageCursor.decode(result.getNextCursor());
+        Assertions.assertEquals(TIME, next.getTime());
+        Assertions.assertEquals(2L, next.getId());
+    }
+
+    /**
+     * 测试最后一页没有下一页游标
+     */
+    @Test
+    void testToPageResultLastPage() {
+        List<Row> rows = List.of(new Row(TIME, 2L), new Row(null, 1L));
+
+        PageResult<Row> result = PageCursor.toPageResult(rows, 2, null, Row::time, Row::id);
+
+        Assertions.assertEquals(rows, result.getRecords());
+        Assertions.assertNull(result.getNextCursor());
+    }
+
+    /**
+     * 测试按游标逐页读取时，时间相同或为空的记录不重复、不遗漏
+     * 排序与过滤按 seek 生成的 SQL 在内存中模拟：(时间 DESC 空值最后, id DESC)
+     */
+    @Test
+    void testPagingVisitsEveryRowOnce() {
+        List<Row> table = new ArrayList<>();
+        long id = 1;
+        for (int i = 0; i < 5; i++) {
+            table.add(new Row(TIME, id++));
+        }
+        table.add(new Row(TIME.minusSeconds(1), id++));
+        for (int i = 0; i < 4; i++) {
+            table.add(new Row(null, id++));
+        }
+        table.add(new Row(TIME.plusSeconds(1), id++));
+        Comparator<Row> order = Comparator.comparing(Row::time, Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder()))
+                .thenComparing(Row::id).reversed();
+
+        List<Row> visited = new ArrayList<>();
+        String cursor = null;
+        do {
+            PageCursor position = cursor == null ? null : PageCursor.decode(cursor);
+            List<Row> rows = table.stream()
+                    .filter(row -> position == null || isAfter(row, position))
+                    .sorted(order)
+                    .limit(4)
+                    .toList();
+            PageResult<Row> page = PageCursor.toPageResult(rows, 3, null, Row::time, Row::id);
+            visited.addAll(page.getRecords());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        Assertions.assertEquals(table.stream().sorted(order).toList(), visited);
+    }
+
+    private static boolean isAfter(Row row, PageCursor cursor) {
+        if (cursor.getTime() == null) {
+            return row.time() == null && row.id() < cursor.getId();
+        }
+        return row.time() == null || row.time().isBefore(cursor.getTime())
+                || row.time().equals(cursor.getTime()) && row.id() < cursor.getId();
+    }
+
+    private record Row(LocalDateTime time, Long id) {
+    }
+}
@@ -0,0 +1,171 @@
+package com.zixi.usermanagementsystem.configuration;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.zixi.usermanagementsystem.mapper.LoginHistoryMapper;
+import com.zixi.usermanagementsystem.mapper.UserMapper;
+import com.zixi.usermanagementsystem.model.domain.LoginHistory;
+import com.zixi.usermanagementsystem.model.domain.User;
+import jakarta.annotation.Resource;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Connection;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * MybatisPlusConfig 集成测试（需要本地 MySQL）
+ * 通过 Mapper 执行分页查询，校验实际发往数据库的 COUNT 与分页 SQL
+ */
+@SpringBootTest
+@Transactional
+class MybatisPlusConfigTest {
+
+    @Resource
+    private UserMapper userMapper;
+
+    @Resource
+    private LoginHistoryMapper loginHistoryMapper;
+
+    @Resource
+    private SqlCaptureInterceptor sqlCaptureInterceptor;
+
+    /**
+     * 准备数据后开始记录：COUNT 为 0 或页码超出总页数时分页插件不执行分页 SQL
+     */
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setAccount("page" + ThreadLocalRandom.current().nextInt(1_000_000));
+        user.setPassword("{bcrypt}$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3/EzdRlJrRU1Un0H/ux.A1.");
+        userMapper.insert(user);
+        for (int i = 0; i < 5; i++) {
+            LoginHistory history = new LoginHistory();
+            history.setUserId(user.getId());
+            history.setAccount(user.getAccount());
+            history.setLoginTime(LocalDateTime.now().minusMinutes(i));
+            history.setLoginStatus(LoginHistory.LOGIN_STATUS_SUCCESS);
+            loginHistoryMapper.insert(history);
+        }
+        sqlCaptureInterceptor.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        sqlCaptureInterceptor.stop();
+    }
+
+    /**
+     * 测试分页查询先执行去掉 ORDER BY 的 COUNT，再执行带 LIMIT 的分页 SQL
+     */
+    @Test
+    void testPagedQueryIssuesCountAndLimit() {
+        QueryWrapper<LoginHistory> queryWrapper = new QueryWrapper<>();
+        queryWrapper.eq("login_status", LoginHistory.LOGIN_STATUS_SUCCESS).orderByDesc("login_time");
+
+        loginHistoryMapper.selectPage(new Page<>(3, 2), queryWrapper);
+
+        List<String> statements = sqlCaptureInterceptor.statements();
+        Assertions.assertEquals(2, statements.size(), statements.toString());
+        String countSql = statements.get(0);
+        Assertions.assertTrue(countSql.startsWith("SELECT COUNT(*)"), countSql);
+        Assertions.assertFalse(countSql.contains("ORDER BY"), countSql);
+        Assertions.assertTrue(countSql.contains("LOGIN_STATUS = ?"), countSql);
+        String pageSql = statements.get(1);
+        Assertions.assertTrue(pageSql.contains("ORDER BY LOGIN_TIME DESC"), pageSql);
+        Assertions.assertTrue(pageSql.endsWith("LIMIT ?,?"), pageSql);
+    }
+
+    /**
+     * 测试第一页不带偏移量
+     */
+    @Test
+    void testFirstPageUsesLimitWithoutOffset() {
+        userMapper.selectPage(new Page<>(1, 10), new QueryWrapper<User>().orderByDesc("create_time"));
+
+        List<String> statements = sqlCaptureInterceptor.statements();
+        Assertions.assertEquals(2, statements.size(), statements.toString());
+        Assertions.assertTrue(statements.get(1).endsWith("LIMIT ?"), statements.get(1));
+    }
+
+    /**
+     * 测试超过最大单页数量时按上限查询
+     */
+    @Test
+    void testPageSizeCappedByMaxLimit() {
+        Page<User> page = userMapper.selectPage(new Page<>(1, 10000), new QueryWrapper<User>().orderByDesc("create_time"));
+
+        Assertions.assertEquals(100L, page.getSize());
+        Assertions.assertTrue(page.getRecords().size() <= 100);
+        Assertions.assertTrue(sqlCaptureInterceptor.statements().get(1).endsWith("LIMIT ?"));
+    }
+
+    /**
+     * 测试关闭 COUNT 时只执行分页 SQL
+     */
+    @Test
+    void testCountSkippedWhenSearchCountDisabled() {
+        userMapper.selectPage(new Page<>(2, 10, false), new QueryWrapper<User>().orderByDesc("create_time"));
+
+        List<String> statements = sqlCaptureInterceptor.statements();
+        Assertions.assertEquals(1, statements.size(), statements.toString());
+        Assertions.assertTrue(statements.get(0).endsWith("LIMIT ?,?"), statements.get(0));
+    }
+
+    @TestConfiguration
+    static class SqlCaptureConfig {
+
+        @Bean
+        SqlCaptureInterceptor sqlCaptureInterceptor() {
+            return new SqlCaptureInterceptor();
+        }
+    }
+
+    /**
+     * 记录测试线程实际预编译的 SQL（分页插件改写之后），忽略后台任务的语句
+     */
+    @Intercepts(@Signature(type = StatementHandler.class, method = "prepare", args = {Connection.class, Integer.class}))
+    static class SqlCaptureInterceptor implements Interceptor {
+
+        private final List<String> statements = new CopyOnWriteArrayList<>();
+
+        private volatile Thread recordingThread;
+
+        void start() {
+            statements.clear();
+            recordingThread = Thread.currentThread();
+        }
+
+        void stop() {
+            recordingThread = null;
+        }
+
+        List<String> statements() {
+            return List.copyOf(statements);
+        }
+
+        @Override
+        public Object intercept(Invocation invocation) throws Throwable {
+            if (Thread.currentThread() == recordingThread) {
+                StatementHandler handler = (StatementHandler) invocation.getTarget();
+                statements.add(handler.getBoundSql().getSql().replaceAll("\\s+", " ").trim().toUpperCase(Locale.ROOT));
+            }
+            return invocation.proceed();
+        }
+    }
+}
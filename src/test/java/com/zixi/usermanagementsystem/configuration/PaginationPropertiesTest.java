@@ -0,0 +1,33 @@
+package com.zixi.usermanagementsystem.configuration;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * PaginationProperties 每页数量解析单元测试
+ */
+class PaginationPropertiesTest {
+
+    /**
+     * 测试超过配置的单页最大数量时截断
+     */
+    @Test
+    void testResolvePageSizeClampsToMax() {
+        PaginationProperties properties = new PaginationProperties();
+        properties.setMaxPageSize(50L);
+
+        Assertions.assertEquals(50L, properties.resolvePageSize(500L));
+        Assertions.assertEquals(20L, properties.resolvePageSize(20L));
+    }
+
+    /**
+     * 测试为空或非正数时使用默认值
+     */
+    @Test
+    void testResolvePageSizeDefault() {
+        PaginationProperties properties = new PaginationProperties();
+
+        Assertions.assertEquals(PaginationProperties.DEFAULT_PAGE_SIZE, properties.resolvePageSize(null));
+        Assertions.assertEquals(PaginationProperties.DEFAULT_PAGE_SIZE, properties.resolvePageSize(0L));
+    }
+}
@@ -2,15 +2,23 @@ package com.zixi.usermanagementsystem.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.zixi.usermanagementsystem.common.ErrorCode;
+import com.zixi.usermanagementsystem.configuration.WebMvcConfig;
 import com.zixi.usermanagementsystem.common.PageResult;
+import com.zixi.usermanagementsystem.constant.LoginStatsGranularity;
 import com.zixi.usermanagementsystem.constant.UserRoleEnum;
 import com.zixi.usermanagementsystem.mapper.LoginHistoryMapper;
 import com.zixi.usermanagementsystem.mapper.UserMapper;
 import com.zixi.usermanagementsystem.model.domain.User;
 import com.zixi.usermanagementsystem.model.request.UserQueryRequest;
 import com.zixi.usermanagementsystem.model.request.UserRoleUpdateRequest;
+import com.zixi.usermanagementsystem.monitor.SlowQuery;
+import com.zixi.usermanagementsystem.monitor.SlowQueryLog;
 import com.zixi.usermanagementsystem.service.LoginHistoryService;
 import com.zixi.usermanagementsystem.service.UserManageService;
+import com.zixi.usermanagementsystem.stats.FailedIpCount;
+import com.zixi.usermanagementsystem.stats.LoginStatsPoint;
+import com.zixi.usermanagementsystem.stats.LoginStatsService;
+import com.zixi.usermanagementsystem.stats.LoginStatsSummary;
 
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -21,22 +29,33 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
@@ -46,7 +65,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @WebMvcTest(controllers = AdminController.class, excludeAutoConfiguration = {
         org.mybatis.spring.boot.autoconfigure.MybatisAutoConfiguration.class,
         org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration.class
-})
+}, excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = WebMvcConfig.class))
 @AutoConfigureMockMvc(addFilters = false)
 class AdminControllerTest {
 
@@ -65,6 +84,12 @@ class AdminControllerTest {
     @MockitoBean
     private UserMapper userMapper;
 
+    @MockitoBean
+    private SlowQueryLog slowQueryLog;
+
+    @MockitoBean
+    private LoginStatsService loginStatsService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -257,6 +282,144 @@ class AdminControllerTest {
         SecurityContextHolder.clearContext();
     }
 
+    /**
+     * 测试游标分页查询用户列表 - 返回下一页游标，跳过总数统计
+     */
+    @Test
+    void testQueryUserPageByCursor() throws Exception {
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken("admin", null,
+                        Collections.singletonList(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        SecurityContextHolder.setContext(new SecurityContextImpl(authentication));
+
+        User user1 = new User();
+        user1.setId(1L);
+        user1.setUsername("用户1");
+
+        PageResult<User> pageResult = new PageResult<>(
+                Collections.singletonList(user1),
+                null, null, 1L, null, "next-cursor"
+        );
+
+        when(userManageService.queryUserPage(any(UserQueryRequest.class))).thenReturn(pageResult);
+
+        UserQueryRequest request = new UserQueryRequest();
+        request.setPageSize(1L);
+        request.setCursorMode(true);
+
+        mockMvc.perform(post("/api/admin/users/query")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.total").doesNotExist())
+                .andExpect(jsonPath("$.data.nextCursor").value("next-cursor"))
+                .andExpect(jsonPath("$.data.records[0].username").value("用户1"));
+
+        SecurityContextHolder.clearContext();
+    }
+
+    /**
+     * 测试流式导出用户 - NDJSON
+     */
+    @Test
+    void testExportUsersNdjson() throws Exception {
+        setAdminAuthentication();
+
+        User user1 = new User();
+        user1.setId(1L);
+        user1.setUsername("用户1");
+        user1.setAccount("user1");
+        user1.setRole(UserRoleEnum.USER);
+        User user2 = new User();
+        user2.setId(2L);
+        user2.setUsername("用户2");
+        user2.setAccount("user2");
+        user2.setRole(UserRoleEnum.ADMIN);
+
+        doAnswer(invocation -> {
+            Consumer<User> consumer = invocation.getArgument(1);
+            consumer.accept(user1);
+            consumer.accept(user2);
+            return null;
+        }).when(userManageService).exportUsers(any(UserQueryRequest.class), any());
+
+        MvcResult mvcResult = mockMvc.perform(post("/api/admin/users/export")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UserQueryRequest())))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=users.ndjson"))
+                .andExpect(content().string(
+                        "{\"id\":1,\"username\":\"用户1\",\"account\":\"user1\",\"avatarUrl\":null,\"gender\":null,"
+                                + "\"phone\":null,\"email\":null,\"status\":null,\"role\":\"普通用户\",\"createTime\":null,\"updateTime\":null}\n"
+                                + "{\"id\":2,\"username\":\"用户2\",\"account\":\"user2\",\"avatarUrl\":null,\"gender\":null,"
+                                + "\"phone\":null,\"email\":null,\"status\":null,\"role\":\"管理员\",\"createTime\":null,\"updateTime\":null}\n"));
+
+        SecurityContextHolder.clearContext();
+    }
+
+    /**
+     * 测试流式导出用户 - CSV 转义
+     */
+    @Test
+    void testExportUsersCsv() throws Exception {
+        setAdminAuthentication();
+
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("a,\"b\"");
+        user.setAccount("=cmd");
+
+        doAnswer(invocation -> {
+            Consumer<User> consumer = invocation.getArgument(1);
+            consumer.accept(user);
+            return null;
+        }).when(userManageService).exportUsers(any(UserQueryRequest.class), any());
+
+        MvcResult mvcResult = mockMvc.perform(post("/api/admin/users/export")
+                        .param("format", "csv")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UserQueryRequest())))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=users.csv"))
+                .andExpect(content().string("\uFEFFid,username,account,avatarUrl,gender,phone,email,status,role,createTime,updateTime\r\n"
+                        + "1,\"a,\"\"b\"\"\",'=cmd,,,,,,,,\r\n"));
+
+        SecurityContextHolder.clearContext();
+    }
+
+    /**
+     * 测试流式导出登录历史 - 普通用户权限不足
+     */
+    @Test
+    void testExportLoginHistoryNoPermission() throws Exception {
+        mockMvc.perform(post("/api/admin/login-history/export")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.code").value(ErrorCode.NO_PERMISSION.getCode()));
+    }
+
+    private void setAdminAuthentication() {
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken("admin", null,
+                        Collections.singletonList(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        SecurityContextHolder.setContext(new SecurityContextImpl(authentication));
+    }
+
     /**
      * 测试删除用户 - 管理员成功删除
      */
@@ -433,4 +596,107 @@ class AdminControllerTest {
 
         SecurityContextHolder.clearContext();
     }
+
+    /**
+     * 测试获取最近慢查询 - 管理员权限
+     */
+    @Test
+    void testGetSlowQueriesSuccess() throws Exception {
+        // 设置管理员权限
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken("admin", null,
+                        Collections.singletonList(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        SecurityContextHolder.setContext(new SecurityContextImpl(authentication));
+
+        SlowQuery slowQuery = new SlowQuery("LoginHistoryMapper.selectList",
+                "SELECT id FROM login_history WHERE account LIKE ?", List.of("String"), 350, LocalDateTime.now());
+        when(slowQueryLog.recent()).thenReturn(List.of(slowQuery));
+
+        mockMvc.perform(get("/api/admin/slow-queries"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data[0].statement").value("LoginHistoryMapper.selectList"))
+                .andExpect(jsonPath("$.data[0].parameterTypes[0]").value("String"))
+                .andExpect(jsonPath("$.data[0].elapsedMillis").value(350));
+
+        SecurityContextHolder.clearContext();
+    }
+
+    /**
+     * 测试获取最近慢查询 - 未登录
+     */
+    @Test
+    void testGetSlowQueriesNotLogin() throws Exception {
+        mockMvc.perform(get("/api/admin/slow-queries"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.code").value(ErrorCode.NO_PERMISSION.getCode()));
+    }
+
+    /**
+     * 测试查询登录统计 - 管理员权限
+     */
+    @Test
+    void testGetLoginStatsSuccess() throws Exception {
+        // 设置管理员权限
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken("admin", null,
+                        Collections.singletonList(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        SecurityContextHolder.setContext(new SecurityContextImpl(authentication));
+
+        LocalDateTime from = LocalDateTime.of(2026, 10, 18, 10, 0);
+        LocalDateTime to = LocalDateTime.of(2026, 10, 18, 11, 0);
+        LoginStatsSummary summary = new LoginStatsSummary(LoginStatsGranularity.HOUR, from, to, 12, 3, 9,
+                List.of(new LoginStatsPoint(from, 5, 1, 4), new LoginStatsPoint(to, 7, 2, 6)));
+        when(loginStatsService.getLoginStats(LoginStatsGranularity.HOUR, from, to)).thenReturn(summary);
+
+        mockMvc.perform(get("/api/admin/login-stats")
+                        .param("granularity", "hour")
+                        .param("from", "2026-10-18T10:00:00")
+                        .param("to", "2026-10-18T11:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.successCount").value(12))
+                .andExpect(jsonPath("$.data.distinctUsers").value(9))
+                .andExpect(jsonPath("$.data.series.length()").value(2))
+                .andExpect(jsonPath("$.data.series[1].failureCount").value(2));
+
+        SecurityContextHolder.clearContext();
+    }
+
+    /**
+     * 测试查询登录统计 - 未登录
+     */
+    @Test
+    void testGetLoginStatsNotLogin() throws Exception {
+        mockMvc.perform(get("/api/admin/login-stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.code").value(ErrorCode.NO_PERMISSION.getCode()));
+    }
+
+    /**
+     * 测试查询失败次数最高的 IP - 管理员权限
+     */
+    @Test
+    void testGetTopFailedIpsSuccess() throws Exception {
+        // 设置管理员权限
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken("admin", null,
+                        Collections.singletonList(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        SecurityContextHolder.setContext(new SecurityContextImpl(authentication));
+
+        when(loginStatsService.getTopFailedIps(eq(LoginStatsGranularity.MINUTE), any(), any(), eq(5)))
+                .thenReturn(List.of(new FailedIpCount("10.0.0.1", 42), new FailedIpCount("10.0.0.2", 7)));
+
+        mockMvc.perform(get("/api/admin/login-stats/top-failed-ips")
+                        .param("granularity", "minute")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data[0].ip").value("10.0.0.1"))
+                .andExpect(jsonPath("$.data[0].failures").value(42));
+
+        SecurityContextHolder.clearContext();
+    }
 }
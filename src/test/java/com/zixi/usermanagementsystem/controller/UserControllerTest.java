@@ -2,11 +2,14 @@ package com.zixi.usermanagementsystem.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.zixi.usermanagementsystem.common.ErrorCode;
+import com.zixi.usermanagementsystem.configuration.WebMvcConfig;
+import com.zixi.usermanagementsystem.constant.UserRoleEnum;
 import com.zixi.usermanagementsystem.mapper.UserMapper;
 import com.zixi.usermanagementsystem.model.domain.User;
 import com.zixi.usermanagementsystem.model.request.UserRegisterRequest;
 import com.zixi.usermanagementsystem.model.request.UserUpdateRequest;
 import com.zixi.usermanagementsystem.model.request.UserChangePasswordRequest;
+import com.zixi.usermanagementsystem.security.LoginUser;
 import com.zixi.usermanagementsystem.service.UserAuthService;
 import com.zixi.usermanagementsystem.service.UserProfileService;
 
@@ -19,11 +22,15 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.securityContext;
@@ -37,7 +44,10 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * UserController 单元测试类
  * 使用 @WebMvcTest 只加载 Web 层组件，不启动完整应用上下文
  */
-@WebMvcTest(controllers = UserController.class, excludeAutoConfiguration = org.mybatis.spring.boot.autoconfigure.MybatisAutoConfiguration.class)
+@WebMvcTest(controllers = UserController.class,
+        excludeAutoConfiguration = org.mybatis.spring.boot.autoconfigure.MybatisAutoConfiguration.class,
+        // 接口限流拦截器依赖限流存储，单独测试
+        excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = WebMvcConfig.class))
 // 禁用安全过滤器，避免需要完整登录认证流程
 @AutoConfigureMockMvc(addFilters = false)
 class UserControllerTest {
@@ -223,6 +233,36 @@ class UserControllerTest {
         SecurityContextHolder.clearContext();
     }
 
+    /**
+     * 测试获取用户资料接口 - LoginUser 主体
+     * 验证：主体带用户ID时按主键查询，不再按账号查询
+     */
+    @Test
+    void testGetProfileByLoginUserId() throws Exception {
+        User mockUser = new User();
+        mockUser.setId(7L);
+        mockUser.setAccount("testuser");
+
+        LoginUser loginUser = new LoginUser(7L, "testuser", null, UserRoleEnum.USER, 0);
+        SecurityContextHolder.setContext(new SecurityContextImpl(
+                UsernamePasswordAuthenticationToken.authenticated(loginUser, null, loginUser.getAuthorities())));
+
+        when(userProfileService.getById(7L)).thenReturn(mockUser);
+
+        mockMvc.perform(get("/api/users/profile"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.id").value(7))
+                .andExpect(jsonPath("$.data.account").value("testuser"));
+        mockMvc.perform(get("/api/users/current"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(7))
+                .andExpect(jsonPath("$.username").value("testuser"));
+
+        verify(userProfileService, never()).getUserByAccount(any());
+        SecurityContextHolder.clearContext();
+    }
+
     /**
      * 测试更新用户资料接口 - 未登录
      * 验证：未登录用户调用 PUT /profile 时，返回未登录错误
@@ -428,4 +468,19 @@ class UserControllerTest {
         // 4. 清理 SecurityContext
         SecurityContextHolder.clearContext();
     }
+
+    /**
+     * 测试刷新令牌接口 - 未启用令牌认证
+     * 验证：session 模式下没有 TokenService，返回操作错误
+     */
+    @Test
+    void testRefreshTokenWhenSessionMode() throws Exception {
+        mockMvc.perform(post("/api/users/token/refresh")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"token\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.code").value(ErrorCode.OPERATION_ERROR.getCode()));
+    }
 }
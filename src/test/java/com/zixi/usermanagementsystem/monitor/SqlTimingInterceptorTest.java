@@ -0,0 +1,176 @@
+package com.zixi.usermanagementsystem.monitor;
+
+import com.zixi.usermanagementsystem.configuration.SlowSqlProperties;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.statement.RoutingStatementHandler;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.when;
+
+/**
+ * SqlTimingInterceptor 单元测试
+ * 使用真实的 MappedStatement 和 RoutingStatementHandler，JDBC 语句为桩实现，桩方法中的等待模拟执行或读取耗时
+ */
+class SqlTimingInterceptorTest {
+
+    private static final String SQL = "UPDATE user\n        SET status = ?\n        WHERE account = ? AND id IN ( ?, ?, ? )";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final Configuration configuration = new Configuration();
+
+    private SlowQueryLog slowQueryLog;
+
+    private SqlTimingInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        SlowSqlProperties properties = new SlowSqlProperties();
+        properties.setThreshold(Duration.ofMillis(20));
+        properties.setRingSize(2);
+        slowQueryLog = new SlowQueryLog(properties);
+        interceptor = new SqlTimingInterceptor(properties, slowQueryLog, meterRegistry);
+    }
+
+    /**
+     * 测试未超过阈值的语句只计时，不记录慢查询
+     */
+    @Test
+    void testFastStatementOnlyTimed() throws Throwable {
+        execute(0);
+
+        Assertions.assertEquals(1, meterRegistry.get("ums.sql")
+                .tags("statement", "UserMapper.update", "command", "UPDATE").timer().count());
+        Assertions.assertTrue(slowQueryLog.recent().isEmpty());
+        Assertions.assertNull(meterRegistry.find("ums.sql.slow").counter());
+    }
+
+    /**
+     * 测试慢查询记录归一化 SQL 和参数类型，不包含参数值
+     */
+    @Test
+    void testSlowStatementRecorded() throws Throwable {
+        execute(50);
+
+        List<SlowQuery> recent = slowQueryLog.recent();
+        Assertions.assertEquals(1, recent.size());
+        SlowQuery slowQuery = recent.get(0);
+        Assertions.assertEquals("UserMapper.update", slowQuery.statement());
+        Assertions.assertEquals("UPDATE user SET status = ? WHERE account = ? AND id IN (?, ...)", slowQuery.sql());
+        Assertions.assertEquals(List.of("Integer", "String", "Long", "Long", "null"), slowQuery.parameterTypes());
+        Assertions.assertTrue(slowQuery.elapsedMillis() >= 20);
+        Assertions.assertFalse(slowQuery.toString().contains("alice"));
+        Assertions.assertEquals(1.0, meterRegistry.get("ums.sql.slow")
+                .tag("statement", "UserMapper.update").counter().count());
+    }
+
+    /**
+     * 测试查询只统计语句执行时间，读取结果集和结果映射的时间不计入
+     */
+    @Test
+    void testResultReadingNotTimed() throws Throwable {
+        MappedStatement mappedStatement = new MappedStatement.Builder(configuration,
+                "com.zixi.usermanagementsystem.mapper.UserMapper.streamUsers",
+                new StaticSqlSource(configuration, "SELECT id FROM user"), SqlCommandType.SELECT).build();
+        BoundSql boundSql = new BoundSql(configuration, "SELECT id FROM user", List.of(), null);
+        StatementHandler handler = new RoutingStatementHandler(Mockito.mock(Executor.class), mappedStatement,
+                null, RowBounds.DEFAULT, null, boundSql);
+        PreparedStatement statement = Mockito.mock(PreparedStatement.class);
+        when(statement.execute()).thenReturn(true);
+        when(statement.getResultSet()).thenAnswer(invocation -> {
+            TimeUnit.MILLISECONDS.sleep(50);
+            return null;
+        });
+        when(statement.getUpdateCount()).thenReturn(-1);
+
+        interceptor.intercept(new Invocation(handler,
+                StatementHandler.class.getMethod("query", Statement.class, ResultHandler.class),
+                new Object[]{statement, null}));
+
+        Timer timer = meterRegistry.get("ums.sql").tag("statement", "UserMapper.streamUsers").timer();
+        Assertions.assertEquals(1, timer.count());
+        Assertions.assertTrue(timer.totalTime(TimeUnit.MILLISECONDS) < 20, "total=" + timer.totalTime(TimeUnit.MILLISECONDS));
+        Assertions.assertTrue(slowQueryLog.recent().isEmpty());
+        Mockito.verify(statement).execute();
+    }
+
+    /**
+     * 测试环形缓冲区写满后保留最新的记录，最新的在前
+     */
+    @Test
+    void testSlowQueryLogKeepsNewest() {
+        for (int i = 1; i <= 3; i++) {
+            slowQueryLog.add(new SlowQuery("UserMapper.selectList", "SELECT " + i, List.of(), i, LocalDateTime.now()));
+        }
+
+        List<SlowQuery> recent = slowQueryLog.recent();
+        Assertions.assertEquals(2, recent.size());
+        Assertions.assertEquals("SELECT 3", recent.get(0).sql());
+        Assertions.assertEquals("SELECT 2", recent.get(1).sql());
+    }
+
+    /**
+     * 测试超长 SQL 截断
+     */
+    @Test
+    void testNormalizeTruncates() {
+        Assertions.assertEquals("SELECT...", SqlTimingInterceptor.normalize("SELECT   id, account FROM user", 6));
+        Assertions.assertEquals("UserMapper.selectPage_mpCount",
+                SqlTimingInterceptor.shortId("com.zixi.usermanagementsystem.mapper.UserMapper.selectPage_mpCount"));
+    }
+
+    private void execute(long sleepMillis) throws Throwable {
+        MappedStatement mappedStatement = new MappedStatement.Builder(configuration,
+                "com.zixi.usermanagementsystem.mapper.UserMapper.update",
+                new StaticSqlSource(configuration, SQL), SqlCommandType.UPDATE).build();
+
+        Map<String, Object> parameter = new HashMap<>();
+        parameter.put("status", 1);
+        parameter.put("account", "alice");
+        List<ParameterMapping> mappings = List.of(
+                new ParameterMapping.Builder(configuration, "status", Integer.class).build(),
+                new ParameterMapping.Builder(configuration, "account", String.class).build(),
+                new ParameterMapping.Builder(configuration, "id0", Long.class).build(),
+                new ParameterMapping.Builder(configuration, "id1", Long.class).build(),
+                new ParameterMapping.Builder(configuration, "id2", Long.class).build());
+        BoundSql boundSql = new BoundSql(configuration, SQL, mappings, parameter);
+        boundSql.setAdditionalParameter("id0", 1L);
+        boundSql.setAdditionalParameter("id1", 2L);
+        boundSql.setAdditionalParameter("id2", null);
+
+        StatementHandler handler = new RoutingStatementHandler(Mockito.mock(Executor.class), mappedStatement,
+                parameter, RowBounds.DEFAULT, null, boundSql);
+        PreparedStatement statement = Mockito.mock(PreparedStatement.class);
+        when(statement.execute()).thenAnswer(invocation -> {
+            TimeUnit.MILLISECONDS.sleep(sleepMillis);
+            return false;
+        });
+
+        interceptor.intercept(new Invocation(handler,
+                StatementHandler.class.getMethod("update", Statement.class), new Object[]{statement}));
+    }
+}
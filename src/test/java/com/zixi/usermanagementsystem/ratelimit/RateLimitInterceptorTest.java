@@ -0,0 +1,155 @@
+package com.zixi.usermanagementsystem.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zixi.usermanagementsystem.common.ErrorCode;
+import com.zixi.usermanagementsystem.configuration.RateLimitProperties;
+import com.zixi.usermanagementsystem.controller.UserController;
+import com.zixi.usermanagementsystem.model.request.SendCodeRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RateLimitInterceptor 单元测试
+ */
+class RateLimitInterceptorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private RateLimitInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        interceptor = new RateLimitInterceptor(new LocalTokenBucketRateLimiter(new RateLimitProperties()),
+                objectMapper, meterRegistry);
+    }
+
+    /**
+     * 测试令牌耗尽后返回 429 与 BaseResponse，不同 IP 互不影响
+     */
+    @Test
+    void testRateLimitByIp() throws Exception {
+        HandlerMethod handler = handler("limitedByIp");
+
+        Assertions.assertTrue(interceptor.preHandle(request("10.0.0.1"), new MockHttpServletResponse(), handler));
+        Assertions.assertTrue(interceptor.preHandle(request("10.0.0.1"), new MockHttpServletResponse(), handler));
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        Assertions.assertFalse(interceptor.preHandle(request("10.0.0.1"), rejected, handler));
+        Assertions.assertTrue(interceptor.preHandle(request("10.0.0.2"), new MockHttpServletResponse(), handler));
+
+        Assertions.assertEquals(429, rejected.getStatus());
+        Assertions.assertEquals(ErrorCode.TOO_MANY_REQUESTS.getCode(),
+                objectMapper.readTree(rejected.getContentAsByteArray()).get("code").asInt());
+        Assertions.assertEquals(1.0, meterRegistry.get("ums.ratelimit.rejected")
+                .tag("endpoint", "SampleController.limitedByIp")
+                .tag("reason", "rate")
+                .counter().count());
+    }
+
+    /**
+     * 测试发送验证码按IP限流时，轮换伪造的 X-Forwarded-For 不会得到新的令牌桶
+     */
+    @Test
+    void testSendCodeLimitIgnoresForgedForwardedFor() throws Exception {
+        HandlerMethod handler = new HandlerMethod(Mockito.mock(UserController.class),
+                UserController.class.getMethod("sendRegisterCode", SendCodeRequest.class));
+
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletRequest request = request("10.0.0.1");
+            request.addHeader("X-Forwarded-For", "198.51.100." + i);
+            Assertions.assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), handler));
+        }
+        MockHttpServletRequest forged = request("10.0.0.1");
+        forged.addHeader("X-Forwarded-For", "198.51.100.99");
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+
+        Assertions.assertFalse(interceptor.preHandle(forged, rejected, handler));
+        Assertions.assertEquals(429, rejected.getStatus());
+    }
+
+    /**
+     * 测试并发限制：许可在请求完成后释放
+     */
+    @Test
+    void testConcurrencyLimit() throws Exception {
+        HandlerMethod handler = handler("bulkhead");
+        MockHttpServletRequest first = request("10.0.0.1");
+
+        Assertions.assertTrue(interceptor.preHandle(first, new MockHttpServletResponse(), handler));
+        Assertions.assertFalse(interceptor.preHandle(request("10.0.0.2"), new MockHttpServletResponse(), handler));
+
+        interceptor.afterCompletion(first, new MockHttpServletResponse(), handler, null);
+        Assertions.assertTrue(interceptor.preHandle(request("10.0.0.3"), new MockHttpServletResponse(), handler));
+        Assertions.assertEquals(1.0, meterRegistry.get("ums.ratelimit.rejected")
+                .tag("reason", "concurrency")
+                .counter().count());
+    }
+
+    /**
+     * 测试未标注的方法不限流
+     */
+    @Test
+    void testUnannotatedHandler() throws Exception {
+        HandlerMethod handler = handler("unlimited");
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertTrue(interceptor.preHandle(request("10.0.0.1"), new MockHttpServletResponse(), handler));
+        }
+    }
+
+    /**
+     * 测试令牌按时间匀速补充，且不超过容量
+     */
+    @Test
+    void testTokenBucketRefill() {
+        long start = 0;
+        long refill = TimeUnit.SECONDS.toNanos(60);
+        LocalTokenBucketRateLimiter.TokenBucket bucket = new LocalTokenBucketRateLimiter.TokenBucket(2, start);
+        double rate = 2.0 / refill;
+
+        Assertions.assertTrue(bucket.tryConsume(start, 2, rate));
+        Assertions.assertTrue(bucket.tryConsume(start, 2, rate));
+        Assertions.assertFalse(bucket.tryConsume(start, 2, rate));
+        // 30 秒补充 1 个令牌
+        long halfway = start + refill / 2 + TimeUnit.MILLISECONDS.toNanos(1);
+        Assertions.assertTrue(bucket.tryConsume(halfway, 2, rate));
+        Assertions.assertFalse(bucket.tryConsume(halfway, 2, rate));
+        // 长时间空闲后最多补满到容量
+        long later = start + 10 * refill;
+        Assertions.assertTrue(bucket.tryConsume(later, 2, rate));
+        Assertions.assertTrue(bucket.tryConsume(later, 2, rate));
+        Assertions.assertFalse(bucket.tryConsume(later, 2, rate));
+    }
+
+    private MockHttpServletRequest request(String ip) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/users/send-code");
+        request.setRemoteAddr(ip);
+        return request;
+    }
+
+    private HandlerMethod handler(String methodName) throws NoSuchMethodException {
+        return new HandlerMethod(new SampleController(), SampleController.class.getMethod(methodName));
+    }
+
+    static class SampleController {
+
+        @RateLimited(key = RateLimited.Key.IP, permits = 2, windowSeconds = 60)
+        public void limitedByIp() {
+        }
+
+        @RateLimited(maxConcurrent = 1)
+        public void bulkhead() {
+        }
+
+        public void unlimited() {
+        }
+    }
+}
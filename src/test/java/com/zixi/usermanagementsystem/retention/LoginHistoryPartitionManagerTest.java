@@ -0,0 +1,151 @@
+package com.zixi.usermanagementsystem.retention;
+
+import com.zixi.usermanagementsystem.configuration.RetentionProperties;
+import com.zixi.usermanagementsystem.mapper.LoginHistoryMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * LoginHistoryPartitionManager 单元测试
+ */
+class LoginHistoryPartitionManagerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private RetentionProperties properties;
+
+    private LoginHistoryMapper loginHistoryMapper;
+
+    private LoginHistoryPartitionManager manager;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RetentionProperties();
+        properties.setLoginHistory(Duration.ofDays(180));
+        properties.getPartition().setFutureMonths(3);
+        loginHistoryMapper = Mockito.mock(LoginHistoryMapper.class);
+        manager = new LoginHistoryPartitionManager(properties, loginHistoryMapper,
+                Mockito.mock(RedisJobLock.class), meterRegistry);
+    }
+
+    /**
+     * 测试迁移后首次维护从 p_legacy 的上界开始创建按月分区
+     */
+    @Test
+    void testCreatePartitionsFromLegacyUpperBound() {
+        when(loginHistoryMapper.selectPartitionNames()).thenReturn(List.of("p_legacy", "p_future"));
+        when(loginHistoryMapper.selectPartitionDescription("p_legacy")).thenReturn("'2027-03-01 00:00:00'");
+
+        manager.maintain(LocalDateTime.of(2027, 2, 10, 3, 0));
+
+        verify(loginHistoryMapper).reorganizeFuturePartition(
+                "PARTITION p202703 VALUES LESS THAN ('2027-04-01'), "
+                        + "PARTITION p202704 VALUES LESS THAN ('2027-05-01'), "
+                        + "PARTITION p202705 VALUES LESS THAN ('2027-06-01'), "
+                        + "PARTITION p_future VALUES LESS THAN (MAXVALUE)");
+        verify(loginHistoryMapper, never()).dropPartition(anyString());
+    }
+
+    /**
+     * 测试从 p_future 拆分出缺少的未来月份分区
+     */
+    @Test
+    void testCreateFuturePartitions() {
+        when(loginHistoryMapper.selectPartitionNames())
+                .thenReturn(List.of("p_legacy", "p202610", "p202611", "p202612", "p202701", "p_future"));
+        when(loginHistoryMapper.selectPartitionDescription("p_legacy")).thenReturn("'2026-10-01 00:00:00'");
+
+        manager.maintain(LocalDateTime.of(2026, 12, 15, 3, 0));
+
+        verify(loginHistoryMapper).reorganizeFuturePartition(
+                "PARTITION p202702 VALUES LESS THAN ('2027-03-01'), "
+                        + "PARTITION p202703 VALUES LESS THAN ('2027-04-01'), "
+                        + "PARTITION p_future VALUES LESS THAN (MAXVALUE)");
+        verify(loginHistoryMapper, never()).dropPartition(anyString());
+        Assertions.assertEquals(2.0, meterRegistry.get("ums.retention.partitions")
+                .tag("action", "created").counter().count());
+    }
+
+    /**
+     * 测试上界不晚于保留期限的分区整体删除，包括 p_legacy
+     */
+    @Test
+    void testDropExpiredPartitions() {
+        when(loginHistoryMapper.selectPartitionNames())
+                .thenReturn(List.of("p_legacy", "p202610", "p202611", "p202612", "p202701", "p202702", "p202703",
+                        "p202704", "p202705", "p202706", "p202707", "p202708", "p_future"));
+        when(loginHistoryMapper.selectPartitionDescription("p_legacy")).thenReturn("'2026-10-01 00:00:00'");
+
+        // 保留期限为 2027-05-15 前 180 天，即 2026-11-16
+        manager.maintain(LocalDateTime.of(2027, 5, 15, 3, 0));
+
+        InOrder inOrder = Mockito.inOrder(loginHistoryMapper);
+        inOrder.verify(loginHistoryMapper).dropPartition("p_legacy");
+        inOrder.verify(loginHistoryMapper).dropPartition("p202610");
+        verify(loginHistoryMapper, never()).dropPartition("p202611");
+        verify(loginHistoryMapper, never()).dropPartition("p_future");
+        verify(loginHistoryMapper, never()).reorganizeFuturePartition(anyString());
+    }
+
+    /**
+     * 测试未分区的表不执行任何 DDL
+     */
+    @Test
+    void testSkipWhenNotPartitioned() {
+        when(loginHistoryMapper.selectPartitionNames()).thenReturn(List.of());
+
+        manager.maintain(LocalDateTime.of(2026, 12, 15, 3, 0));
+
+        verify(loginHistoryMapper, never()).reorganizeFuturePartition(anyString());
+        verify(loginHistoryMapper, never()).dropPartition(anyString());
+    }
+
+    /**
+     * 测试无法读取 p_legacy 上界且没有按月分区时不创建分区
+     */
+    @Test
+    void testSkipCreateWhenLegacyUpperBoundUnknown() {
+        when(loginHistoryMapper.selectPartitionNames()).thenReturn(List.of("p_legacy", "p_future"));
+
+        manager.maintain(LocalDateTime.of(2027, 2, 10, 3, 0));
+
+        verify(loginHistoryMapper, never()).reorganizeFuturePartition(anyString());
+        verify(loginHistoryMapper, never()).dropPartition(anyString());
+    }
+
+    /**
+     * 测试分区名与上界的对应关系
+     */
+    @Test
+    void testUpperBound() {
+        Assertions.assertEquals(LocalDate.of(2027, 1, 1), LoginHistoryPartitionManager.upperBound("p202612"));
+        Assertions.assertNull(LoginHistoryPartitionManager.upperBound("p_legacy"));
+        Assertions.assertNull(LoginHistoryPartitionManager.upperBound("p_future"));
+    }
+
+    /**
+     * 测试解析 information_schema 中的分区上界
+     */
+    @Test
+    void testParseUpperBound() {
+        Assertions.assertEquals(LocalDate.of(2026, 11, 1),
+                LoginHistoryPartitionManager.parseUpperBound("'2026-11-01 00:00:00'"));
+        Assertions.assertEquals(LocalDate.of(2026, 11, 1), LoginHistoryPartitionManager.parseUpperBound("'2026-11-01'"));
+        Assertions.assertNull(LoginHistoryPartitionManager.parseUpperBound("MAXVALUE"));
+        Assertions.assertNull(LoginHistoryPartitionManager.parseUpperBound(null));
+    }
+}
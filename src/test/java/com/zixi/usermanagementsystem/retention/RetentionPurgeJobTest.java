@@ -0,0 +1,150 @@
+package com.zixi.usermanagementsystem.retention;
+
+import com.zixi.usermanagementsystem.configuration.RetentionProperties;
+import com.zixi.usermanagementsystem.mapper.LoginHistoryMapper;
+import com.zixi.usermanagementsystem.mapper.LoginStatsRollupMapper;
+import com.zixi.usermanagementsystem.mapper.VerificationCodeMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * RetentionPurgeJob 单元测试
+ */
+class RetentionPurgeJobTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private RetentionProperties properties;
+
+    private VerificationCodeMapper verificationCodeMapper;
+
+    private LoginHistoryMapper loginHistoryMapper;
+
+    private LoginStatsRollupMapper loginStatsRollupMapper;
+
+    private RedisJobLock jobLock;
+
+    private RetentionPurgeJob job;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RetentionProperties();
+        properties.setBatchSize(1000);
+        properties.setBatchPause(Duration.ZERO);
+        verificationCodeMapper = Mockito.mock(VerificationCodeMapper.class);
+        loginHistoryMapper = Mockito.mock(LoginHistoryMapper.class);
+        loginStatsRollupMapper = Mockito.mock(LoginStatsRollupMapper.class);
+        jobLock = Mockito.mock(RedisJobLock.class);
+        job = new RetentionPurgeJob(properties, verificationCodeMapper, loginHistoryMapper, loginStatsRollupMapper,
+                jobLock, meterRegistry);
+    }
+
+    /**
+     * 测试按固定大小的ID范围分批删除，直到上界为止
+     */
+    @Test
+    void testPurgeInIdRangeBatches() {
+        properties.getPartition().setEnabled(false);
+        when(loginHistoryMapper.selectMinId()).thenReturn(1L);
+        when(loginHistoryMapper.selectLastIdBefore(any(LocalDateTime.class))).thenReturn(2500L);
+        when(loginHistoryMapper.deleteInRangeBefore(anyLong(), anyLong(), any(LocalDateTime.class))).thenReturn(1000, 1000, 400);
+
+        Map<String, Long> purged = job.purgeAll();
+
+        verify(loginHistoryMapper).deleteInRangeBefore(eq(1L), eq(1000L), any(LocalDateTime.class));
+        verify(loginHistoryMapper).deleteInRangeBefore(eq(1001L), eq(2000L), any(LocalDateTime.class));
+        verify(loginHistoryMapper).deleteInRangeBefore(eq(2001L), eq(2500L), any(LocalDateTime.class));
+        verify(loginHistoryMapper, times(3)).deleteInRangeBefore(anyLong(), anyLong(), any(LocalDateTime.class));
+        Assertions.assertEquals(2400L, purged.get(RetentionPurgeJob.TABLE_LOGIN_HISTORY));
+        Assertions.assertEquals(0L, purged.get(RetentionPurgeJob.TABLE_VERIFICATION_CODE));
+        Assertions.assertEquals(2400.0, meterRegistry.get("ums.retention.purged")
+                .tag("table", RetentionPurgeJob.TABLE_LOGIN_HISTORY).counter().count());
+    }
+
+    /**
+     * 测试截止时间按各表保留时间计算
+     */
+    @Test
+    void testCutoffUsesRetention() {
+        properties.setVerificationCode(Duration.ofDays(1));
+        when(verificationCodeMapper.selectMinId()).thenReturn(10L);
+        when(verificationCodeMapper.selectLastIdExpiredBefore(any(LocalDateTime.class))).thenReturn(10L);
+
+        LocalDateTime before = LocalDateTime.now().minusDays(1);
+        job.purgeAll();
+        LocalDateTime after = LocalDateTime.now().minusDays(1);
+
+        verify(verificationCodeMapper).deleteInRangeExpiredBefore(eq(10L), eq(10L), Mockito.argThat(
+                cutoff -> !cutoff.isBefore(before) && !cutoff.isAfter(after)));
+    }
+
+    /**
+     * 测试登录历史按月分区时不逐行清理
+     */
+    @Test
+    void testSkipLoginHistoryWhenPartitioned() {
+        Map<String, Long> purged = job.purgeAll();
+
+        Assertions.assertFalse(purged.containsKey(RetentionPurgeJob.TABLE_LOGIN_HISTORY));
+        verify(loginHistoryMapper, never()).selectLastIdBefore(any(LocalDateTime.class));
+        verify(loginHistoryMapper, never()).deleteInRangeBefore(anyLong(), anyLong(), any(LocalDateTime.class));
+    }
+
+    /**
+     * 测试登录统计按粒度分别清理，删满一批时继续删除
+     */
+    @Test
+    void testPurgeLoginStatsByGranularity() {
+        when(loginStatsRollupMapper.deleteBefore(eq("MINUTE"), any(LocalDateTime.class), eq(1000))).thenReturn(1000, 300);
+        when(loginStatsRollupMapper.deleteBefore(eq("HOUR"), any(LocalDateTime.class), eq(1000))).thenReturn(5);
+
+        Map<String, Long> purged = job.purgeAll();
+
+        Assertions.assertEquals(1305L, purged.get(RetentionPurgeJob.TABLE_LOGIN_STATS_ROLLUP));
+        verify(loginStatsRollupMapper, times(2)).deleteBefore(eq("MINUTE"), any(LocalDateTime.class), eq(1000));
+        verify(loginStatsRollupMapper, times(1)).deleteBefore(eq("HOUR"), any(LocalDateTime.class), eq(1000));
+    }
+
+    /**
+     * 测试其他节点持有锁时不执行清理
+     */
+    @Test
+    void testSkipWhenLockHeld() {
+        when(jobLock.tryLock(eq(RetentionPurgeJob.LOCK_NAME), any(Duration.class))).thenReturn(null);
+
+        job.scheduledPurge();
+
+        verify(loginHistoryMapper, never()).selectLastIdBefore(any(LocalDateTime.class));
+        verify(jobLock, never()).unlock(any(), any());
+    }
+
+    /**
+     * 测试获取锁后执行清理并释放锁
+     */
+    @Test
+    void testReleaseLockAfterRun() {
+        properties.getPartition().setEnabled(false);
+        when(jobLock.tryLock(eq(RetentionPurgeJob.LOCK_NAME), any(Duration.class))).thenReturn("token");
+
+        job.scheduledPurge();
+
+        verify(loginHistoryMapper).selectLastIdBefore(any(LocalDateTime.class));
+        verify(jobLock).unlock(RetentionPurgeJob.LOCK_NAME, "token");
+        Assertions.assertEquals(1, meterRegistry.get("ums.retention.run").timer().count());
+    }
+}
@@ -0,0 +1,129 @@
+package com.zixi.usermanagementsystem.security;
+
+import com.zixi.usermanagementsystem.configuration.SecurityConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BoundedPasswordEncoder 单元测试
+ */
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        if (encoder != null) {
+            encoder.shutdown();
+        }
+    }
+
+    /**
+     * 测试新哈希带 {bcrypt} 前缀，无前缀的历史哈希仍可校验并需要升级
+     */
+    @Test
+    void testLegacyHashMatchesAndNeedsUpgrade() {
+        encoder = new BoundedPasswordEncoder(SecurityConfig.delegatingPasswordEncoder(4),
+                1, 10, Duration.ofSeconds(5), meterRegistry);
+        String legacyHash = new BCryptPasswordEncoder(4).encode("password123");
+
+        Assertions.assertTrue(encoder.matches("password123", legacyHash));
+        Assertions.assertTrue(encoder.upgradeEncoding(legacyHash));
+
+        String encoded = encoder.encode("password123");
+        Assertions.assertTrue(encoded.startsWith("{bcrypt}"));
+        Assertions.assertTrue(encoder.matches("password123", encoded));
+        Assertions.assertFalse(encoder.upgradeEncoding(encoded));
+        Assertions.assertEquals(1, meterRegistry.get("ums.password.hash").tag("operation", "encode").timer().count());
+        Assertions.assertEquals(3, meterRegistry.get("ums.password.hash.queue").timer().count());
+    }
+
+    /**
+     * 测试 cost 低于目标值的哈希需要升级
+     */
+    @Test
+    void testLowerCostHashNeedsUpgrade() {
+        PasswordEncoder weak = SecurityConfig.delegatingPasswordEncoder(4);
+        encoder = new BoundedPasswordEncoder(SecurityConfig.delegatingPasswordEncoder(5),
+                1, 10, Duration.ofSeconds(5), meterRegistry);
+
+        Assertions.assertTrue(encoder.upgradeEncoding(weak.encode("password123")));
+    }
+
+    /**
+     * 测试线程和队列都占满时立即拒绝
+     */
+    @Test
+    void testRejectWhenSaturated() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(new BlockingPasswordEncoder(started, release),
+                1, 1, Duration.ofSeconds(5), meterRegistry);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+        // 等待第二个任务进入队列
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("ums.password.hash.queue.size").gauge().value() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        Assertions.assertThrows(PasswordHashingRejectedException.class, () -> encoder.encode("c"));
+        Assertions.assertEquals(1.0, meterRegistry.get("ums.password.hash.rejected").counter().count());
+
+        release.countDown();
+        Assertions.assertEquals("a", running.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals("b", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * 测试等待超时按繁忙处理
+     */
+    @Test
+    void testRejectWhenWaitTimesOut() {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(new BlockingPasswordEncoder(started, release),
+                1, 1, Duration.ofMillis(50), meterRegistry);
+
+        try {
+            Assertions.assertThrows(PasswordHashingRejectedException.class, () -> encoder.encode("a"));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    /**
+     * 首次调用时阻塞直到放行的编码器，用于占满哈希线程
+     */
+    private record BlockingPasswordEncoder(CountDownLatch started, CountDownLatch release) implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return rawPassword.toString().equals(encodedPassword);
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.zixi.usermanagementsystem.security;
+
+import com.zixi.usermanagementsystem.configuration.RedisSessionConfig;
+import com.zixi.usermanagementsystem.configuration.UserSessionProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.MapSession;
+import org.springframework.session.MapSessionRepository;
+import org.springframework.session.Session;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.endsWith;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * CachingSessionRepository 单元测试
+ * 使用内存仓库代替 Redis，统计对被代理仓库的访问次数
+ */
+class CachingSessionRepositoryTest {
+
+    private CountingSessionRepository delegate;
+
+    private StringRedisTemplate stringRedisTemplate;
+
+    private CachingSessionRepository<MapSession> repository;
+
+    @BeforeEach
+    void setUp() {
+        delegate = new CountingSessionRepository();
+        stringRedisTemplate = Mockito.mock(StringRedisTemplate.class);
+        UserSessionProperties.Cache properties = new UserSessionProperties.Cache();
+        properties.setLastAccessedWriteThreshold(Duration.ofSeconds(10));
+        repository = new CachingSessionRepository<>(delegate,
+                new CompactSessionSerializer(RedisSessionConfig.jsonSessionSerializer(), true),
+                stringRedisTemplate, properties, new SimpleMeterRegistry());
+    }
+
+    /**
+     * 测试保存后读取命中本地缓存
+     */
+    @Test
+    void testFindByIdServedFromCache() {
+        String id = createSession("theme", "dark");
+
+        Session first = repository.findById(id);
+        Session second = repository.findById(id);
+
+        Assertions.assertEquals(0, delegate.finds);
+        Assertions.assertEquals("dark", first.getAttribute("theme"));
+        Assertions.assertEquals("dark", second.getAttribute("theme"));
+    }
+
+    /**
+     * 测试仅访问时间变化时合并写入
+     */
+    @Test
+    void testLastAccessedTimeWritesCoalesced() {
+        String id = createSession("theme", "dark");
+        int savesBefore = delegate.saves;
+
+        Session session = repository.findById(id);
+        session.setLastAccessedTime(session.getLastAccessedTime().plusSeconds(1));
+        repository.save(session);
+        Assertions.assertEquals(savesBefore, delegate.saves);
+
+        Session later = repository.findById(id);
+        Instant lastAccessed = later.getLastAccessedTime().plusSeconds(15);
+        later.setLastAccessedTime(lastAccessed);
+        repository.save(later);
+        Assertions.assertEquals(savesBefore + 1, delegate.saves);
+        Assertions.assertEquals(lastAccessed, delegate.repository.findById(id).getLastAccessedTime());
+    }
+
+    /**
+     * 测试修改属性写回并发布失效通知
+     */
+    @Test
+    void testAttributeChangePersistedAndPublished() {
+        String id = createSession("theme", "dark");
+
+        Session session = repository.findById(id);
+        session.setAttribute("theme", "light");
+        repository.save(session);
+
+        Assertions.assertEquals("light", delegate.repository.findById(id).getAttribute("theme"));
+        Assertions.assertEquals("light", repository.findById(id).getAttribute("theme"));
+        verify(stringRedisTemplate).convertAndSend(eq(CachingSessionRepository.INVALIDATION_CHANNEL), endsWith("|" + id));
+    }
+
+    /**
+     * 测试删除 Session（登出）
+     */
+    @Test
+    void testDeleteById() {
+        String id = createSession("theme", "dark");
+
+        repository.deleteById(id);
+
+        Assertions.assertNull(repository.findById(id));
+        verify(stringRedisTemplate).convertAndSend(eq(CachingSessionRepository.INVALIDATION_CHANNEL), endsWith("|" + id));
+    }
+
+    /**
+     * 测试其他节点的失效通知清除本地缓存
+     */
+    @Test
+    void testRemoteInvalidation() {
+        String id = createSession("theme", "dark");
+        delegate.repository.deleteById(id);
+
+        Assertions.assertNotNull(repository.findById(id));
+        repository.onInvalidation("other-node|" + id);
+
+        Assertions.assertNull(repository.findById(id));
+        Assertions.assertEquals(1, delegate.finds);
+    }
+
+    /**
+     * 测试修改 Session ID（登录时防固定攻击）
+     */
+    @Test
+    void testChangeSessionId() {
+        String id = createSession("theme", "dark");
+
+        Session session = repository.findById(id);
+        String newId = session.changeSessionId();
+        repository.save(session);
+
+        Assertions.assertNull(repository.findById(id));
+        Assertions.assertEquals("dark", repository.findById(newId).getAttribute("theme"));
+    }
+
+    /**
+     * 测试只读请求不发布失效通知
+     */
+    @Test
+    void testReadOnlyRequestNotPublished() {
+        String id = createSession("theme", "dark");
+
+        Session session = repository.findById(id);
+        repository.save(session);
+
+        verify(stringRedisTemplate, never()).convertAndSend(eq(CachingSessionRepository.INVALIDATION_CHANNEL), anyString());
+    }
+
+    /**
+     * 测试原 Session 已在其他节点删除时修改不抛异常，按失效处理且不写回 Redis
+     */
+    @Test
+    void testDeletedSessionTreatedAsInvalid() {
+        String id = createSession("theme", "dark");
+        delegate.repository.deleteById(id);
+        int savesBefore = delegate.saves;
+
+        Session session = repository.findById(id);
+        session.setAttribute("theme", "light");
+        repository.save(session);
+
+        Assertions.assertTrue(session.isExpired());
+        Assertions.assertEquals(savesBefore, delegate.saves);
+        Assertions.assertNull(delegate.repository.findById(id));
+        Assertions.assertNull(repository.findById(id));
+    }
+
+    /**
+     * 测试仅更新访问时间不延长本地缓存有效期，活跃 Session 到期后从被代理仓库重新加载
+     */
+    @Test
+    void testLocalUpdatesDoNotExtendTtl() {
+        AtomicLong nanos = new AtomicLong();
+        UserSessionProperties.Cache properties = new UserSessionProperties.Cache();
+        properties.setTtl(Duration.ofSeconds(10));
+        properties.setLastAccessedWriteThreshold(Duration.ofMinutes(1));
+        repository = new CachingSessionRepository<>(delegate,
+                new CompactSessionSerializer(RedisSessionConfig.jsonSessionSerializer(), true),
+                stringRedisTemplate, properties, new SimpleMeterRegistry(), nanos::get);
+        String id = createSession("theme", "dark");
+
+        for (int i = 0; i < 3; i++) {
+            nanos.addAndGet(Duration.ofSeconds(4).toNanos());
+            Session session = repository.findById(id);
+            session.setLastAccessedTime(session.getLastAccessedTime().plusSeconds(1));
+            repository.save(session);
+        }
+
+        Assertions.assertEquals(1, delegate.finds);
+    }
+
+    private String createSession(String name, Object value) {
+        Session session = repository.createSession();
+        session.setAttribute(name, value);
+        repository.save(session);
+        return session.getId();
+    }
+
+    /**
+     * 统计访问次数的内存 Session 仓库
+     */
+    static class CountingSessionRepository implements FindByIndexNameSessionRepository<MapSession> {
+
+        final MapSessionRepository repository = new MapSessionRepository(new ConcurrentHashMap<>());
+
+        int finds;
+
+        int saves;
+
+        @Override
+        public MapSession createSession() {
+            return repository.createSession();
+        }
+
+        @Override
+        public void save(MapSession session) {
+            saves++;
+            repository.save(session);
+        }
+
+        @Override
+        public MapSession findById(String id) {
+            finds++;
+            return repository.findById(id);
+        }
+
+        @Override
+        public void deleteById(String id) {
+            repository.deleteById(id);
+        }
+
+        @Override
+        public Map<String, MapSession> findByIndexNameAndIndexValue(String indexName, String indexValue) {
+            return Map.of();
+        }
+    }
+}
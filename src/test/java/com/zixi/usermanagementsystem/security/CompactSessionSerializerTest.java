@@ -0,0 +1,186 @@
+package com.zixi.usermanagementsystem.security;
+
+import com.zixi.usermanagementsystem.configuration.RedisSessionConfig;
+import com.zixi.usermanagementsystem.constant.UserRoleEnum;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CompactSessionSerializer 单元测试
+ */
+class CompactSessionSerializerTest {
+
+    private final RedisSerializer<Object> jsonSerializer = RedisSessionConfig.jsonSessionSerializer();
+
+    private final CompactSessionSerializer compactSerializer = new CompactSessionSerializer(jsonSerializer, true);
+
+    /**
+     * 测试 SecurityContext 紧凑格式往返
+     */
+    @Test
+    void testSecurityContextRoundTrip() {
+        SecurityContextImpl context = createSecurityContext();
+
+        byte[] bytes = compactSerializer.serialize(context);
+        Object restored = compactSerializer.deserialize(bytes);
+
+        Assertions.assertEquals(CompactSessionSerializer.MAGIC, bytes[0]);
+        Assertions.assertEquals(CompactSessionSerializer.VERSION, bytes[1]);
+        Assertions.assertEquals(context, restored);
+        UsernamePasswordAuthenticationToken token =
+                (UsernamePasswordAuthenticationToken) ((SecurityContextImpl) restored).getAuthentication();
+        Assertions.assertTrue(token.isAuthenticated());
+        Assertions.assertEquals("ROLE_USER", token.getAuthorities().iterator().next().getAuthority());
+        Assertions.assertNull(((User) token.getPrincipal()).getPassword());
+        Assertions.assertEquals("192.168.1.100", ((WebAuthenticationDetails) token.getDetails()).getRemoteAddress());
+    }
+
+    /**
+     * 测试紧凑格式比 JSON 更小
+     */
+    @Test
+    void testCompactSmallerThanJson() {
+        SecurityContextImpl context = createSecurityContext();
+
+        byte[] compact = compactSerializer.serialize(context);
+        byte[] json = jsonSerializer.serialize(context);
+
+        Assertions.assertTrue(compact.length * 2 < json.length,
+                "compact=" + compact.length + ", json=" + json.length);
+    }
+
+    /**
+     * 测试读取旧 JSON 格式
+     */
+    @Test
+    void testReadLegacyJson() {
+        SecurityContextImpl context = createSecurityContext();
+
+        byte[] legacy = jsonSerializer.serialize(context);
+
+        Assertions.assertEquals(context, compactSerializer.deserialize(legacy));
+    }
+
+    /**
+     * 测试 JSON 模式写入旧格式
+     */
+    @Test
+    void testJsonModeWritesLegacyFormat() {
+        CompactSessionSerializer jsonMode = new CompactSessionSerializer(jsonSerializer, false);
+        SecurityContextImpl context = createSecurityContext();
+
+        byte[] bytes = jsonMode.serialize(context);
+
+        Assertions.assertEquals('{', bytes[0]);
+        Assertions.assertEquals(context, compactSerializer.deserialize(bytes));
+    }
+
+    /**
+     * 测试 Session 元数据与保存的请求
+     */
+    @Test
+    void testScalarAndSavedRequestRoundTrip() {
+        Assertions.assertEquals(1760000000000L, compactSerializer.deserialize(compactSerializer.serialize(1760000000000L)));
+        Assertions.assertEquals(1800, compactSerializer.deserialize(compactSerializer.serialize(1800)));
+        Assertions.assertEquals("/api/users/current?a=1",
+                compactSerializer.deserialize(compactSerializer.serialize("/api/users/current?a=1")));
+
+        Object savedRequest = compactSerializer.deserialize(
+                compactSerializer.serialize(new SerializableRequestCache.SimpleSavedRequest("/api/users/profile")));
+        Assertions.assertEquals("/api/users/profile",
+                ((SerializableRequestCache.SimpleSavedRequest) savedRequest).getRedirectUrl());
+    }
+
+    /**
+     * 测试不支持的类型回退为 JSON
+     */
+    @Test
+    void testUnknownTypeFallsBackToJson() {
+        Map<String, String> attribute = new HashMap<>();
+        attribute.put("theme", "dark");
+
+        Object restored = compactSerializer.deserialize(compactSerializer.serialize(attribute));
+
+        Assertions.assertEquals(attribute, restored);
+    }
+
+    /**
+     * 测试编码后超过 65535 字节的字符串整体回退为 JSON，包括嵌套在其他属性中的字符串
+     */
+    @Test
+    void testLongStringFallsBackToJson() {
+        String ascii = "a".repeat(70_000);
+        // 字符数未超过 65535，但 UTF-8 编码后约 90KB
+        String multiByte = "会".repeat(30_000);
+        List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_USER"));
+        User principal = new User(ascii, "", authorities);
+        principal.eraseCredentials();
+        SecurityContextImpl context = new SecurityContextImpl(
+                UsernamePasswordAuthenticationToken.authenticated(principal, null, authorities));
+
+        for (Object value : List.of(ascii, multiByte)) {
+            byte[] bytes = compactSerializer.serialize(value);
+
+            Assertions.assertNotEquals(CompactSessionSerializer.MAGIC, bytes[0]);
+            Assertions.assertEquals(value, compactSerializer.deserialize(bytes));
+        }
+        byte[] bytes = compactSerializer.serialize(context);
+        Assertions.assertNotEquals(CompactSessionSerializer.MAGIC, bytes[0]);
+        Assertions.assertEquals(context, compactSerializer.deserialize(bytes));
+    }
+
+    /**
+     * 测试 LoginUser 主体在紧凑格式与 JSON 格式下都保留用户ID、角色和状态
+     */
+    @Test
+    void testLoginUserRoundTrip() {
+        LoginUser principal = new LoginUser(42L, "testuser", "$2a$10$hash", UserRoleEnum.ADMIN, 0);
+        principal.eraseCredentials();
+        SecurityContextImpl context = new SecurityContextImpl(
+                UsernamePasswordAuthenticationToken.authenticated(principal, null, principal.getAuthorities()));
+
+        for (byte[] bytes : List.of(compactSerializer.serialize(context), jsonSerializer.serialize(context))) {
+            Object restored = ((SecurityContextImpl) compactSerializer.deserialize(bytes)).getAuthentication().getPrincipal();
+
+            LoginUser loginUser = Assertions.assertInstanceOf(LoginUser.class, restored);
+            Assertions.assertEquals(42L, loginUser.getId());
+            Assertions.assertEquals("testuser", loginUser.getUsername());
+            Assertions.assertEquals(UserRoleEnum.ADMIN, loginUser.getRole());
+            Assertions.assertEquals(0, loginUser.getStatus());
+            Assertions.assertNull(loginUser.getPassword());
+            Assertions.assertEquals("ROLE_ADMIN", loginUser.getAuthorities().iterator().next().getAuthority());
+        }
+    }
+
+    /**
+     * 测试未知版本号
+     */
+    @Test
+    void testUnsupportedVersion() {
+        byte[] bytes = compactSerializer.serialize("value");
+        bytes[1] = 99;
+
+        Assertions.assertThrows(SerializationException.class, () -> compactSerializer.deserialize(bytes));
+    }
+
+    private SecurityContextImpl createSecurityContext() {
+        List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_USER"));
+        User principal = new User("testuser", "$2a$10$hash", authorities);
+        principal.eraseCredentials();
+        UsernamePasswordAuthenticationToken authentication =
+                UsernamePasswordAuthenticationToken.authenticated(principal, null, authorities);
+        authentication.setDetails(new WebAuthenticationDetails("192.168.1.100", "f3b1c2d4-5e6f-4a7b-8c9d-0e1f2a3b4c5d"));
+        return new SecurityContextImpl(authentication);
+    }
+}
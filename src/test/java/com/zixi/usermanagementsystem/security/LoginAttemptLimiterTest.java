@@ -0,0 +1,114 @@
+package com.zixi.usermanagementsystem.security;
+
+import com.zixi.usermanagementsystem.configuration.LoginRateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.web.authentication.AuthenticationFailureHandler;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * 登录限流与账号锁定单元测试
+ */
+class LoginAttemptLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private LoginRateLimitProperties properties;
+
+    private LoginAttemptLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new LoginRateLimitProperties();
+        properties.setIpLimit(3);
+        properties.setAccountFailureLimit(2);
+        limiter = new LoginAttemptLimiter(properties, new LocalLoginAttemptStore(properties), meterRegistry);
+    }
+
+    /**
+     * 测试单个 IP 超过窗口内请求数后被拒绝
+     */
+    @Test
+    void testIpLimit() {
+        for (int i = 0; i < 3; i++) {
+            limiter.checkAndRecord("10.0.0.1", "user" + i);
+        }
+
+        Assertions.assertThrows(LoginAttemptsExceededException.class, () -> limiter.checkAndRecord("10.0.0.1", "other"));
+        Assertions.assertDoesNotThrow(() -> limiter.checkAndRecord("10.0.0.2", "other"));
+        Assertions.assertEquals(1.0, meterRegistry.get("ums.login.rate_limited").tag("dimension", "ip").counter().count());
+    }
+
+    /**
+     * 测试账号密码错误达到上限后锁定，登录成功清零
+     */
+    @Test
+    void testAccountLockoutAndReset() {
+        limiter.recordFailure("TestUser");
+        limiter.checkAndRecord("10.0.0.1", "testuser");
+        limiter.recordFailure("testuser");
+
+        Assertions.assertThrows(LoginAttemptsExceededException.class, () -> limiter.checkAndRecord("10.0.0.2", "testuser"));
+
+        limiter.recordSuccess("testuser");
+        Assertions.assertDoesNotThrow(() -> limiter.checkAndRecord("10.0.0.3", "testuser"));
+    }
+
+    /**
+     * 测试滑动窗口：上一窗口计数按剩余比例计入
+     */
+    @Test
+    void testSlidingWindowEstimate() {
+        LocalLoginAttemptStore.WindowCounter counter = new LocalLoginAttemptStore.WindowCounter();
+        long window = 60_000;
+        long start = 1_000 * window;
+        for (int i = 0; i < 10; i++) {
+            counter.update(start + 1_000, window, 1);
+        }
+
+        // 下一窗口过去 1/4：上一窗口 10 次按 3/4 计入
+        Assertions.assertEquals(8, counter.update(start + window + window / 4, window, 1));
+        // 跳过一个完整窗口后清零
+        Assertions.assertEquals(0, counter.update(start + 3 * window, window, 0));
+    }
+
+    /**
+     * 测试过滤器在密码校验之前拒绝，并交给登录失败处理器
+     */
+    @Test
+    void testFilterRejectsBeforeAuthentication() throws Exception {
+        AuthenticationFailureHandler failureHandler = Mockito.mock(AuthenticationFailureHandler.class);
+        FilterChain filterChain = Mockito.mock(FilterChain.class);
+        LoginRateLimitFilter filter = new LoginRateLimitFilter(limiter, failureHandler, "/api/users/login");
+
+        for (int i = 0; i < 4; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("POST", "/user-center/api/users/login");
+            request.setContextPath("/user-center");
+            request.setRemoteAddr("10.0.0.1");
+            request.setParameter("account", "testuser");
+            filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+        }
+
+        verify(filterChain, times(3)).doFilter(any(), any());
+        verify(failureHandler).onAuthenticationFailure(any(), any(), any(LoginAttemptsExceededException.class));
+
+        // 非登录请求不计数
+        MockHttpServletRequest other = new MockHttpServletRequest("GET", "/user-center/api/users/current");
+        other.setContextPath("/user-center");
+        other.setRemoteAddr("10.0.0.1");
+        filter.doFilter(other, new MockHttpServletResponse(), filterChain);
+        verify(filterChain, times(1)).doFilter(eq(other), any());
+        verify(failureHandler, never()).onAuthenticationFailure(eq(other), any(), any());
+    }
+}
@@ -0,0 +1,140 @@
+package com.zixi.usermanagementsystem.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zixi.usermanagementsystem.configuration.AuthProperties;
+import com.zixi.usermanagementsystem.configuration.LoginRateLimitProperties;
+import com.zixi.usermanagementsystem.configuration.SecurityConfig;
+import com.zixi.usermanagementsystem.configuration.UserDetailsCacheProperties;
+import com.zixi.usermanagementsystem.constant.UserRoleEnum;
+import com.zixi.usermanagementsystem.mapper.UserMapper;
+import com.zixi.usermanagementsystem.model.domain.User;
+import com.zixi.usermanagementsystem.service.LoginHistoryService;
+import com.zixi.usermanagementsystem.service.UserManageService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * 登录流程测试：一次登录只读取一次 user 表，账号状态在认证时生效
+ */
+class LoginQueryCountTest {
+
+    private final PasswordEncoder passwordEncoder = SecurityConfig.delegatingPasswordEncoder(4);
+
+    private UserMapper userMapper;
+
+    private LoginHistoryService loginHistoryService;
+
+    private DaoAuthenticationProvider authenticationProvider;
+
+    private CustomAuthenticationSuccessHandler successHandler;
+
+    @BeforeEach
+    void setUp() {
+        userMapper = Mockito.mock(UserMapper.class);
+        loginHistoryService = Mockito.mock(LoginHistoryService.class);
+
+        // 关闭本地缓存，确保每次登录都查询数据库
+        UserDetailsCacheProperties cacheProperties = new UserDetailsCacheProperties();
+        cacheProperties.setEnabled(false);
+        CustomUserDetailService userDetailService = new CustomUserDetailService();
+        ReflectionTestUtils.setField(userDetailService, "userMapper", userMapper);
+        ReflectionTestUtils.setField(userDetailService, "userDetailsCache",
+                new UserDetailsCache(cacheProperties, new SimpleMeterRegistry()));
+
+        authenticationProvider = new DaoAuthenticationProvider(userDetailService);
+        authenticationProvider.setPasswordEncoder(passwordEncoder);
+        authenticationProvider.setUserDetailsPasswordService(userDetailService);
+
+        successHandler = new CustomAuthenticationSuccessHandler();
+        ReflectionTestUtils.setField(successHandler, "loginHistoryService", loginHistoryService);
+        LoginRateLimitProperties rateLimitProperties = new LoginRateLimitProperties();
+        ReflectionTestUtils.setField(successHandler, "loginAttemptLimiter", new LoginAttemptLimiter(rateLimitProperties,
+                new LocalLoginAttemptStore(rateLimitProperties), new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(successHandler, "authProperties", new AuthProperties());
+        ReflectionTestUtils.setField(successHandler, "objectMapper", new ObjectMapper());
+    }
+
+    /**
+     * 测试登录成功只查询一次用户，登录历史使用主体中的用户ID
+     */
+    @Test
+    void testLoginReadsUserOnce() throws Exception {
+        when(userMapper.selectOne(any())).thenReturn(createUser(passwordEncoder.encode("password123")));
+
+        login();
+
+        verify(userMapper, times(1)).selectOne(any());
+        verifyNoMoreInteractions(userMapper);
+        verify(loginHistoryService).recordLoginSuccess(eq(7L), eq("testuser"), any());
+    }
+
+    /**
+     * 测试无前缀的历史哈希在登录成功时升级，仍只查询一次用户
+     */
+    @Test
+    void testLoginUpgradesLegacyHash() throws Exception {
+        when(userMapper.selectOne(any())).thenReturn(createUser(new BCryptPasswordEncoder(4).encode("password123")));
+        when(userMapper.update(isNull(), any())).thenReturn(1);
+
+        Authentication authentication = login();
+
+        verify(userMapper, times(1)).selectOne(any());
+        verify(userMapper, times(1)).update(isNull(), any());
+        verifyNoMoreInteractions(userMapper);
+        Assertions.assertEquals(7L, ((LoginUser) authentication.getPrincipal()).getId());
+    }
+
+    /**
+     * 测试禁用账号在校验密码前被拒绝，不触发密码哈希
+     */
+    @Test
+    void testDisabledUserRejectedBeforePasswordCheck() {
+        User user = createUser("{bcrypt}not-a-valid-hash");
+        user.setStatus(UserManageService.STATUS_DISABLED);
+        when(userMapper.selectOne(any())).thenReturn(user);
+
+        Assertions.assertThrows(DisabledException.class, this::login);
+
+        verify(userMapper, times(1)).selectOne(any());
+        verifyNoMoreInteractions(userMapper);
+        verifyNoInteractions(loginHistoryService);
+    }
+
+    private Authentication login() throws Exception {
+        Authentication authentication = authenticationProvider.authenticate(
+                UsernamePasswordAuthenticationToken.unauthenticated("testuser", "password123"));
+        successHandler.onAuthenticationSuccess(new MockHttpServletRequest(), new MockHttpServletResponse(), authentication);
+        return authentication;
+    }
+
+    private User createUser(String passwordHash) {
+        User user = new User();
+        user.setId(7L);
+        user.setAccount("testuser");
+        user.setPassword(passwordHash);
+        user.setRole(UserRoleEnum.USER);
+        user.setStatus(0);
+        return user;
+    }
+}
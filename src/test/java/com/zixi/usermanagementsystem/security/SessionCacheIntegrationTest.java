@@ -0,0 +1,58 @@
+package com.zixi.usermanagementsystem.security;
+
+import com.zixi.usermanagementsystem.mapper.UserMapper;
+import com.zixi.usermanagementsystem.model.domain.User;
+import com.zixi.usermanagementsystem.service.UserManageService;
+import jakarta.annotation.Resource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 开启本地 Session 缓存时的装配集成测试（需要本地 MySQL 和 Redis）
+ * 确认 CachingSessionRepository 能代理实际的 Redis 索引仓库，并且用户下线经由缓存仓库生效
+ */
+@SpringBootTest(properties = "user-center.session.cache.enabled=true")
+class SessionCacheIntegrationTest {
+
+    /**
+     * 字段名不能为 sessionRepository：@Resource 先按名称注入，会拿到被代理的 Redis 仓库而不是 @Primary 的缓存仓库
+     */
+    @Resource
+    private FindByIndexNameSessionRepository<? extends Session> primarySessionRepository;
+
+    @Resource
+    private UserManageService userManageService;
+
+    @Resource
+    private UserMapper userMapper;
+
+    /**
+     * 测试开启缓存后主 Session 仓库为 CachingSessionRepository
+     */
+    @Test
+    void testCachingSessionRepositoryIsPrimary() {
+        Assertions.assertInstanceOf(CachingSessionRepository.class, primarySessionRepository);
+    }
+
+    /**
+     * 测试禁用用户后缓存中的 Session 也被清除
+     */
+    @Test
+    @Transactional
+    void testDisableUserRemovesCachedSessions() {
+        User user = SessionTestSupport.insertUser(userMapper, "cached" + ThreadLocalRandom.current().nextInt(1_000_000));
+        String sessionId = SessionTestSupport.saveSession(primarySessionRepository, user.getAccount());
+        // 读取一次，使 Session 进入本地缓存
+        Assertions.assertNotNull(primarySessionRepository.findById(sessionId));
+
+        Assertions.assertTrue(userManageService.updateUserStatus(user.getId(), UserManageService.STATUS_DISABLED));
+
+        Assertions.assertNull(primarySessionRepository.findById(sessionId));
+    }
+}
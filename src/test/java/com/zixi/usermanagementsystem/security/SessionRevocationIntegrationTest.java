@@ -0,0 +1,83 @@
+package com.zixi.usermanagementsystem.security;
+
+import com.zixi.usermanagementsystem.mapper.UserMapper;
+import com.zixi.usermanagementsystem.model.domain.User;
+import com.zixi.usermanagementsystem.service.UserManageService;
+import jakarta.annotation.Resource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.Session;
+import org.springframework.session.data.redis.RedisIndexedSessionRepository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Session 仓库装配与用户下线集成测试（需要本地 MySQL 和 Redis）
+ * 确认实际装配的 Session 仓库支持按主体名查找，禁用用户后其 Session 被删除（批次大小设为 2，覆盖多批删除）
+ */
+@SpringBootTest(properties = "user-center.session.revoke-batch-size=2")
+class SessionRevocationIntegrationTest {
+
+    @Resource
+    private FindByIndexNameSessionRepository<? extends Session> sessionRepository;
+
+    @Resource
+    private UserManageService userManageService;
+
+    @Resource
+    private UserMapper userMapper;
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 测试默认配置下装配的是 Redis 索引 Session 仓库
+     */
+    @Test
+    void testIndexedSessionRepositoryIsWired() {
+        Assertions.assertInstanceOf(RedisIndexedSessionRepository.class, sessionRepository);
+    }
+
+    /**
+     * 测试禁用用户后删除其 Session
+     */
+    @Test
+    @Transactional
+    void testDisableUserRemovesSessions() {
+        User user = SessionTestSupport.insertUser(userMapper, "revoke" + ThreadLocalRandom.current().nextInt(1_000_000));
+        String sessionId = SessionTestSupport.saveSession(sessionRepository, user.getAccount());
+        Assertions.assertNotNull(sessionRepository.findById(sessionId));
+
+        Assertions.assertTrue(userManageService.updateUserStatus(user.getId(), UserManageService.STATUS_DISABLED));
+
+        Assertions.assertNull(sessionRepository.findById(sessionId));
+        Assertions.assertTrue(sessionRepository.findByPrincipalName(user.getAccount()).isEmpty());
+    }
+
+    /**
+     * 测试 Session 数超过批次大小时全部删除，主体名索引被清空
+     */
+    @Test
+    @Transactional
+    void testDisableUserRemovesSessionsInBatches() {
+        User user = SessionTestSupport.insertUser(userMapper, "revoke" + ThreadLocalRandom.current().nextInt(1_000_000));
+        List<String> sessionIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            sessionIds.add(SessionTestSupport.saveSession(sessionRepository, user.getAccount()));
+        }
+
+        Assertions.assertTrue(userManageService.updateUserStatus(user.getId(), UserManageService.STATUS_DISABLED));
+
+        for (String sessionId : sessionIds) {
+            Assertions.assertNull(sessionRepository.findById(sessionId));
+        }
+        Assertions.assertFalse(stringRedisTemplate.hasKey(
+                UserAccessRevocationListener.PRINCIPAL_INDEX_KEY_PREFIX + user.getAccount()));
+    }
+}
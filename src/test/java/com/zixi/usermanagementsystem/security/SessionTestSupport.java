@@ -0,0 +1,37 @@
+package com.zixi.usermanagementsystem.security;
+
+import com.zixi.usermanagementsystem.mapper.UserMapper;
+import com.zixi.usermanagementsystem.model.domain.User;
+import com.zixi.usermanagementsystem.service.UserManageService;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.Session;
+
+/**
+ * Session 集成测试的公共数据准备
+ */
+final class SessionTestSupport {
+
+    private SessionTestSupport() {
+    }
+
+    static User insertUser(UserMapper userMapper, String account) {
+        User user = new User();
+        user.setAccount(account);
+        user.setUsername(account);
+        user.setPassword("{bcrypt}$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3/EzdRlJrRU1Un0H/ux.A1.");
+        user.setStatus(UserManageService.STATUS_NORMAL);
+        userMapper.insert(user);
+        return user;
+    }
+
+    /**
+     * 创建并保存一个带主体名索引的 Session
+     * @return Session ID
+     */
+    static <S extends Session> String saveSession(FindByIndexNameSessionRepository<S> repository, String account) {
+        S session = repository.createSession();
+        session.setAttribute(FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME, account);
+        repository.save(session);
+        return session.getId();
+    }
+}
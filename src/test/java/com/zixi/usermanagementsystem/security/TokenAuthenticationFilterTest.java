@@ -0,0 +1,112 @@
+package com.zixi.usermanagementsystem.security;
+
+import com.zixi.usermanagementsystem.configuration.AuthProperties;
+import com.zixi.usermanagementsystem.constant.UserRoleEnum;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+
+/**
+ * TokenAuthenticationFilter 单元测试
+ */
+class TokenAuthenticationFilterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private TokenService tokenService;
+
+    private TokenAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        AuthProperties authProperties = new AuthProperties();
+        authProperties.setMode(AuthProperties.Mode.TOKEN);
+        authProperties.getToken().setKeyFile(tempDir.resolve("token.key").toString());
+        TokenDenylist tokenDenylist = new TokenDenylist(authProperties, TokenTestSupport.inMemoryRedis(new HashMap<>()));
+        tokenService = new TokenService(authProperties, tokenDenylist,
+                username -> User.withUsername(username).password("").roles("USER").build());
+        filter = new TokenAuthenticationFilter(tokenService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    /**
+     * 测试有效访问令牌以 LoginUser 为主体写入 SecurityContext
+     */
+    @Test
+    void testValidAccessToken() throws Exception {
+        String accessToken = tokenService.issue(loginUser()).accessToken();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request("Bearer " + accessToken), new MockHttpServletResponse(), chain);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Assertions.assertNotNull(authentication);
+        Assertions.assertTrue(authentication.isAuthenticated());
+        LoginUser principal = Assertions.assertInstanceOf(LoginUser.class, authentication.getPrincipal());
+        Assertions.assertEquals(1L, principal.getId());
+        Assertions.assertEquals("testuser", principal.getUsername());
+        Assertions.assertTrue(authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_USER".equals(authority.getAuthority())));
+        Assertions.assertNotNull(chain.getRequest());
+    }
+
+    /**
+     * 测试刷新令牌、已吊销令牌和格式错误的令牌不认证，请求继续交给后续授权规则
+     */
+    @Test
+    void testRejectedTokensLeaveRequestUnauthenticated() throws Exception {
+        TokenService.TokenPair tokenPair = tokenService.issue(loginUser());
+        TokenService.TokenPair revoked = tokenService.issue(loginUser());
+        tokenService.revokeSession(tokenService.parse(revoked.accessToken(), TokenClaims.TYPE_ACCESS));
+
+        for (String header : new String[]{"Bearer " + tokenPair.refreshToken(), "Bearer " + revoked.accessToken(),
+                "Bearer not-a-token", "Basic dGVzdDp0ZXN0"}) {
+            MockFilterChain chain = new MockFilterChain();
+
+            filter.doFilter(request(header), new MockHttpServletResponse(), chain);
+
+            Assertions.assertNull(SecurityContextHolder.getContext().getAuthentication(), header);
+            Assertions.assertNotNull(chain.getRequest(), header);
+        }
+    }
+
+    /**
+     * 测试没有 Authorization 头时直接放行
+     */
+    @Test
+    void testNoToken() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/users/current"), new MockHttpServletResponse(), chain);
+
+        Assertions.assertNull(SecurityContextHolder.getContext().getAuthentication());
+        Assertions.assertNotNull(chain.getRequest());
+    }
+
+    private static MockHttpServletRequest request(String authorization) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/current");
+        request.addHeader(HttpHeaders.AUTHORIZATION, authorization);
+        return request;
+    }
+
+    private static LoginUser loginUser() {
+        return new LoginUser(1L, "testuser", "", UserRoleEnum.USER, 0);
+    }
+}
@@ -0,0 +1,176 @@
+package com.zixi.usermanagementsystem.security;
+
+import com.zixi.usermanagementsystem.configuration.AuthProperties;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * TokenDenylist 单元测试
+ * 两个共用同一 Map 的实例模拟共用同一 Redis 的两个节点，新建实例模拟重启或后加入的节点
+ */
+class TokenDenylistTest {
+
+    private final Map<String, String> redis = new HashMap<>();
+
+    private AuthProperties authProperties;
+
+    @BeforeEach
+    void setUp() {
+        authProperties = new AuthProperties();
+        authProperties.setMode(AuthProperties.Mode.TOKEN);
+    }
+
+    /**
+     * 测试吊销记录写入 Redis
+     */
+    @Test
+    void testRevocationPersisted() {
+        TokenDenylist denylist = newNode();
+
+        denylist.revoke("jti-1", Instant.now().plus(Duration.ofDays(7)));
+        denylist.revokeAccount("testuser");
+
+        Assertions.assertTrue(redis.containsKey(TokenDenylist.ID_KEY_PREFIX + "jti-1"));
+        Assertions.assertTrue(redis.containsKey(TokenDenylist.ACCOUNT_KEY_PREFIX + "testuser"));
+    }
+
+    /**
+     * 测试未收到吊销通知的节点刷新时仍拒绝已吊销的刷新令牌
+     */
+    @Test
+    void testLateNodeRejectsRevokedRefreshToken() {
+        TokenClaims refresh = claims("jti-1", "sid-1", "testuser", TokenClaims.TYPE_REFRESH, Instant.now());
+        newNode().revoke(refresh.sessionId(), refresh.expiresAt());
+
+        TokenDenylist lateNode = newNode();
+
+        Assertions.assertTrue(lateNode.isRevoked(refresh));
+        Assertions.assertFalse(lateNode.isRevoked(
+                claims("jti-2", "sid-2", "testuser", TokenClaims.TYPE_REFRESH, Instant.now())));
+    }
+
+    /**
+     * 测试按账号吊销对之后签发的刷新令牌不生效
+     */
+    @Test
+    void testAccountRevocationInStore() {
+        Instant revokedAt = Instant.now();
+        redis.put(TokenDenylist.ACCOUNT_KEY_PREFIX + "testuser", String.valueOf(revokedAt.getEpochSecond()));
+        TokenDenylist denylist = newNode();
+
+        Assertions.assertTrue(denylist.isRevoked(
+                claims("jti-1", "sid-1", "testuser", TokenClaims.TYPE_REFRESH, revokedAt.minusSeconds(60))));
+        Assertions.assertFalse(denylist.isRevoked(
+                claims("jti-2", "sid-2", "testuser", TokenClaims.TYPE_REFRESH, revokedAt.plusSeconds(1))));
+    }
+
+    /**
+     * 测试启动时加载仍在访问令牌有效期内的吊销记录
+     */
+    @Test
+    void testLoadRevocationsOnStartup() {
+        TokenDenylist node = newNode();
+        node.revoke("sid-1", Instant.now().plus(Duration.ofDays(7)));
+        node.revokeAccount("disabled");
+        long longAgo = Instant.now().minus(Duration.ofHours(1)).getEpochSecond();
+        redis.put(TokenDenylist.ID_KEY_PREFIX + "sid-old", String.valueOf(longAgo));
+
+        TokenDenylist restarted = newNode();
+        TokenClaims access = claims("jti-1", "sid-1", "testuser", TokenClaims.TYPE_ACCESS, Instant.now());
+        TokenClaims disabledAccess = claims("jti-2", "sid-2", "disabled", TokenClaims.TYPE_ACCESS,
+                Instant.now().minusSeconds(60));
+        TokenClaims oldAccess = claims("jti-3", "sid-old", "testuser", TokenClaims.TYPE_ACCESS, Instant.now());
+        Assertions.assertFalse(restarted.isRevoked(access));
+
+        restarted.loadRevocations();
+
+        Assertions.assertTrue(restarted.isRevoked(access));
+        Assertions.assertTrue(restarted.isRevoked(disabledAccess));
+        // 吊销已超过一个访问令牌有效期，此前签发的访问令牌都已过期，不再加载到本地
+        Assertions.assertFalse(restarted.isRevoked(oldAccess));
+    }
+
+    /**
+     * 测试大量账号吊销不会因本地条目淘汰而失效
+     */
+    @Test
+    void testAccountRevocationsNotEvicted() {
+        TokenDenylist denylist = newNode();
+        Instant issuedAt = Instant.now().minusSeconds(60);
+        for (int i = 0; i < 20_000; i++) {
+            denylist.onRevocation("account|user" + i + "|" + Instant.now().getEpochSecond());
+        }
+
+        for (int i = 0; i < 20_000; i += 997) {
+            Assertions.assertTrue(denylist.isRevoked(
+                    claims("jti", "sid", "user" + i, TokenClaims.TYPE_ACCESS, issuedAt)));
+        }
+    }
+
+    /**
+     * 测试刷新令牌ID只能被占用一次，占用后其他节点也视为已吊销
+     */
+    @Test
+    void testClaimOnce() {
+        TokenClaims refresh = claims("jti-1", "sid-1", "testuser", TokenClaims.TYPE_REFRESH, Instant.now());
+        TokenDenylist node = newNode();
+        TokenDenylist otherNode = newNode();
+
+        Assertions.assertTrue(node.claim(refresh.id(), refresh.expiresAt()));
+        Assertions.assertFalse(otherNode.claim(refresh.id(), refresh.expiresAt()));
+        Assertions.assertFalse(node.claim(refresh.id(), refresh.expiresAt()));
+        Assertions.assertTrue(otherNode.isRevoked(refresh));
+    }
+
+    /**
+     * 测试 Redis 不可用时不能占用刷新令牌
+     */
+    @Test
+    void testClaimFailsClosedWhenRedisUnavailable() {
+        StringRedisTemplate template = TokenTestSupport.inMemoryRedis(redis);
+        when(template.opsForValue().setIfAbsent(anyString(), anyString(), any(Duration.class)))
+                .thenThrow(new QueryTimeoutException("timeout"));
+        TokenDenylist denylist = new TokenDenylist(authProperties, template);
+
+        Assertions.assertThrows(AuthenticationServiceException.class,
+                () -> denylist.claim("jti-1", Instant.now().plus(Duration.ofDays(7))));
+    }
+
+    /**
+     * 测试 Redis 不可用时拒绝刷新
+     */
+    @Test
+    void testRefreshFailsClosedWhenRedisUnavailable() {
+        StringRedisTemplate template = TokenTestSupport.inMemoryRedis(redis);
+        when(template.opsForValue().multiGet(anyList())).thenThrow(new QueryTimeoutException("timeout"));
+        TokenDenylist denylist = new TokenDenylist(authProperties, template);
+
+        Assertions.assertThrows(AuthenticationServiceException.class, () -> denylist.isRevoked(
+                claims("jti-1", "sid-1", "testuser", TokenClaims.TYPE_REFRESH, Instant.now())));
+        Assertions.assertFalse(denylist.isRevoked(
+                claims("jti-1", "sid-1", "testuser", TokenClaims.TYPE_ACCESS, Instant.now())));
+    }
+
+    private TokenDenylist newNode() {
+        return new TokenDenylist(authProperties, TokenTestSupport.inMemoryRedis(redis));
+    }
+
+    private static TokenClaims claims(String id, String sessionId, String account, String type, Instant issuedAt) {
+        return new TokenClaims(id, sessionId, 1L, account, "ROLE_USER", type, issuedAt,
+                issuedAt.plus(Duration.ofDays(7)));
+    }
+}
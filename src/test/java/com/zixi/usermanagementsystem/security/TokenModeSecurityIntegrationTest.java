@@ -0,0 +1,184 @@
+package com.zixi.usermanagementsystem.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zixi.usermanagementsystem.common.ErrorCode;
+import com.zixi.usermanagementsystem.mapper.UserMapper;
+import com.zixi.usermanagementsystem.model.domain.User;
+import com.zixi.usermanagementsystem.service.UserManageService;
+import jakarta.annotation.Resource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * token 认证模式安全过滤链集成测试（需要本地 MySQL 和 Redis）
+ * 登录签发令牌、Bearer 访问、登出与修改密码吊销、刷新令牌轮换都经过实际装配的过滤链
+ */
+@SpringBootTest(properties = {
+        "user-center.auth.mode=token",
+        "user-center.auth.token.key-file=build/test-token.key"
+})
+@AutoConfigureMockMvc
+@Transactional
+class TokenModeSecurityIntegrationTest {
+
+    private static final String PASSWORD = "password123";
+
+    @Resource
+    private MockMvc mockMvc;
+
+    @Resource
+    private UserMapper userMapper;
+
+    @Resource
+    private PasswordEncoder passwordEncoder;
+
+    @Resource
+    private ObjectMapper objectMapper;
+
+    private String account;
+
+    @BeforeEach
+    void setUp() {
+        account = "token" + ThreadLocalRandom.current().nextInt(1_000_000);
+        User user = new User();
+        user.setAccount(account);
+        user.setUsername(account);
+        user.setPassword(passwordEncoder.encode(PASSWORD));
+        user.setStatus(UserManageService.STATUS_NORMAL);
+        userMapper.insert(user);
+    }
+
+    /**
+     * 测试登录返回令牌对，携带访问令牌可访问受保护接口，且不创建 Session
+     */
+    @Test
+    void testLoginAndAccessWithBearerToken() throws Exception {
+        MvcResult login = login();
+        Assertions.assertNull(login.getRequest().getSession(false));
+        JsonNode tokens = data(login);
+
+        MvcResult current = mockMvc.perform(get("/api/users/current")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokens.get("accessToken").asText()))
+                .andReturn();
+
+        Assertions.assertEquals(200, current.getResponse().getStatus());
+        Assertions.assertTrue(current.getResponse().getContentAsString().contains(account));
+    }
+
+    /**
+     * 测试未携带令牌或携带刷新令牌时受保护接口拒绝访问
+     */
+    @Test
+    void testProtectedEndpointRequiresAccessToken() throws Exception {
+        JsonNode tokens = data(login());
+
+        MvcResult anonymous = mockMvc.perform(get("/api/users/current")).andReturn();
+        MvcResult withRefreshToken = mockMvc.perform(get("/api/users/current")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokens.get("refreshToken").asText()))
+                .andReturn();
+
+        Assertions.assertNotEquals(200, anonymous.getResponse().getStatus());
+        Assertions.assertNotEquals(200, withRefreshToken.getResponse().getStatus());
+    }
+
+    /**
+     * 测试登出后访问令牌与刷新令牌都失效
+     */
+    @Test
+    void testLogoutRevokesTokens() throws Exception {
+        JsonNode tokens = data(login());
+        String accessToken = tokens.get("accessToken").asText();
+
+        MvcResult logout = mockMvc.perform(post("/api/users/logout")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken))
+                .andReturn();
+        Assertions.assertEquals(200, logout.getResponse().getStatus());
+
+        MvcResult current = mockMvc.perform(get("/api/users/current")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken))
+                .andReturn();
+        Assertions.assertNotEquals(200, current.getResponse().getStatus());
+        Assertions.assertEquals(ErrorCode.NO_LOGIN.getCode(), refresh(tokens.get("refreshToken").asText()).get("code").asInt());
+    }
+
+    /**
+     * 测试刷新令牌一次性使用
+     */
+    @Test
+    void testRefreshTokenRotation() throws Exception {
+        String refreshToken = data(login()).get("refreshToken").asText();
+
+        JsonNode first = refresh(refreshToken);
+        JsonNode replay = refresh(refreshToken);
+
+        Assertions.assertTrue(first.get("success").asBoolean());
+        Assertions.assertNotNull(first.get("data").get("accessToken").asText());
+        Assertions.assertEquals(ErrorCode.NO_LOGIN.getCode(), replay.get("code").asInt());
+    }
+
+    /**
+     * 测试修改密码后此前签发的访问令牌与刷新令牌都失效
+     */
+    @Test
+    void testPasswordChangeRevokesTokens() throws Exception {
+        JsonNode tokens = data(login());
+        String accessToken = tokens.get("accessToken").asText();
+
+        MvcResult change = mockMvc.perform(put("/api/users/password")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of(
+                                "oldPassword", PASSWORD,
+                                "newPassword", "newPassword456",
+                                "checkPassword", "newPassword456"))))
+                .andReturn();
+        Assertions.assertTrue(objectMapper.readTree(change.getResponse().getContentAsString()).get("success").asBoolean());
+
+        MvcResult current = mockMvc.perform(get("/api/users/current")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken))
+                .andReturn();
+        Assertions.assertNotEquals(200, current.getResponse().getStatus());
+        Assertions.assertEquals(ErrorCode.NO_LOGIN.getCode(), refresh(tokens.get("refreshToken").asText()).get("code").asInt());
+    }
+
+    private MvcResult login() throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/users/login")
+                        .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                        .param("account", account)
+                        .param("password", PASSWORD))
+                .andReturn();
+        Assertions.assertEquals(200, result.getResponse().getStatus());
+        return result;
+    }
+
+    private JsonNode data(MvcResult result) throws Exception {
+        JsonNode data = objectMapper.readTree(result.getResponse().getContentAsString()).get("data");
+        Assertions.assertNotNull(data);
+        return data;
+    }
+
+    private JsonNode refresh(String refreshToken) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/users/token/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("refreshToken", refreshToken))))
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+}
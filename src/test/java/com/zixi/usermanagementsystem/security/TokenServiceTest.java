@@ -0,0 +1,198 @@
+package com.zixi.usermanagementsystem.security;
+
+import com.zixi.usermanagementsystem.configuration.AuthProperties;
+import com.zixi.usermanagementsystem.constant.UserRoleEnum;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.CredentialsExpiredException;
+import org.springframework.security.core.userdetails.User;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TokenService 单元测试
+ */
+class TokenServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private AuthProperties authProperties;
+
+    private TokenDenylist tokenDenylist;
+
+    private TokenService tokenService;
+
+    @BeforeEach
+    void setUp() {
+        authProperties = new AuthProperties();
+        authProperties.setMode(AuthProperties.Mode.TOKEN);
+        authProperties.getToken().setKeyFile(tempDir.resolve("token.key").toString());
+        tokenDenylist = new TokenDenylist(authProperties, TokenTestSupport.inMemoryRedis(new HashMap<>()));
+        tokenService = new TokenService(authProperties, tokenDenylist,
+                username -> User.withUsername(username).password("").roles("ADMIN").build());
+    }
+
+    /**
+     * 测试签发与校验访问令牌
+     */
+    @Test
+    void testIssueAndParse() {
+        TokenService.TokenPair tokenPair = tokenService.issue(loginUser());
+
+        TokenClaims claims = tokenService.parse(tokenPair.accessToken(), TokenClaims.TYPE_ACCESS);
+
+        Assertions.assertEquals("testuser", claims.account());
+        Assertions.assertEquals(1L, claims.userId());
+        Assertions.assertEquals("ROLE_USER", claims.role());
+        Assertions.assertEquals("Bearer", tokenPair.tokenType());
+        Assertions.assertEquals(900, tokenPair.expiresIn());
+        Assertions.assertTrue(Files.exists(tempDir.resolve("token.key")));
+    }
+
+    /**
+     * 测试篡改令牌
+     */
+    @Test
+    void testTamperedToken() {
+        String accessToken = tokenService.issue(loginUser()).accessToken();
+        String[] parts = accessToken.split("\\.");
+        String forged = parts[0] + "." + parts[1].substring(0, parts[1].length() - 2) + "AA." + parts[2];
+
+        Assertions.assertThrows(BadCredentialsException.class,
+                () -> tokenService.parse(forged, TokenClaims.TYPE_ACCESS));
+        Assertions.assertThrows(BadCredentialsException.class,
+                () -> tokenService.parse("not-a-token", TokenClaims.TYPE_ACCESS));
+    }
+
+    /**
+     * 测试刷新令牌不能作为访问令牌使用
+     */
+    @Test
+    void testTokenTypeChecked() {
+        String refreshToken = tokenService.issue(loginUser()).refreshToken();
+
+        Assertions.assertThrows(BadCredentialsException.class,
+                () -> tokenService.parse(refreshToken, TokenClaims.TYPE_ACCESS));
+    }
+
+    /**
+     * 测试令牌过期
+     */
+    @Test
+    void testExpiredToken() {
+        authProperties.getToken().setAccessTokenTtl(Duration.ofSeconds(-1));
+        String accessToken = tokenService.issue(loginUser()).accessToken();
+
+        Assertions.assertThrows(CredentialsExpiredException.class,
+                () -> tokenService.parse(accessToken, TokenClaims.TYPE_ACCESS));
+    }
+
+    /**
+     * 测试刷新令牌一次性使用，刷新时重新加载角色
+     */
+    @Test
+    void testRefreshRotation() {
+        TokenService.TokenPair first = tokenService.issue(loginUser());
+
+        TokenService.TokenPair second = tokenService.refresh(first.refreshToken());
+
+        TokenClaims claims = tokenService.parse(second.accessToken(), TokenClaims.TYPE_ACCESS);
+        Assertions.assertEquals("ROLE_ADMIN", claims.role());
+        Assertions.assertThrows(BadCredentialsException.class, () -> tokenService.refresh(first.refreshToken()));
+    }
+
+    /**
+     * 测试多个节点并发使用同一刷新令牌时只有一个请求换到新令牌对
+     */
+    @Test
+    void testConcurrentRefreshSingleUse() throws Exception {
+        Map<String, String> sharedRedis = new ConcurrentHashMap<>();
+        List<TokenService> nodes = List.of(newNode(sharedRedis), newNode(sharedRedis));
+        String refreshToken = nodes.get(0).issue(loginUser()).refreshToken();
+
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        int succeeded = 0;
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                TokenService node = nodes.get(i % nodes.size());
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        node.refresh(refreshToken);
+                        return true;
+                    } catch (BadCredentialsException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+            for (Future<Boolean> future : futures) {
+                if (future.get(30, TimeUnit.SECONDS)) {
+                    succeeded++;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assertions.assertEquals(1, succeeded);
+    }
+
+    /**
+     * 测试登出吊销同一登录会话的全部令牌
+     */
+    @Test
+    void testRevokeSession() {
+        TokenService.TokenPair tokenPair = tokenService.issue(loginUser());
+        TokenService.TokenPair other = tokenService.issue(loginUser());
+
+        tokenService.revokeSession(tokenService.parse(tokenPair.accessToken(), TokenClaims.TYPE_ACCESS));
+
+        Assertions.assertThrows(BadCredentialsException.class,
+                () -> tokenService.parse(tokenPair.accessToken(), TokenClaims.TYPE_ACCESS));
+        Assertions.assertThrows(BadCredentialsException.class, () -> tokenService.refresh(tokenPair.refreshToken()));
+        Assertions.assertNotNull(tokenService.parse(other.accessToken(), TokenClaims.TYPE_ACCESS));
+    }
+
+    /**
+     * 测试其他节点的吊销通知
+     */
+    @Test
+    void testRemoteRevocation() {
+        TokenService.TokenPair tokenPair = tokenService.issue(loginUser());
+        TokenClaims claims = tokenService.parse(tokenPair.accessToken(), TokenClaims.TYPE_ACCESS);
+
+        tokenDenylist.onRevocation("id|" + claims.sessionId() + "|" + claims.expiresAt().getEpochSecond());
+
+        Assertions.assertThrows(BadCredentialsException.class,
+                () -> tokenService.parse(tokenPair.accessToken(), TokenClaims.TYPE_ACCESS));
+    }
+
+    private LoginUser loginUser() {
+        return new LoginUser(1L, "testuser", "", UserRoleEnum.USER, 0);
+    }
+
+    private TokenService newNode(Map<String, String> redis) {
+        return new TokenService(authProperties, new TokenDenylist(authProperties, TokenTestSupport.inMemoryRedis(redis)),
+                username -> User.withUsername(username).password("").roles("ADMIN").build());
+    }
+}
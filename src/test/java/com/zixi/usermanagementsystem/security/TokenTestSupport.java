@@ -0,0 +1,61 @@
+package com.zixi.usermanagementsystem.security;
+
+import org.mockito.Mockito;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+/**
+ * 令牌相关单元测试的公共数据准备
+ */
+final class TokenTestSupport {
+
+    private TokenTestSupport() {
+    }
+
+    /**
+     * 以 Map 模拟 Redis 字符串键的 StringRedisTemplate，支持 set/setIfAbsent/multiGet/scan，忽略 TTL
+     * setIfAbsent 使用 Map.putIfAbsent，传入 ConcurrentHashMap 时与 Redis 一样是原子的
+     * 多个实例共用同一个 Map 即模拟共用同一 Redis 的多个节点
+     * @param store 键值存储
+     * @return StringRedisTemplate
+     */
+    @SuppressWarnings("unchecked")
+    static StringRedisTemplate inMemoryRedis(Map<String, String> store) {
+        StringRedisTemplate template = Mockito.mock(StringRedisTemplate.class);
+        ValueOperations<String, String> valueOperations = Mockito.mock(ValueOperations.class);
+        when(template.opsForValue()).thenReturn(valueOperations);
+        doAnswer(invocation -> store.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(valueOperations).set(anyString(), anyString(), any(Duration.class));
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenAnswer(invocation ->
+                store.putIfAbsent(invocation.getArgument(0), invocation.getArgument(1)) == null);
+        when(valueOperations.multiGet(anyList())).thenAnswer(invocation -> {
+            List<String> values = new ArrayList<>();
+            for (Object key : (List<Object>) invocation.getArgument(0)) {
+                values.add(store.get(key));
+            }
+            return values;
+        });
+        when(template.scan(any(ScanOptions.class))).thenAnswer(invocation -> {
+            Iterator<String> keys = new ArrayList<>(store.keySet()).iterator();
+            Cursor<String> cursor = Mockito.mock(Cursor.class);
+            when(cursor.hasNext()).thenAnswer(i -> keys.hasNext());
+            when(cursor.next()).thenAnswer(i -> keys.next());
+            return cursor;
+        });
+        return template;
+    }
+}
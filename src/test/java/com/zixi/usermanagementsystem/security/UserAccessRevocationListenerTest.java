@@ -0,0 +1,135 @@
+package com.zixi.usermanagementsystem.security;
+
+import com.zixi.usermanagementsystem.configuration.UserSessionProperties;
+import com.zixi.usermanagementsystem.event.UserAccessRevokedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.MapSession;
+import org.springframework.session.Session;
+import org.springframework.session.data.redis.RedisIndexedSessionRepository;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * UserAccessRevocationListener 单元测试
+ */
+class UserAccessRevocationListenerTest {
+
+    private static final String INDEX_KEY = "spring:session:index:"
+            + FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME + ":testuser";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private FindByIndexNameSessionRepository<MapSession> sessionRepository;
+
+    private RedisIndexedSessionRepository indexedSessionRepository;
+
+    private SetOperations<String, Object> setOperations;
+
+    private TokenDenylist tokenDenylist;
+
+    private UserSessionProperties properties;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        sessionRepository = Mockito.mock(FindByIndexNameSessionRepository.class);
+        indexedSessionRepository = Mockito.mock(RedisIndexedSessionRepository.class);
+        RedisOperations<String, Object> operations = Mockito.mock(RedisOperations.class);
+        setOperations = Mockito.mock(SetOperations.class);
+        when(indexedSessionRepository.getSessionRedisOperations()).thenReturn(operations);
+        when(operations.opsForSet()).thenReturn(setOperations);
+        tokenDenylist = Mockito.mock(TokenDenylist.class);
+        properties = new UserSessionProperties();
+        properties.setRevokeBatchSize(2);
+    }
+
+    /**
+     * 测试只读取主体名索引，按批删除全部 Session 并从索引中移除，不按主体名加载 Session
+     */
+    @Test
+    void testRevokeAllSessionsInBatches() {
+        givenIndex("s1", "s2", "s3", "s4", "s5");
+
+        createListener(tokenDenylist).onUserAccessRevoked(
+                new UserAccessRevokedEvent(1L, "testuser", UserAccessRevokedEvent.REASON_DISABLED));
+
+        for (String id : new String[]{"s1", "s2", "s3", "s4", "s5"}) {
+            verify(sessionRepository).deleteById(id);
+        }
+        verify(setOperations).remove(INDEX_KEY, new Object[]{"s1", "s2"});
+        verify(setOperations).remove(INDEX_KEY, new Object[]{"s3", "s4"});
+        verify(setOperations).remove(INDEX_KEY, new Object[]{"s5"});
+        verify(sessionRepository, never()).findByPrincipalName(anyString());
+        verify(tokenDenylist).revokeAccount("testuser");
+        Assertions.assertEquals(5.0, meterRegistry.get("ums.session.revoked").counter().count());
+    }
+
+    /**
+     * 测试 Session 模式下没有令牌吊销组件
+     */
+    @Test
+    void testRevokeWithoutTokenDenylist() {
+        givenIndex("s1");
+
+        createListener(null).onUserAccessRevoked(
+                new UserAccessRevokedEvent(1L, "testuser", UserAccessRevokedEvent.REASON_REMOVED));
+
+        verify(sessionRepository, times(1)).deleteById(anyString());
+    }
+
+    /**
+     * 测试没有 Session 时不删除
+     */
+    @Test
+    void testNoSessions() {
+        givenIndex();
+
+        createListener(tokenDenylist).onUserAccessRevoked(
+                new UserAccessRevokedEvent(1L, "testuser", UserAccessRevokedEvent.REASON_DISABLED));
+
+        verify(sessionRepository, never()).deleteById(anyString());
+        verify(setOperations, never()).remove(anyString(), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenIndex(String... sessionIds) {
+        Iterator<Object> ids = new ArrayList<Object>(List.of(sessionIds)).iterator();
+        Cursor<Object> cursor = Mockito.mock(Cursor.class);
+        when(cursor.hasNext()).thenAnswer(invocation -> ids.hasNext());
+        when(cursor.next()).thenAnswer(invocation -> ids.next());
+        when(setOperations.scan(eq(INDEX_KEY), any(ScanOptions.class))).thenReturn(cursor);
+    }
+
+    @SuppressWarnings("unchecked")
+    private UserAccessRevocationListener createListener(TokenDenylist denylist) {
+        ObjectProvider<FindByIndexNameSessionRepository<? extends Session>> sessionRepositoryProvider =
+                Mockito.mock(ObjectProvider.class);
+        when(sessionRepositoryProvider.getIfAvailable()).thenReturn(sessionRepository);
+        ObjectProvider<RedisIndexedSessionRepository> indexedSessionRepositoryProvider = Mockito.mock(ObjectProvider.class);
+        when(indexedSessionRepositoryProvider.getIfAvailable()).thenReturn(indexedSessionRepository);
+        ObjectProvider<TokenDenylist> tokenDenylistProvider = Mockito.mock(ObjectProvider.class);
+        when(tokenDenylistProvider.getIfAvailable()).thenReturn(denylist);
+        return new UserAccessRevocationListener(sessionRepositoryProvider, indexedSessionRepositoryProvider,
+                tokenDenylistProvider, properties, meterRegistry);
+    }
+}
@@ -0,0 +1,204 @@
+package com.zixi.usermanagementsystem.security;
+
+import com.zixi.usermanagementsystem.configuration.PaginationProperties;
+import com.zixi.usermanagementsystem.configuration.SecurityConfig;
+import com.zixi.usermanagementsystem.configuration.UserDetailsCacheProperties;
+import com.zixi.usermanagementsystem.constant.UserRoleEnum;
+import com.zixi.usermanagementsystem.mapper.UserMapper;
+import com.zixi.usermanagementsystem.model.domain.User;
+import com.zixi.usermanagementsystem.model.request.UserChangePasswordRequest;
+import com.zixi.usermanagementsystem.model.request.UserRoleUpdateRequest;
+import com.zixi.usermanagementsystem.service.PageTotalCache;
+import com.zixi.usermanagementsystem.service.UserManageService;
+import com.zixi.usermanagementsystem.service.UserProfileService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.when;
+
+/**
+ * UserDetailsCache 单元测试
+ * 包括缓存本身的命中与过期，以及修改、禁用、删除用户时的失效
+ */
+class UserDetailsCacheTest {
+
+    private static final String ACCOUNT = "testuser";
+
+    private UserDetailsCacheProperties properties;
+
+    private UserDetailsCache cache;
+
+    private UserMapper userMapper;
+
+    private User user;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private final Function<String, UserDetailsCache.CachedUser> loader = account -> {
+        loads.incrementAndGet();
+        return UserDetailsCache.CachedUser.from(user);
+    };
+
+    @BeforeEach
+    void setUp() {
+        properties = new UserDetailsCacheProperties();
+        cache = new UserDetailsCache(properties, new SimpleMeterRegistry());
+        userMapper = Mockito.mock(UserMapper.class);
+        user = new User();
+        user.setId(1L);
+        user.setAccount(ACCOUNT);
+        user.setPassword("{bcrypt}hash");
+        user.setRole(UserRoleEnum.USER);
+        user.setStatus(UserManageService.STATUS_NORMAL);
+        when(userMapper.selectById(1L)).thenReturn(user);
+        when(userMapper.selectOne(any())).thenReturn(user);
+        when(userMapper.updateById(any(User.class))).thenReturn(1);
+    }
+
+    /**
+     * 测试命中时不再调用加载函数
+     */
+    @Test
+    void testCacheHit() {
+        UserDetailsCache.CachedUser first = cache.get(ACCOUNT, loader);
+        UserDetailsCache.CachedUser second = cache.get(ACCOUNT, loader);
+
+        Assertions.assertSame(first, second);
+        Assertions.assertEquals(1, loads.get());
+    }
+
+    /**
+     * 测试用户不存在时不缓存
+     */
+    @Test
+    void testMissingUserNotCached() {
+        AtomicInteger missingLoads = new AtomicInteger();
+        Function<String, UserDetailsCache.CachedUser> missing = account -> {
+            missingLoads.incrementAndGet();
+            return null;
+        };
+
+        Assertions.assertNull(cache.get("nobody", missing));
+        Assertions.assertNull(cache.get("nobody", missing));
+        Assertions.assertEquals(2, missingLoads.get());
+    }
+
+    /**
+     * 测试关闭缓存时每次都加载
+     */
+    @Test
+    void testDisabledCacheAlwaysLoads() {
+        properties.setEnabled(false);
+        UserDetailsCache disabled = new UserDetailsCache(properties, new SimpleMeterRegistry());
+
+        disabled.get(ACCOUNT, loader);
+        disabled.get(ACCOUNT, loader);
+
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    /**
+     * 测试条目在 TTL 后过期
+     */
+    @Test
+    void testTtlExpiry() {
+        properties.setTtl(Duration.ofMillis(100));
+        UserDetailsCache shortLived = new UserDetailsCache(properties, new SimpleMeterRegistry());
+        shortLived.get(ACCOUNT, loader);
+        shortLived.get(ACCOUNT, loader);
+        Assertions.assertEquals(1, loads.get());
+
+        await().atMost(5, TimeUnit.SECONDS).pollInterval(50, TimeUnit.MILLISECONDS).until(() -> {
+            shortLived.get(ACCOUNT, loader);
+            return loads.get() == 2;
+        });
+    }
+
+    /**
+     * 测试禁用用户后重新加载，新的状态立即生效
+     */
+    @Test
+    void testEvictOnDisable() {
+        cache.get(ACCOUNT, loader);
+
+        Assertions.assertTrue(userManageService().updateUserStatus(1L, UserManageService.STATUS_DISABLED));
+
+        Assertions.assertEquals(UserManageService.STATUS_DISABLED, cache.get(ACCOUNT, loader).status());
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    /**
+     * 测试修改角色后重新加载
+     */
+    @Test
+    void testEvictOnRoleUpdate() {
+        cache.get(ACCOUNT, loader);
+        UserRoleUpdateRequest request = new UserRoleUpdateRequest();
+        request.setRole(UserRoleEnum.ADMIN);
+
+        Assertions.assertTrue(userManageService().updateUserRole(1L, request));
+
+        Assertions.assertEquals(UserRoleEnum.ADMIN, cache.get(ACCOUNT, loader).role());
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    /**
+     * 测试修改密码后重新加载新的密码哈希
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testEvictOnPasswordChange() {
+        PasswordEncoder passwordEncoder = SecurityConfig.delegatingPasswordEncoder(4);
+        user.setPassword(passwordEncoder.encode("oldPassword1"));
+        cache.get(ACCOUNT, loader);
+        UserChangePasswordRequest request = new UserChangePasswordRequest();
+        request.setOldPassword("oldPassword1");
+        request.setNewPassword("newPassword1");
+        request.setCheckPassword("newPassword1");
+
+        new UserProfileService(userMapper, passwordEncoder, cache, Mockito.mock(ObjectProvider.class))
+                .changePassword(ACCOUNT, request);
+
+        Assertions.assertTrue(passwordEncoder.matches("newPassword1", cache.get(ACCOUNT, loader).password()));
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    /**
+     * 测试删除用户后不再命中旧条目
+     */
+    @Test
+    void testEvictOnDelete() {
+        cache.get(ACCOUNT, loader);
+        UserManageService userManageService = Mockito.spy(userManageService());
+        doReturn(true).when(userManageService).removeById((Serializable) 1L);
+
+        Assertions.assertTrue(userManageService.removeUserById(1L));
+
+        Function<String, UserDetailsCache.CachedUser> deleted = account -> {
+            loads.incrementAndGet();
+            return null;
+        };
+        Assertions.assertNull(cache.get(ACCOUNT, deleted));
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    private UserManageService userManageService() {
+        return new UserManageService(userMapper, cache, Mockito.mock(PageTotalCache.class),
+                Mockito.mock(ApplicationEventPublisher.class), new PaginationProperties());
+    }
+}
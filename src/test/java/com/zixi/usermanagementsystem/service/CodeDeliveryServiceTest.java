@@ -0,0 +1,222 @@
+package com.zixi.usermanagementsystem.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.zixi.usermanagementsystem.configuration.CodeDeliveryProperties;
+import com.zixi.usermanagementsystem.exception.BusinessException;
+import com.zixi.usermanagementsystem.model.domain.VerificationCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.awaitility.Awaitility.await;
+
+/**
+ * CodeDeliveryService 单元测试
+ * 邮件渠道使用本地模拟 SMTP 服务器，短信渠道使用桩实现
+ */
+class CodeDeliveryServiceTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private CodeDeliveryService codeDeliveryService;
+
+    @AfterEach
+    void tearDown() {
+        if (codeDeliveryService != null) {
+            codeDeliveryService.shutdown();
+        }
+    }
+
+    /**
+     * 测试邮件验证码经本地 SMTP 服务器送达
+     */
+    @Test
+    void testEmailDeliveredThroughSmtp() throws Exception {
+        codeDeliveryService = new CodeDeliveryService(List.of(buildEmailService()), buildProperties(), meterRegistry);
+
+        codeDeliveryService.enqueue("user@example.com", VerificationCode.TARGET_TYPE_EMAIL, "123456");
+
+        Assertions.assertTrue(greenMail.waitForIncomingEmail(5000, 1));
+        MimeMessage message = greenMail.getReceivedMessages()[0];
+        Assertions.assertEquals("user@example.com", message.getAllRecipients()[0].toString());
+        Assertions.assertTrue(GreenMailUtil.getBody(message).contains("123456"));
+    }
+
+    /**
+     * 测试发送失败后按退避重试直至成功
+     */
+    @Test
+    void testRetryUntilSuccess() throws Exception {
+        StubSmsChannel smsChannel = new StubSmsChannel(2);
+        codeDeliveryService = new CodeDeliveryService(List.of(smsChannel), buildProperties(), meterRegistry);
+
+        codeDeliveryService.enqueue("13800138000", VerificationCode.TARGET_TYPE_PHONE, "654321");
+
+        Assertions.assertTrue(smsChannel.delivered.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(3, smsChannel.attempts.get());
+    }
+
+    /**
+     * 测试重试次数耗尽后不再发送，每次失败和死信都计入指标
+     */
+    @Test
+    void testGiveUpAfterMaxAttempts() {
+        StubSmsChannel smsChannel = new StubSmsChannel(Integer.MAX_VALUE);
+        codeDeliveryService = new CodeDeliveryService(List.of(smsChannel), buildProperties(), meterRegistry);
+
+        codeDeliveryService.enqueue("13800138000", VerificationCode.TARGET_TYPE_PHONE, "654321");
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> {
+            Counter deadLetters = meterRegistry.find("ums.code.delivery.dead_letter")
+                    .tag("channel", VerificationCode.TARGET_TYPE_PHONE).counter();
+            return deadLetters != null && deadLetters.count() == 1.0;
+        });
+        Assertions.assertEquals(3, smsChannel.attempts.get());
+        Assertions.assertEquals(1, smsChannel.delivered.getCount());
+        Assertions.assertEquals(3, meterRegistry.get("ums.code.delivery")
+                .tags("channel", VerificationCode.TARGET_TYPE_PHONE, "outcome", "failure").timer().count());
+        Assertions.assertEquals(1.0, meterRegistry.get("ums.code.delivery.dead_letter")
+                .tag("channel", VerificationCode.TARGET_TYPE_PHONE).counter().count());
+    }
+
+    /**
+     * 测试请求线程不等待渠道发送完成
+     */
+    @Test
+    void testEnqueueDoesNotWaitForChannel() {
+        CountDownLatch release = new CountDownLatch(1);
+        CodeDeliveryChannel slowChannel = new CodeDeliveryChannel() {
+            @Override
+            public String getTargetType() {
+                return VerificationCode.TARGET_TYPE_PHONE;
+            }
+
+            @Override
+            public Boolean sendVerificationCode(String target, String code) {
+                try {
+                    return release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        };
+        codeDeliveryService = new CodeDeliveryService(List.of(slowChannel), buildProperties(), meterRegistry);
+
+        long start = System.nanoTime();
+        codeDeliveryService.enqueue("13800138000", VerificationCode.TARGET_TYPE_PHONE, "111111");
+        Assertions.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        release.countDown();
+    }
+
+    /**
+     * 测试发送队列已满时拒绝并提示稍后重试
+     */
+    @Test
+    void testRejectedWhenQueueFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CodeDeliveryChannel blockingChannel = new CodeDeliveryChannel() {
+            @Override
+            public String getTargetType() {
+                return VerificationCode.TARGET_TYPE_PHONE;
+            }
+
+            @Override
+            public Boolean sendVerificationCode(String target, String code) {
+                started.countDown();
+                try {
+                    return release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        };
+        CodeDeliveryProperties properties = buildProperties();
+        properties.setThreads(1);
+        properties.setQueueCapacity(1);
+        codeDeliveryService = new CodeDeliveryService(List.of(blockingChannel), properties, meterRegistry);
+
+        try {
+            codeDeliveryService.enqueue("13800138000", VerificationCode.TARGET_TYPE_PHONE, "111111");
+            Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+            codeDeliveryService.enqueue("13800138001", VerificationCode.TARGET_TYPE_PHONE, "222222");
+
+            BusinessException exception = Assertions.assertThrows(BusinessException.class, () ->
+                    codeDeliveryService.enqueue("13800138002", VerificationCode.TARGET_TYPE_PHONE, "333333"));
+            Assertions.assertEquals("验证码发送繁忙，请稍后重试", exception.getDescription());
+            Assertions.assertEquals(1.0, meterRegistry.get("ums.code.delivery.rejected")
+                    .tag("channel", VerificationCode.TARGET_TYPE_PHONE).counter().count());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private CodeDeliveryProperties buildProperties() {
+        CodeDeliveryProperties properties = new CodeDeliveryProperties();
+        properties.setThreads(2);
+        properties.setInitialBackoff(Duration.ofMillis(10));
+        properties.setMaxBackoff(Duration.ofMillis(50));
+        return properties;
+    }
+
+    private EmailService buildEmailService() {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+
+        EmailService emailService = new EmailService();
+        ReflectionTestUtils.setField(emailService, "mailSender", mailSender);
+        ReflectionTestUtils.setField(emailService, "fromEmail", "noreply@example.com");
+        ReflectionTestUtils.setField(emailService, "enabled", true);
+        return emailService;
+    }
+
+    /**
+     * 短信渠道桩：前 failures 次发送失败
+     */
+    private static class StubSmsChannel implements CodeDeliveryChannel {
+
+        private final int failures;
+
+        private final AtomicInteger attempts = new AtomicInteger();
+
+        private final CountDownLatch delivered = new CountDownLatch(1);
+
+        private StubSmsChannel(int failures) {
+            this.failures = failures;
+        }
+
+        @Override
+        public String getTargetType() {
+            return VerificationCode.TARGET_TYPE_PHONE;
+        }
+
+        @Override
+        public Boolean sendVerificationCode(String target, String code) {
+            if (attempts.incrementAndGet() <= failures) {
+                return false;
+            }
+            delivered.countDown();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.zixi.usermanagementsystem.service;
+
+import com.zixi.usermanagementsystem.configuration.LoginHistoryWriterProperties;
+import com.zixi.usermanagementsystem.mapper.LoginHistoryMapper;
+import com.zixi.usermanagementsystem.model.domain.LoginHistory;
+import com.zixi.usermanagementsystem.stats.LoginStatsAggregator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * LoginHistoryWriter 单元测试
+ */
+class LoginHistoryWriterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private LoginHistoryMapper loginHistoryMapper;
+
+    private LoginHistoryWriterProperties properties;
+
+    private LoginStatsAggregator loginStatsAggregator;
+
+    /**
+     * 每次批量插入的记录（批次列表写入后会被清空，需要复制）
+     */
+    private final List<List<LoginHistory>> batches = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void setUp() {
+        loginHistoryMapper = Mockito.mock(LoginHistoryMapper.class);
+        loginStatsAggregator = Mockito.mock(LoginStatsAggregator.class);
+        doAnswer(invocation -> {
+            List<LoginHistory> batch = invocation.getArgument(0);
+            batches.add(new ArrayList<>(batch));
+            return batch.size();
+        }).when(loginHistoryMapper).insertBatch(anyList());
+
+        properties = new LoginHistoryWriterProperties();
+        properties.setBatchSize(3);
+        properties.setFlushInterval(Duration.ofMillis(20));
+        properties.setShutdownTimeout(Duration.ofSeconds(5));
+    }
+
+    /**
+     * 测试按批次大小批量写入，关闭时全部写完
+     */
+    @Test
+    void testWriteInBatches() {
+        LoginHistoryWriter writer = startWriter();
+        for (int i = 0; i < 10; i++) {
+            writer.write(history("account" + i, i % 3 == 0 ? null : (long) i));
+        }
+        writer.shutdown();
+
+        List<String> written = new ArrayList<>();
+        for (List<LoginHistory> batch : batches) {
+            Assertions.assertTrue(batch.size() <= 3, "batch size=" + batch.size());
+            batch.forEach(history -> written.add(history.getAccount()));
+        }
+        Assertions.assertEquals(10, written.size());
+        Assertions.assertTrue(written.containsAll(List.of("account0", "account9")));
+        verify(loginHistoryMapper, never()).insert(any(LoginHistory.class));
+        verify(loginStatsAggregator, times(10)).record(any(LoginHistory.class));
+    }
+
+    /**
+     * 测试批量写入失败时逐条写入，一条失败不影响其他记录，写入失败的记录不计入登录统计
+     */
+    @Test
+    void testFallbackToSingleInserts() {
+        doThrow(new RuntimeException("batch failed")).when(loginHistoryMapper).insertBatch(anyList());
+        doThrow(new RuntimeException("bad row")).when(loginHistoryMapper)
+                .insert(argThat((LoginHistory history) -> "bad".equals(history.getAccount())));
+
+        LoginHistoryWriter writer = startWriter();
+        writer.write(history("good1", 1L));
+        writer.write(history("bad", 2L));
+        writer.write(history("good2", null));
+        writer.shutdown();
+
+        verify(loginHistoryMapper).insert(argThat((LoginHistory history) -> "good1".equals(history.getAccount())));
+        verify(loginHistoryMapper).insert(argThat((LoginHistory history) -> "good2".equals(history.getAccount())));
+        verify(loginHistoryMapper, times(3)).insert(any(LoginHistory.class));
+        verify(loginStatsAggregator, times(2)).record(any(LoginHistory.class));
+        verify(loginStatsAggregator, never()).record(argThat((LoginHistory history) -> "bad".equals(history.getAccount())));
+    }
+
+    /**
+     * 测试同步写入失败时不计入登录统计
+     */
+    @Test
+    void testFailedSyncInsertNotCounted() {
+        properties.setEnabled(false);
+        doThrow(new RuntimeException("insert failed")).when(loginHistoryMapper).insert(any(LoginHistory.class));
+        LoginHistoryWriter writer = startWriter();
+
+        Assertions.assertThrows(RuntimeException.class, () -> writer.write(history("failed", null)));
+
+        verify(loginStatsAggregator, never()).record(any(LoginHistory.class));
+    }
+
+    /**
+     * 测试关闭时后台线程仍在写入，队列中剩余的记录由关闭流程写完
+     */
+    @Test
+    void testShutdownDrainsQueue() throws Exception {
+        CountDownLatch firstBatchEntered = new CountDownLatch(1);
+        CountDownLatch releaseFirstBatch = new CountDownLatch(1);
+        AtomicBoolean first = new AtomicBoolean(true);
+        doAnswer(invocation -> {
+            List<LoginHistory> batch = invocation.getArgument(0);
+            batches.add(new ArrayList<>(batch));
+            if (first.compareAndSet(true, false)) {
+                // 第一批卡住后台线程
+                firstBatchEntered.countDown();
+                releaseFirstBatch.await(5, TimeUnit.SECONDS);
+            }
+            return batch.size();
+        }).when(loginHistoryMapper).insertBatch(anyList());
+        properties.setBatchSize(1);
+        properties.setShutdownTimeout(Duration.ofMillis(50));
+
+        LoginHistoryWriter writer = startWriter();
+        writer.write(history("first", 1L));
+        Assertions.assertTrue(firstBatchEntered.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 20; i++) {
+            writer.write(history("queued" + i, (long) i));
+        }
+
+        writer.shutdown();
+        releaseFirstBatch.countDown();
+
+        Assertions.assertEquals(21, batches.stream().mapToInt(List::size).sum());
+    }
+
+    /**
+     * 测试关闭后的写入在调用线程同步完成，不会留在队列中
+     */
+    @Test
+    void testWriteAfterShutdownIsSynchronous() {
+        LoginHistoryWriter writer = startWriter();
+        writer.shutdown();
+
+        writer.write(history("late", 1L));
+
+        verify(loginHistoryMapper).insert(argThat((LoginHistory history) -> "late".equals(history.getAccount())));
+    }
+
+    /**
+     * 测试关闭异步写入时同步写入
+     */
+    @Test
+    void testDisabledWritesSynchronously() {
+        properties.setEnabled(false);
+        LoginHistoryWriter writer = startWriter();
+
+        writer.write(history("sync", 1L));
+
+        verify(loginHistoryMapper).insert(any(LoginHistory.class));
+        verify(loginHistoryMapper, never()).insertBatch(anyList());
+        verify(loginStatsAggregator).record(any(LoginHistory.class));
+    }
+
+    private LoginHistoryWriter startWriter() {
+        LoginHistoryWriter writer = new LoginHistoryWriter(loginHistoryMapper, properties, loginStatsAggregator, meterRegistry);
+        writer.start();
+        return writer;
+    }
+
+    private static LoginHistory history(String account, Long userId) {
+        LoginHistory history = new LoginHistory();
+        history.setAccount(account);
+        history.setUserId(userId);
+        history.setLoginStatus(userId == null ? LoginHistory.LOGIN_STATUS_FAILED : LoginHistory.LOGIN_STATUS_SUCCESS);
+        return history;
+    }
+}
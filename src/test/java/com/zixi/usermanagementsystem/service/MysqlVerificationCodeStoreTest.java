@@ -0,0 +1,148 @@
+package com.zixi.usermanagementsystem.service;
+
+import com.zixi.usermanagementsystem.model.domain.VerificationCode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.Resource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MySQL 验证码存储测试（需要本地 MySQL，已执行 Flyway 迁移）
+ * 校验通过一条条件 UPDATE 完成，并发校验同一验证码只能成功一次
+ */
+@SpringBootTest(properties = "user-center.verification-code.store=mysql")
+class MysqlVerificationCodeStoreTest {
+
+    private static final int THREADS = 16;
+
+    @Resource
+    private VerificationCodeStore verificationCodeStore;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    private String target;
+
+    @BeforeEach
+    void setUp() {
+        target = "137" + String.format("%08d", ThreadLocalRandom.current().nextInt(100_000_000));
+    }
+
+    /**
+     * 测试并发校验同一验证码只有一个成功
+     */
+    @Test
+    void testConcurrentConsumeExactlyOnce() throws Exception {
+        Assertions.assertInstanceOf(MysqlVerificationCodeStore.class, verificationCodeStore);
+        verificationCodeStore.save(target, VerificationCode.TARGET_TYPE_PHONE, VerificationCode.PURPOSE_REGISTER,
+                "246810", Duration.ofMinutes(5));
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        int consumed = 0;
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return verificationCodeStore.consume(target, VerificationCode.PURPOSE_REGISTER, "246810");
+                }));
+            }
+            start.countDown();
+            for (Future<Boolean> future : futures) {
+                if (future.get(30, TimeUnit.SECONDS)) {
+                    consumed++;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assertions.assertEquals(1, consumed);
+    }
+
+    /**
+     * 测试校验只执行一条 SQL
+     */
+    @Test
+    void testConsumeSingleStatement() {
+        verificationCodeStore.save(target, VerificationCode.TARGET_TYPE_PHONE, VerificationCode.PURPOSE_REGISTER,
+                "135790", Duration.ofMinutes(5));
+
+        long before = verificationCodeStatements();
+        Assertions.assertTrue(verificationCodeStore.consume(target, VerificationCode.PURPOSE_REGISTER, "135790"));
+        Assertions.assertEquals(1, verificationCodeStatements() - before);
+
+        // 已使用的验证码不能再次校验
+        Assertions.assertFalse(verificationCodeStore.consume(target, VerificationCode.PURPOSE_REGISTER, "135790"));
+    }
+
+    /**
+     * 测试检查验证码不消费，之后仍可消费
+     */
+    @Test
+    void testMatchesDoesNotConsume() {
+        verificationCodeStore.save(target, VerificationCode.TARGET_TYPE_PHONE, VerificationCode.PURPOSE_REGISTER,
+                "864209", Duration.ofMinutes(5));
+
+        Assertions.assertFalse(verificationCodeStore.matches(target, VerificationCode.PURPOSE_REGISTER, "000000"));
+        Assertions.assertTrue(verificationCodeStore.matches(target, VerificationCode.PURPOSE_REGISTER, "864209"));
+        Assertions.assertTrue(verificationCodeStore.matches(target, VerificationCode.PURPOSE_REGISTER, "864209"));
+        Assertions.assertTrue(verificationCodeStore.consume(target, VerificationCode.PURPOSE_REGISTER, "864209"));
+        Assertions.assertFalse(verificationCodeStore.matches(target, VerificationCode.PURPOSE_REGISTER, "864209"));
+    }
+
+    /**
+     * 测试撤销发送后验证码失效，并且可以立即重新获取发送许可
+     */
+    @Test
+    void testReleaseAllowsImmediateResend() {
+        Assertions.assertTrue(verificationCodeStore.tryAcquireSendPermit(
+                target, VerificationCode.PURPOSE_REGISTER, Duration.ofSeconds(60)));
+        verificationCodeStore.save(target, VerificationCode.TARGET_TYPE_PHONE, VerificationCode.PURPOSE_REGISTER,
+                "975310", Duration.ofMinutes(5));
+
+        verificationCodeStore.release(target, VerificationCode.PURPOSE_REGISTER, "975310");
+
+        Assertions.assertFalse(verificationCodeStore.matches(target, VerificationCode.PURPOSE_REGISTER, "975310"));
+        Assertions.assertTrue(verificationCodeStore.tryAcquireSendPermit(
+                target, VerificationCode.PURPOSE_REGISTER, Duration.ofSeconds(60)));
+    }
+
+    /**
+     * 测试保存新验证码后旧验证码失效
+     */
+    @Test
+    void testSaveInvalidatesPreviousCode() {
+        verificationCodeStore.save(target, VerificationCode.TARGET_TYPE_PHONE, VerificationCode.PURPOSE_REGISTER,
+                "111111", Duration.ofMinutes(5));
+        verificationCodeStore.save(target, VerificationCode.TARGET_TYPE_PHONE, VerificationCode.PURPOSE_REGISTER,
+                "222222", Duration.ofMinutes(5));
+
+        Assertions.assertFalse(verificationCodeStore.consume(target, VerificationCode.PURPOSE_REGISTER, "111111"));
+        Assertions.assertTrue(verificationCodeStore.consume(target, VerificationCode.PURPOSE_REGISTER, "222222"));
+    }
+
+    /**
+     * 已执行的 VerificationCodeMapper 语句数（来自 SQL 计时拦截器的 ums.sql）
+     */
+    private long verificationCodeStatements() {
+        return meterRegistry.find("ums.sql").timers().stream()
+                .filter(timer -> String.valueOf(timer.getId().getTag("statement")).startsWith("VerificationCodeMapper."))
+                .mapToLong(Timer::count)
+                .sum();
+    }
+}
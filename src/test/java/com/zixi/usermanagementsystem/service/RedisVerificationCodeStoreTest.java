@@ -0,0 +1,191 @@
+package com.zixi.usermanagementsystem.service;
+
+import com.zixi.usermanagementsystem.model.domain.VerificationCode;
+import jakarta.annotation.Resource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis 验证码存储测试（需要本地 Redis）
+ * 校验由 Lua 脚本原子地比较并删除，发送间隔由 SET NX EX 保证，并发时都只能成功一次
+ */
+@SpringBootTest(properties = "user-center.verification-code.store=redis")
+class RedisVerificationCodeStoreTest {
+
+    private static final int THREADS = 16;
+
+    @Resource
+    private VerificationCodeStore verificationCodeStore;
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    private String target;
+
+    @BeforeEach
+    void setUp() {
+        target = "136" + String.format("%08d", ThreadLocalRandom.current().nextInt(100_000_000));
+    }
+
+    /**
+     * 测试并发校验同一验证码只有一个成功，成功后 key 被删除
+     */
+    @Test
+    void testConcurrentConsumeExactlyOnce() throws Exception {
+        Assertions.assertInstanceOf(RedisVerificationCodeStore.class, verificationCodeStore);
+        verificationCodeStore.save(target, VerificationCode.TARGET_TYPE_PHONE, VerificationCode.PURPOSE_REGISTER,
+                "246810", Duration.ofMinutes(5));
+
+        int consumed = countSuccesses(
+                () -> verificationCodeStore.consume(target, VerificationCode.PURPOSE_REGISTER, "246810"));
+
+        Assertions.assertEquals(1, consumed);
+        Assertions.assertFalse(stringRedisTemplate.hasKey(codeKey()));
+    }
+
+    /**
+     * 测试验证码不一致时不删除 key，之后仍可使用正确的验证码
+     */
+    @Test
+    void testWrongCodeKeepsCode() {
+        verificationCodeStore.save(target, VerificationCode.TARGET_TYPE_PHONE, VerificationCode.PURPOSE_REGISTER,
+                "135790", Duration.ofMinutes(5));
+
+        Assertions.assertFalse(verificationCodeStore.consume(target, VerificationCode.PURPOSE_REGISTER, "000000"));
+        Assertions.assertEquals("135790", stringRedisTemplate.opsForValue().get(codeKey()));
+        Assertions.assertTrue(verificationCodeStore.consume(target, VerificationCode.PURPOSE_REGISTER, "135790"));
+        Assertions.assertFalse(verificationCodeStore.consume(target, VerificationCode.PURPOSE_REGISTER, "135790"));
+    }
+
+    /**
+     * 测试不存在的验证码校验失败
+     */
+    @Test
+    void testConsumeMissingCode() {
+        Assertions.assertFalse(verificationCodeStore.consume(target, VerificationCode.PURPOSE_REGISTER, "135790"));
+    }
+
+    /**
+     * 测试检查验证码不消费，之后仍可消费
+     */
+    @Test
+    void testMatchesDoesNotConsume() {
+        verificationCodeStore.save(target, VerificationCode.TARGET_TYPE_PHONE, VerificationCode.PURPOSE_REGISTER,
+                "864209", Duration.ofMinutes(5));
+
+        Assertions.assertFalse(verificationCodeStore.matches(target, VerificationCode.PURPOSE_REGISTER, "000000"));
+        Assertions.assertTrue(verificationCodeStore.matches(target, VerificationCode.PURPOSE_REGISTER, "864209"));
+        Assertions.assertTrue(verificationCodeStore.matches(target, VerificationCode.PURPOSE_REGISTER, "864209"));
+        Assertions.assertTrue(verificationCodeStore.consume(target, VerificationCode.PURPOSE_REGISTER, "864209"));
+        Assertions.assertFalse(verificationCodeStore.matches(target, VerificationCode.PURPOSE_REGISTER, "864209"));
+    }
+
+    /**
+     * 测试撤销发送后验证码失效，并且可以立即重新获取发送许可
+     */
+    @Test
+    void testReleaseAllowsImmediateResend() {
+        Assertions.assertTrue(verificationCodeStore.tryAcquireSendPermit(
+                target, VerificationCode.PURPOSE_REGISTER, Duration.ofSeconds(60)));
+        verificationCodeStore.save(target, VerificationCode.TARGET_TYPE_PHONE, VerificationCode.PURPOSE_REGISTER,
+                "975310", Duration.ofMinutes(5));
+
+        verificationCodeStore.release(target, VerificationCode.PURPOSE_REGISTER, "975310");
+
+        Assertions.assertFalse(verificationCodeStore.matches(target, VerificationCode.PURPOSE_REGISTER, "975310"));
+        Assertions.assertTrue(verificationCodeStore.tryAcquireSendPermit(
+                target, VerificationCode.PURPOSE_REGISTER, Duration.ofSeconds(60)));
+    }
+
+    /**
+     * 测试保存新验证码后旧验证码失效，验证码带 TTL
+     */
+    @Test
+    void testSaveReplacesCodeWithTtl() {
+        verificationCodeStore.save(target, VerificationCode.TARGET_TYPE_PHONE, VerificationCode.PURPOSE_REGISTER,
+                "111111", Duration.ofMinutes(5));
+        verificationCodeStore.save(target, VerificationCode.TARGET_TYPE_PHONE, VerificationCode.PURPOSE_REGISTER,
+                "222222", Duration.ofMinutes(5));
+
+        Long ttl = stringRedisTemplate.getExpire(codeKey(), TimeUnit.SECONDS);
+        Assertions.assertTrue(ttl != null && ttl > 0 && ttl <= 300, "ttl=" + ttl);
+        Assertions.assertFalse(verificationCodeStore.consume(target, VerificationCode.PURPOSE_REGISTER, "111111"));
+        Assertions.assertTrue(verificationCodeStore.consume(target, VerificationCode.PURPOSE_REGISTER, "222222"));
+    }
+
+    /**
+     * 测试并发获取发送许可只有一个成功，许可带发送间隔的 TTL
+     */
+    @Test
+    void testConcurrentSendPermitExactlyOnce() throws Exception {
+        int acquired = countSuccesses(() -> verificationCodeStore.tryAcquireSendPermit(
+                target, VerificationCode.PURPOSE_REGISTER, Duration.ofSeconds(60)));
+
+        Assertions.assertEquals(1, acquired);
+        Long ttl = stringRedisTemplate.getExpire(intervalKey(), TimeUnit.SECONDS);
+        Assertions.assertTrue(ttl != null && ttl > 0 && ttl <= 60, "ttl=" + ttl);
+    }
+
+    /**
+     * 测试发送间隔过期后可以再次获取许可
+     */
+    @Test
+    void testSendPermitAvailableAfterInterval() {
+        Assertions.assertTrue(verificationCodeStore.tryAcquireSendPermit(
+                target, VerificationCode.PURPOSE_REGISTER, Duration.ofSeconds(60)));
+        Assertions.assertFalse(verificationCodeStore.tryAcquireSendPermit(
+                target, VerificationCode.PURPOSE_REGISTER, Duration.ofSeconds(60)));
+
+        // 模拟间隔到期
+        stringRedisTemplate.delete(intervalKey());
+
+        Assertions.assertTrue(verificationCodeStore.tryAcquireSendPermit(
+                target, VerificationCode.PURPOSE_REGISTER, Duration.ofSeconds(60)));
+    }
+
+    private int countSuccesses(Callable<Boolean> action) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        int successes = 0;
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return action.call();
+                }));
+            }
+            start.countDown();
+            for (Future<Boolean> future : futures) {
+                if (future.get(30, TimeUnit.SECONDS)) {
+                    successes++;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return successes;
+    }
+
+    private String codeKey() {
+        return "ums:verification:code:" + VerificationCode.PURPOSE_REGISTER + ":" + target;
+    }
+
+    private String intervalKey() {
+        return "ums:verification:interval:" + VerificationCode.PURPOSE_REGISTER + ":" + target;
+    }
+}
@@ -0,0 +1,185 @@
+package com.zixi.usermanagementsystem.service;
+
+import com.tencentcloudapi.common.exception.TencentCloudSDKException;
+import com.tencentcloudapi.sms.v20210111.SmsClient;
+import com.tencentcloudapi.sms.v20210111.models.SendSmsRequest;
+import com.tencentcloudapi.sms.v20210111.models.SendSmsResponse;
+import com.tencentcloudapi.sms.v20210111.models.SendStatus;
+import com.zixi.usermanagementsystem.configuration.TencentSmsProperties;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * TencentSmsService 单元测试
+ * 只构建客户端，不发起网络请求；批量发送使用桩客户端
+ */
+class TencentSmsServiceTest {
+
+    private static final String SECRET_KEY = "test-secret-key-value";
+
+    private TencentSmsProperties properties;
+
+    private TencentSmsService tencentSmsService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new TencentSmsProperties();
+        properties.setSecretId("test-secret-id");
+        properties.setSecretKey(SECRET_KEY);
+        tencentSmsService = new TencentSmsService();
+        ReflectionTestUtils.setField(tencentSmsService, "tencentSmsProperties", properties);
+    }
+
+    /**
+     * 测试配置不变时复用同一个客户端
+     */
+    @Test
+    void testClientReused() {
+        SmsClient first = tencentSmsService.getClient();
+
+        Assertions.assertSame(first, tencentSmsService.getClient());
+        Assertions.assertSame(first, tencentSmsService.getClient());
+    }
+
+    /**
+     * 测试密钥或连接配置变化后重新构建客户端
+     */
+    @Test
+    void testClientRebuiltWhenConfigChanges() {
+        SmsClient first = tencentSmsService.getClient();
+
+        properties.setSecretKey("rotated-secret-key");
+        SmsClient rotated = tencentSmsService.getClient();
+        properties.setReadTimeout(30);
+        SmsClient reconfigured = tencentSmsService.getClient();
+
+        Assertions.assertNotSame(first, rotated);
+        Assertions.assertNotSame(rotated, reconfigured);
+        Assertions.assertSame(reconfigured, tencentSmsService.getClient());
+    }
+
+    /**
+     * 测试配置指纹不保存密钥明文，相同密钥得到相同指纹
+     */
+    @Test
+    void testFingerprintDoesNotContainSecret() {
+        List<Object> fingerprint = tencentSmsService.fingerprint();
+
+        Assertions.assertFalse(fingerprint.contains(SECRET_KEY));
+        Assertions.assertFalse(fingerprint.toString().contains(SECRET_KEY));
+        Assertions.assertEquals(fingerprint, tencentSmsService.fingerprint());
+
+        properties.setSecretKey("rotated-secret-key");
+        Assertions.assertNotEquals(fingerprint, tencentSmsService.fingerprint());
+    }
+
+    /**
+     * 测试未启用时不构建客户端
+     */
+    @Test
+    void testDisabledDoesNotBuildClient() {
+        properties.setEnabled(false);
+
+        Assertions.assertTrue(tencentSmsService.sendVerificationCode("13800138000", "123456"));
+        Assertions.assertNull(ReflectionTestUtils.getField(tencentSmsService, "clientHolder"));
+    }
+
+    /**
+     * 测试批量发送按单次上限分批，每批一次请求，手机号带国家码
+     */
+    @Test
+    void testSendBatchChunkedByProviderLimit() throws Exception {
+        properties.setEnabled(true);
+        SmsClient client = Mockito.mock(SmsClient.class);
+        when(client.SendSms(any(SendSmsRequest.class))).thenAnswer(invocation -> {
+            SendSmsRequest request = invocation.getArgument(0);
+            return response(request.getPhoneNumberSet(), "+8613800000007");
+        });
+        TencentSmsService service = Mockito.spy(tencentSmsService);
+        doReturn(client).when(service).getClient();
+        List<String> phones = phones(450);
+
+        Map<String, Boolean> results = service.sendBatch(phones, "123456");
+
+        ArgumentCaptor<SendSmsRequest> requests = ArgumentCaptor.forClass(SendSmsRequest.class);
+        verify(client, times(3)).SendSms(requests.capture());
+        Assertions.assertEquals(List.of(200, 200, 50),
+                requests.getAllValues().stream().map(request -> request.getPhoneNumberSet().length).toList());
+        Assertions.assertEquals("+8613800000000", requests.getAllValues().get(0).getPhoneNumberSet()[0]);
+        Assertions.assertArrayEquals(new String[]{"123456"}, requests.getAllValues().get(0).getTemplateParamSet());
+        Assertions.assertEquals(phones, new ArrayList<>(results.keySet()));
+        Assertions.assertFalse(results.get("13800000007"));
+        Assertions.assertEquals(449, results.values().stream().filter(Boolean::booleanValue).count());
+    }
+
+    /**
+     * 测试某一批请求失败时只影响该批手机号
+     */
+    @Test
+    void testSendBatchFailedChunk() throws Exception {
+        properties.setEnabled(true);
+        SmsClient client = Mockito.mock(SmsClient.class);
+        when(client.SendSms(any(SendSmsRequest.class)))
+                .thenThrow(new TencentCloudSDKException("RequestLimitExceeded"))
+                .thenAnswer(invocation -> response(invocation.<SendSmsRequest>getArgument(0).getPhoneNumberSet(), null));
+        TencentSmsService service = Mockito.spy(tencentSmsService);
+        doReturn(client).when(service).getClient();
+
+        Map<String, Boolean> results = service.sendBatch(phones(201), "123456");
+
+        Assertions.assertEquals(201, results.size());
+        Assertions.assertEquals(1, results.values().stream().filter(Boolean::booleanValue).count());
+        Assertions.assertTrue(results.get("13800000200"));
+    }
+
+    /**
+     * 测试未启用时批量发送全部视为成功
+     */
+    @Test
+    void testSendBatchDisabled() {
+        properties.setEnabled(false);
+
+        Map<String, Boolean> results = tencentSmsService.sendBatch(phones(3), "123456");
+
+        Assertions.assertEquals(3, results.size());
+        Assertions.assertTrue(results.values().stream().allMatch(Boolean::booleanValue));
+        Assertions.assertNull(ReflectionTestUtils.getField(tencentSmsService, "clientHolder"));
+    }
+
+    private static List<String> phones(int count) {
+        List<String> phones = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            phones.add(String.format("138%08d", i));
+        }
+        return phones;
+    }
+
+    /**
+     * 构造响应，failedPhone 返回失败，其余成功
+     */
+    private static SendSmsResponse response(String[] phoneNumbers, String failedPhone) {
+        SendSmsResponse response = new SendSmsResponse();
+        response.setSendStatusSet(Arrays.stream(phoneNumbers).map(phone -> {
+            SendStatus status = new SendStatus();
+            status.setPhoneNumber(phone);
+            status.setCode(phone.equals(failedPhone) ? "LimitExceeded.PhoneNumberDailyLimit" : "Ok");
+            return status;
+        }).toArray(SendStatus[]::new));
+        return response;
+    }
+}
@@ -0,0 +1,147 @@
+package com.zixi.usermanagementsystem.service;
+
+import com.zixi.usermanagementsystem.common.ErrorCode;
+import com.zixi.usermanagementsystem.configuration.SecurityConfig;
+import com.zixi.usermanagementsystem.exception.BusinessException;
+import com.zixi.usermanagementsystem.mapper.UserMapper;
+import com.zixi.usermanagementsystem.model.domain.User;
+import com.zixi.usermanagementsystem.model.domain.VerificationCode;
+import com.zixi.usermanagementsystem.model.request.UserRegisterRequest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLIntegrityConstraintViolationException;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * UserAuthService 注册流程单元测试
+ * 注册不再预先查询重复，唯一索引冲突按索引名转换为业务异常；验证码通过后才计算密码哈希，插入成功后才消费
+ */
+class UserAuthServiceTest {
+
+    private UserMapper userMapper;
+
+    private VerificationCodeService verificationCodeService;
+
+    private PlatformTransactionManager transactionManager;
+
+    private PasswordEncoder passwordEncoder;
+
+    private UserAuthService userAuthService;
+
+    @BeforeEach
+    void setUp() {
+        userMapper = Mockito.mock(UserMapper.class);
+        verificationCodeService = Mockito.mock(VerificationCodeService.class);
+        transactionManager = Mockito.mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        passwordEncoder = Mockito.spy(SecurityConfig.delegatingPasswordEncoder(4));
+        userAuthService = new UserAuthService(userMapper, passwordEncoder,
+                verificationCodeService, new TransactionTemplate(transactionManager));
+        when(verificationCodeService.checkCode(anyString(), anyString(), eq(VerificationCode.PURPOSE_REGISTER)))
+                .thenReturn(true);
+        when(verificationCodeService.verifyCode(anyString(), anyString(), eq(VerificationCode.PURPOSE_REGISTER)))
+                .thenReturn(true);
+    }
+
+    /**
+     * 测试注册成功只插入一次，不执行任何重复检查查询
+     */
+    @Test
+    void testRegisterSingleInsert() {
+        when(userMapper.insert(any(User.class))).thenAnswer(invocation -> {
+            invocation.<User>getArgument(0).setId(42L);
+            return 1;
+        });
+
+        Assertions.assertEquals(42L, userAuthService.register(request("13800138000", null)));
+
+        verify(userMapper).insert(any(User.class));
+        verify(userMapper, never()).selectCount(any());
+        verify(verificationCodeService).verifyCode("13800138000", "123456", VerificationCode.PURPOSE_REGISTER);
+        verify(transactionManager).commit(any());
+    }
+
+    /**
+     * 测试唯一索引冲突按索引名转换为原有的提示信息，事务回滚，验证码不被消费
+     */
+    @Test
+    void testDuplicateKeyMappedByIndex() {
+        assertDuplicate("uk_user_account", "用户账号已存在");
+        assertDuplicate("uk_user_phone", "手机号已被注册");
+        assertDuplicate("uk_user_email", "邮箱已被注册");
+        verify(transactionManager, Mockito.times(3)).rollback(any());
+        verify(verificationCodeService, never()).verifyCode(anyString(), anyString(), anyString());
+    }
+
+    /**
+     * 测试验证码错误时不计算密码哈希，也不插入用户
+     */
+    @Test
+    void testInvalidCodeSkipsInsert() {
+        when(verificationCodeService.checkCode(anyString(), anyString(), eq(VerificationCode.PURPOSE_REGISTER)))
+                .thenReturn(false);
+
+        BusinessException exception = Assertions.assertThrows(BusinessException.class,
+                () -> userAuthService.register(request(null, "user@example.com")));
+
+        Assertions.assertEquals("验证码错误或已过期", exception.getDescription());
+        verify(passwordEncoder, never()).encode(any());
+        verify(userMapper, never()).insert(any(User.class));
+        verify(transactionManager, never()).getTransaction(any());
+    }
+
+    /**
+     * 测试插入后验证码已被并发请求使用时回滚插入
+     */
+    @Test
+    void testCodeConsumedConcurrentlyRollsBackInsert() {
+        when(userMapper.insert(any(User.class))).thenReturn(1);
+        when(verificationCodeService.verifyCode(anyString(), anyString(), eq(VerificationCode.PURPOSE_REGISTER)))
+                .thenReturn(false);
+
+        BusinessException exception = Assertions.assertThrows(BusinessException.class,
+                () -> userAuthService.register(request("13800138000", null)));
+
+        Assertions.assertEquals("验证码错误或已过期", exception.getDescription());
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+    }
+
+    private void assertDuplicate(String index, String expectedMessage) {
+        SQLIntegrityConstraintViolationException cause = new SQLIntegrityConstraintViolationException(
+                "Duplicate entry 'value' for key 'user." + index + "'", "23000", 1062);
+        doThrow(new DuplicateKeyException("insert user", cause)).when(userMapper).insert(any(User.class));
+
+        BusinessException exception = Assertions.assertThrows(BusinessException.class,
+                () -> userAuthService.register(request("13800138000", null)));
+
+        Assertions.assertEquals(ErrorCode.PARAMS_ERROR.getCode(), exception.getCode());
+        Assertions.assertEquals(expectedMessage, exception.getDescription());
+    }
+
+    private UserRegisterRequest request(String phone, String email) {
+        UserRegisterRequest request = new UserRegisterRequest();
+        request.setAccount("registeruser");
+        request.setPassword("password123");
+        request.setCheckPassword("password123");
+        request.setPhone(phone);
+        request.setEmail(email);
+        request.setVerificationCode("123456");
+        return request;
+    }
+}
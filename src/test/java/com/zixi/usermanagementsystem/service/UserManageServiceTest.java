@@ -0,0 +1,49 @@
+package com.zixi.usermanagementsystem.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.zixi.usermanagementsystem.common.PageResult;
+import com.zixi.usermanagementsystem.configuration.PaginationProperties;
+import com.zixi.usermanagementsystem.mapper.UserMapper;
+import com.zixi.usermanagementsystem.model.domain.User;
+import com.zixi.usermanagementsystem.model.request.UserQueryRequest;
+import com.zixi.usermanagementsystem.security.UserDetailsCache;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * UserManageService 分页单元测试
+ */
+class UserManageServiceTest {
+
+    /**
+     * 测试游标分页按配置的单页最大数量截断，LIMIT 为截断后的数量加一
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCursorPageSizeClampedToConfiguredMax() {
+        UserMapper userMapper = Mockito.mock(UserMapper.class);
+        when(userMapper.selectList(Mockito.any())).thenReturn(List.of());
+        PaginationProperties paginationProperties = new PaginationProperties();
+        paginationProperties.setMaxPageSize(50L);
+        UserManageService userManageService = new UserManageService(userMapper, Mockito.mock(UserDetailsCache.class),
+                Mockito.mock(PageTotalCache.class), Mockito.mock(ApplicationEventPublisher.class), paginationProperties);
+
+        UserQueryRequest request = new UserQueryRequest();
+        request.setCursorMode(true);
+        request.setPageSize(500L);
+        PageResult<User> result = userManageService.queryUserPage(request);
+
+        ArgumentCaptor<QueryWrapper<User>> wrapper = ArgumentCaptor.forClass(QueryWrapper.class);
+        verify(userMapper).selectList(wrapper.capture());
+        Assertions.assertTrue(wrapper.getValue().getSqlSegment().endsWith("LIMIT 51"));
+        Assertions.assertEquals(50L, result.getPageSize());
+    }
+}
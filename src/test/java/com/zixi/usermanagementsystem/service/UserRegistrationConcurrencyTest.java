@@ -0,0 +1,135 @@
+package com.zixi.usermanagementsystem.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.zixi.usermanagementsystem.exception.BusinessException;
+import com.zixi.usermanagementsystem.mapper.UserMapper;
+import com.zixi.usermanagementsystem.model.domain.User;
+import com.zixi.usermanagementsystem.model.request.UserRegisterRequest;
+import jakarta.annotation.Resource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * 并发注册压力测试（需要本地 MySQL，已执行 Flyway 迁移）
+ * 多个线程同时使用相同账号或手机号注册，唯一索引保证只有一个成功，其余得到原有的重复提示
+ */
+@SpringBootTest
+class UserRegistrationConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    @Resource
+    private UserAuthService userAuthService;
+
+    @Resource
+    private UserMapper userMapper;
+
+    @MockitoBean
+    private VerificationCodeService verificationCodeService;
+
+    private final List<String> accounts = new ArrayList<>();
+
+    private String suffix;
+
+    @BeforeEach
+    void setUp() {
+        when(verificationCodeService.checkCode(anyString(), anyString(), anyString())).thenReturn(true);
+        when(verificationCodeService.verifyCode(anyString(), anyString(), anyString())).thenReturn(true);
+        suffix = String.format("%06d", ThreadLocalRandom.current().nextInt(1_000_000));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (!accounts.isEmpty()) {
+            QueryWrapper<User> queryWrapper = new QueryWrapper<>();
+            queryWrapper.in("account", accounts);
+            userMapper.delete(queryWrapper);
+        }
+    }
+
+    /**
+     * 测试并发注册相同账号：只有一个成功
+     */
+    @Test
+    void testConcurrentSameAccount() throws Exception {
+        String account = "race" + suffix;
+        Map<String, AtomicInteger> outcomes = runConcurrently(i -> request(account, "139" + suffix + String.format("%02d", i)));
+
+        Assertions.assertEquals(1, outcomes.getOrDefault("success", new AtomicInteger()).get());
+        Assertions.assertEquals(THREADS - 1, outcomes.getOrDefault("用户账号已存在", new AtomicInteger()).get());
+    }
+
+    /**
+     * 测试并发使用相同手机号注册不同账号：只有一个成功
+     */
+    @Test
+    void testConcurrentSamePhone() throws Exception {
+        String phone = "138" + suffix + "00";
+        Map<String, AtomicInteger> outcomes = runConcurrently(i -> request("race" + suffix + i, phone));
+
+        Assertions.assertEquals(1, outcomes.getOrDefault("success", new AtomicInteger()).get());
+        Assertions.assertEquals(THREADS - 1, outcomes.getOrDefault("手机号已被注册", new AtomicInteger()).get());
+    }
+
+    private Map<String, AtomicInteger> runConcurrently(IntFunction<UserRegisterRequest> requestFactory) throws Exception {
+        Map<String, AtomicInteger> outcomes = new ConcurrentHashMap<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                UserRegisterRequest request = requestFactory.apply(i);
+                accounts.add(request.getAccount());
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    String outcome;
+                    try {
+                        userAuthService.register(request);
+                        outcome = "success";
+                    } catch (BusinessException e) {
+                        outcome = e.getDescription();
+                    }
+                    outcomes.computeIfAbsent(outcome, key -> new AtomicInteger()).incrementAndGet();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return outcomes;
+    }
+
+    private UserRegisterRequest request(String account, String phone) {
+        UserRegisterRequest request = new UserRegisterRequest();
+        request.setAccount(account);
+        request.setPassword("password123");
+        request.setCheckPassword("password123");
+        request.setPhone(phone);
+        request.setVerificationCode("123456");
+        return request;
+    }
+}
@@ -0,0 +1,75 @@
+package com.zixi.usermanagementsystem.service;
+
+import com.zixi.usermanagementsystem.common.ErrorCode;
+import com.zixi.usermanagementsystem.exception.BusinessException;
+import com.zixi.usermanagementsystem.model.domain.VerificationCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * VerificationCodeService 发送流程单元测试
+ */
+class VerificationCodeServiceTest {
+
+    private static final String PHONE = "13800138000";
+
+    private VerificationCodeStore verificationCodeStore;
+
+    private CodeDeliveryService codeDeliveryService;
+
+    private VerificationCodeService verificationCodeService;
+
+    @BeforeEach
+    void setUp() {
+        verificationCodeStore = Mockito.mock(VerificationCodeStore.class);
+        codeDeliveryService = Mockito.mock(CodeDeliveryService.class);
+        verificationCodeService = new VerificationCodeService();
+        ReflectionTestUtils.setField(verificationCodeService, "verificationCodeStore", verificationCodeStore);
+        ReflectionTestUtils.setField(verificationCodeService, "codeDeliveryService", codeDeliveryService);
+        ReflectionTestUtils.setField(verificationCodeService, "meterRegistry", new SimpleMeterRegistry());
+        when(verificationCodeStore.tryAcquireSendPermit(eq(PHONE), eq(VerificationCode.PURPOSE_REGISTER), any(Duration.class)))
+                .thenReturn(true);
+    }
+
+    /**
+     * 测试提交成功时保留验证码和发送间隔
+     */
+    @Test
+    void testSendKeepsCode() {
+        Assertions.assertTrue(verificationCodeService.sendRegisterCode(PHONE));
+
+        verify(codeDeliveryService).enqueue(eq(PHONE), eq(VerificationCode.TARGET_TYPE_PHONE), anyString());
+        verify(verificationCodeStore, never()).release(anyString(), anyString(), anyString());
+    }
+
+    /**
+     * 测试发送队列拒绝时撤销本次保存的验证码和发送间隔
+     */
+    @Test
+    void testRejectedSendReleasesCode() {
+        doThrow(new BusinessException(ErrorCode.SYSTEM_ERROR, "验证码发送繁忙，请稍后重试"))
+                .when(codeDeliveryService).enqueue(anyString(), anyString(), anyString());
+
+        Assertions.assertThrows(BusinessException.class, () -> verificationCodeService.sendRegisterCode(PHONE));
+
+        ArgumentCaptor<String> savedCode = ArgumentCaptor.forClass(String.class);
+        verify(verificationCodeStore).save(eq(PHONE), eq(VerificationCode.TARGET_TYPE_PHONE),
+                eq(VerificationCode.PURPOSE_REGISTER), savedCode.capture(), any(Duration.class));
+        verify(verificationCodeStore).release(PHONE, VerificationCode.PURPOSE_REGISTER, savedCode.getValue());
+    }
+}
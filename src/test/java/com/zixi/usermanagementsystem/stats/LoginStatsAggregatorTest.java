@@ -0,0 +1,149 @@
+package com.zixi.usermanagementsystem.stats;
+
+import com.zixi.usermanagementsystem.configuration.LoginStatsProperties;
+import com.zixi.usermanagementsystem.mapper.LoginStatsRollupMapper;
+import com.zixi.usermanagementsystem.model.domain.LoginHistory;
+import com.zixi.usermanagementsystem.model.domain.LoginStatsRollup;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * LoginStatsAggregator 单元测试
+ */
+class LoginStatsAggregatorTest {
+
+    private static final LocalDateTime LOGIN_TIME = LocalDateTime.of(2026, 10, 18, 10, 15, 30);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private LoginStatsProperties properties;
+
+    private LoginStatsRollupMapper rollupMapper;
+
+    private LoginStatsAggregator aggregator;
+
+    /**
+     * 模拟的汇总表，键为 粒度@时间桶
+     */
+    private final Map<String, LoginStatsRollup> rows = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        properties = new LoginStatsProperties();
+        rollupMapper = Mockito.mock(LoginStatsRollupMapper.class);
+        PlatformTransactionManager transactionManager = Mockito.mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(rollupMapper.selectForUpdate(anyString(), any(LocalDateTime.class))).thenAnswer(invocation ->
+                rows.computeIfAbsent(invocation.getArgument(0) + "@" + invocation.getArgument(1), key -> {
+                    LoginStatsRollup rollup = new LoginStatsRollup();
+                    rollup.setGranularity(invocation.getArgument(0));
+                    rollup.setBucketStart(invocation.getArgument(1));
+                    rollup.setSuccessCount(0L);
+                    rollup.setFailureCount(0L);
+                    return rollup;
+                }));
+        aggregator = new LoginStatsAggregator(properties, rollupMapper,
+                new TransactionTemplate(transactionManager), meterRegistry);
+    }
+
+    /**
+     * 测试记录累加到分钟和小时两个时间桶，并与汇总表中已有数据合并
+     */
+    @Test
+    void testFlushMergesIntoMinuteAndHourBuckets() {
+        LoginStatsRollup existingHour = new LoginStatsRollup();
+        existingHour.setSuccessCount(7L);
+        existingHour.setFailureCount(2L);
+        rows.put("HOUR@" + LOGIN_TIME.withMinute(0).withSecond(0), existingHour);
+
+        aggregator.record(history(LoginHistory.LOGIN_STATUS_SUCCESS, 1L, "10.0.0.1"));
+        aggregator.record(history(LoginHistory.LOGIN_STATUS_SUCCESS, 2L, "10.0.0.1"));
+        aggregator.record(history(LoginHistory.LOGIN_STATUS_FAILED, null, "10.0.0.9"));
+        aggregator.flush();
+
+        LoginStatsRollup minute = rows.get("MINUTE@" + LOGIN_TIME.withSecond(0));
+        Assertions.assertEquals(2L, minute.getSuccessCount());
+        Assertions.assertEquals(1L, minute.getFailureCount());
+        Assertions.assertEquals("10.0.0.9", minute.getTopFailedIps());
+        Assertions.assertEquals(9L, existingHour.getSuccessCount());
+        Assertions.assertEquals(3L, existingHour.getFailureCount());
+        verify(rollupMapper).insertIgnore("MINUTE", LOGIN_TIME.withSecond(0));
+        verify(rollupMapper).insertIgnore("HOUR", LOGIN_TIME.withMinute(0).withSecond(0));
+        verify(rollupMapper, times(2)).updateById(any(LoginStatsRollup.class));
+
+        // 已合并的增量不会重复写入
+        aggregator.flush();
+        verify(rollupMapper, times(2)).updateById(any(LoginStatsRollup.class));
+    }
+
+    /**
+     * 测试合并失败的增量放回内存，下次与新记录一起写入
+     */
+    @Test
+    void testFailedFlushIsRetried() {
+        doThrow(new RuntimeException("db down")).when(rollupMapper).updateById(any(LoginStatsRollup.class));
+        aggregator.record(history(LoginHistory.LOGIN_STATUS_FAILED, null, "10.0.0.9"));
+        aggregator.flush();
+        Assertions.assertEquals(2.0, meterRegistry.get("ums.login.stats.flush.failed").counter().count());
+
+        Mockito.reset(rollupMapper);
+        ArgumentCaptor<LoginStatsRollup> captor = ArgumentCaptor.forClass(LoginStatsRollup.class);
+        when(rollupMapper.selectForUpdate(anyString(), any(LocalDateTime.class))).thenAnswer(invocation -> {
+            LoginStatsRollup rollup = new LoginStatsRollup();
+            rollup.setGranularity(invocation.getArgument(0));
+            return rollup;
+        });
+        aggregator.record(history(LoginHistory.LOGIN_STATUS_FAILED, null, "10.0.0.9"));
+        aggregator.flush();
+
+        verify(rollupMapper, times(2)).updateById(captor.capture());
+        List<LoginStatsRollup> written = captor.getAllValues();
+        for (LoginStatsRollup rollup : written) {
+            Assertions.assertEquals(2L, rollup.getFailureCount());
+            Assertions.assertEquals(2L, LoginStatsBucket.fromRollup(rollup, 20).getTopFailedIps(1).get(0).failures());
+        }
+    }
+
+    /**
+     * 测试关闭时不统计
+     */
+    @Test
+    void testDisabled() {
+        properties.setEnabled(false);
+
+        aggregator.record(history(LoginHistory.LOGIN_STATUS_SUCCESS, 1L, "10.0.0.1"));
+        aggregator.flush();
+
+        verify(rollupMapper, never()).insertIgnore(anyString(), any(LocalDateTime.class));
+    }
+
+    private static LoginHistory history(int status, Long userId, String ip) {
+        LoginHistory history = new LoginHistory();
+        history.setUserId(userId);
+        history.setAccount("account" + userId);
+        history.setLoginTime(LOGIN_TIME);
+        history.setIpAddress(ip);
+        history.setLoginStatus(status);
+        return history;
+    }
+}
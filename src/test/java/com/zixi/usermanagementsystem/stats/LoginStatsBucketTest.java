@@ -0,0 +1,131 @@
+package com.zixi.usermanagementsystem.stats;
+
+import com.zixi.usermanagementsystem.model.domain.LoginHistory;
+import com.zixi.usermanagementsystem.model.domain.LoginStatsRollup;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+/**
+ * LoginStatsBucket 单元测试
+ */
+class LoginStatsBucketTest {
+
+    /**
+     * 测试登录成功的不同用户数估计误差
+     */
+    @Test
+    void testDistinctUsersEstimate() {
+        LoginStatsBucket bucket = new LoginStatsBucket(20);
+        for (long userId = 1; userId <= 100; userId++) {
+            bucket.record(success(userId));
+            bucket.record(success(userId));
+        }
+        Assertions.assertEquals(200, bucket.getSuccessCount());
+        Assertions.assertTrue(Math.abs(bucket.getDistinctUsers() - 100) <= 3, "estimate=" + bucket.getDistinctUsers());
+
+        for (long userId = 101; userId <= 50000; userId++) {
+            bucket.record(success(userId));
+        }
+        long estimate = bucket.getDistinctUsers();
+        Assertions.assertTrue(Math.abs(estimate - 50000) <= 50000 * 0.07, "estimate=" + estimate);
+    }
+
+    /**
+     * 测试失败次数最高的 IP：计数不低估，被大量低频 IP 冲刷后仍保留高频 IP
+     */
+    @Test
+    void testTopFailedIps() {
+        LoginStatsBucket bucket = new LoginStatsBucket(5);
+        for (int i = 0; i < 300; i++) {
+            bucket.record(failure("10.0.0.1"));
+            if (i % 2 == 0) {
+                bucket.record(failure("10.0.0.2"));
+            }
+            bucket.record(failure("192.168." + (i % 100) + ".1"));
+        }
+
+        List<FailedIpCount> top = bucket.getTopFailedIps(2);
+        Assertions.assertEquals(750, bucket.getFailureCount());
+        Assertions.assertEquals(2, top.size());
+        Assertions.assertEquals("10.0.0.1", top.get(0).ip());
+        Assertions.assertTrue(top.get(0).failures() >= 300);
+        Assertions.assertEquals("10.0.0.2", top.get(1).ip());
+        Assertions.assertTrue(top.get(1).failures() >= 150);
+    }
+
+    /**
+     * 测试分开统计再合并与一次性统计结果相同
+     */
+    @Test
+    void testMergeEqualsSingleBucket() {
+        LoginStatsBucket single = new LoginStatsBucket(10);
+        LoginStatsBucket left = new LoginStatsBucket(10);
+        LoginStatsBucket right = new LoginStatsBucket(10);
+        for (int i = 0; i < 1000; i++) {
+            LoginHistory history = i % 4 == 0 ? failure("10.0.0." + (i % 7)) : success(i % 300);
+            single.record(history);
+            (i % 2 == 0 ? left : right).record(history);
+        }
+
+        left.merge(right);
+
+        Assertions.assertEquals(single.getSuccessCount(), left.getSuccessCount());
+        Assertions.assertEquals(single.getFailureCount(), left.getFailureCount());
+        Assertions.assertEquals(single.getDistinctUsers(), left.getDistinctUsers());
+        Assertions.assertEquals(single.getTopFailedIps(5), left.getTopFailedIps(5));
+    }
+
+    /**
+     * 测试写入汇总表记录后还原
+     */
+    @Test
+    void testRollupRoundTrip() {
+        LoginStatsBucket bucket = new LoginStatsBucket(5);
+        for (int i = 0; i < 50; i++) {
+            bucket.record(success(i));
+            bucket.record(failure("10.0.0." + (i % 3)));
+        }
+
+        LoginStatsRollup rollup = new LoginStatsRollup();
+        bucket.writeTo(rollup);
+        LoginStatsBucket restored = LoginStatsBucket.fromRollup(rollup, 5);
+
+        Assertions.assertEquals(50, restored.getSuccessCount());
+        Assertions.assertEquals(50, restored.getFailureCount());
+        Assertions.assertEquals(bucket.getDistinctUsers(), restored.getDistinctUsers());
+        Assertions.assertEquals(bucket.getTopFailedIps(5), restored.getTopFailedIps(5));
+    }
+
+    /**
+     * 测试空汇总记录还原为空统计
+     */
+    @Test
+    void testEmptyRollup() {
+        LoginStatsRollup rollup = new LoginStatsRollup();
+        rollup.setSuccessCount(0L);
+        rollup.setFailureCount(0L);
+
+        LoginStatsBucket restored = LoginStatsBucket.fromRollup(rollup, 5);
+
+        Assertions.assertEquals(0, restored.getDistinctUsers());
+        Assertions.assertTrue(restored.getTopFailedIps(5).isEmpty());
+    }
+
+    private static LoginHistory success(long userId) {
+        LoginHistory history = new LoginHistory();
+        history.setUserId(userId);
+        history.setAccount("account" + userId);
+        history.setLoginStatus(LoginHistory.LOGIN_STATUS_SUCCESS);
+        return history;
+    }
+
+    private static LoginHistory failure(String ip) {
+        LoginHistory history = new LoginHistory();
+        history.setAccount("unknown");
+        history.setIpAddress(ip);
+        history.setLoginStatus(LoginHistory.LOGIN_STATUS_FAILED);
+        return history;
+    }
+}
@@ -0,0 +1,25 @@
+package com.zixi.usermanagementsystem.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+/**
+ * RequestUtils 单元测试
+ */
+class RequestUtilsTest {
+
+    /**
+     * 测试客户端伪造的转发头不影响客户端IP
+     */
+    @Test
+    void testForgedForwardedHeadersIgnored() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("203.0.113.7");
+        request.addHeader("X-Forwarded-For", "1.2.3.4");
+        request.addHeader("Proxy-Client-IP", "5.6.7.8");
+        request.addHeader("WL-Proxy-Client-IP", "9.10.11.12");
+
+        Assertions.assertEquals("203.0.113.7", RequestUtils.getClientIp(request));
+    }
+}